@@ -4,8 +4,10 @@ import static org.basex.core.Text.*;
 
 import java.io.*;
 import java.net.*;
+import java.nio.channels.*;
 import java.util.*;
 import java.util.Map.*;
+import java.util.concurrent.*;
 
 import org.basex.api.client.*;
 import org.basex.core.*;
@@ -24,8 +26,16 @@ import org.basex.util.*;
  * @author Andreas Weiler
  */
 public final class BaseXServer extends CLI implements Runnable {
-  /** New sessions. */
-  private final HashSet<ClientListener> authorizing = new HashSet<>();
+  /** New sessions, with their authentication timeouts. */
+  private final HashMap<ClientListener, ScheduledFuture<?>> authorizing = new HashMap<>();
+  /** Timeout scheduler, shared by all sessions. */
+  private final ScheduledThreadPoolExecutor timeouts = new ScheduledThreadPoolExecutor(1, r -> {
+    final Thread thread = new Thread(r, "ClientTimeout");
+    thread.setDaemon(true);
+    return thread;
+  });
+  /** Selector for idle sessions ({@code null} if one thread is created per session). */
+  private ClientSelector selector;
   /** Indicates if server is running. */
   private volatile boolean running;
   /** Indicates if server is to be stopped. */
@@ -102,7 +112,12 @@ public final class BaseXServer extends CLI implements Runnable {
     }
 
     try {
-      socket = new ServerSocket();
+      if(sopts.get(StaticOptions.SERVERNIO)) {
+        socket = ServerSocketChannel.open().socket();
+        selector = new ClientSelector();
+      } else {
+        socket = new ServerSocket();
+      }
       socket.setReuseAddress(true);
       socket.bind(new InetSocketAddress(addr, port));
       stopFile = stopFile(getClass(), port);
@@ -118,6 +133,8 @@ public final class BaseXServer extends CLI implements Runnable {
       throw new BaseXException(ex.getLocalizedMessage());
     }
 
+    timeouts.setRemoveOnCancelPolicy(true);
+    if(selector != null) new Thread(selector, "ClientSelector").start();
     new Thread(this).start();
 
     // show info that server has been started
@@ -155,15 +172,17 @@ public final class BaseXServer extends CLI implements Runnable {
           // create client listener, stop authentication after timeout
           final ClientListener cl = new ClientListener(s, context, this);
           if(ka > 0) {
-            cl.timeout.schedule(new TimerTask() {
-              @Override
-              public void run() {
-                cl.close();
-              }
-            }, ka);
-            authorizing.add(cl);
+            synchronized(authorizing) {
+              authorizing.put(cl, timeouts.schedule(cl::close, ka, TimeUnit.MILLISECONDS));
+            }
+          }
+          if(selector != null) {
+            selector.add(cl);
+          } else {
+            final Thread thread = new Thread(cl);
+            thread.setDaemon(true);
+            thread.start();
           }
-          cl.start();
         }
       } catch(final SocketException ex) {
         Util.debug(ex);
@@ -194,11 +213,17 @@ public final class BaseXServer extends CLI implements Runnable {
   private synchronized void close() {
     if(!running) return;
 
-    for(final ClientListener cl : authorizing) {
+    final ArrayList<ClientListener> clients;
+    synchronized(authorizing) {
+      clients = new ArrayList<>(authorizing.keySet());
+    }
+    for(final ClientListener cl : clients) {
       remove(cl);
       cl.close();
     }
     context.sessions.close();
+    if(selector != null) selector.close();
+    timeouts.shutdownNow();
 
     try {
       // close interactive input if server was stopped by another process
@@ -349,8 +374,8 @@ public final class BaseXServer extends CLI implements Runnable {
    */
   public void remove(final ClientListener client) {
     synchronized(authorizing) {
-      client.timeout.cancel();
-      authorizing.remove(client);
+      final ScheduledFuture<?> timeout = authorizing.remove(client);
+      if(timeout != null) timeout.cancel(false);
     }
   }
 }
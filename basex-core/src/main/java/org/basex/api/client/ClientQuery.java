@@ -1,6 +1,7 @@
 package org.basex.api.client;
 
 import java.io.*;
+import java.util.concurrent.*;
 
 import org.basex.api.dom.*;
 import org.basex.core.*;
@@ -59,7 +60,153 @@ public class ClientQuery extends Query {
   @Override
   public void bind(final String name, final Object value, final String type) throws IOException {
     cache = null;
+    cs.exec(name == null ? ServerCmd.CONTEXT : ServerCmd.BIND, binding(name, value, type), null);
+  }
+
+  /**
+   * Binds a value to an external variable without waiting for the result.
+   * @param name name of variable
+   * @param value value to be bound
+   * @param type type (may be {@code null})
+   * @return future
+   * @throws IOException I/O exception
+   */
+  public CompletableFuture<String> bindAsync(final String name, final Object value,
+      final String type) throws IOException {
+    cache = null;
+    return cs.async(name == null ? ServerCmd.CONTEXT : ServerCmd.BIND, null,
+        binding(name, value, type));
+  }
+
+  @Override
+  public void context(final Object value, final String type) throws IOException {
+    bind(null, value, type);
+  }
+
+  @Override
+  public String execute() throws IOException {
+    return cs.exec(ServerCmd.EXEC, id, out);
+  }
+
+  /**
+   * Executes the query without waiting for the result.
+   * The result is returned as string, even if an output stream has been assigned.
+   * @return future, containing the result string
+   * @throws IOException I/O exception
+   */
+  public CompletableFuture<String> executeAsync() throws IOException {
+    return cs.async(ServerCmd.EXEC, null, id);
+  }
+
+  /**
+   * Executes the query and returns the serialized result as stream. The result is sent by the
+   * server in chunks of a bounded size, and it is read from the socket while the stream is
+   * consumed. As the server waits as long as the client does not read any data, large results
+   * can be processed with constant memory on both sides.
+   * The stream must be closed before the session is used again; otherwise, the remaining
+   * result will be skipped.
+   * @return input stream
+   * @throws IOException I/O exception
+   */
+  public InputStream stream() throws IOException {
+    cs.sync();
+    cs.sout.write(ServerCmd.STREAM.code);
+    cs.send(id);
+    cs.sout.flush();
+    final ResultStream stream = new ResultStream(BufferInput.get(cs.sin));
+    cs.stream = stream;
+    return stream;
+  }
+
+  @Override
+  public void close() throws IOException {
+    cs.exec(ServerCmd.CLOSE, id, null);
+  }
+
+  @Override
+  public void cache(final boolean full) throws IOException {
+    cs.sync();
+    cs.sout.write((full ? ServerCmd.FULL : ServerCmd.RESULTS).code);
+    cs.send(id);
+    cs.sout.flush();
+
+    final BufferInput bi = BufferInput.get(cs.sin);
+    cache(bi, full);
+    if(!ClientSession.ok(bi)) throw new BaseXException(bi.readString());
+  }
 
+  /** Stream with the chunked result of a query. */
+  private static final class ResultStream extends InputStream {
+    /** Server input. */
+    private final BufferInput input;
+    /** Chunked input. */
+    private final ChunkInput chunks;
+    /** Indicates if the result has been completely read. */
+    private boolean finished;
+
+    /**
+     * Constructor.
+     * @param input server input
+     */
+    private ResultStream(final BufferInput input) {
+      this.input = input;
+      chunks = new ChunkInput(input);
+    }
+
+    @Override
+    public int read() throws IOException {
+      final int b = chunks.read();
+      if(b == -1) finish();
+      return b;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+      final int r = chunks.read(b, off, len);
+      if(r == -1) finish();
+      return r;
+    }
+
+    @Override
+    public int available() throws IOException {
+      return chunks.available();
+    }
+
+    @Override
+    public void close() throws IOException {
+      if(finished) return;
+      chunks.flush();
+      try {
+        finish();
+      } catch(final BaseXException ex) {
+        // ignore errors that occurred after the last consumed byte
+        Util.debug(ex);
+      }
+    }
+
+    /**
+     * Reads the success flag after the last chunk.
+     * @throws IOException I/O exception
+     */
+    private void finish() throws IOException {
+      if(finished) return;
+      finished = true;
+      // receive 0 as end marker and the success flag
+      input.read();
+      if(!ClientSession.ok(input)) throw new BaseXException(input.readString());
+    }
+  }
+
+  /**
+   * Returns the server arguments for binding a value.
+   * @param name name of variable ({@code null} for context value)
+   * @param value value to be bound
+   * @param type type (may be {@code null})
+   * @return arguments
+   * @throws IOException I/O exception
+   */
+  private String binding(final String name, final Object value, final String type)
+      throws IOException {
     final Object vl = value instanceof BXNode ? ((BXNode) value).getNode() : value;
     String t = type == null ? "" : type;
     final String v;
@@ -87,34 +234,7 @@ public class ClientQuery extends Query {
       v = value.toString();
     }
 
-    final ServerCmd cmd = name == null ? ServerCmd.CONTEXT : ServerCmd.BIND;
     final String n = name == null ? "" : name + '\0';
-    cs.exec(cmd, id + '\0' + n + v + '\0' + t, null);
-  }
-
-  @Override
-  public void context(final Object value, final String type) throws IOException {
-    bind(null, value, type);
-  }
-
-  @Override
-  public String execute() throws IOException {
-    return cs.exec(ServerCmd.EXEC, id, out);
-  }
-
-  @Override
-  public void close() throws IOException {
-    cs.exec(ServerCmd.CLOSE, id, null);
-  }
-
-  @Override
-  public void cache(final boolean full) throws IOException {
-    cs.sout.write((full ? ServerCmd.FULL : ServerCmd.RESULTS).code);
-    cs.send(id);
-    cs.sout.flush();
-
-    final BufferInput bi = BufferInput.get(cs.sin);
-    cache(bi, full);
-    if(!ClientSession.ok(bi)) throw new BaseXException(bi.readString());
+    return id + '\0' + n + v + '\0' + t;
   }
 }
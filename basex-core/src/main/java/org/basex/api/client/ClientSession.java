@@ -2,6 +2,8 @@ package org.basex.api.client;
 
 import java.io.*;
 import java.net.*;
+import java.util.*;
+import java.util.concurrent.*;
 
 import org.basex.core.*;
 import org.basex.core.parse.Commands.Cmd;
@@ -25,6 +27,13 @@ import org.basex.util.*;
  * command to the server.</li>
  * </ul>
  *
+ * The asynchronous methods ({@link #executeAsync(String)}, {@link #addAsync}, ...) send requests
+ * without waiting for the results of previous requests. Each request is prefixed with a
+ * correlation id, which is returned by the server along with the response. Results are read by
+ * a separate thread, and the returned futures are completed in the order of the requests.
+ * Synchronous methods wait until all pending results have been received. Future callbacks are
+ * run by the reader thread; they must not call synchronous methods of the same session.
+ *
  * @author BaseX Team 2005-22, BSD License
  * @author Christian Gruen
  */
@@ -36,6 +45,14 @@ public class ClientSession extends Session {
 
   /** Socket reference. */
   private final Socket socket;
+  /** Pending asynchronous requests. */
+  private final ArrayDeque<Pending> pending = new ArrayDeque<>();
+  /** Reader thread for asynchronous results ({@code null} if no results are pending). */
+  private Thread reader;
+  /** Correlation id counter. */
+  private int cid;
+  /** Stream with a query result (can be {@code null}). */
+  Closeable stream;
 
   /**
    * Constructor, specifying login data.
@@ -148,13 +165,75 @@ public class ClientSession extends Session {
     return new ClientQuery(query, this, out);
   }
 
+  /**
+   * Sends a command without waiting for the result.
+   * @param command command to be parsed
+   * @return future, containing the result string
+   * @throws IOException I/O exception
+   */
+  public CompletableFuture<String> executeAsync(final String command) throws IOException {
+    return async(ServerCmd.COMMAND, null, command);
+  }
+
+  /**
+   * Sends a command without waiting for the result.
+   * @param command command to be executed
+   * @return future, containing the result string
+   * @throws IOException I/O exception
+   */
+  public CompletableFuture<String> executeAsync(final Command command) throws IOException {
+    return executeAsync(command.toString());
+  }
+
+  /**
+   * Adds a document to the opened database without waiting for the result.
+   * @param path target path
+   * @param input xml input
+   * @return future, containing the command info
+   * @throws IOException I/O exception
+   */
+  public CompletableFuture<String> addAsync(final String path, final InputStream input)
+      throws IOException {
+    return async(ServerCmd.ADD, input, path);
+  }
+
+  /**
+   * Puts (adds or replaces) a document in the opened database without waiting for the result.
+   * @param path target path
+   * @param input xml input
+   * @return future, containing the command info
+   * @throws IOException I/O exception
+   */
+  public CompletableFuture<String> putAsync(final String path, final InputStream input)
+      throws IOException {
+    return async(ServerCmd.PUT, input, path);
+  }
+
+  /**
+   * Puts (adds or replaces) a binary resource in the opened database without waiting for
+   * the result.
+   * @param path target path
+   * @param input binary input
+   * @return future, containing the command info
+   * @throws IOException I/O exception
+   */
+  public CompletableFuture<String> putBinaryAsync(final String path, final InputStream input)
+      throws IOException {
+    return async(ServerCmd.PUTBINARY, input, path);
+  }
+
   @Override
   public synchronized void close() throws IOException {
-    socket.close();
+    try {
+      sync();
+    } finally {
+      socket.close();
+    }
   }
 
   @Override
   protected void execute(final String command, final OutputStream output) throws IOException {
+    sync();
     send(command);
     sout.flush();
     receive(output);
@@ -210,6 +289,7 @@ public class ClientSession extends Session {
   private void send(final ServerCmd command, final InputStream input, final String... args)
       throws IOException {
 
+    sync();
     sout.write(command.code);
     for(final String arg : args) send(arg);
     send(input);
@@ -247,6 +327,7 @@ public class ClientSession extends Session {
   String exec(final ServerCmd command, final String arg, final OutputStream output)
       throws IOException {
 
+    sync();
     final OutputStream o = output == null ? new ArrayOutput() : output;
     sout.write(command.code);
     send(arg);
@@ -257,8 +338,166 @@ public class ClientSession extends Session {
     return o.toString();
   }
 
+  /**
+   * Sends a request without waiting for the result.
+   * @param command server command
+   * @param input input stream (can be {@code null})
+   * @param args string arguments
+   * @return future, containing the result or the command info
+   * @throws IOException I/O exception
+   */
+  CompletableFuture<String> async(final ServerCmd command, final InputStream input,
+      final String... args) throws IOException {
+
+    skip();
+    synchronized(sout) {
+      final Pending request = new Pending(Integer.toString(++cid), command);
+      synchronized(pending) {
+        pending.add(request);
+        if(reader == null) {
+          reader = new Thread(this::receive, "ClientReader");
+          reader.setDaemon(true);
+          reader.start();
+        }
+      }
+      // send {TAG}{ID}0, followed by the request
+      sout.write(ServerCmd.TAG.code);
+      send(request.id);
+      if(command != ServerCmd.COMMAND) sout.write(command.code);
+      for(final String arg : args) send(arg);
+      if(input != null) {
+        final ServerOutput so = new ServerOutput(sout);
+        for(int b; (b = input.read()) != -1;) so.write(b);
+        sout.write(0);
+      }
+      sout.flush();
+      return request.future;
+    }
+  }
+
+  /**
+   * Waits until the results of all asynchronous requests have been received, and skips the
+   * remaining result of a streamed query.
+   * @throws IOException I/O exception
+   */
+  void sync() throws IOException {
+    skip();
+    synchronized(pending) {
+      try {
+        while(reader != null) pending.wait();
+      } catch(final InterruptedException ex) {
+        throw new BaseXException(ex);
+      }
+    }
+  }
+
+  /**
+   * Skips the remaining result of a streamed query.
+   * @throws IOException I/O exception
+   */
+  private void skip() throws IOException {
+    if(stream != null) {
+      final Closeable s = stream;
+      stream = null;
+      s.close();
+    }
+  }
+
+  /**
+   * Receives the results of asynchronous requests.
+   */
+  private void receive() {
+    final BufferInput bi = BufferInput.get(sin);
+    while(true) {
+      final Pending request;
+      synchronized(pending) {
+        request = pending.peek();
+        if(request == null) {
+          reader = null;
+          pending.notifyAll();
+          return;
+        }
+      }
+      String result = null;
+      IOException error = null;
+      try {
+        // receive {ID}0
+        final String id = bi.readString();
+        if(!id.equals(request.id)) throw new IOException("Unexpected correlation id: " + id);
+        result = receive(request.command, bi);
+      } catch(final BaseXException ex) {
+        error = ex;
+      } catch(final IOException ex) {
+        // connection is broken: cancel all pending requests
+        synchronized(pending) {
+          for(final Pending p : pending) p.future.completeExceptionally(ex);
+          pending.clear();
+          reader = null;
+          pending.notifyAll();
+        }
+        return;
+      }
+      synchronized(pending) {
+        pending.poll();
+      }
+      if(error != null) request.future.completeExceptionally(error);
+      else request.future.complete(result);
+    }
+  }
+
+  /**
+   * Receives the response to a request.
+   * @param command server command
+   * @param bi buffered server input
+   * @return result or command info
+   * @throws IOException I/O exception
+   */
+  private String receive(final ServerCmd command, final BufferInput bi) throws IOException {
+    // documents: {INFO}0{FLAG}
+    if(command == ServerCmd.CREATE || command == ServerCmd.ADD || command == ServerCmd.PUT ||
+        command == ServerCmd.PUTBINARY) {
+      final String inf = bi.readString();
+      if(!ok(bi)) throw new BaseXException(inf);
+      info = inf;
+      return inf;
+    }
+
+    final ArrayOutput ao = new ArrayOutput();
+    receive(bi, ao);
+    if(command == ServerCmd.COMMAND) {
+      // commands: {RESULT}0{INFO}0{FLAG}
+      final String inf = bi.readString();
+      if(!ok(bi)) throw new BaseXException(inf);
+      info = inf;
+    } else if(!ok(bi)) {
+      // queries: {RESULT}0{FLAG}, {ERROR}0
+      throw new BaseXException(bi.readString());
+    }
+    return ao.toString();
+  }
+
   @Override
   public String toString() {
     return Prop.PROJECT + ":/" + socket.getLocalAddress() + ':' + socket.getPort();
   }
+
+  /** Pending asynchronous request. */
+  private static final class Pending {
+    /** Correlation id. */
+    private final String id;
+    /** Server command. */
+    private final ServerCmd command;
+    /** Future. */
+    private final CompletableFuture<String> future = new CompletableFuture<>();
+
+    /**
+     * Constructor.
+     * @param id correlation id
+     * @param command server command
+     */
+    private Pending(final String id, final ServerCmd command) {
+      this.id = id;
+      this.command = command;
+    }
+  }
 }
@@ -4,13 +4,17 @@ import static org.basex.core.Text.*;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.regex.*;
 import java.util.zip.*;
 
 import org.basex.core.*;
 import org.basex.core.MainOptions.MainParser;
+import org.basex.data.*;
 import org.basex.io.*;
 import org.basex.io.in.*;
+import org.basex.io.serial.*;
+import org.basex.query.value.node.*;
 import org.basex.util.*;
 import org.basex.util.list.*;
 
@@ -18,6 +22,9 @@ import org.basex.util.list.*;
  * This class recursively scans files and directories and parses all
  * relevant files.
  *
+ * If {@link MainOptions#PARALLELPARSE} is greater than 1, files are parsed concurrently into
+ * main-memory instances. The instances are passed on to the builder in document order.
+ *
  * @author BaseX Team 2005-22, BSD License
  * @author Christian Gruen
  */
@@ -45,6 +52,13 @@ public final class DirParser extends Parser {
   private final boolean binaryParser;
   /** Archive name. */
   private final boolean archiveName;
+  /** Number of parser threads. */
+  private final int threads;
+
+  /** Documents that are currently parsed in parallel. */
+  private final ArrayDeque<Doc> docs = new ArrayDeque<>();
+  /** Thread pool for parsing documents in parallel (can be {@code null}). */
+  private ExecutorService pool;
 
   /** Last source. */
   private IO lastSrc;
@@ -75,6 +89,7 @@ public final class DirParser extends Parser {
     addBinary = options.get(MainOptions.ADDRAW);
     dtd = options.get(MainOptions.DTD);
     binaryParser = options.get(MainOptions.PARSER) == MainParser.RAW;
+    threads = options.get(MainOptions.PARALLELPARSE);
     filter = !isDir && !source.isArchive() ? null :
       Pattern.compile(IOFile.regex(options.get(MainOptions.CREATEFILTER)));
   }
@@ -83,7 +98,19 @@ public final class DirParser extends Parser {
   public void parse(final Builder build) throws IOException {
     build.meta.inputsize = 0;
     build.meta.original = original;
-    parse(build, source);
+    if(threads > 1) {
+      pool = Executors.newFixedThreadPool(threads);
+      try {
+        parse(build, source);
+        while(!docs.isEmpty()) add(build);
+      } finally {
+        pool.shutdownNow();
+        pool = null;
+        docs.clear();
+      }
+    } else {
+      parse(build, source);
+    }
   }
 
   /**
@@ -179,6 +206,9 @@ public final class DirParser extends Parser {
     if(include ? binaryParser : addBinary) {
       // store input in binary format if binary parser was chosen, or if file was included otherwise
       builder.binary(targ + name, source);
+    } else if(include && pool != null) {
+      // parse input in parallel
+      submit(builder, targ);
     } else if(include) {
       // store input as XML
       boolean ok = true;
@@ -216,6 +246,50 @@ public final class DirParser extends Parser {
     if(Prop.debug && (++resources & 0x3FF) == 0) Util.err(";");
   }
 
+  /**
+   * Parses the current source in a separate thread.
+   * @param builder builder instance
+   * @param targ target path
+   * @throws IOException I/O exception
+   */
+  private void submit(final Builder builder, final String targ) throws IOException {
+    // entries of archives must be read before the next entry is requested
+    final IO in;
+    if(source instanceof IOStream) {
+      in = new IOContent(source.read());
+      in.name(source.name());
+    } else {
+      in = source;
+    }
+    docs.add(new Doc(source.path(), pool.submit(() -> {
+      try {
+        return MemBuilder.build("", Parser.singleParser(in, options, targ));
+      } catch(final IOException ex) {
+        if(!skipCorrupt) throw ex;
+        Util.debug(ex);
+        return null;
+      }
+    })));
+    // limit number of parsed documents that have not been added yet
+    while(docs.size() > threads << 1) add(builder);
+  }
+
+  /**
+   * Waits until the first pending document has been parsed and adds it to the builder.
+   * @param builder builder instance
+   * @throws IOException I/O exception
+   */
+  private void add(final Builder builder) throws IOException {
+    final Doc doc = docs.poll();
+    final MemData data = Util.get(doc.data);
+    if(data == null) {
+      skipped.add(doc.path);
+    } else {
+      builder.checkStop();
+      new BuilderSerializer(builder).serialize(new DBNode(data, 0));
+    }
+  }
+
   @Override
   public String info() {
     final TokenBuilder tb = new TokenBuilder();
@@ -249,4 +323,22 @@ public final class DirParser extends Parser {
   public void close() throws IOException {
     if(parser != null) parser.close();
   }
+
+  /** Document that is parsed in parallel. */
+  private static final class Doc {
+    /** Original path. */
+    final String path;
+    /** Main-memory instance ({@code null} if the document was skipped). */
+    final Future<MemData> data;
+
+    /**
+     * Constructor.
+     * @param path original path
+     * @param data main-memory instance
+     */
+    Doc(final String path, final Future<MemData> data) {
+      this.path = path;
+      this.data = data;
+    }
+  }
 }
@@ -93,6 +93,12 @@ public final class DiskBuilder extends Builder {
       }
       tmpFile.delete();
 
+      // compress texts and attribute values
+      if(meta.compression) {
+        DataAccess.compress(meta.dbFile(DATATXT), meta.dbFile(DATATXC));
+        DataAccess.compress(meta.dbFile(DATAATV), meta.dbFile(DATAATC));
+      }
+
       // return database instance. build will be finalized when this instance is closed
       meta.dirty = true;
       return new DiskData(meta, elemNames, attrNames, path, nspaces);
@@ -7,6 +7,7 @@ import org.basex.core.locks.*;
 import org.basex.core.users.*;
 import org.basex.data.*;
 import org.basex.io.random.*;
+import org.basex.query.*;
 import org.basex.query.util.pkg.*;
 import org.basex.query.value.seq.*;
 import org.basex.server.*;
@@ -47,6 +48,8 @@ public final class Context {
   public final Locking locking;
   /** Key/value store. */
   public final Store store;
+  /** Compiled queries. */
+  public final QueryCache queries;
 
   /** External objects (HTTP context, HTTP requests). */
   private final HashSet<Object> external;
@@ -114,6 +117,7 @@ public final class Context {
     log = ctx.log;
     jobs = ctx.jobs;
     store = ctx.store;
+    queries = ctx.queries;
     external = new HashSet<>(ctx.external);
   }
 
@@ -136,6 +140,7 @@ public final class Context {
     jobs = new JobPool(soptions);
     external = new HashSet<>();
     store = new Store(this);
+    queries = new QueryCache();
     client = null;
   }
 
@@ -166,6 +171,7 @@ public final class Context {
     store.close();
     jobs.close();
     sessions.close();
+    queries.close();
     datas.close();
     log.close();
     closeDB();
@@ -51,6 +51,8 @@ public final class MainOptions extends Options {
   /** Define import parser. */
   public static final EnumOption<MainParser> PARSER =
       new EnumOption<>("PARSER", MainParser.XML);
+  /** Number of threads for parsing the files of a directory. */
+  public static final NumberOption PARALLELPARSE = new NumberOption("PARALLELPARSE", 1);
 
   // XML Parsing
 
@@ -91,6 +93,8 @@ public final class MainOptions extends Options {
   public static final StringOption TOKENINCLUDE = new StringOption("TOKENINCLUDE", "");
   /** Full-text index: names to include. */
   public static final StringOption FTINCLUDE = new StringOption("FTINCLUDE", "");
+  /** Paths of elements and attributes to be indexed by path indexes. */
+  public static final StringOption PATHINDEXES = new StringOption("PATHINDEXES", "");
 
   /** Maximum length of index entries. */
   public static final NumberOption MAXLEN = new NumberOption("MAXLEN", 96);
@@ -100,6 +104,10 @@ public final class MainOptions extends Options {
   public static final BooleanOption UPDINDEX = new BooleanOption("UPDINDEX", false);
   /** Flag for automatic index updates. */
   public static final BooleanOption AUTOOPTIMIZE = new BooleanOption("AUTOOPTIMIZE", false);
+  /** Flag for compressing texts and attribute values. */
+  public static final BooleanOption COMPRESSION = new BooleanOption("COMPRESSION", false);
+  /** Number of threads for building index structures. */
+  public static final NumberOption PARALLELINDEX = new NumberOption("PARALLELINDEX", 1);
   /** Index split size. */
   public static final NumberOption SPLITSIZE = new NumberOption("SPLITSIZE", 0);
 
@@ -128,6 +136,8 @@ public final class MainOptions extends Options {
   public static final NumberOption INLINELIMIT = new NumberOption("INLINELIMIT", 50);
   /** Limit for unrolling loops. */
   public static final NumberOption UNROLLLIMIT = new NumberOption("UNROLLLIMIT", 5);
+  /** Minimum number of iterations for evaluating for clauses in parallel (0: disabled). */
+  public static final NumberOption PARALLELFOR = new NumberOption("PARALLELFOR", 0);
   /** Flag for tail-call optimization. */
   public static final NumberOption TAILCALLS = new NumberOption("TAILCALLS", 256);
   /** Look up documents in databases. */
@@ -140,6 +150,9 @@ public final class MainOptions extends Options {
   public static final BooleanOption CHECKSTRINGS = new BooleanOption("CHECKSTRINGS", true);
   /** Levenshtein default error. */
   public static final NumberOption LSERROR = new NumberOption("LSERROR", 0);
+  /** Scoring model for full-text index requests. */
+  public static final EnumOption<FTScoringModel> FTSCORING =
+      new EnumOption<>("FTSCORING", FTScoringModel.DEFAULT);
   /** Runs the query results, or only parses it. */
   public static final BooleanOption RUNQUERY = new BooleanOption("RUNQUERY", true);
   /** Number of query executions. */
@@ -182,14 +195,15 @@ public final class MainOptions extends Options {
   /** Indexing options. */
   public static final Option<?>[] INDEXING = { MAXCATS, MAXLEN, SPLITSIZE, LANGUAGE, STOPWORDS,
     TEXTINDEX, ATTRINDEX, TOKENINDEX, FTINDEX, TEXTINCLUDE, ATTRINCLUDE, TOKENINCLUDE, FTINCLUDE,
-    STEMMING, CASESENS, DIACRITICS, UPDINDEX, AUTOOPTIMIZE };
+    PATHINDEXES, STEMMING, CASESENS, DIACRITICS, UPDINDEX, AUTOOPTIMIZE, COMPRESSION };
 
   /** XML Parsing options. */
   private static final Option<?>[] XMLPARSING = { INTPARSE, STRIPWS, STRIPNS, DTD, XINCLUDE,
       CATALOG };
   /** Extended parsing options. */
   public static final Option<?>[] EXTPARSING = { CREATEFILTER, ADDARCHIVES, ARCHIVENAME,
-      SKIPCORRUPT, ADDRAW, ADDCACHE, CSVPARSER, TEXTPARSER, JSONPARSER, HTMLPARSER, PARSER };
+      SKIPCORRUPT, ADDRAW, ADDCACHE, CSVPARSER, TEXTPARSER, JSONPARSER, HTMLPARSER, PARSER,
+      PARALLELPARSE };
   /** All parsing options. */
   public static final Option<?>[] PARSING = Stream.concat(Stream.of(XMLPARSING),
       Stream.of(EXTPARSING)).toArray(Option<?>[]::new);
@@ -209,6 +223,17 @@ public final class MainOptions extends Options {
     }
   }
 
+  /** Full-text scoring models. */
+  public enum FTScoringModel {
+    /** DEFAULT. */ DEFAULT,
+    /** BM25.    */ BM25;
+
+    @Override
+    public String toString() {
+      return name().toLowerCase(Locale.ENGLISH);
+    }
+  }
+
   /** Java wrapper. */
   public enum WrapOptions {
     /** INSTANCE. */ INSTANCE,
@@ -2,7 +2,9 @@ package org.basex.core;
 
 import java.util.*;
 
+import org.basex.index.*;
 import org.basex.io.*;
+import org.basex.io.random.*;
 import org.basex.util.*;
 import org.basex.util.list.*;
 import org.basex.util.options.*;
@@ -34,6 +36,14 @@ public final class StaticOptions extends Options {
   public static final BooleanOption FAIRLOCK = new BooleanOption("FAIRLOCK", false);
   /** Timeout (seconds) for remembering result of asynchronous queries. */
   public static final NumberOption CACHETIMEOUT = new NumberOption("CACHETIMEOUT", 3600);
+  /** Size of the shared page cache (MB); deactivated if set to 0. */
+  public static final NumberOption PAGECACHE = new NumberOption("PAGECACHE", 64);
+  /** Size of the shared index cache (MB); deactivated if set to 0. */
+  public static final NumberOption INDEXCACHE = new NumberOption("INDEXCACHE", 16);
+  /** Number of frequent index keys to be preloaded when an index is opened. */
+  public static final NumberOption INDEXPRELOAD = new NumberOption("INDEXPRELOAD", 0);
+  /** Memory-map database files for reading. */
+  public static final BooleanOption MMAP = new BooleanOption("MMAP", false);
 
   /** Comment: written to the options file. */
   public static final Comment C_CLIENT = new Comment("Client/Server Architecture");
@@ -56,6 +66,8 @@ public final class StaticOptions extends Options {
   public static final NumberOption PROXYPORT = new NumberOption("PROXYPORT", 0);
   /** Server: non-proxy host. */
   public static final StringOption NONPROXYHOSTS = new StringOption("NONPROXYHOSTS", "");
+  /** Server: wait for requests of idle clients with a single selector thread. */
+  public static final BooleanOption SERVERNIO = new BooleanOption("SERVERNIO", false);
   /** Ignore missing certificates. */
   public static final BooleanOption IGNORECERT = new BooleanOption("IGNORECERT", false);
 
@@ -65,12 +77,24 @@ public final class StaticOptions extends Options {
   public static final NumberOption KEEPALIVE = new NumberOption("KEEPALIVE", 600);
   /** Defines the number of parallel readers. */
   public static final NumberOption PARALLEL = new NumberOption("PARALLEL", 8);
+  /** Number of threads for evaluating queries in parallel (0: number of processors). */
+  public static final NumberOption FORKJOIN = new NumberOption("FORKJOIN", 0);
+  /** Maximum number of cached query plans; deactivated if set to 0. */
+  public static final NumberOption QUERYCACHE = new NumberOption("QUERYCACHE", 0);
   /** Logging flag. */
   public static final BooleanOption LOG = new BooleanOption("LOG", true);
   /** Log message cut-off. */
   public static final NumberOption LOGMSGMAXLEN = new NumberOption("LOGMSGMAXLEN", 1000);
   /** Write trace output to the logs. */
   public static final BooleanOption LOGTRACE = new BooleanOption("LOGTRACE", true);
+  /** Size of the log buffer; entries are written synchronously if set to 0. */
+  public static final NumberOption LOGBUFFER = new NumberOption("LOGBUFFER", 0);
+  /** Handling of new log entries if the log buffer is full. */
+  public static final EnumOption<LogOverflow> LOGOVERFLOW =
+      new EnumOption<>("LOGOVERFLOW", LogOverflow.WAIT);
+  /** Format of log entries. */
+  public static final EnumOption<LogFormat> LOGFORMAT =
+      new EnumOption<>("LOGFORMAT", LogFormat.TEXT);
 
   /** Comment: written to the options file. */
   public static final Comment C_HTTP = new Comment("HTTP Services");
@@ -109,6 +133,28 @@ public final class StaticOptions extends Options {
     }
   }
 
+  /** Handling of log entries if the log buffer is full. */
+  public enum LogOverflow {
+    /** Wait.    */ WAIT,
+    /** Discard. */ DROP;
+
+    @Override
+    public String toString() {
+      return name().toLowerCase(Locale.ENGLISH);
+    }
+  }
+
+  /** Format of log entries. */
+  public enum LogFormat {
+    /** Text. */ TEXT,
+    /** JSON. */ JSON;
+
+    @Override
+    public String toString() {
+      return name().toLowerCase(Locale.ENGLISH);
+    }
+  }
+
   /**
    * Constructor, adopting system properties starting with "org.basex.".
    * @param file if {@code true}, options will be read from disk
@@ -126,6 +172,8 @@ public final class StaticOptions extends Options {
     Prop.language = get(LANG);
     Prop.langkeys = get(LANGKEYS);
     Prop.debug = get(DEBUG);
+    PageCache.get().size((long) get(PAGECACHE) << 20);
+    IndexCache.size((long) get(INDEXCACHE) << 20, get(INDEXPRELOAD));
     final String ph = get(PROXYHOST);
     if(!ph.isEmpty()) {
       Prop.setSystem("http.proxyHost", ph);
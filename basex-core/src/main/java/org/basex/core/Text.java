@@ -211,6 +211,8 @@ public interface Text {
   String LI_SIZE = LI + "Size: ";
   /** Index info. */
   String LI_ENTRIES = LI + "Entries: ";
+  /** Index info. */
+  String LI_FUZZY = LI + "Fuzzy Search: ";
 
   /** Index info. */
   String HASH = "Hash";
@@ -93,6 +93,7 @@ public final class CreateDB extends ACreate {
         context.openDB(data);
         context.datas.pin(data);
       } else {
+        context.queries.discard(name);
         if(context.pinned(name)) return error(DB_PINNED_X, name);
 
         // create disk-based instance
@@ -175,6 +176,7 @@ public final class CreateDB extends ACreate {
       data = MemBuilder.build(name, parser);
     } else {
       // database is currently locked by another job
+      ctx.queries.discard(name);
       if(ctx.pinned(name)) throw new BaseXException(DB_PINNED_X, name);
       new DiskBuilder(name, parser, ctx.soptions, options).build().close();
       data = Open.open(name, ctx, options);
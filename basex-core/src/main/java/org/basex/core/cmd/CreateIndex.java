@@ -3,6 +3,8 @@ package org.basex.core.cmd;
 import static org.basex.core.Text.*;
 
 import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
 
 import org.basex.core.*;
 import org.basex.core.parse.*;
@@ -10,6 +12,8 @@ import org.basex.core.parse.Commands.*;
 import org.basex.core.users.*;
 import org.basex.data.*;
 import org.basex.index.*;
+import org.basex.index.value.*;
+import org.basex.util.*;
 import org.basex.util.ft.*;
 
 /**
@@ -60,6 +64,7 @@ public final class CreateIndex extends ACreate {
     }
     data.meta.names(type, options);
     data.meta.splitsize = options.get(MainOptions.SPLITSIZE);
+    data.meta.parallelindex = options.get(MainOptions.PARALLELINDEX);
 
     return update(data, () -> {
       create(type, data, CreateIndex.this);
@@ -79,10 +84,48 @@ public final class CreateIndex extends ACreate {
    * @throws IOException I/O exception
    */
   static void create(final Data data, final ACreate cmd) throws IOException {
-    if(data.meta.createtext) create(IndexType.TEXT, data, cmd);
-    if(data.meta.createattr) create(IndexType.ATTRIBUTE, data, cmd);
-    if(data.meta.createtoken) create(IndexType.TOKEN, data, cmd);
-    if(data.meta.createft) create(IndexType.FULLTEXT, data, cmd);
+    final ArrayList<IndexType> types = new ArrayList<>();
+    if(data.meta.createtext) types.add(IndexType.TEXT);
+    if(data.meta.createattr) types.add(IndexType.ATTRIBUTE);
+    if(data.meta.createtoken) types.add(IndexType.TOKEN);
+    if(data.meta.createft) types.add(IndexType.FULLTEXT);
+    create(types, data, cmd);
+    if(!data.meta.pathindexes.isEmpty()) createPaths(data);
+  }
+
+  /**
+   * Builds the specified index structures.
+   * If more than one thread is assigned via {@link MainOptions#PARALLELINDEX},
+   * the index structures of disk-based databases will be built in parallel.
+   * @param types indexes to be built
+   * @param data data reference
+   * @param cmd calling command
+   * @throws IOException I/O exception
+   */
+  static void create(final ArrayList<IndexType> types, final Data data, final ACreate cmd)
+      throws IOException {
+
+    final int threads = Math.min(types.size(), data.meta.parallelindex);
+    if(threads < 2 || data.inMemory()) {
+      for(final IndexType type : types) create(type, data, cmd);
+      return;
+    }
+
+    final ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      final ArrayList<Future<Void>> futures = new ArrayList<>(types.size());
+      for(final IndexType type : types) {
+        DropIndex.drop(type, data);
+        futures.add(pool.submit(() -> {
+          data.createIndex(type, cmd);
+          data.meta.index(type, true);
+          return null;
+        }));
+      }
+      Util.get(futures);
+    } finally {
+      pool.shutdown();
+    }
   }
 
   /**
@@ -97,4 +140,20 @@ public final class CreateIndex extends ACreate {
     data.createIndex(type, cmd);
     data.meta.index(type, true);
   }
+
+  /**
+   * Builds the path indexes that are declared in the meta data, or drops existing indexes.
+   * @param data data reference
+   * @throws IOException I/O exception
+   */
+  static void createPaths(final Data data) throws IOException {
+    final MetaData meta = data.meta;
+    meta.dirty = true;
+    meta.pathindex = false;
+    data.dropPaths();
+    if(KeyPath.get(meta.pathindexes).length != 0) {
+      data.createPaths();
+      meta.pathindex = true;
+    }
+  }
 }
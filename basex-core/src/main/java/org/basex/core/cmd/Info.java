@@ -46,6 +46,9 @@ public final class Info extends AInfo {
 
     final User user = context.user();
     info(tb, USED_MEM, Performance.getMemory());
+    if(context.soptions.get(StaticOptions.QUERYCACHE) > 0) {
+      info(tb, "Query Cache", context.queries.info(context));
+    }
 
     if(user.has(Perm.ADMIN)) {
       final StaticOptions sopts = context.soptions;
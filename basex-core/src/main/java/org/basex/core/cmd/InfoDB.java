@@ -70,6 +70,7 @@ public final class InfoDB extends AInfo {
         for(final MetaProp prop : MetaProp.ENUMS) {
           if(prop.index) info(tb, prop, meta);
         }
+        if(meta.oldftindex()) tb.add(' ' + H_INDEX_FORMAT + NL);
       }
     }
     return tb.toString();
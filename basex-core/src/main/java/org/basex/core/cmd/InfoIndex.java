@@ -56,6 +56,7 @@ public final class InfoIndex extends AInfo {
     tb.add(info(CmdIndexInfo.TOKEN, data, options));
     tb.add(info(CmdIndexInfo.FULLTEXT, data, options));
     tb.add(info(CmdIndexInfo.PATH, data, options));
+    if(!data.inMemory()) tb.add(NL).add(IndexCache.info()).add(NL);
     out.print(tb.finish());
     return true;
   }
@@ -52,7 +52,7 @@ public final class Open extends Command {
         if(!path.isEmpty()) {
           context.current(new DBNodes(data, data.resources.docs(path).toArray()));
         }
-        if(data.meta.oldindex()) info(H_INDEX_FORMAT);
+        if(data.meta.oldindex() || data.meta.oldftindex()) info(H_INDEX_FORMAT);
         if(data.meta.corrupt)  info(DB_CORRUPT);
       } catch(final IOException ex) {
         return error(Util.message(ex));
@@ -86,6 +86,7 @@ public final class OptimizeAll extends ACreate {
 
     // check if database is also pinned by other users
     final String name = ometa.name;
+    context.queries.discard(name);
     if(context.datas.pins(name) > 1) throw new BaseXException(DB_PINNED_X, name);
 
     // adopt original index options
@@ -97,6 +98,7 @@ public final class OptimizeAll extends ACreate {
     options.set(MainOptions.ATTRINCLUDE, ometa.attrinclude);
     options.set(MainOptions.TOKENINCLUDE, ometa.tokeninclude);
     options.set(MainOptions.FTINCLUDE, ometa.ftinclude);
+    options.set(MainOptions.PATHINDEXES, ometa.pathindexes);
     // adopt original full-text index options
     options.set(MainOptions.STEMMING, ometa.stemming);
     options.set(MainOptions.CASESENS, ometa.casesens);
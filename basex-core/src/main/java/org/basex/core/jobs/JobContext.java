@@ -1,5 +1,7 @@
 package org.basex.core.jobs;
 
+import java.util.concurrent.atomic.*;
+
 import org.basex.core.*;
 import org.basex.core.locks.*;
 import org.basex.query.*;
@@ -27,6 +29,8 @@ public final class JobContext {
   public final Locks locks = new Locks();
   /** Time of creation. */
   public final long time = System.currentTimeMillis();
+  /** Number of tasks that have been queued in the shared pool and not been started yet. */
+  public final AtomicInteger queued = new AtomicInteger();
 
   /** Performance measurements. */
   public Performance performance;
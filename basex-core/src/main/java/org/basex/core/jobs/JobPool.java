@@ -26,6 +26,9 @@ public final class JobPool {
   /** Timer tasks. */
   public final Map<String, QueryJobTask> tasks = new ConcurrentHashMap<>();
 
+  /** Shared pool for evaluating parts of queries in parallel. */
+  public final ForkJoinPool pool;
+
   /** Timer. */
   final Timer timer = new Timer(true);
   /** Timeout (ms). */
@@ -37,6 +40,17 @@ public final class JobPool {
    */
   public JobPool(final StaticOptions sopts) {
     timeout = sopts.get(StaticOptions.CACHETIMEOUT) * 1000L;
+    final int threads = sopts.get(StaticOptions.FORKJOIN);
+    pool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Returns the number of tasks that a single job may evaluate in parallel.
+   * The parallelism of the shared pool is evenly divided among all active jobs.
+   * @return number of tasks (at least {@code 1})
+   */
+  public int share() {
+    return Math.max(1, pool.getParallelism() / Math.max(1, active.size()));
   }
 
   /**
@@ -64,6 +78,7 @@ public final class JobPool {
     timer.cancel();
     for(final Job job : active.values()) job.stop();
     while(!active.isEmpty()) Performance.sleep(1);
+    pool.shutdown();
   }
 
   /**
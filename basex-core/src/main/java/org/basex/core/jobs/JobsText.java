@@ -35,4 +35,8 @@ public interface JobsText {
   byte[] WRITES = token("writes");
   /** Time of registering. */
   byte[] TIME = token("time");
+  /** Queued parallel tasks. */
+  byte[] QUEUED = token("queued");
+  /** Stolen tasks of the shared pool. */
+  byte[] STEALS = token("steals");
 }
@@ -107,6 +107,8 @@ public abstract class Data {
   public ValueIndex tokenIndex;
   /** Full-text index. */
   public ValueIndex ftIndex;
+  /** Path indexes (can be {@code null}). */
+  public PathValues pathValues;
 
   /** Indicates if distances are to be updated. */
   public boolean updateDists = true;
@@ -156,6 +158,18 @@ public abstract class Data {
    */
   public abstract void dropIndex(IndexType type) throws BaseXException;
 
+  /**
+   * Creates the path indexes that are declared in the meta data.
+   * @throws IOException I/O exception
+   */
+  public abstract void createPaths() throws IOException;
+
+  /**
+   * Drops the path indexes.
+   * @throws BaseXException database exception
+   */
+  public abstract void dropPaths() throws BaseXException;
+
   /**
    * Starts an update operation: writes a file to disk to indicate that an update is going on,
    * and exclusively locks the table file.
@@ -533,7 +547,9 @@ public abstract class Data {
           if(meta.tokenindex) tokenIndex.delete(new ValueCache(pre, IndexType.TOKEN, this));
         }
         table.write1(pre, 11, uriId);
-        table.write2(pre, 1, attrNames.put(name));
+        final int nameId = attrNames.put(name);
+        table.write2(pre, 1, nameId);
+        attrNames.length(nameId, textLen(pre, false));
         if(nsFlag) table.write2(nsPre, 1, 1 << 15 | nameId(nsPre));
         // add new values to attribute indexes
         if(meta.updindex) {
@@ -544,18 +560,26 @@ public abstract class Data {
       } else {
         // update element name
         final IntList pres = new IntList();
-        // update text index
-        if(meta.updindex && meta.textindex) {
+        // update text and full-text index
+        if(meta.updindex && (meta.textindex || meta.ftindex)) {
           final int last = pre + size;
           for(int curr = pre + attSize(pre, kind); curr < last; curr += size(curr, kind(curr))) {
             if(kind(curr) == TEXT) pres.add(curr);
           }
-          textIndex.delete(new ValueCache(pres, IndexType.TEXT, this));
+          if(meta.textindex) textIndex.delete(new ValueCache(pres, IndexType.TEXT, this));
+          if(meta.ftindex) ftIndex.delete(new ValueCache(pres, IndexType.FULLTEXT, this));
         }
         table.write1(pre, 3, uriId);
         final int nameId = elemNames.put(name);
         table.write2(nsPre, 1, (nsFlag || nsFlag(nsPre) ? 1 << 15 : 0) | nameId);
-        if(!pres.isEmpty()) textIndex.add(new ValueCache(pres, IndexType.TEXT, this));
+        final int last = pre + size;
+        for(int curr = pre + attSize(pre, kind); curr < last; curr += size(curr, kind(curr))) {
+          if(kind(curr) == TEXT) elemNames.length(nameId, textLen(curr, true));
+        }
+        if(!pres.isEmpty()) {
+          if(meta.textindex) textIndex.add(new ValueCache(pres, IndexType.TEXT, this));
+          if(meta.ftindex) ftIndex.add(new ValueCache(pres, IndexType.FULLTEXT, this));
+        }
       }
     }
   }
@@ -573,6 +597,21 @@ public abstract class Data {
     meta.update();
     updateText(pre, val, kind);
     if(kind == DOC) resources.rename(pre, value);
+    else if(kind == ATTR) attrNames.length(nameId(pre), val.length);
+    else if(kind == TEXT) length(this, parent(pre, kind), val.length);
+  }
+
+  /**
+   * Registers the length of a new text in the statistics of its parent element.
+   * Values that exceed the maximum token length are not indexed.
+   * @param data data reference of the parent
+   * @param par pre value of the parent ({@code -1}: no parent)
+   * @param length length of the text
+   */
+  private void length(final Data data, final int par, final int length) {
+    if(par >= 0 && data.kind(par) == ELEM) {
+      elemNames.length(data == this ? nameId(par) : elemNames.id(data.name(par, ELEM)), length);
+    }
   }
 
   /**
@@ -601,8 +640,9 @@ public abstract class Data {
       final int cPre = pre + sPre - source.start;
 
       // calculate new distance value
+      final boolean top = sPre == sTopPre;
       final int cDist;
-      if(sPre == sTopPre) {
+      if(top) {
         // handle top level entry: calculate distance based on target database
         cDist = cPre - tPar;
         // calculate pre value of next top level entry
@@ -627,13 +667,17 @@ public abstract class Data {
         case COMM:
         case PI:
           // add text
-          text(cDist, sData.text(sPre, true), sKind);
+          final byte[] value = sData.text(sPre, true);
+          text(cDist, value, sKind);
+          if(sKind == TEXT) length(top ? this : sData, top ? tPar : sPar, value.length);
           break;
         case ATTR:
           // add attribute
           final byte[] an = sData.name(sPre, sKind);
-          attr(cDist, attrNames.put(an), sData.text(sPre, false),
-              nspaces.uriIdForPrefix(prefix(an), false));
+          final int anId = attrNames.put(an);
+          final byte[] av = sData.text(sPre, false);
+          attr(cDist, anId, av, nspaces.uriIdForPrefix(prefix(an), false));
+          attrNames.length(anId, av.length);
           break;
       }
     }
@@ -765,8 +809,9 @@ public abstract class Data {
       final int sPar = sdata.parent(sPre, sKind);
 
       // pre and dist value of new node
+      final boolean top = sPre == sTopPre;
       final int nPre = pre + c, nDist;
-      if(sPre == sTopPre) {
+      if(top) {
         // handle top level entry: calculate distance based on target database
         nDist = nPre - par;
         // calculate pre value of next top level entry
@@ -798,7 +843,9 @@ public abstract class Data {
         case COMM:
         case PI:
           // add text, comment or processing instruction
-          text(nDist, sdata.text(sPre, true), sKind);
+          final byte[] value = sdata.text(sPre, true);
+          text(nDist, value, sKind);
+          if(sKind == TEXT) length(top ? this : sdata, top ? par : sPar, value.length);
           break;
         case ATTR:
           // add attribute
@@ -813,7 +860,10 @@ public abstract class Data {
               table.write2(nsPre, 1, 1 << 15 | nameId(nsPre));
             }
           }
-          attr(nDist, attrNames.put(name), sdata.text(sPre, false), uriId);
+          final int nameId = attrNames.put(name);
+          final byte[] av = sdata.text(sPre, false);
+          attr(nDist, nameId, av, uriId);
+          attrNames.length(nameId, av.length);
       }
       nsScope.shift(1);
     }
@@ -1083,6 +1133,7 @@ public abstract class Data {
       if(meta.textindex) textIndex.delete(new ValueCache(pre, size, IndexType.TEXT, this));
       if(meta.attrindex) attrIndex.delete(new ValueCache(pre, size, IndexType.ATTRIBUTE, this));
       if(meta.tokenindex) tokenIndex.delete(new ValueCache(pre, size, IndexType.TOKEN, this));
+      if(meta.ftindex) ftIndex.delete(new ValueCache(pre, size, IndexType.FULLTEXT, this));
       if(id != -1) idmap.delete(pre, id, -size);
     }
   }
@@ -1101,6 +1152,7 @@ public abstract class Data {
       if(meta.textindex) textIndex.add(new ValueCache(pre, size, IndexType.TEXT, this));
       if(meta.attrindex) attrIndex.add(new ValueCache(pre, size, IndexType.ATTRIBUTE, this));
       if(meta.tokenindex) tokenIndex.add(new ValueCache(pre, size, IndexType.TOKEN, this));
+      if(meta.ftindex) ftIndex.add(new ValueCache(pre, size, IndexType.FULLTEXT, this));
     }
   }
 
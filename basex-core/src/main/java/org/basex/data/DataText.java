@@ -13,13 +13,19 @@ public interface DataText {
 
   /** Database version; older version cannot open these instances. */
   String STORAGE = "9.0.1";
+  /** Version of databases with compressed texts; older version cannot open these instances. */
+  String CSTORAGE = "10.5";
   /** Index version; older version cannot open indexes of these instances. */
-  String ISTORAGE = "8.6";
+  String ISTORAGE = "10.5";
+  /** Version of full-text indexes; older full-text indexes must be recreated. */
+  String FTSTORAGE = "10.5";
 
   /** Database version. */
   String DBSTR = "STORAGE";
   /** Database version. */
   String IDBSTR = "ISTORAGE";
+  /** Full-text index version. */
+  String FTDBSTR = "FTSTORAGE";
   /** Last modification time. */
   String DBTIME = "TIME";
   /** Number of nodes. */
@@ -34,6 +40,8 @@ public interface DataText {
   String DBUPDIDX = "UPDINDEX";
   /** Automatic optimization. */
   String DBAUTOOPT = "AUTOOPT";
+  /** Compressed texts. */
+  String DBCOMPR = "COMPRESSION";
   /** Text index. */
   String DBTXTIDX = "TXTINDEX";
   /** Attribute index. */
@@ -50,6 +58,10 @@ public interface DataText {
   String DBTOKINC = "TOKINC";
   /** Full-text index: names. */
   String DBFTXINC = "FTXINC";
+  /** Path indexes. */
+  String DBPTVIDX = "PTVINDEX";
+  /** Path indexes: paths. */
+  String DBPTVINC = "PTVINC";
   /** Full-text stemming. */
   String DBFTST = "FTSTEM";
   /** Full-text language. */
@@ -60,6 +72,10 @@ public interface DataText {
   String DBFTCS = "FTCS";
   /** Full-text diacritics removal. */
   String DBFTDC = "FTDC";
+  /** Full-text: number of indexed texts. */
+  String DBFTNODES = "FTNODES";
+  /** Full-text: accumulated length of indexed texts. */
+  String DBFTLEN = "FTLENGTH";
   /** Maximum length of index entries. */
   String DBMAXLEN = "MAXLEN";
   /** Maximum number of categories. */
@@ -102,10 +118,16 @@ public interface DataText {
   String DATATXT = "txt";
   /** Database - Attribute value index. */
   String DATAATV = "atv";
+  /** Database - Chunk index of compressed texts. */
+  String DATATXC = "txc";
+  /** Database - Chunk index of compressed attribute values. */
+  String DATAATC = "atc";
   /** Database - Token index. */
   String DATATOK = "tok";
   /** Database - Full-text index. */
   String DATAFTX = "ftx";
+  /** Database - Path indexes. */
+  String DATAPTV = "ptv";
   /** Database - Stopword list. */
   String DATASWL = "swl";
   /** Database - Updating flag. */
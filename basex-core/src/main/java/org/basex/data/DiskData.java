@@ -78,6 +78,11 @@ public final class DiskData extends Data {
           case DBDOCS: resources.read(in); break;
         }
       }
+      // histograms (not available in databases of older versions)
+      if(in.size() < in.length()) {
+        elemNames.readHistograms(in);
+        attrNames.readHistograms(in);
+      }
     }
 
     // open data and indexes
@@ -92,7 +97,8 @@ public final class DiskData extends Data {
       if(meta.attrindex) attrIndex = new DiskValues(this, IndexType.ATTRIBUTE);
       if(meta.tokenindex) tokenIndex = new DiskValues(this, IndexType.TOKEN);
     }
-    if(meta.ftindex) ftIndex = new FTIndex(this);
+    if(meta.ftindex) ftIndex = meta.updindex ? new UpdatableFTIndex(this) : new FTIndex(this);
+    if(meta.pathindex) pathValues = new PathValues(this);
   }
 
   /**
@@ -123,8 +129,9 @@ public final class DiskData extends Data {
    */
   private void init() throws IOException {
     table = new TableDiskAccess(meta, false);
-    texts = new DataAccess(meta.dbFile(DATATXT));
-    values = new DataAccess(meta.dbFile(DATAATV));
+    final boolean c = meta.compression;
+    texts = new DataAccess(meta.dbFile(DATATXT), meta.mmap, c ? meta.dbFile(DATATXC) : null);
+    values = new DataAccess(meta.dbFile(DATAATV), meta.mmap, c ? meta.dbFile(DATAATC) : null);
   }
 
   /**
@@ -147,6 +154,9 @@ public final class DiskData extends Data {
       out.writeToken(token(DBDOCS));
       resources.write(out);
       out.write(0);
+      // histograms are appended to the end and ignored by older versions
+      elemNames.writeHistograms(out);
+      attrNames.writeHistograms(out);
     }
     if(meta.updindex) idmap.write(meta.dbFile(DATAIDP));
     meta.dirty = false;
@@ -165,6 +175,7 @@ public final class DiskData extends Data {
       close(IndexType.ATTRIBUTE);
       close(IndexType.TOKEN);
       close(IndexType.FULLTEXT);
+      closePaths();
     } catch(final IOException ex) {
       Util.stack(ex);
     }
@@ -197,7 +208,31 @@ public final class DiskData extends Data {
       if(cmd != null) cmd.pushJob(ib);
       set(type, ib.build());
     } finally {
-      if(cmd != null) cmd.popJob();
+      if(cmd != null) cmd.popJob(ib);
+    }
+  }
+
+  @Override
+  public void createPaths() throws IOException {
+    closePaths();
+    pathValues = new PathValuesBuilder(this).build();
+  }
+
+  @Override
+  public void dropPaths() throws BaseXException {
+    closePaths();
+    if(!PathValues.drop(meta)) {
+      throw new BaseXException(INDEX_NOT_DROPPED_X, MainOptions.PATHINDEXES);
+    }
+  }
+
+  /**
+   * Closes the path indexes.
+   */
+  private synchronized void closePaths() {
+    if(pathValues != null) {
+      pathValues.close();
+      pathValues = null;
     }
   }
 
@@ -227,6 +262,7 @@ public final class DiskData extends Data {
   @Override
   public void startUpdate(final MainOptions opts) throws BaseXException {
     if(!table.lock(true)) throw new BaseXException(DB_PINNED_X, meta.name);
+    meta.changes++;
     if(opts.get(MainOptions.AUTOFLUSH)) {
       final IOFile upd = meta.updateFile();
       if(upd.exists()) throw new BaseXException(DB_UPDATED_X, meta.name);
@@ -261,6 +297,7 @@ public final class DiskData extends Data {
         values.flush();
         if(textIndex != null) textIndex.flush();
         if(attrIndex != null) attrIndex.flush();
+        if(ftIndex != null) ftIndex.flush();
       }
     } catch(final IOException ex) {
       Util.stack(ex);
@@ -291,9 +328,10 @@ public final class DiskData extends Data {
     if(Inline.inlined(value)) return Inline.unpackLength(value);
 
     final DataAccess da = text ? texts : values;
-    final int l = da.readNum(value & Compress.COMPRESS - 1);
+    final long pos = value & Compress.COMPRESS - 1;
+    final int l = da.readNum(pos);
     // if text is compressed, read number of compressed bytes
-    return Compress.compressed(value) ? da.readNum() : l;
+    return Compress.compressed(value) ? da.readNum(pos + Num.length(l)) : l;
   }
 
   /**
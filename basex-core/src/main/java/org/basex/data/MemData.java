@@ -89,6 +89,15 @@ public final class MemData extends Data {
     }
   }
 
+  @Override
+  public void createPaths() throws BaseXException {
+    throw new BaseXException(NO_MAINMEM);
+  }
+
+  @Override
+  public void dropPaths() {
+  }
+
   @Override
   public void dropIndex(final IndexType type) throws BaseXException {
     switch(type) {
@@ -45,11 +45,15 @@ public final class MetaData {
   public boolean tokenindex;
   /** Indicates if a full-text index exists. */
   public boolean ftindex;
+  /** Indicates if the path indexes exist. */
+  public boolean pathindex;
 
   /** Flag for activated automatic index update. */
   public boolean updindex;
   /** Flag for automatic index updating. */
   public boolean autooptimize;
+  /** Flag for compressed texts and attribute values. */
+  public boolean compression;
 
   /** Indicates if the text index is to be recreated. */
   public boolean createtext;
@@ -67,6 +71,8 @@ public final class MetaData {
   public String tokeninclude;
   /** Full-text index: names to include. */
   public String ftinclude;
+  /** Path indexes: paths to index. */
+  public String pathindexes;
 
   /** Flag for full-text stemming. */
   public boolean stemming;
@@ -76,6 +82,10 @@ public final class MetaData {
   public boolean diacritics;
   /** Full-text stopword file. */
   public String stopwords;
+  /** Number of texts in the full-text index. */
+  public int ftnodes;
+  /** Accumulated length of the texts in the full-text index. */
+  public long ftlength;
 
   /** Maximum number of categories. */
   public int maxcats;
@@ -93,16 +103,24 @@ public final class MetaData {
   public boolean corrupt;
   /** Dirty flag. */
   public boolean dirty;
+  /** Number of started updates since the database was opened (not stored). */
+  public int changes;
 
   /** Number of nodes. */
   public int size;
   /** Last (highest) id assigned to a node. Can be {@code -1} if database is empty. */
   public int lastid = -1;
+  /** Flag for memory-mapping database files (not stored on disk). */
+  public boolean mmap;
+  /** Number of threads for building index structures (not stored on disk). */
+  public int parallelindex;
 
   /** Database directory. Set to {@code null} if database is in main memory. */
   private final IOFile dir;
   /** Flag for out-of-date indexes. */
   private boolean oldindex;
+  /** Flag for an out-of-date full-text index. */
+  private boolean oldftindex;
 
   /**
    * Constructor for a main-memory database instance.
@@ -120,6 +138,7 @@ public final class MetaData {
    */
   public MetaData(final String name, final MainOptions options, final StaticOptions sopts) {
     this(name, sopts.dbPath(name), options);
+    mmap = sopts.get(StaticOptions.MMAP);
   }
 
   /**
@@ -140,6 +159,8 @@ public final class MetaData {
     casesens = options.get(MainOptions.CASESENS);
     updindex = options.get(MainOptions.UPDINDEX);
     autooptimize = options.get(MainOptions.AUTOOPTIMIZE);
+    compression = options.get(MainOptions.COMPRESSION);
+    parallelindex = options.get(MainOptions.PARALLELINDEX);
     maxlen = options.get(MainOptions.MAXLEN);
     maxcats = options.get(MainOptions.MAXCATS);
     stopwords = options.get(MainOptions.STOPWORDS);
@@ -148,6 +169,7 @@ public final class MetaData {
     attrinclude = options.get(MainOptions.ATTRINCLUDE);
     tokeninclude = options.get(MainOptions.TOKENINCLUDE);
     ftinclude = options.get(MainOptions.FTINCLUDE);
+    pathindexes = options.get(MainOptions.PATHINDEXES);
     splitsize = options.get(MainOptions.SPLITSIZE);
   }
 
@@ -241,6 +263,14 @@ public final class MetaData {
     return oldindex;
   }
 
+  /**
+   * Returns true if the full-text index needs to be recreated.
+   * @return result of check
+   */
+  public boolean oldftindex() {
+    return oldftindex;
+  }
+
   /**
    * Returns the disk size of the database.
    * @return database size
@@ -343,7 +373,7 @@ public final class MetaData {
       case TEXT:      textindex = exists; break;
       case ATTRIBUTE: attrindex = exists; break;
       case TOKEN:     tokenindex = exists; break;
-      case FULLTEXT:  ftindex = exists; break;
+      case FULLTEXT:  ftindex = exists; oldftindex = false; break;
       default:        throw Util.notExpected();
     }
   }
@@ -386,7 +416,7 @@ public final class MetaData {
    * @throws IOException I/O exception
    */
   void read(final DataInput in) throws IOException {
-    String storage = "", istorage = "";
+    String storage = "", istorage = "", ftstorage = "";
     while(true) {
       final String k = Token.string(in.readToken());
       if(k.isEmpty()) break;
@@ -394,6 +424,7 @@ public final class MetaData {
       switch(k) {
         case DBSTR:      storage = v; break;
         case IDBSTR:     istorage = v; break;
+        case FTDBSTR:    ftstorage = v; break;
         case DBFNAME:    original = v; break;
         case DBFTSW:     stopwords = v; break;
         case DBFTLN:     language = Language.get(v); break;
@@ -405,16 +436,21 @@ public final class MetaData {
         case DBTIME:     time = toLong(v); break;
         case DBFSIZE:    inputsize = toLong(v); break;
         case DBFTDC:     diacritics = toBoolean(v); break;
+        case DBFTNODES:  ftnodes = toInt(v); break;
+        case DBFTLEN:    ftlength = toLong(v); break;
         case DBUPDIDX:   updindex = toBoolean(v); break;
         case DBAUTOOPT:  autooptimize = toBoolean(v); break;
+        case DBCOMPR:    compression = toBoolean(v); break;
         case DBTXTIDX:   textindex = toBoolean(v); break;
         case DBATVIDX:   attrindex = toBoolean(v); break;
         case DBTOKIDX:   tokenindex = toBoolean(v); break;
         case DBFTXIDX:   ftindex = toBoolean(v); break;
+        case DBPTVIDX:   pathindex = toBoolean(v); break;
         case DBTXTINC:   textinclude = v; break;
         case DBATVINC:   attrinclude = v; break;
         case DBTOKINC:   tokeninclude = v; break;
         case DBFTXINC:   ftinclude = v; break;
+        case DBPTVINC:   pathindexes = v; break;
         case DBSPLITS:   splitsize = toInt(v); break;
         case DBCRTTXT:   createtext = toBoolean(v); break;
         case DBCRTATV:   createattr = toBoolean(v); break;
@@ -427,11 +463,14 @@ public final class MetaData {
     }
 
     // check version of database storage
-    if(!storage.equals(STORAGE) && new Version(storage).compareTo(new Version(
-        STORAGE)) > 0) throw new BuildException(H_DB_FORMAT, storage);
+    if(!storage.equals(CSTORAGE) && new Version(storage).compareTo(new Version(
+        CSTORAGE)) > 0) throw new BuildException(H_DB_FORMAT, storage);
     // check version of database indexes
     oldindex = !istorage.equals(ISTORAGE) &&
         new Version(istorage).compareTo(new Version(ISTORAGE)) > 0;
+    // full-text indexes of older versions cannot be accessed (compressed entries since 10.5)
+    oldftindex = ftindex && new Version(ftstorage).compareTo(new Version(FTSTORAGE)) < 0;
+    if(oldftindex) ftindex = false;
     corrupt = dbFile(DATAUPD).exists();
   }
 
@@ -441,23 +480,27 @@ public final class MetaData {
    * @throws IOException I/O Exception
    */
   void write(final DataOutput out) throws IOException {
-    writeInfo(out, DBSTR,      STORAGE);
+    writeInfo(out, DBSTR,      compression ? CSTORAGE : STORAGE);
     writeInfo(out, DBFNAME,    original);
     writeInfo(out, DBTIME,     time);
     writeInfo(out, IDBSTR,     ISTORAGE);
+    if(!oldftindex) writeInfo(out, FTDBSTR,    FTSTORAGE);
     writeInfo(out, DBFSIZE,    inputsize);
     writeInfo(out, DBNDOCS,    ndocs);
     writeInfo(out, DBSIZE,     size);
     writeInfo(out, DBUPDIDX,   updindex);
     writeInfo(out, DBAUTOOPT,  autooptimize);
+    writeInfo(out, DBCOMPR,    compression);
     writeInfo(out, DBTXTIDX,   textindex);
     writeInfo(out, DBATVIDX,   attrindex);
     writeInfo(out, DBTOKIDX,   tokenindex);
-    writeInfo(out, DBFTXIDX,   ftindex);
+    writeInfo(out, DBFTXIDX,   ftindex || oldftindex);
+    writeInfo(out, DBPTVIDX,   pathindex);
     writeInfo(out, DBTXTINC,   textinclude);
     writeInfo(out, DBATVINC,   attrinclude);
     writeInfo(out, DBTOKINC,   tokeninclude);
     writeInfo(out, DBFTXINC,   ftinclude);
+    writeInfo(out, DBPTVINC,   pathindexes);
     writeInfo(out, DBSPLITS,   splitsize);
     writeInfo(out, DBCRTTXT,   createtext);
     writeInfo(out, DBCRTATV,   createattr);
@@ -467,6 +510,8 @@ public final class MetaData {
     writeInfo(out, DBFTCS,     casesens);
     writeInfo(out, DBFTDC,     diacritics);
     writeInfo(out, DBFTSW,     stopwords);
+    writeInfo(out, DBFTNODES,  ftnodes);
+    writeInfo(out, DBFTLEN,    ftlength);
     writeInfo(out, DBMAXLEN,   maxlen);
     writeInfo(out, DBMAXCATS,  maxcats);
     writeInfo(out, DBUPTODATE, uptodate);
@@ -483,12 +528,15 @@ public final class MetaData {
     time = System.currentTimeMillis();
     uptodate = false;
     dirty = true;
+    // path indexes are not updated incrementally
+    pathindex = false;
     if(!updindex) {
       textindex = false;
       attrindex = false;
       tokenindex = false;
+      ftindex = false;
+      oldftindex = false;
     }
-    ftindex = false;
   }
 
   /**
@@ -2,26 +2,44 @@ package org.basex.index;
 
 import static org.basex.util.Token.*;
 
-import java.lang.ref.*;
-import java.util.concurrent.locks.*;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
 
+import org.basex.io.*;
+import org.basex.io.in.DataInput;
+import org.basex.io.out.DataOutput;
 import org.basex.util.*;
+import org.basex.util.list.*;
 
 /**
  * This class caches sizes and offsets from index results.
  *
+ * All instances share a process-wide store with a limited memory budget. The store is split into
+ * segments with separate locks; the segment of an entry is chosen by the hash of its key.
+ * In each segment, entries are evicted with a frequency-aware strategy (W-TinyLFU): new entries
+ * are added to a small window; entries that are dropped from the window are only admitted to the
+ * main area if they have been requested more frequently than the entry that would be evicted
+ * instead. Access frequencies are recorded by a compact sketch, which also covers requests for
+ * entries that are not cached.
+ *
  * @author BaseX Team 2005-22, BSD License
  * @author Dimitar Popov
  */
 public final class IndexCache {
-  /** Queue used to collect unused keys. */
-  private final ReferenceQueue<IndexEntry> queue = new ReferenceQueue<>();
-  /** Read-write lock. */
-  private final ReentrantReadWriteLock rwl = new ReentrantReadWriteLock(true);
-  /** Hash table buckets. */
-  private BucketEntry[] buckets = new BucketEntry[Array.INITIAL_CAPACITY];
-  /** Number of entries in the cache. */
-  private int size;
+  /** Maximum number of segments of the shared store (must be 1 << n). */
+  private static final int SEGMENTS = 1 << 4;
+  /** Minimum memory budget of a segment. */
+  private static final long SEGMENT = 1 << 20;
+  /** Segments of the shared store. */
+  private static volatile Store[] stores = stores(8L << 20);
+  /** Maximum number of keys to be preloaded. */
+  private static volatile int preload;
+  /** Instance counter. */
+  private static final AtomicInteger OWNERS = new AtomicInteger();
+
+  /** Id of this cache. */
+  private final int owner = OWNERS.incrementAndGet();
 
   /**
    * Gets cached entry for the specified key.
@@ -29,21 +47,8 @@ public final class IndexCache {
    * @return cached entry or {@code null} if the entry is stale
    */
   public IndexEntry get(final byte[] key) {
-    final int hash = hash(key);
-    rwl.readLock().lock();
-
-    try {
-      final int i = indexFor(hash, buckets.length);
-      BucketEntry e = buckets[i];
-      while(e != null) {
-        final IndexEntry entry = e.get();
-        if(entry != null && e.hash == hash && eq(entry.key, key)) return entry;
-        e = e.next;
-      }
-    } finally {
-      rwl.readLock().unlock();
-    }
-    return null;
+    final Key k = new Key(owner, key);
+    return store(k).get(k);
   }
 
   /**
@@ -55,32 +60,8 @@ public final class IndexCache {
    * @return cache entry
    */
   public IndexEntry add(final byte[] key, final int count, final long offset) {
-    final int hash = hash(key);
-    rwl.writeLock().lock();
-
-    try {
-      purge();
-      final int i = indexFor(hash, buckets.length);
-      BucketEntry current = buckets[i], prev = current;
-      while(current != null) {
-        final BucketEntry next = current.next;
-        final IndexEntry entry = current.get();
-        if(entry == null) {
-          delete(i, current, prev, next);
-        } else if(current.hash == hash && eq(entry.key, key)) {
-          update(entry, count, offset);
-          return entry;
-        }
-        prev = current;
-        current = next;
-      }
-
-      final IndexEntry entry = new IndexEntry(key, count, offset);
-      add(i, hash, entry);
-      return entry;
-    } finally {
-      rwl.writeLock().unlock();
-    }
+    final Key k = new Key(owner, key);
+    return store(k).add(k, count, offset);
   }
 
   /**
@@ -88,142 +69,508 @@ public final class IndexCache {
    * @param key key
    */
   public void delete(final byte[] key) {
-    final int hash = hash(key);
-    rwl.writeLock().lock();
-
-    try {
-      purge();
-      final int i = indexFor(hash, buckets.length);
-      BucketEntry e = buckets[i], prev = e;
-      while(e != null) {
-        final BucketEntry next = e.next;
-        final IndexEntry entry = e.get();
-        if(entry == null) {
-          delete(i, e, prev, next);
-        } else if(e.hash == hash && eq(entry.key, key)) {
-          delete(i, e, prev, next);
-          break;
-        }
-        prev = e;
-        e = next;
+    final Key k = new Key(owner, key);
+    store(k).delete(k);
+  }
+
+  /**
+   * Returns the most frequently requested keys of this cache.
+   * @param max maximum number of keys
+   * @return keys
+   */
+  public byte[][] keys(final int max) {
+    final ArrayList<byte[]> list = new ArrayList<>();
+    final IntList freqs = new IntList();
+    for(final Store store : stores) store.keys(owner, list, freqs);
+    final int[] order = Array.createOrder(freqs.finish(), false);
+
+    final int kl = Math.min(max, order.length);
+    final byte[][] keys = new byte[kl][];
+    for(int k = 0; k < kl; k++) keys[k] = list.get(order[k]);
+    return keys;
+  }
+
+  /**
+   * Removes all entries of this cache.
+   */
+  public void close() {
+    for(final Store store : stores) store.remove(owner);
+  }
+
+  /**
+   * Removes all entries of this cache. If preloading is enabled, the most frequently requested
+   * keys are written to the specified file.
+   * @param file file
+   */
+  public void close(final IOFile file) {
+    final int max = preload;
+    if(max > 0) {
+      try(DataOutput out = new DataOutput(file)) {
+        out.writeTokens(keys(max));
+      } catch(final IOException ex) {
+        Util.debug(ex);
       }
-    } finally {
-      rwl.writeLock().unlock();
     }
+    close();
   }
 
   /**
-   * Purges stale entries from the cache.
+   * Returns the keys that have been written to the specified file by {@link #close(IOFile)}.
+   * @param file file
+   * @return keys (empty if preloading is disabled or if the file does not exist)
    */
-  private void purge() {
-    for(Object x; (x = queue.poll()) != null;) {
-      final BucketEntry e = (BucketEntry) x;
-      final int i = indexFor(e.hash, buckets.length);
-      BucketEntry prev = buckets[i], p = prev;
-      while(p != null) {
-        final BucketEntry next = p.next;
-        if(p == e) {
-          delete(i, e, prev, next);
-          break;
-        }
-        prev = p;
-        p = next;
+  public static byte[][] preload(final IOFile file) {
+    final int max = preload;
+    if(max > 0 && file.exists()) {
+      try(DataInput in = new DataInput(file)) {
+        final byte[][] keys = in.readTokens();
+        return keys.length > max ? Arrays.copyOf(keys, max) : keys;
+      } catch(final IOException ex) {
+        Util.debug(ex);
       }
     }
+    return new byte[0][];
+  }
+
+  /**
+   * Assigns the memory budget of the shared store. Existing entries will be dropped.
+   * @param bytes size in bytes ({@code 0}: disable cache)
+   * @param keys maximum number of keys to be preloaded when an index is opened
+   */
+  public static synchronized void size(final long bytes, final int keys) {
+    preload = Math.max(0, keys);
+    final long cap = Math.max(0, bytes);
+    long current = 0;
+    for(final Store store : stores) current += store.capacity;
+    if(cap != current) stores = stores(cap);
   }
 
   /**
-   * Add a new index entry to the bucket with the specified index.
-   * @param i bucket index
-   * @param hash hash of the new index key
-   * @param entry index entry
+   * Returns information on the shared store.
+   * @return info string
    */
-  private void add(final int i, final int hash, final IndexEntry entry) {
-    buckets[i] = new BucketEntry(hash, buckets[i], entry, queue);
-    if(++size == buckets.length) rehash();
+  public static String info() {
+    // entries, weight, capacity, hits, misses, evictions
+    final long[] stats = new long[6];
+    for(final Store store : stores) store.info(stats);
+    final long total = stats[3] + stats[4];
+    return "Index Cache: " + stats[0] + " entries, " + Performance.format(stats[1]) + '/' +
+      Performance.format(stats[2]) + ", " + stats[3] + " hits, " + stats[4] + " misses" +
+      (total == 0 ? "" : " (" + stats[3] * 100 / total + "%)") + ", " + stats[5] + " evictions";
   }
 
   /**
-   * Update an existing index entry.
-   * @param entry index entry to update
-   * @param size new size
-   * @param offset new offset
+   * Returns the segment of the shared store that contains the specified key.
+   * @param key key
+   * @return segment
    */
-  private static void update(final IndexEntry entry, final int size, final long offset) {
-    entry.size = size;
-    entry.offset = offset;
+  private static Store store(final Key key) {
+    final Store[] st = stores;
+    return st[key.hash * 0x9E3779B9 >>> 16 & st.length - 1];
   }
 
   /**
-   * Deletes a cached entry from the buckets with the specified index.
-   * @param i buckets index
-   * @param e cached entry to delete
-   * @param p previous cache entry
-   * @param n next cache entry
+   * Creates the segments of the shared store.
+   * @param bytes memory budget (bytes)
+   * @return segments
    */
-  private void delete(final int i, final BucketEntry e, final BucketEntry p, final BucketEntry n) {
-    if(p == e) buckets[i] = n;
-    else p.next = n;
-    e.next = null;
-    --size;
+  private static Store[] stores(final long bytes) {
+    final int segments = (int) Math.min(SEGMENTS, Math.max(1, Long.highestOneBit(bytes / SEGMENT)));
+    final Store[] st = new Store[segments];
+    for(int s = 0; s < segments; s++) st[s] = new Store(bytes / segments);
+    return st;
   }
 
   /**
-   * Resizes the hash table.
+   * Segment of the shared store.
    */
-  private void rehash() {
-    purge();
+  private static final class Store {
+    /** Estimated memory consumption of an entry, excluding the key. */
+    private static final int OVERHEAD = 112;
+    /** Percentage of the budget that is assigned to the window. */
+    private static final int WINDOW = 1;
+    /** Percentage of the main budget that is assigned to protected entries. */
+    private static final int PROTECTED = 80;
+
+    /** Cached entries. */
+    private final HashMap<Key, Node> map = new HashMap<>();
+    /** Recently added entries. */
+    private final Queue window = new Queue();
+    /** Entries of the main area that have been requested once. */
+    private final Queue probation = new Queue();
+    /** Entries of the main area that have been requested more than once. */
+    private final Queue protect = new Queue();
+    /** Access frequencies. */
+    private final Sketch sketch;
+    /** Memory budget (bytes). */
+    private final long capacity;
 
-    final int newSize = size << 1;
-    final BucketEntry[] tmp = new BucketEntry[newSize];
+    /** Number of hits. */
+    private long hits;
+    /** Number of misses. */
+    private long misses;
+    /** Number of evicted entries. */
+    private long evictions;
 
-    final int l = buckets.length;
-    for(int i = 0; i < l; ++i) {
-      BucketEntry e = buckets[i];
-      buckets[i] = null;
-      while(e != null) {
-        final BucketEntry next = e.next;
-        final int p = indexFor(e.hash, tmp.length);
-        e.next = tmp[p];
-        tmp[p] = e;
-        e = next;
+    /**
+     * Constructor.
+     * @param capacity memory budget (bytes)
+     */
+    Store(final long capacity) {
+      this.capacity = capacity;
+      sketch = new Sketch(capacity);
+    }
+
+    /**
+     * Returns a cached entry.
+     * @param key key
+     * @return entry or {@code null}
+     */
+    synchronized IndexEntry get(final Key key) {
+      if(capacity == 0) return null;
+      sketch.increment(key.hash);
+      final Node node = map.get(key);
+      if(node == null) {
+        misses++;
+        return null;
+      }
+      hits++;
+      touch(node);
+      return node.entry;
+    }
+
+    /**
+     * Adds or updates an entry.
+     * @param k key
+     * @param count number of index hits
+     * @param offset offset to id list
+     * @return entry
+     */
+    synchronized IndexEntry add(final Key k, final int count, final long offset) {
+      final byte[] key = k.key;
+      Node node = map.get(k);
+      if(node != null) {
+        node.entry.size = count;
+        node.entry.offset = offset;
+        return node.entry;
+      }
+
+      // skip entries that are larger than the window
+      final IndexEntry entry = new IndexEntry(key, count, offset);
+      final long weight = key.length + OVERHEAD, windowMax = capacity / 100 * WINDOW;
+      if(weight > windowMax) return entry;
+
+      node = new Node(k, entry, weight);
+      map.put(k, node);
+      window.addFirst(node);
+
+      // move entries from the window to the main area
+      while(window.weight > windowMax) admit(window.removeLast());
+      return entry;
+    }
+
+    /**
+     * Deletes an entry.
+     * @param key key
+     */
+    synchronized void delete(final Key key) {
+      final Node node = map.remove(key);
+      if(node != null) node.queue.remove(node);
+    }
+
+    /**
+     * Removes all entries of an owner.
+     * @param owner owner
+     */
+    synchronized void remove(final int owner) {
+      for(final Iterator<Node> iter = map.values().iterator(); iter.hasNext();) {
+        final Node node = iter.next();
+        if(node.key.owner == owner) {
+          node.queue.remove(node);
+          iter.remove();
+        }
+      }
+    }
+
+    /**
+     * Adds the keys of an owner and their access frequencies to the specified lists.
+     * @param owner owner
+     * @param keys keys
+     * @param freqs access frequencies
+     */
+    synchronized void keys(final int owner, final ArrayList<byte[]> keys, final IntList freqs) {
+      for(final Node node : map.values()) {
+        if(node.key.owner == owner) {
+          keys.add(node.key.key);
+          freqs.add(sketch.frequency(node.key.hash));
+        }
       }
     }
-    buckets = tmp;
+
+    /**
+     * Adds information on this segment to the specified array.
+     * @param stats entries, weight, capacity, hits, misses, evictions
+     */
+    synchronized void info(final long[] stats) {
+      stats[0] += map.size();
+      stats[1] += window.weight + probation.weight + protect.weight;
+      stats[2] += capacity;
+      stats[3] += hits;
+      stats[4] += misses;
+      stats[5] += evictions;
+    }
+
+    /**
+     * Registers a hit on an entry.
+     * @param node entry
+     */
+    private void touch(final Node node) {
+      final Queue queue = node.queue;
+      if(queue == probation) {
+        // second request: promote entry to the protected area
+        probation.remove(node);
+        protect.addFirst(node);
+        final long protectMax = (capacity - capacity / 100 * WINDOW) / 100 * PROTECTED;
+        while(protect.weight > protectMax && protect.size > 1) {
+          probation.addFirst(protect.removeLast());
+        }
+      } else {
+        queue.remove(node);
+        queue.addFirst(node);
+      }
+    }
+
+    /**
+     * Moves an entry from the window to the main area if its frequency is higher than the one
+     * of the least recently used entry of the main area.
+     * @param candidate entry to be admitted
+     */
+    private void admit(final Node candidate) {
+      final long mainMax = capacity - capacity / 100 * WINDOW;
+      while(probation.weight + protect.weight + candidate.weight > mainMax) {
+        final Node victim = probation.size > 0 ? probation.last() : protect.last();
+        if(victim == null || sketch.frequency(candidate.key.hash) <=
+            sketch.frequency(victim.key.hash)) {
+          evict(candidate);
+          return;
+        }
+        victim.queue.remove(victim);
+        evict(victim);
+      }
+      probation.addFirst(candidate);
+    }
+
+    /**
+     * Evicts an entry that has already been removed from its queue.
+     * @param node entry
+     */
+    private void evict(final Node node) {
+      map.remove(node.key);
+      evictions++;
+    }
+  }
+
+  /**
+   * Cache key, consisting of the id of the cache and the index key.
+   */
+  private static final class Key {
+    /** Id of the cache. */
+    final int owner;
+    /** Index key. */
+    final byte[] key;
+    /** Hash code. */
+    final int hash;
+
+    /**
+     * Constructor.
+     * @param owner id of the cache
+     * @param key index key
+     */
+    Key(final int owner, final byte[] key) {
+      this.owner = owner;
+      this.key = key;
+      hash = 31 * owner + Token.hash(key);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if(!(obj instanceof Key)) return false;
+      final Key k = (Key) obj;
+      return owner == k.owner && eq(key, k.key);
+    }
   }
 
   /**
-   * Returns buckets index for a hash code.
-   * @param h hash code
-   * @param n number of available buckets
-   * @return index of a buckets
+   * Cached entry, linked with its neighbors in the queue.
    */
-  private static int indexFor(final int h, final int n) {
-    return h & n - 1;
+  private static final class Node {
+    /** Key. */
+    final Key key;
+    /** Index entry. */
+    final IndexEntry entry;
+    /** Estimated memory consumption. */
+    final long weight;
+    /** Queue containing this entry ({@code null} if the entry is not queued). */
+    Queue queue;
+    /** Previous entry. */
+    Node prev;
+    /** Next entry. */
+    Node next;
+
+    /**
+     * Constructor.
+     * @param key key
+     * @param entry index entry
+     * @param weight estimated memory consumption
+     */
+    Node(final Key key, final IndexEntry entry, final long weight) {
+      this.key = key;
+      this.entry = entry;
+      this.weight = weight;
+    }
   }
 
   /**
-   * Cache buckets entry. Used to implement a linked list of cache entries for each bucket.
-   * It also stores the hash of the current entry for better performance.
+   * Doubly linked queue of entries, ordered by the time of their last access.
    */
-  private static class BucketEntry extends SoftReference<IndexEntry> {
-    /** Hash code of the stored cache entry key. */
-    final int hash;
-    /** Next bucket entry or {@code null} if the last one for this bucket. */
-    BucketEntry next;
+  private static final class Queue {
+    /** Most recently used entry. */
+    private Node first;
+    /** Least recently used entry. */
+    private Node last;
+    /** Number of entries. */
+    int size;
+    /** Accumulated weight. */
+    long weight;
+
+    /**
+     * Adds an entry to the head of the queue.
+     * @param node entry
+     */
+    void addFirst(final Node node) {
+      node.queue = this;
+      node.prev = null;
+      node.next = first;
+      if(first != null) first.prev = node;
+      else last = node;
+      first = node;
+      size++;
+      weight += node.weight;
+    }
+
+    /**
+     * Returns the least recently used entry.
+     * @return entry or {@code null}
+     */
+    Node last() {
+      return last;
+    }
+
+    /**
+     * Removes and returns the least recently used entry.
+     * @return entry
+     */
+    Node removeLast() {
+      final Node node = last;
+      remove(node);
+      return node;
+    }
+
+    /**
+     * Removes an entry.
+     * @param node entry
+     */
+    void remove(final Node node) {
+      if(node.prev != null) node.prev.next = node.next;
+      else first = node.next;
+      if(node.next != null) node.next.prev = node.prev;
+      else last = node.prev;
+      node.prev = null;
+      node.next = null;
+      node.queue = null;
+      size--;
+      weight -= node.weight;
+    }
+  }
+
+  /**
+   * Count-min sketch with 4-bit counters, which are halved periodically to favor recent requests.
+   */
+  private static final class Sketch {
+    /** Estimated average memory consumption of an entry. */
+    private static final int ENTRY = 128;
+
+    /** Counters (16 per long value). */
+    private final long[] table;
+    /** Number of increments until the counters will be halved. */
+    private final int period;
+    /** Number of increments. */
+    private int increments;
 
     /**
      * Constructor.
-     * @param h hash code of the cache entry key
-     * @param n next buckets entry or {@code null} if the last one
-     * @param v stored cache entry
-     * @param rq reference queue
-     */
-    BucketEntry(final int h, final BucketEntry n, final IndexEntry v,
-        final ReferenceQueue<IndexEntry> rq) {
-      super(v, rq);
-      hash = h;
-      next = n;
+     * @param capacity memory budget of the cache
+     */
+    Sketch(final long capacity) {
+      final int entries = (int) Math.min(1 << 20, Math.max(16, capacity / ENTRY));
+      table = new long[Integer.highestOneBit(entries - 1) << 1 >>> 2];
+      period = entries * 10;
+    }
+
+    /**
+     * Increments the counters of a hash value.
+     * @param hash hash value
+     */
+    void increment(final int hash) {
+      boolean added = false;
+      for(int i = 0; i < 4; i++) {
+        final int c = counter(hash, i), index = c >>> 4, shift = (c & 15) << 2;
+        if((table[index] >>> shift & 15) < 15) {
+          table[index] += 1L << shift;
+          added = true;
+        }
+      }
+      if(added && ++increments == period) reset();
+    }
+
+    /**
+     * Returns the estimated frequency of a hash value.
+     * @param hash hash value
+     * @return frequency
+     */
+    int frequency(final int hash) {
+      int freq = 15;
+      for(int i = 0; i < 4; i++) {
+        final int c = counter(hash, i);
+        freq = Math.min(freq, (int) (table[c >>> 4] >>> ((c & 15) << 2) & 15));
+      }
+      return freq;
+    }
+
+    /**
+     * Returns the position of a counter.
+     * @param hash hash value
+     * @param i index of the hash function
+     * @return position (table index, multiplied by 16, plus the offset in the long value)
+     */
+    private int counter(final int hash, final int i) {
+      int h = (hash + i) * 0x9E3779B9 ^ i * 0x85EBCA6B;
+      h ^= h >>> 16;
+      return h & (table.length << 4) - 1;
+    }
+
+    /**
+     * Halves all counters.
+     */
+    private void reset() {
+      final int tl = table.length;
+      for(int t = 0; t < tl; t++) table[t] = table[t] >>> 1 & 0x7777777777777777L;
+      increments = 0;
     }
   }
 }
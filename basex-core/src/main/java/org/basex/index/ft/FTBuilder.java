@@ -27,6 +27,10 @@ public final class FTBuilder extends IndexBuilder {
   private final FTLexer lexer;
   /** Number of indexed tokens. */
   private long ntok;
+  /** Number of indexed texts. */
+  private int nodes;
+  /** Accumulated length of the indexed texts. */
+  private long length;
 
   /**
    * Constructor.
@@ -35,28 +39,41 @@ public final class FTBuilder extends IndexBuilder {
    */
   public FTBuilder(final Data data) throws IOException {
     super(data, IndexType.FULLTEXT);
-    final MetaData meta = data.meta;
     tree = new FTIndexTrees(data.meta.maxlen);
+    lexer = lexer(data, new StopWords(data, data.meta.stopwords));
+  }
 
+  /**
+   * Creates a lexer for the full-text options of the database.
+   * @param data data reference
+   * @param sw stop words
+   * @return lexer
+   * @throws BaseXException database exception
+   */
+  static FTLexer lexer(final Data data, final StopWords sw) throws BaseXException {
+    final MetaData meta = data.meta;
     final FTOpt fto = new FTOpt();
     fto.set(FTFlag.DC, meta.diacritics);
     fto.set(FTFlag.ST, meta.stemming);
     fto.cs = meta.casesens ? FTCase.SENSITIVE : FTCase.INSENSITIVE;
-    fto.sw = new StopWords(data, meta.stopwords);
-    fto.ln = data.meta.language;
+    fto.sw = sw;
+    fto.ln = meta.language;
 
     if(!Tokenizer.supportFor(fto.ln))
       throw new BaseXException(NO_TOKENIZER_X, fto.ln);
     if(meta.stemming && !Stemmer.supportFor(fto.ln))
       throw new BaseXException(NO_STEMMER_X, fto.ln);
-
-    lexer = new FTLexer(fto);
+    return new FTLexer(fto);
   }
 
   @Override
   public FTIndex build() throws IOException {
     Util.debug(detailedInfo());
 
+    // updatable indexes store node ids instead of pre values
+    final boolean updindex = data.meta.updindex;
+    // discard the delta segment of the previous index
+    data.meta.dbFile(DATAFTX + 'd').delete();
     try {
       for(pre = 0; pre < size; ++pre) {
         if((pre & 0x0FFF) == 0) check();
@@ -64,7 +81,10 @@ public final class FTBuilder extends IndexBuilder {
 
         // current lexer position
         final StopWords sw = lexer.ftOpt().sw;
-        lexer.init(data.text(pre, true));
+        final byte[] text = data.text(pre, true);
+        lexer.init(text);
+        nodes++;
+        length += text.length;
         int pos = -1;
         while(lexer.hasNext()) {
           final byte[] token = lexer.nextToken();
@@ -76,7 +96,7 @@ public final class FTBuilder extends IndexBuilder {
               writeIndex(true);
               clean();
             }
-            tree.index(token, pre, pos, splits);
+            tree.index(token, updindex ? data.id(pre) : pre, pos, splits);
             count++;
           }
         }
@@ -84,9 +104,11 @@ public final class FTBuilder extends IndexBuilder {
 
       // finalize partial or all index structures
       write(splits > 0);
+      data.meta.ftnodes = nodes;
+      data.meta.ftlength = length;
 
       finishIndex();
-      return new FTIndex(data);
+      return updindex ? new UpdatableFTIndex(data) : new FTIndex(data);
 
     } catch(final Throwable th) {
       // drop index files
@@ -158,7 +180,7 @@ public final class FTBuilder extends IndexBuilder {
    * @param lp last offset
    * @throws IOException I/O exception
    */
-  private static void writeInd(final DataOutput outX, final IntList il, final int ls, final int lp)
+  static void writeInd(final DataOutput outX, final IntList il, final int ls, final int lp)
       throws IOException {
 
     final int is = il.size();
@@ -203,7 +225,8 @@ public final class FTBuilder extends IndexBuilder {
         // write full-text data size (number of pre values)
         outY.write4(t.nextNumPre());
         // write compressed pre and pos arrays
-        writeFTData(outZ, t.nextPres(), t.nextPoss());
+        if(partial) writeFTData(outZ, t.nextPres(), t.nextPoss());
+        else writePostings(outZ, t.nextPres(), t.nextPoss());
 
         dr = outZ.size();
         tr = (int) outY.size();
@@ -245,12 +268,12 @@ public final class FTBuilder extends IndexBuilder {
     Num.size(po, po.length);
 
     // write full-text data
-    writeFTData(out, pr, po);
+    writePostings(out, pr, po);
     return s;
   }
 
   /**
-   * Writes full-text data for a single token to disk.
+   * Writes partial full-text data for a single token to disk.
    * Format: {@code score? pre1 pos1 pre2 pos2 ... (0 score)? pre...}
    * @param out DataOutput for disk access
    * @param vpre compressed pre values
@@ -270,6 +293,70 @@ public final class FTBuilder extends IndexBuilder {
     }
   }
 
+  /**
+   * Writes the final full-text data for a single token to disk.
+   * @param out DataOutput for disk access
+   * @param vpre compressed pre values
+   * @param vpos compressed pos values
+   * @throws IOException IOException
+   */
+  private static void writePostings(final DataOutput out, final byte[] vpre, final byte[] vpos)
+      throws IOException {
+
+    final IntList pres = new IntList(), poss = new IntList();
+    final int ns = Num.size(vpre);
+    for(int np = 4, pp = 4; np < ns; np += Num.length(vpre, np), pp += Num.length(vpos, pp)) {
+      pres.add(Num.get(vpre, np));
+      poss.add(Num.get(vpos, pp));
+    }
+    writePostings(out, pres, poss);
+  }
+
+  /**
+   * Writes the final full-text data for a single token to disk.
+   * Format: {@code texts (last1 bytes1 ... lastN bytesN)? block1 ... blockN}.
+   * {@code texts} is the number of distinct pre values. The skip table with the last pre value
+   * (delta) and the byte size of each block is only written if there is more than one block.
+   * Each block contains {@link FTPostings#BLOCK} entries ({@code pre pos}): pre values are
+   * stored as deltas, and pos values are stored as deltas if they belong to the same pre value
+   * as the preceding entry of the block.
+   * @param out DataOutput for disk access
+   * @param pres pre values
+   * @param poss pos values
+   * @throws IOException IOException
+   */
+  static void writePostings(final DataOutput out, final IntList pres, final IntList poss)
+      throws IOException {
+
+    // compute deltas
+    final int size = pres.size(), blocks = (size + FTPostings.BLOCK - 1) / FTPostings.BLOCK;
+    final int[] dpre = new int[size], dpos = new int[size], bytes = new int[blocks];
+    int texts = 0;
+    for(int s = 0; s < size; s++) {
+      final int pre = pres.get(s), pos = poss.get(s);
+      final boolean first = s % FTPostings.BLOCK == 0;
+      if(s == 0 || pre != pres.get(s - 1)) texts++;
+      dpre[s] = s == 0 ? pre : pre - pres.get(s - 1);
+      dpos[s] = !first && dpre[s] == 0 ? pos - poss.get(s - 1) : pos;
+      bytes[s / FTPostings.BLOCK] += Num.length(dpre[s]) + Num.length(dpos[s]);
+    }
+
+    out.writeNum(texts);
+    if(blocks > 1) {
+      int last = 0;
+      for(int b = 0; b < blocks; b++) {
+        final int pre = pres.get(Math.min(size, (b + 1) * FTPostings.BLOCK) - 1);
+        out.writeNum(pre - last);
+        out.writeNum(bytes[b]);
+        last = pre;
+      }
+    }
+    for(int s = 0; s < size; s++) {
+      out.writeNum(dpre[s]);
+      out.writeNum(dpos[s]);
+    }
+  }
+
   /**
    * Checks if any unprocessed pre values are remaining.
    * @param lists lists
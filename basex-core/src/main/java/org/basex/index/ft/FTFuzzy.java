@@ -0,0 +1,193 @@
+package org.basex.index.ft;
+
+import static org.basex.util.Token.*;
+
+import java.util.*;
+
+import org.basex.util.*;
+import org.basex.util.list.*;
+
+/**
+ * <p>This class contains the tokens of a full-text index in lower case, sorted lexicographically.
+ * It is created on demand and speeds up fuzzy searches: the sorted tokens are traversed like
+ * a trie, and the rows of the Damerau-Levenshtein matrix are shared by all tokens with the same
+ * prefix. Tokens are skipped if the distance of their prefix to the search token exceeds the
+ * allowed number of errors.</p>
+ *
+ * <p>The matrix is computed in the same way as by {@link org.basex.util.similarity.Levenshtein}.
+ * Tokens with non-ASCII characters are always returned. All returned tokens are candidates that
+ * need to be verified by the caller.</p>
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+final class FTFuzzy {
+  /** Tokens in lower case (sorted). */
+  private final byte[][] tokens;
+  /** Positions of the original tokens in the index. */
+  private final int[] positions;
+  /** Lengths of the original tokens. */
+  private final int[] lengths;
+  /** Positions and lengths of tokens with non-ASCII characters (alternating). */
+  private final IntList others = new IntList();
+  /** Maximum token length. */
+  private final int max;
+  /** Estimated memory consumption. */
+  private final long memory;
+
+  /** Number of lookups. */
+  private int lookups;
+  /** Accumulated lookup time (nano seconds). */
+  private long time;
+
+  /**
+   * Constructor.
+   * @param tokens original tokens
+   * @param positions positions of the tokens in the index
+   */
+  FTFuzzy(final TokenList tokens, final IntList positions) {
+    final TokenList norm = new TokenList();
+    final IntList pos = new IntList(), lens = new IntList();
+    final int tl = tokens.size();
+    for(int t = 0; t < tl; t++) {
+      final byte[] token = tokens.get(t);
+      final int p = positions.get(t), l = token.length;
+      if(ascii(token)) {
+        final byte[] nt = new byte[l];
+        for(int i = 0; i < l; i++) nt[i] = (byte) lc(token[i]);
+        norm.add(nt);
+        pos.add(p);
+        lens.add(l);
+      } else {
+        others.add(p);
+        others.add(l);
+      }
+    }
+    this.tokens = norm.finish();
+    final int nl = this.tokens.length;
+    final int[] order = Array.createOrder(this.tokens, false, true);
+    this.positions = new int[nl];
+    lengths = new int[nl];
+    int mx = 0;
+    long mem = others.size() * 4L;
+    for(int n = 0; n < nl; n++) {
+      final int o = order[n];
+      this.positions[n] = pos.get(o);
+      lengths[n] = lens.get(o);
+      mx = Math.max(mx, lengths[n]);
+      mem += this.tokens[n].length + 32;
+    }
+    max = mx;
+    memory = mem;
+  }
+
+  /**
+   * Returns the index positions of all tokens that may be similar to the specified token.
+   * @param token search token
+   * @param k maximum number of errors
+   * @param min minimum length of the original tokens
+   * @param mx maximum length of the original tokens
+   * @return positions and lengths of the original tokens (alternating)
+   */
+  synchronized IntList find(final byte[] token, final int k, final int min, final int mx) {
+    final Performance perf = new Performance();
+    final IntList list = new IntList();
+    final boolean ascii = ascii(token);
+    final int tl = tokens.length, ql = token.length;
+    final byte[] query = new byte[ql];
+    for(int q = 0; q < ql; q++) query[q] = (byte) lc(token[q]);
+
+    // rows of the matrix represent the characters of the index tokens
+    final int[][] rows = new int[max + 1][ql + 1];
+    for(int q = 0; q <= ql; q++) rows[0][q] = q;
+    // number of valid rows (length of the prefix shared with the previous token)
+    int valid = 0;
+    byte[] prev = EMPTY;
+    for(int t = 0; t < tl;) {
+      final byte[] tok = tokens[t];
+      final int tkl = tok.length;
+      if(ascii) {
+        int depth = 0;
+        while(depth < valid && depth < tkl && tok[depth] == prev[depth]) depth++;
+        valid = depth;
+        prev = tok;
+
+        // skip all tokens with the same prefix if the distance is too large
+        boolean skip = false;
+        while(!skip && valid < tkl) skip = row(rows, tok, ++valid, query) > k;
+        if(skip) {
+          t = skip(t, valid--);
+          continue;
+        }
+      }
+      final int l = lengths[t];
+      if(l >= min && l <= mx) list.add(positions[t]).add(l);
+      t++;
+    }
+
+    // add tokens with non-ASCII characters
+    final int os = others.size();
+    for(int o = 0; o < os; o += 2) {
+      final int l = others.get(o + 1);
+      if(l >= min && l <= mx) list.add(others.get(o)).add(l);
+    }
+    lookups++;
+    time += perf.ns();
+    return list;
+  }
+
+  /**
+   * Computes a row of the distance matrix (see {@link org.basex.util.similarity.Levenshtein}).
+   * @param rows rows of the matrix
+   * @param token index token
+   * @param r number of the row to be computed ({@code 1} for the first character)
+   * @param query search token
+   * @return minimum distance of the row
+   */
+  private static int row(final int[][] rows, final byte[] token, final int r,
+      final byte[] query) {
+    final int[] prev = rows[r - 1], row = rows[r];
+    final int tn = token[r - 1], f = r > 1 ? token[r - 2] : -1, ql = query.length;
+    int d = Integer.MAX_VALUE;
+    row[0] = r;
+    for(int q = 0; q < ql; q++) {
+      final int cn = query[q], g = q > 0 ? query[q - 1] : r > 1 ? query[ql - 1] : -1;
+      int e = Math.min(Math.min(prev[q + 1] + 1, row[q] + 1), prev[q] + (tn == cn ? 0 : 1));
+      if(tn == g && cn == f) e = prev[q];
+      row[q + 1] = e;
+      d = Math.min(d, e);
+    }
+    return d;
+  }
+
+  /**
+   * Returns information on the token dictionary.
+   * @return info string
+   */
+  synchronized String info() {
+    final StringBuilder sb = new StringBuilder();
+    sb.append(tokens.length).append(" tokens, ").append(Performance.format(memory));
+    sb.append(", ").append(lookups).append(" lookups");
+    if(lookups > 0) sb.append(", ").append(Performance.getTime(time, lookups));
+    return sb.toString();
+  }
+
+  /**
+   * Returns the offset of the first token that does not start with the prefix of the
+   * specified token.
+   * @param t offset of the token
+   * @param length length of the prefix
+   * @return offset
+   */
+  private int skip(final int t, final int length) {
+    final byte[] token = tokens[t];
+    int l = t + 1, h = tokens.length;
+    while(l < h) {
+      final int m = l + h >>> 1;
+      final byte[] tok = tokens[m];
+      if(tok.length >= length && Arrays.equals(tok, 0, length, token, 0, length)) l = m + 1;
+      else h = m;
+    }
+    return l;
+  }
+}
@@ -44,34 +44,42 @@ import org.basex.util.similarity.*;
  * {@code s} is the number of pre values, saved in data [int]
  * </li>
  * <li>File <b>z</b> contains the {@code id/pos} references.
- *   The values are ordered, but not distinct:
- *   {@code pre1/pos1, pre2/pos2, pre3/pos3, ...} [{@link Num}]</li>
+ *   Structure: {@code [c, (l, b)*, pre1/pos1, pre2/pos2, pre3/pos3, ...]} [{@link Num}]
+ *   {@code c} is the number of distinct pre values.
+ *   The references are ordered, but not distinct, and grouped in blocks. Pre values are
+ *   stored as deltas, and pos values are stored as deltas if the pre value does not change
+ *   within a block. If there is more than one block, a skip table precedes the references,
+ *   containing the last pre value (delta) {@code l} and the byte size {@code b} of each block
+ *   (see {@link FTPostings}).</li>
  * </ul>
  *
  * @author BaseX Team 2005-22, BSD License
  * @author Christian Gruen
  */
-public final class FTIndex extends ValueIndex {
+public class FTIndex extends ValueIndex {
   /** Minimum fixed size for each token entry. */
-  private static final int ENTRY = 9;
+  static final int ENTRY = 9;
 
-  /** Cached texts. Increases used memory, but speeds up repeated queries. */
-  private final IntObjMap<byte[]> ctext = new IntObjMap<>();
-  /** Levenshtein reference. */
-  private final Levenshtein ls = new Levenshtein();
+  /**
+   * Cached texts. Increases used memory, but speeds up repeated queries.
+   * Access must be synchronized on the map.
+   */
+  private IntObjMap<byte[]> ctext;
 
   /** Index storing each unique token length and pointer
    * on the first token with this length. */
-  private final DataAccess dataX;
+  DataAccess dataX;
   /** Index storing each token, its data size and pointer on the data. */
-  private final DataAccess dataY;
+  DataAccess dataY;
   /** Storing pre and pos values for each token. */
-  private final DataAccess dataZ;
+  DataAccess dataZ;
 
   /** Cache for number of hits and data reference per token. */
-  private final IndexCache cache = new IndexCache();
+  private IndexCache cache;
   /** Token positions. */
-  private final int[] positions;
+  int[] positions;
+  /** Sorted token dictionary for fuzzy searches (created on demand). */
+  private volatile FTFuzzy fuzzy;
 
   /**
    * Constructor, initializing the index structure.
@@ -80,6 +88,19 @@ public final class FTIndex extends ValueIndex {
    */
   public FTIndex(final Data data) throws IOException {
     super(data, IndexType.FULLTEXT);
+    open();
+  }
+
+  /**
+   * Opens the index files.
+   * @throws IOException I/O Exception
+   */
+  final void open() throws IOException {
+    ctext = new IntObjMap<>();
+    // remove the entries of the previous index files
+    if(cache == null) cache = new IndexCache();
+    else cache.close();
+    fuzzy = null;
     // cache token length index
     dataX = new DataAccess(data.meta.dbFile(DATAFTX + 'x'));
     dataY = new DataAccess(data.meta.dbFile(DATAFTX + 'y'));
@@ -92,10 +113,11 @@ public final class FTIndex extends ValueIndex {
       positions[p] = dataX.read4();
     }
     positions[pl - 1] = (int) dataY.length();
+    for(final byte[] key : IndexCache.preload(data.meta.dbFile(DATAFTX + 'k'))) entry(key);
   }
 
   @Override
-  public synchronized IndexCosts costs(final IndexSearch search) {
+  public IndexCosts costs(final IndexSearch search) {
     final byte[] token = search.token();
     if(token.length > data.meta.maxlen) return null;
 
@@ -106,7 +128,7 @@ public final class FTIndex extends ValueIndex {
   }
 
   @Override
-  public synchronized IndexIterator iter(final IndexSearch search) {
+  public IndexIterator iter(final IndexSearch search) {
     // current search token
     final FTLexer lexer = (FTLexer) search;
     final FTOpt opt = lexer.ftOpt();
@@ -127,7 +149,7 @@ public final class FTIndex extends ValueIndex {
     // return cached or new result
     final IndexEntry entry = entry(token);
     if(entry.size > 0) {
-      return iter(entry.offset, entry.size, dataZ, token);
+      return iter(entry.offset, entry.size, token);
     }
 
     // no results
@@ -139,7 +161,7 @@ public final class FTIndex extends ValueIndex {
    * @param token token to be found or cached
    * @return cache entry
    */
-  private IndexEntry entry(final byte[] token) {
+  final IndexEntry entry(final byte[] token) {
     final IndexEntry entry = cache.get(token);
     if(entry != null) return entry;
 
@@ -158,35 +180,34 @@ public final class FTIndex extends ValueIndex {
 
       @Override
       public byte[] next() {
-        synchronized(FTIndex.this) {
-          if(inner && start < end) {
-            // loop through all entries with the same character length
-            final byte[] entry = dataY.readBytes(start, p);
-            if(startsWith(entry, token)) {
-              final long poi = dataY.read5();
-              nr = dataY.read4();
-              if(token.length != 0) cache.add(entry, nr, poi);
-              start += p + ENTRY;
-              return entry;
-            }
-          }
-          // find next available entry group
-          final int pl = positions.length;
-          while(++p < pl - 1) {
-            start = positions[p];
-            if(start == -1) continue;
-            int c = p + 1;
-            do end = positions[c++]; while(end == -1);
-            nr = 0;
-            inner = true;
-            start = find(token, start, end, p);
-            // jump to inner loop
-            final byte[] n = next();
-            if(n != null) return n;
+        if(inner && start < end) {
+          // loop through all entries with the same character length
+          final DataReader dr = dataY.reader(start);
+          final byte[] entry = dr.readBytes(p);
+          if(startsWith(entry, token)) {
+            final long poi = dr.read5();
+            nr = dr.read4();
+            if(token.length != 0) cache.add(entry, nr, poi);
+            start += p + ENTRY;
+            return entry;
           }
-          // all entries processed: return null
-          return null;
         }
+        // find next available entry group
+        final int pl = positions.length;
+        while(++p < pl - 1) {
+          start = positions[p];
+          if(start == -1) continue;
+          int c = p + 1;
+          do end = positions[c++]; while(end == -1);
+          nr = 0;
+          inner = true;
+          start = find(token, start, end, p);
+          // jump to inner loop
+          final byte[] n = next();
+          if(n != null) return n;
+        }
+        // all entries processed: return null
+        return null;
       }
 
       @Override
@@ -224,15 +245,38 @@ public final class FTIndex extends ValueIndex {
    */
   private byte[] cache(final int pos, final int ti) {
     // do not cache texts if the fulltext index contains unusually long tokens
-    if(ti >= 128) return dataY.readBytes(pos, ti);
+    if(ti >= 128) return bytes(pos, ti);
 
     // try to find cached text (requested length may vary in full-text requests)
     final int key = (ti << 24) + pos;
-    return ctext.computeIfAbsent(key, () -> dataY.readBytes(pos, ti));
+    final IntObjMap<byte[]> map = ctext;
+    byte[] text;
+    synchronized(map) {
+      text = map.get(key);
+    }
+    if(text == null) {
+      text = bytes(pos, ti);
+      synchronized(map) {
+        map.put(key, text);
+      }
+    }
+    return text;
+  }
+
+  /**
+   * Reads bytes from the token file. The method can be called concurrently.
+   * @param pos position
+   * @param len number of bytes
+   * @return bytes
+   */
+  final byte[] bytes(final long pos, final int len) {
+    final byte[] bytes = new byte[len];
+    dataY.read(pos, bytes, 0, len);
+    return bytes;
   }
 
   @Override
-  public synchronized byte[] info(final MainOptions options) {
+  public byte[] info(final MainOptions options) {
     final TokenBuilder tb = new TokenBuilder();
     final long l = dataX.length() + dataY.length() + dataZ.length();
     tb.add(LI_NAMES).add(data.meta.ftinclude).add(NL);
@@ -241,6 +285,8 @@ public final class FTIndex extends ValueIndex {
     final IndexStats stats = new IndexStats(options.get(MainOptions.MAXSTAT));
     addOccs(stats);
     stats.print(tb);
+    final FTFuzzy fz = fuzzy;
+    if(fz != null) tb.add(LI_FUZZY).add(fz.info()).add(NL);
     return tb.finish();
   }
 
@@ -254,6 +300,7 @@ public final class FTIndex extends ValueIndex {
     dataX.close();
     dataY.close();
     dataZ.close();
+    cache.close(data.meta.dbFile(DATAFTX + 'k'));
   }
 
   @Override
@@ -288,13 +335,13 @@ public final class FTIndex extends ValueIndex {
     // binary search
     final int o = tl + ENTRY;
     while(s < e) {
-      final int m = s + (e - s >> 1) / o * o, d = diff(dataY.readBytes(m, tl), token);
+      final int m = s + (e - s >> 1) / o * o, d = diff(bytes(m, tl), token);
       if(d == 0) return m;
       if(d < 0) s = m + o;
       else e = m - o;
     }
     // accept entry if pointer is inside relevant tokens
-    return e != x && s == e && eq(dataY.readBytes(s, tl), token) ? s : -1;
+    return e != x && s == e && eq(bytes(s, tl), token) ? s : -1;
   }
 
   /**
@@ -311,7 +358,7 @@ public final class FTIndex extends ValueIndex {
     final int max = positions[pl - 1];
     while(p < max) {
       final int oc = size(p, i);
-      if(stats.adding(oc)) stats.add(dataY.readBytes(p, i), oc);
+      if(stats.adding(oc)) stats.add(bytes(p, i), oc);
       p += i + ENTRY;
       if(p == positions[j]) {
         i = j;
@@ -326,8 +373,8 @@ public final class FTIndex extends ValueIndex {
    * @param lt length of the token
    * @return int pointer on ftdata
    */
-  private long pointer(final long pt, final int lt) {
-    return dataY.read5(pt + lt);
+  final long pointer(final long pt, final int lt) {
+    return dataY.reader(pt + lt).read5();
   }
 
   /**
@@ -336,8 +383,8 @@ public final class FTIndex extends ValueIndex {
    * @param lt length of the token
    * @return size of the ftdata
    */
-  private int size(final long pt, final int lt) {
-    return dataY.read4(pt + lt + 5);
+  final int size(final long pt, final int lt) {
+    return dataY.reader(pt + lt + 5).read4();
   }
 
   /**
@@ -347,23 +394,46 @@ public final class FTIndex extends ValueIndex {
    * @return iterator
    */
   private IndexIterator fuzzy(final byte[] token, final int k) {
-    final int tokl = token.length, pl = positions.length, e = Math.min(pl - 1, tokl + k);
-    int s = Math.max(1, tokl - k) - 1;
+    final FTFuzzy fz = dictionary();
+    final Levenshtein ls = new Levenshtein();
+
+    // find candidates (dynamic error calculation if k is 0), verify them
+    final int tokl = token.length;
+    final IntList list = fz.find(token, k > 0 ? k : Math.max(1, tokl >> 2),
+        Math.max(1, tokl - k), tokl + k);
     final ArrayList<FTIndexIterator> iters = new ArrayList<>();
-    while(++s <= e) {
+    final int size = list.size();
+    for(int l = 0; l < size; l += 2) {
+      final int p = list.get(l), s = list.get(l + 1);
+      if(ls.similar(bytes(p, s), token, k)) {
+        iters.add(iter(pointer(p, s), size(p, s), token));
+      }
+    }
+    return iters.isEmpty() ? FTIndexIterator.FTEMPTY :
+      FTIndexIterator.union(iters.toArray(FTIndexIterator[]::new));
+  }
+
+  /**
+   * Returns a sorted dictionary with all index tokens. The dictionary is created on demand.
+   * @return dictionary
+   */
+  private synchronized FTFuzzy dictionary() {
+    if(fuzzy != null) return fuzzy;
+    final TokenList tokens = new TokenList();
+    final IntList pos = new IntList();
+    final int pl = positions.length;
+    for(int s = 1; s < pl - 1; s++) {
       int p = positions[s];
       if(p == -1) continue;
       int t = s + 1, r = -1;
       while(t < pl && r == -1) r = positions[t++];
-      while(p < r) {
-        if(ls.similar(dataY.readBytes(p, s), token, k)) {
-          iters.add(iter(pointer(p, s), size(p, s), dataZ, token));
-        }
-        p += s + ENTRY;
+      for(; p < r; p += s + ENTRY) {
+        tokens.add(bytes(p, s));
+        pos.add(p);
       }
     }
-    return iters.isEmpty() ? FTIndexIterator.FTEMPTY :
-      FTIndexIterator.union(iters.toArray(FTIndexIterator[]::new));
+    fuzzy = new FTFuzzy(tokens, pos);
+    return fuzzy;
   }
 
   /**
@@ -385,15 +455,10 @@ public final class FTIndex extends ValueIndex {
       start = find(prefix, start, end, p);
 
       while(start < end) {
-        final byte[] t = dataY.readBytes(start, p);
+        final byte[] t = bytes(start, p);
         if(!startsWith(t, prefix)) break;
         if(wc.match(t)) {
-          dataZ.cursor(pointer(start, p));
-          final int s = size(start, p);
-          for(int d = 0; d < s; d++) {
-            pr.add(dataZ.readNum());
-            ps.add(dataZ.readNum());
-          }
+          postings(pointer(start, p), size(start, p), pr, ps);
         }
         start += p + ENTRY;
       }
@@ -403,21 +468,107 @@ public final class FTIndex extends ValueIndex {
 
   /**
    * Returns an iterator for an index entry.
+   * The entries are decoded block by block, and blocks are skipped if possible.
    * @param off offset on entries
    * @param size number of id/pos entries
-   * @param da data source
    * @param token index token
    * @return iterator
    */
-  private static FTIndexIterator iter(final long off, final int size, final DataAccess da,
-      final byte[] token) {
-    da.cursor(off);
-    final IntList pr = new IntList(size), ps = new IntList(size);
-    for(int c = 0; c < size; c++) {
-      pr.add(da.readNum());
-      ps.add(da.readNum());
+  FTIndexIterator iter(final long off, final int size, final byte[] token) {
+    final FTPostings postings = new FTPostings(dataZ, off, size);
+
+    return new FTIndexIterator() {
+      final FTMatches all = new FTMatches();
+      int pos, pre;
+      boolean started, more;
+
+      @Override
+      public boolean more() {
+        if(!started) {
+          started = true;
+          more = postings.next();
+        }
+        return group();
+      }
+
+      @Override
+      public boolean skip(final int target) {
+        started = true;
+        more = postings.skip(target);
+        return group();
+      }
+
+      /**
+       * Collects all entries with the same pre value.
+       * @return {@code true} if another pre value was found
+       */
+      private boolean group() {
+        if(!more) return false;
+        all.reset(pos);
+        pre = postings.pre();
+        do {
+          all.or(postings.pos());
+        } while((more = postings.next()) && postings.pre() == pre);
+        return true;
+      }
+
+      @Override
+      public FTMatches matches() {
+        return all;
+      }
+
+      @Override
+      public int pre() {
+        return pre;
+      }
+
+      @Override
+      public void pos(final int p) {
+        pos = p;
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public int texts() {
+        return postings.texts();
+      }
+
+      @Override
+      public String toString() {
+        return Strings.concat(token, '(', size, "x)");
+      }
+    };
+  }
+
+  /**
+   * Adds the pre and pos values of an index entry to the specified lists.
+   * @param off offset on entries
+   * @param size number of id/pos entries
+   * @param pr pre values
+   * @param ps pos values
+   */
+  final void postings(final long off, final int size, final IntList pr, final IntList ps) {
+    final FTPostings fp = new FTPostings(dataZ, off, size);
+    while(fp.next()) {
+      final int pre = pre(fp.pre());
+      if(pre != -1) {
+        pr.add(pre);
+        ps.add(fp.pos());
+      }
     }
-    return iter(new FTCache(pr, ps), token);
+  }
+
+  /**
+   * Returns the pre value for the specified id.
+   * @param id id value
+   * @return pre value, or {@code -1} if the node is not indexed anymore
+   */
+  int pre(final int id) {
+    return id;
   }
 
   /**
@@ -426,7 +577,7 @@ public final class FTIndex extends ValueIndex {
    * @param token index token
    * @return iterator
    */
-  private static FTIndexIterator iter(final FTCache ftc, final byte[] token) {
+  static FTIndexIterator iter(final FTCache ftc, final byte[] token) {
     final int size = ftc.pre.size();
 
     return new FTIndexIterator() {
@@ -468,6 +619,11 @@ public final class FTIndex extends ValueIndex {
         return size;
       }
 
+      @Override
+      public int texts() {
+        return ftc.texts;
+      }
+
       @Override
       public String toString() {
         return Strings.concat(token, '(', size, "x)");
@@ -478,26 +634,33 @@ public final class FTIndex extends ValueIndex {
   /**
    * Full-text cache.
    */
-  private static final class FTCache {
+  static final class FTCache {
     /** Order. */
     private final int[] order;
     /** Pre values. */
     private final IntList pre;
     /** Pos values. */
     private final IntList pos;
+    /** Number of distinct pre values. */
+    private final int texts;
 
     /**
      * Constructor.
      * @param pr pre values
      * @param ps positions
      */
-    private FTCache(final IntList pr, final IntList ps) {
+    FTCache(final IntList pr, final IntList ps) {
       final int s = pr.size();
       final long[] v = new long[s];
       for(int i = 0; i < s; i++) v[i] = (long) pr.get(i) << 32 | ps.get(i);
       order = Array.createOrder(v, true);
       pre = pr;
       pos = ps;
+      int t = 0;
+      for(int i = 0; i < s; i++) {
+        if(i == 0 || v[i] >>> 32 != v[i - 1] >>> 32) t++;
+      }
+      texts = t;
     }
   }
 
@@ -0,0 +1,169 @@
+package org.basex.index.ft;
+
+import org.basex.io.random.*;
+
+/**
+ * <p>This class provides sequential access to the pre/pos entries of a single full-text index
+ * token. The entries are grouped in blocks of {@link #BLOCK} entries. If a token has more than
+ * one block, a skip table is stored in front of the blocks, which contains the last pre value and
+ * the byte size of each block. It is used to jump over blocks without decoding them.</p>
+ *
+ * <p>The table and the blocks are read on demand. Blocks are decoded one at a time.</p>
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+final class FTPostings {
+  /** Number of entries per block. */
+  static final int BLOCK = 128;
+
+  /** Data reader. */
+  private final DataReader dr;
+  /** Total number of entries. */
+  private final int size;
+  /** Number of blocks. */
+  private final int blocks;
+  /** Number of distinct pre values. */
+  private final int texts;
+  /** Last pre value of each block. */
+  private final int[] lasts;
+  /** Offsets of the blocks (with an additional offset for the end of the last block). */
+  private final long[] offsets;
+
+  /** Pre values of the current block. */
+  private final int[] pres = new int[BLOCK];
+  /** Pos values of the current block. */
+  private final int[] poss = new int[BLOCK];
+  /** Current block ({@code -1}: no block has been decoded yet). */
+  private int block = -1;
+  /** Number of entries in the current block. */
+  private int count;
+  /** Offset of the current entry in the current block. */
+  private int index;
+  /** Indicates if all entries have been returned. */
+  private boolean end;
+
+  /**
+   * Constructor.
+   * @param da data access
+   * @param offset offset of the entries
+   * @param size number of entries
+   */
+  FTPostings(final DataAccess da, final long offset, final int size) {
+    dr = da.reader(offset);
+    this.size = size;
+    blocks = (size + BLOCK - 1) / BLOCK;
+    lasts = new int[blocks];
+    offsets = new long[blocks + 1];
+
+    texts = dr.readNum();
+    if(blocks > 1) {
+      int last = 0;
+      long off = 0;
+      for(int b = 0; b < blocks; b++) {
+        last += dr.readNum();
+        lasts[b] = last;
+        offsets[b + 1] = off += dr.readNum();
+      }
+      final long start = dr.cursor();
+      for(int b = 0; b <= blocks; b++) offsets[b] += start;
+    } else if(blocks == 1) {
+      lasts[0] = Integer.MAX_VALUE;
+      offsets[0] = dr.cursor();
+    }
+  }
+
+  /**
+   * Returns the number of entries.
+   * @return number of entries
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the number of distinct pre values.
+   * @return number of pre values
+   */
+  int texts() {
+    return texts;
+  }
+
+  /**
+   * Moves the cursor to the next entry.
+   * @return {@code true} if another entry exists
+   */
+  boolean next() {
+    if(end) return false;
+    if(++index < count) return true;
+    if(block + 1 < blocks) {
+      decode(block + 1);
+      return true;
+    }
+    end = true;
+    return false;
+  }
+
+  /**
+   * Moves the cursor to the first entry, starting from the current one, with a pre value
+   * that is equal to or greater than the specified value. Blocks that only contain smaller
+   * pre values are skipped without being decoded.
+   * @param pre pre value
+   * @return {@code true} if such an entry exists
+   */
+  boolean skip(final int pre) {
+    if(end) return false;
+    // find first block that may contain the pre value
+    int l = Math.max(0, block), h = blocks;
+    while(l < h) {
+      final int m = l + h >>> 1;
+      if(lasts[m] < pre) l = m + 1;
+      else h = m;
+    }
+    if(l == blocks) {
+      end = true;
+      return false;
+    }
+    if(l != block) decode(l);
+
+    while(index < count && pres[index] < pre) index++;
+    if(index < count) return true;
+    end = true;
+    return false;
+  }
+
+  /**
+   * Returns the pre value of the current entry.
+   * @return pre value
+   */
+  int pre() {
+    return pres[index];
+  }
+
+  /**
+   * Returns the pos value of the current entry.
+   * @return pos value
+   */
+  int pos() {
+    return poss[index];
+  }
+
+  /**
+   * Decodes the specified block and sets the cursor to its first entry.
+   * @param b block
+   */
+  private void decode(final int b) {
+    count = Math.min(BLOCK, size - b * BLOCK);
+    dr.cursor(offsets[b]);
+    int pre = b == 0 ? 0 : lasts[b - 1], pos = 0;
+    for(int c = 0; c < count; c++) {
+      final int d = dr.readNum(), p = dr.readNum();
+      pre += d;
+      pos = c > 0 && d == 0 ? pos + p : p;
+      pres[c] = pre;
+      poss[c] = pos;
+    }
+    block = b;
+    index = 0;
+  }
+}
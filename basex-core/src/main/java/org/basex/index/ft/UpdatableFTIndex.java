@@ -0,0 +1,390 @@
+package org.basex.index.ft;
+
+import static org.basex.data.DataText.*;
+import static org.basex.util.Token.*;
+import static org.basex.util.ft.FTFlag.*;
+
+import java.io.*;
+import java.util.*;
+
+import org.basex.core.*;
+import org.basex.data.*;
+import org.basex.index.*;
+import org.basex.index.query.*;
+import org.basex.index.value.*;
+import org.basex.io.*;
+import org.basex.io.in.DataInput;
+import org.basex.io.out.DataOutput;
+import org.basex.query.expr.ft.*;
+import org.basex.query.util.ft.*;
+import org.basex.query.util.index.*;
+import org.basex.util.*;
+import org.basex.util.ft.*;
+import org.basex.util.hash.*;
+import org.basex.util.list.*;
+import org.basex.util.similarity.*;
+
+/**
+ * <p>This class provides access and update functions to a full-text index that references
+ * node ids instead of pre values. The index files are not changed by updates. Instead, all
+ * changes are recorded in a delta segment: the ids of deleted texts are remembered, and the
+ * tokens of new texts are kept in main memory. Query results are combined from both sources.</p>
+ *
+ * <p>When the database is flushed, the delta segment is written to a separate file with the
+ * suffix {@code d}. If it gets too large, it is merged with the index files.</p>
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class UpdatableFTIndex extends FTIndex {
+  /** Minimum number of delta entries that will cause a merge. */
+  private static final int MERGE = 1 << 16;
+
+  /** Ids of deleted texts. */
+  private IntSet deleted = new IntSet();
+  /** Added tokens, with ids and positions (alternating). */
+  private final TokenObjMap<IntList> added = new TokenObjMap<>();
+  /** Number of added entries. */
+  private int count;
+  /** Indicates if the delta segment has been changed. */
+  private boolean dirty;
+  /** Lexer (created on demand). */
+  private FTLexer lexer;
+
+  /**
+   * Constructor, initializing the index structure.
+   * @param data data reference
+   * @throws IOException I/O Exception
+   */
+  public UpdatableFTIndex(final Data data) throws IOException {
+    super(data);
+    final IOFile file = data.meta.dbFile(DATAFTX + 'd');
+    if(file.exists()) {
+      try(DataInput in = new DataInput(file)) {
+        for(final int id : in.readNums()) deleted.add(id);
+        for(int k = in.readNum(); --k >= 0;) {
+          final byte[] token = in.readToken();
+          final IntList list = new IntList(in.readNums());
+          added.put(token, list);
+          count += list.size() >> 1;
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns a lexer for tokenizing updated texts.
+   * @return lexer
+   */
+  public FTLexer lexer() {
+    if(lexer == null) {
+      final StopWords sw = new StopWords();
+      sw.compile(data);
+      try {
+        lexer = FTBuilder.lexer(data, sw);
+      } catch(final BaseXException ex) {
+        throw Util.notExpected(ex);
+      }
+    }
+    return lexer;
+  }
+
+  @Override
+  public IndexCosts costs(final IndexSearch search) {
+    final IndexCosts costs = super.costs(search);
+    if(costs == null) return null;
+    final IntList list = added.get(search.token());
+    return list == null ? costs : IndexCosts.add(costs, IndexCosts.get(list.size() >> 1));
+  }
+
+  @Override
+  public IndexIterator iter(final IndexSearch search) {
+    final FTIndexIterator iter = (FTIndexIterator) super.iter(search);
+    if(added.isEmpty()) return iter;
+
+    // find added tokens
+    final FTLexer lex = (FTLexer) search;
+    final FTOpt opt = lex.ftOpt();
+    final byte[] token = lex.token();
+    final FTWildcard wc = opt.is(WC) ? new FTWildcard(token) : null;
+    if(wc != null && !wc.valid()) return iter;
+    final boolean wildcards = wc != null && !wc.simple(), fz = !wildcards && opt.is(FZ);
+    final int errors = fz ? lex.errors(token) : 0;
+
+    final IntList pr = new IntList(), ps = new IntList();
+    if(wildcards || fz) {
+      final Levenshtein ls = new Levenshtein();
+      for(final byte[] key : added) {
+        if(wildcards ? wc.match(key) : ls.similar(key, token, errors)) add(key, pr, ps);
+      }
+    } else {
+      add(token, pr, ps);
+    }
+    if(pr.isEmpty()) return iter;
+
+    final FTIndexIterator delta = iter(new FTCache(pr, ps), token);
+    return iter == FTIndexIterator.FTEMPTY ? delta : FTIndexIterator.union(iter, delta);
+  }
+
+  /**
+   * Adds the pre values and positions of an added token to the specified lists.
+   * @param token token
+   * @param pr pre values
+   * @param ps positions
+   */
+  private void add(final byte[] token, final IntList pr, final IntList ps) {
+    final IntList list = added.get(token);
+    if(list == null) return;
+    final int sz = list.size();
+    for(int l = 0; l < sz; l += 2) {
+      pr.add(data.pre(list.get(l)));
+      ps.add(list.get(l + 1));
+    }
+  }
+
+  @Override
+  public EntryIterator entries(final IndexEntries entries) {
+    final byte[] prefix = entries.token();
+    final TokenIntMap map = new TokenIntMap();
+    // count remaining entries of the index files
+    final EntryIterator ei = super.entries(entries);
+    for(byte[] token; (token = ei.next()) != null;) {
+      int c = ei.count();
+      if(!deleted.isEmpty()) {
+        final IndexEntry entry = entry(token);
+        final IntList pr = new IntList(), ps = new IntList();
+        postings(entry.offset, entry.size, pr, ps);
+        c = pr.size();
+      }
+      map.put(token, c);
+    }
+    // add new entries
+    for(final byte[] token : added) {
+      if(startsWith(token, prefix)) {
+        map.put(token, Math.max(0, map.get(token)) + (added.get(token).size() >> 1));
+      }
+    }
+
+    final TokenList tokens = new TokenList(map.size());
+    for(final byte[] token : map) {
+      if(map.get(token) > 0) tokens.add(token);
+    }
+    final byte[][] sorted = tokens.finish();
+    Arrays.sort(sorted, UpdatableFTIndex::compare);
+
+    return new EntryIterator() {
+      int i = -1;
+
+      @Override
+      public byte[] next() {
+        return ++i < sorted.length ? sorted[i] : null;
+      }
+
+      @Override
+      public int count() {
+        return map.get(sorted[i]);
+      }
+    };
+  }
+
+  @Override
+  FTIndexIterator iter(final long off, final int size, final byte[] token) {
+    // ids are not sorted by pre values: cache and sort results
+    final IntList pr = new IntList(size), ps = new IntList(size);
+    postings(off, size, pr, ps);
+    return iter(new FTCache(pr, ps), token);
+  }
+
+  @Override
+  int pre(final int id) {
+    return deleted.contains(id) ? -1 : data.pre(id);
+  }
+
+  @Override
+  public synchronized void add(final ValueCache values) {
+    for(final byte[] key : values) {
+      final IntList ids = values.ids(key), pos = values.pos(key);
+      final IntList list = added.computeIfAbsent(key, IntList::new);
+      final int is = ids.size();
+      for(int i = 0; i < is; i++) list.add(ids.get(i)).add(pos.get(i));
+      count += is;
+    }
+    dirty = true;
+  }
+
+  @Override
+  public synchronized void delete(final ValueCache values) {
+    for(final byte[] key : values) {
+      final IntList ids = values.ids(key);
+      final int is = ids.size();
+      for(int i = 0; i < is; i++) deleted.add(ids.get(i));
+
+      // remove added entries
+      final IntList list = added.get(key);
+      if(list == null) continue;
+      final IntSet remove = new IntSet(is);
+      for(int i = 0; i < is; i++) remove.add(ids.get(i));
+      final int sz = list.size();
+      final IntList tmp = new IntList(sz);
+      for(int l = 0; l < sz; l += 2) {
+        final int id = list.get(l);
+        if(!remove.contains(id)) tmp.add(id).add(list.get(l + 1));
+      }
+      count -= sz - tmp.size() >> 1;
+      if(tmp.isEmpty()) added.remove(key);
+      else added.put(key, tmp);
+    }
+    dirty = true;
+  }
+
+  @Override
+  public synchronized void flush() {
+    if(!dirty) return;
+    try {
+      if(count + deleted.size() > Math.max(MERGE, dataZ.length() >> 4)) {
+        merge();
+      } else {
+        write();
+      }
+      dirty = false;
+    } catch(final IOException ex) {
+      Util.stack(ex);
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    flush();
+    super.close();
+  }
+
+  /**
+   * Writes the delta segment to disk.
+   * @throws IOException I/O exception
+   */
+  private void write() throws IOException {
+    try(DataOutput out = new DataOutput(data.meta.dbFile(DATAFTX + 'd'))) {
+      out.writeNums(deleted.toArray());
+      out.writeNum(added.size());
+      for(final byte[] token : added) {
+        out.writeToken(token);
+        out.writeNums(added.get(token).toArray());
+      }
+    }
+  }
+
+  /**
+   * Merges the delta segment with the index files.
+   * @throws IOException I/O exception
+   */
+  private void merge() throws IOException {
+    final TokenList list = new TokenList(added.size());
+    for(final byte[] token : added) list.add(token);
+    final byte[][] tokens = list.finish();
+    Arrays.sort(tokens, UpdatableFTIndex::compare);
+
+    final String name = DATAFTX + 'm';
+    try(DataOutput outX = new DataOutput(data.meta.dbFile(name + 'x'));
+        DataOutput outY = new DataOutput(data.meta.dbFile(name + 'y'));
+        DataOutput outZ = new DataOutput(data.meta.dbFile(name + 'z'))) {
+
+      final IntList ind = new IntList();
+      final int tl = tokens.length, pl = positions.length;
+      int t = 0;
+      for(int s = 1; s < pl - 1; s++) {
+        int p = positions[s];
+        if(p == -1) continue;
+        int n = s + 1, r = -1;
+        while(n < pl && r == -1) r = positions[n++];
+        for(; p < r; p += s + ENTRY) {
+          final byte[] token = bytes(p, s);
+          // write added tokens that precede the current token
+          for(; t < tl && compare(tokens[t], token) < 0; t++) {
+            write(tokens[t], new IntList(), new IntList(), outY, outZ, ind);
+          }
+          // read remaining ids and positions
+          final IntList ids = new IntList(), pos = new IntList();
+          final FTPostings fp = new FTPostings(dataZ, pointer(p, s), size(p, s));
+          while(fp.next()) {
+            if(deleted.contains(fp.pre())) continue;
+            ids.add(fp.pre());
+            pos.add(fp.pos());
+          }
+          if(t < tl && eq(tokens[t], token)) t++;
+          write(token, ids, pos, outY, outZ, ind);
+        }
+      }
+      for(; t < tl; t++) write(tokens[t], new IntList(), new IntList(), outY, outZ, ind);
+      final int is = ind.size();
+      FTBuilder.writeInd(outX, ind, is == 0 ? 1 : ind.get(is - 2) + 1, (int) outY.size());
+    }
+
+    // replace index files, discard delta segment
+    super.close();
+    for(final char c : new char[] { 'x', 'y', 'z' }) {
+      final IOFile file = data.meta.dbFile(DATAFTX + c);
+      if(!file.delete() || !data.meta.dbFile(name + c).rename(file)) {
+        throw new IOException("Could not replace " + file);
+      }
+    }
+    data.meta.dbFile(DATAFTX + 'd').delete();
+    deleted = new IntSet();
+    added.clear();
+    count = 0;
+    open();
+  }
+
+  /**
+   * Writes a single token with its ids and positions.
+   * @param token token
+   * @param ids ids of the index files
+   * @param pos positions of the index files
+   * @param outY tokens
+   * @param outZ ids and positions
+   * @param ind token lengths and offsets
+   * @throws IOException I/O exception
+   */
+  private void write(final byte[] token, final IntList ids, final IntList pos,
+      final DataOutput outY, final DataOutput outZ, final IntList ind) throws IOException {
+
+    // add new entries, sort entries by ids and positions
+    final IntList list = added.get(token);
+    if(list != null) {
+      final int ls = list.size();
+      for(int l = 0; l < ls; l += 2) {
+        ids.add(list.get(l));
+        pos.add(list.get(l + 1));
+      }
+    }
+    final int size = ids.size();
+    if(size == 0) return;
+
+    final long[] entries = new long[size];
+    for(int s = 0; s < size; s++) entries[s] = (long) ids.get(s) << 32 | pos.get(s);
+    Arrays.sort(entries);
+    ids.reset();
+    pos.reset();
+    for(final long entry : entries) {
+      ids.add((int) (entry >>> 32));
+      pos.add((int) entry);
+    }
+
+    final int tl = token.length;
+    if(ind.isEmpty() || ind.get(ind.size() - 2) < tl) ind.add(tl).add((int) outY.size());
+    outY.writeBytes(token);
+    outY.write5(outZ.size());
+    outY.write4(size);
+    FTBuilder.writePostings(outZ, ids, pos);
+  }
+
+  /**
+   * Compares two tokens in the order of the index files.
+   * @param token1 first token
+   * @param token2 second token
+   * @return result of comparison
+   */
+  private static int compare(final byte[] token1, final byte[] token2) {
+    final int d = token1.length - token2.length;
+    return d != 0 ? d : diff(token1, token2);
+  }
+}
@@ -52,7 +52,7 @@ public final class Names extends TokenSet implements Index {
    * Initializes the index.
    */
   public void init() {
-    for(int id = 1; id < size; id++) stats[id] = new Stats();
+    for(int id = 1; id < size; id++) stats[id] = new Stats(true);
   }
 
   /**
@@ -74,7 +74,7 @@ public final class Names extends TokenSet implements Index {
     final int id = put(name);
     Stats s = stats[id];
     if(s == null) {
-      s = new Stats();
+      s = new Stats(true);
       stats[id] = s;
     }
     if(value != null) s.add(value, meta);
@@ -88,13 +88,58 @@ public final class Names extends TokenSet implements Index {
     for(int id = 1; id < size; id++) {
       Stats s = stats[id];
       if(s == null) {
-        s = new Stats();
+        s = new Stats(true);
         stats[id] = s;
       }
       s.write(out);
     }
   }
 
+  /**
+   * Reads the histograms of the statistics from the specified input stream.
+   * @param in input stream
+   * @throws IOException I/O exception
+   */
+  public void readHistograms(final DataInput in) throws IOException {
+    for(int id = 1; id < size; id++) stats[id].readHistogram(in);
+  }
+
+  /**
+   * Writes the histograms of the statistics to the specified output stream.
+   * @param out output stream
+   * @throws IOException I/O exception
+   */
+  public void writeHistograms(final DataOutput out) throws IOException {
+    for(int id = 1; id < size; id++) stats[id].writeHistogram(out);
+  }
+
+  /**
+   * Returns the maximum length of the values of all names. Unknown lengths are ignored.
+   * @return maximum length
+   */
+  public int length() {
+    int length = 0;
+    for(int id = 1; id < size; id++) {
+      final Stats s = stats[id];
+      if(s != null) length = Math.max(length, s.length);
+    }
+    return length;
+  }
+
+  /**
+   * Registers the length of a value that has been added by an update.
+   * @param id name id
+   * @param length length of the value
+   */
+  public void length(final int id, final int length) {
+    Stats s = stats[id];
+    if(s == null) {
+      s = new Stats(true);
+      stats[id] = s;
+    }
+    if(s.length >= 0 && s.length < length) s.length = length;
+  }
+
   /**
    * Returns the statistics for the specified key id.
    * @param id name id
@@ -36,6 +36,29 @@ public abstract class FTIndexIterator implements IndexIterator {
    */
   public abstract void pos(int p);
 
+  /**
+   * Returns the number of distinct texts referenced by this iterator.
+   * By default, the number of index entries is returned.
+   * @return number of texts
+   */
+  public int texts() {
+    return size();
+  }
+
+  /**
+   * Skips all results with a pre value smaller than the specified one.
+   * The iterator is advanced at least once. By default, {@link #more()} is called repeatedly.
+   * Iterators that provide faster access can overwrite this method.
+   * @param pre pre value
+   * @return {@code true} if another result exists
+   */
+  public boolean skip(final int pre) {
+    while(more()) {
+      if(pre() >= pre) return true;
+    }
+    return false;
+  }
+
   /**
    * Merges two index iterators for unions.
    * @param iters index iterators to merge
@@ -45,23 +68,30 @@ public abstract class FTIndexIterator implements IndexIterator {
     return new FTIndexIterator() {
       final IntList curr = new IntList();
       FTIndexIterator[] ir;
+      int pre;
 
       @Override
       public boolean more() {
+        return skip(Integer.MIN_VALUE);
+      }
+
+      @Override
+      public boolean skip(final int target) {
         final int il = iters.length;
         if(ir == null) {
           ir = new FTIndexIterator[il];
           for(int i = 0; i < il; i++) {
-            ir[i] = iters[i].more() ? iters[i] : null;
+            ir[i] = iters[i].skip(target) ? iters[i] : null;
           }
         } else {
-          final int cs = curr.size();
-          for(int c = 0; c < cs; c++) {
-            final int i = curr.get(c);
-            if(!ir[i].more()) ir[i] = null;
+          // advance current iterators and iterators with smaller pre values
+          for(int i = 0; i < il; i++) {
+            if(ir[i] == null) continue;
+            final int p = ir[i].pre();
+            if((p == pre || p < target) && !ir[i].skip(target)) ir[i] = null;
           }
         }
-        int pre = Integer.MAX_VALUE;
+        pre = Integer.MAX_VALUE;
         for(int i = 0; i < il; i++) {
           if(ir[i] == null) continue;
           final int p = ir[i].pre();
@@ -92,7 +122,7 @@ public abstract class FTIndexIterator implements IndexIterator {
 
       @Override
       public int pre() {
-        return ir[curr.peek()].pre();
+        return pre;
       }
 
       @Override
@@ -107,6 +137,13 @@ public abstract class FTIndexIterator implements IndexIterator {
         return c;
       }
 
+      @Override
+      public int texts() {
+        int c = 0;
+        for(final FTIndexIterator iter : iters) c += iter.texts();
+        return c;
+      }
+
       @Override
       public String toString() {
         final StringBuilder sb = new StringBuilder().append('(');
@@ -135,13 +172,25 @@ public abstract class FTIndexIterator implements IndexIterator {
 
       @Override
       public boolean more() {
-        int d = 0;
+        return skip(Integer.MIN_VALUE);
+      }
+
+      @Override
+      public boolean skip(final int target) {
+        ii1 = i1.skip(target) ? i1 : null;
+        ii2 = i2.skip(target) ? i2 : null;
         while(true) {
-          if(d <= 0) ii1 = i1.more() ? i1 : null;
-          if(d >= 0) ii2 = i2.more() ? i2 : null;
           if(ii1 == null || ii2 == null) return false;
-          d = ii1.pre() - ii2.pre();
-          if(d != 0) continue;
+          // leap-frog: skip the entries of the iterator with the smaller pre value
+          final int d = ii1.pre() - ii2.pre();
+          if(d < 0) {
+            ii1 = i1.skip(ii2.pre()) ? i1 : null;
+            continue;
+          }
+          if(d > 0) {
+            ii2 = i2.skip(ii1.pre()) ? i2 : null;
+            continue;
+          }
           all = ii1.matches();
           final FTMatches all2 = ii2.matches();
           if(dis == 0) {
@@ -152,6 +201,8 @@ public abstract class FTIndexIterator implements IndexIterator {
           } else if(all.phrase(all2, dis)) {
             return true;
           }
+          ii1 = i1.more() ? i1 : null;
+          ii2 = i2.more() ? i2 : null;
         }
       }
 
@@ -176,6 +227,11 @@ public abstract class FTIndexIterator implements IndexIterator {
         return Math.min(i1.size(), i2.size());
       }
 
+      @Override
+      public int texts() {
+        return Math.min(i1.texts(), i2.texts());
+      }
+
       @Override
       public String toString() {
         return "(" + i1 + " & " + i2 + ')';
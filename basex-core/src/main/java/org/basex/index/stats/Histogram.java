@@ -0,0 +1,244 @@
+package org.basex.index.stats;
+
+import static org.basex.util.Token.*;
+
+import java.io.*;
+import java.util.*;
+
+import org.basex.io.in.DataInput;
+import org.basex.io.out.DataOutput;
+import org.basex.util.list.*;
+
+/**
+ * This class provides an equi-depth histogram for the values of an indexed name.
+ * While the values are added, a random sample is collected. When the histogram is finished,
+ * the sample is sorted and split into buckets with the same number of values, and the
+ * number of distinct values is estimated.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class Histogram {
+  /** Maximum size of the sample. */
+  private static final int SAMPLE = 512;
+  /** Maximum number of buckets. */
+  private static final int BUCKETS = 32;
+
+  /** Sampled values ({@code null} if the histogram has been finished). */
+  private TokenList sample = new TokenList();
+  /** Seed for choosing the sampled values. */
+  private long seed = 0x2545F4914F6CDD1DL;
+
+  /** Number of values. */
+  private int size;
+  /** Estimated number of distinct values. */
+  private int distinct;
+  /** Indicates if the values are numeric. */
+  private boolean numeric;
+  /** Smallest value, followed by the largest values of all buckets. */
+  private byte[][] bounds;
+  /** Numeric bounds (only assigned if values are numeric). */
+  private double[] nums;
+
+  /**
+   * Default constructor.
+   */
+  Histogram() {
+  }
+
+  /**
+   * Constructor, specifying an input stream.
+   * @param in input stream
+   * @throws IOException I/O exception
+   */
+  Histogram(final DataInput in) throws IOException {
+    sample = null;
+    size = in.readNum();
+    distinct = in.readNum();
+    numeric = in.readBool();
+    bounds = in.readTokens();
+    if(numeric) nums();
+  }
+
+  /**
+   * Writes the histogram to the specified output stream.
+   * @param out output stream
+   * @throws IOException I/O exception
+   */
+  void write(final DataOutput out) throws IOException {
+    out.writeNum(size);
+    out.writeNum(distinct);
+    out.writeBool(numeric);
+    out.writeTokens(bounds);
+  }
+
+  /**
+   * Adds a value. Values that are added after the histogram has been finished are ignored.
+   * @param value value
+   * @param maxlen maximum length of sampled values
+   */
+  void add(final byte[] value, final int maxlen) {
+    if(sample == null) return;
+    // reservoir sampling: each value is chosen with the same probability
+    final int index = size < SAMPLE ? size : (int) Math.floorMod(next(), size + 1L);
+    if(index < SAMPLE) {
+      final byte[] v = value.length > maxlen ? Arrays.copyOf(value, maxlen) : value;
+      if(index == sample.size()) sample.add(v);
+      else sample.set(index, v);
+    }
+    size++;
+  }
+
+  /**
+   * Finishes the histogram.
+   * @param num indicates if the values are numeric
+   * @return self reference, or {@code null} if no values have been added
+   */
+  Histogram finish(final boolean num) {
+    if(sample != null) {
+      final byte[][] values = sample.finish();
+      sample = null;
+      final int sl = values.length;
+      if(sl == 0) return null;
+
+      numeric = num;
+      Arrays.sort(values, numeric ? (v1, v2) -> Double.compare(toDouble(v1), toDouble(v2)) :
+        (v1, v2) -> diff(v1, v2));
+
+      // count distinct values and values that occur only once
+      int dist = 0, once = 0;
+      for(int s = 0; s < sl;) {
+        int e = s + 1;
+        while(e < sl && compare(values[s], values[e]) == 0) e++;
+        dist++;
+        if(e - s == 1) once++;
+        s = e;
+      }
+      // estimate number of distinct values: assume unique values if no sampled value occurs
+      // twice, or scale number of values that occur once (GEE estimator)
+      distinct = sl == size ? dist : once == sl ? size : (int) Math.min(size,
+          Math.round(Math.sqrt((double) size / sl) * once + dist - once));
+
+      final int bl = Math.min(BUCKETS, sl);
+      bounds = new byte[bl + 1][];
+      bounds[0] = values[0];
+      for(int b = 1; b <= bl; b++) bounds[b] = values[(int) ((long) b * sl / bl) - 1];
+      if(numeric) nums();
+    }
+    return bounds != null ? this : null;
+  }
+
+  /**
+   * Returns the number of values.
+   * @return number of values
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the estimated number of distinct values.
+   * @return number of distinct values
+   */
+  public int distinct() {
+    return distinct;
+  }
+
+  /**
+   * Estimates the number of occurrences of the specified value.
+   * @param value value
+   * @return estimated number of occurrences
+   */
+  public double count(final byte[] value) {
+    final int bl = bounds.length - 1;
+    if(compare(value, bounds[0]) < 0 || compare(value, bounds[bl]) > 0) {
+      // value is outside the range: exact result if all values were sampled
+      return size <= SAMPLE ? 0 : 1;
+    }
+    // frequent values: count buckets that exclusively contain the value
+    int full = 0;
+    for(int b = 1; b <= bl; b++) {
+      if(compare(value, bounds[b - 1]) == 0 && compare(value, bounds[b]) == 0) full++;
+    }
+    final double depth = (double) size / bl, average = (double) size / Math.max(1, distinct);
+    return full * depth + Math.min(average, depth);
+  }
+
+  /**
+   * Estimates the number of values in the specified numeric range.
+   * @param min minimum (inclusive)
+   * @param max maximum (inclusive)
+   * @return estimated number of values, or {@code -1} if values are not numeric
+   */
+  public double count(final double min, final double max) {
+    if(!numeric) return -1;
+    final int bl = nums.length - 1;
+    double count = 0;
+    for(int b = 1; b <= bl; b++) {
+      final double lo = nums[b - 1], hi = nums[b];
+      if(lo == hi) {
+        if(lo >= min && hi <= max) count++;
+      } else {
+        count += Math.max(0, Math.min(hi, max) - Math.max(lo, min)) / (hi - lo);
+      }
+    }
+    return count * size / bl;
+  }
+
+  /**
+   * Estimates the number of values in the specified string range.
+   * @param min minimum (inclusive)
+   * @param max maximum (inclusive)
+   * @return estimated number of values
+   */
+  public double count(final byte[] min, final byte[] max) {
+    final int bl = bounds.length - 1;
+    double count = 0;
+    for(int b = 1; b <= bl; b++) {
+      final byte[] lo = bounds[b - 1], hi = bounds[b];
+      if(numeric) {
+        // numeric order differs from string order: check upper bounds of buckets
+        if(diff(hi, min) >= 0 && diff(hi, max) <= 0) count++;
+      } else if(diff(hi, min) >= 0 && diff(lo, max) <= 0) {
+        // bucket is completely or partially covered
+        count += diff(lo, min) >= 0 && diff(hi, max) <= 0 ? 1 : 0.5;
+      }
+    }
+    return count * size / bl;
+  }
+
+  /**
+   * Compares two values.
+   * @param v1 first value
+   * @param v2 second value
+   * @return result of comparison
+   */
+  private int compare(final byte[] v1, final byte[] v2) {
+    return numeric ? Double.compare(toDouble(v1), toDouble(v2)) : diff(v1, v2);
+  }
+
+  /**
+   * Assigns the numeric bounds.
+   */
+  private void nums() {
+    final int bl = bounds.length;
+    nums = new double[bl];
+    for(int b = 0; b < bl; b++) nums[b] = toDouble(bounds[b]);
+  }
+
+  /**
+   * Returns a pseudo-random number (xorshift generator; reproducible results).
+   * @return number
+   */
+  private long next() {
+    seed ^= seed << 13;
+    seed ^= seed >>> 7;
+    seed ^= seed << 17;
+    return seed;
+  }
+
+  @Override
+  public String toString() {
+    return bounds == null ? "" : distinct + " distinct, " + (bounds.length - 1) + " buckets";
+  }
+}
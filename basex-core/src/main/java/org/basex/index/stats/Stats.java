@@ -27,6 +27,10 @@ public final class Stats {
   public int count;
   /** Data type. */
   public byte type;
+  /** Histogram (can be {@code null}). */
+  public Histogram histogram;
+  /** Maximum length of the values ({@code -1}: unknown). */
+  public int length;
 
   /** Leaf node flag. Indicates if all nodes only have a text node as child. */
   private boolean leaf;
@@ -42,6 +46,15 @@ public final class Stats {
     leaf = true;
   }
 
+  /**
+   * Constructor.
+   * @param histogram create histogram
+   */
+  public Stats(final boolean histogram) {
+    this();
+    if(histogram) this.histogram = new Histogram();
+  }
+
   /**
    * Constructor, specifying an input stream.
    * @param in input stream
@@ -62,6 +75,7 @@ public final class Stats {
     count = in.readNum();
     leaf = in.readBool();
     in.readDouble();
+    length = -1;
   }
 
   /**
@@ -80,6 +94,8 @@ public final class Stats {
       }
     }
 
+    if(histogram != null) histogram = histogram.finish(isNumeric(type));
+
     out.writeNum(type);
     if(isNumeric(type)) {
       out.writeDouble(min);
@@ -136,6 +152,8 @@ public final class Stats {
       t = STRING;
     }
     type = t;
+    if(length >= 0 && length < vl) length = vl;
+    if(histogram != null) histogram.add(value, meta.maxlen);
 
     // save distinct values
     if(values != null) {
@@ -150,6 +168,101 @@ public final class Stats {
     }
   }
 
+  /**
+   * Reads the histogram and the maximum value length from the specified input stream.
+   * @param in input stream
+   * @throws IOException I/O exception
+   */
+  public void readHistogram(final DataInput in) throws IOException {
+    histogram = in.readBool() ? new Histogram(in) : null;
+    length = in.readNum() - 1;
+  }
+
+  /**
+   * Writes the histogram and the maximum value length to the specified output stream.
+   * The histogram is finished by {@link #write(DataOutput)}.
+   * @param out output stream
+   * @throws IOException I/O exception
+   */
+  public void writeHistogram(final DataOutput out) throws IOException {
+    final boolean exists = histogram != null && histogram.finish(isNumeric(type)) != null;
+    out.writeBool(exists);
+    if(exists) histogram.write(out);
+    out.writeNum(length + 1);
+  }
+
+  /**
+   * Returns the number of distinct values.
+   * @return number of distinct values (estimated), or {@code -1} if it is unknown
+   */
+  public int distinct() {
+    if(values != null) return values.size();
+    final Histogram hist = histogram();
+    return hist != null ? hist.distinct() : -1;
+  }
+
+  /**
+   * Estimates the number of occurrences of the specified value.
+   * @param value value
+   * @return estimated number of occurrences, or {@code -1} if no estimate is possible
+   */
+  public double count(final byte[] value) {
+    // no values, or categories: exact result
+    if(isNone(type)) return 0;
+    if(values != null) return Math.max(0, values.get(value));
+    final Histogram hist = histogram();
+    return hist != null ? hist.count(value) : -1;
+  }
+
+  /**
+   * Estimates the number of values in the specified numeric range.
+   * @param min minimum (inclusive)
+   * @param max maximum (inclusive)
+   * @return estimated number of values, or {@code -1} if no estimate is possible
+   */
+  public double count(final double min, final double max) {
+    if(isNone(type)) return 0;
+    if(!isNumeric(type)) return -1;
+    if(values != null) {
+      int count = 0;
+      for(final byte[] value : values) {
+        final double d = toDouble(value);
+        if(d >= min && d <= max) count += values.get(value);
+      }
+      return count;
+    }
+    final Histogram hist = histogram();
+    return hist != null ? hist.count(min, max) : -1;
+  }
+
+  /**
+   * Estimates the number of values in the specified string range.
+   * @param min minimum (inclusive)
+   * @param max maximum (inclusive)
+   * @return estimated number of values, or {@code -1} if no estimate is possible
+   */
+  public double count(final byte[] min, final byte[] max) {
+    if(isNone(type)) return 0;
+    if(values != null) {
+      int count = 0;
+      for(final byte[] value : values) {
+        if(diff(value, min) >= 0 && diff(value, max) <= 0) count += values.get(value);
+      }
+      return count;
+    }
+    final Histogram hist = histogram();
+    return hist != null ? hist.count(min, max) : -1;
+  }
+
+  /**
+   * Returns the histogram. Histograms that are still being built are finished.
+   * @return histogram or {@code null}
+   */
+  private Histogram histogram() {
+    final Histogram hist = histogram;
+    return hist != null ? hist.finish(isNumeric(type)) : null;
+  }
+
   /**
    * Getter for leaf flag.
    * @return leaf flag
@@ -173,6 +286,9 @@ public final class Stats {
       sb.append(", ");
       final int size = values != null ? values.size() : 0;
       if(size > 1) sb.append(size).append(" distinct ");
+      else if(size == 0 && histogram != null && histogram.distinct() > 0) {
+        sb.append(histogram.distinct()).append(" distinct ");
+      }
       sb.append(StatsType.toString(type));
       if(size != 1) sb.append('s');
       if(isNumeric(type)) {
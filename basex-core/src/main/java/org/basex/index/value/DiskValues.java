@@ -10,8 +10,10 @@ import java.util.concurrent.atomic.*;
 import org.basex.core.*;
 import org.basex.data.*;
 import org.basex.index.*;
+import org.basex.index.name.*;
 import org.basex.index.query.*;
 import org.basex.index.stats.*;
+import org.basex.io.*;
 import org.basex.io.random.*;
 import org.basex.query.util.index.*;
 import org.basex.util.*;
@@ -32,13 +34,20 @@ public class DiskValues extends ValueIndex {
   final DataAccess idxl;
   /** Cached index entries: mapping between keys and index entries. */
   final IndexCache cache = new IndexCache();
-  /** Cached texts: mapping between key positions in the reference file, and the indexed texts. */
+  /**
+   * Cached texts: mapping between key positions in the reference file, and the indexed texts.
+   * Read access must be synchronized on the map.
+   */
   final IntObjMap<byte[]> ctext = new IntObjMap<>();
   /** Number of current index entries. */
   final AtomicInteger size = new AtomicInteger();
+  /** Numeric keys (created on demand, invalidated by updates). */
+  volatile NumericKeys numeric;
+  /** Sorted keys (created on demand, invalidated by updates). */
+  volatile SortedKeys sorted;
 
-  /** Synchronization object. */
-  private final Object monitor = new Object();
+  /** File with frequently requested keys ({@code null} for temporary instances). */
+  private IOFile keys;
 
   /**
    * Constructor, initializing the index structure.
@@ -48,6 +57,8 @@ public class DiskValues extends ValueIndex {
    */
   public DiskValues(final Data data, final IndexType type) throws IOException {
     this(data, type, fileSuffix(type));
+    keys = data.meta.dbFile(fileSuffix(type) + 'k');
+    for(final byte[] key : IndexCache.preload(keys)) entry(key);
   }
 
   /**
@@ -71,15 +82,13 @@ public class DiskValues extends ValueIndex {
     tb.add(LI_NAMES).add(data.meta.names(type)).add(NL);
 
     final IndexStats stats = new IndexStats(options.get(MainOptions.MAXSTAT));
-    synchronized(monitor) {
-      final long l = idxl.length() + idxr.length();
-      tb.add(LI_SIZE).add(Performance.format(l)).add(NL);
-      final int entries = size();
-      for(int index = 0; index < entries; index++) {
-        final long pos = idxr.read5(index * 5L);
-        final int count = idxl.readNum(pos);
-        if(stats.adding(count)) stats.add(key(idxl.readNum()), count);
-      }
+    final long l = idxl.length() + idxr.length();
+    tb.add(LI_SIZE).add(Performance.format(l)).add(NL);
+    final DataReader rr = idxr.reader(0), rl = idxl.reader(0);
+    final int entries = size();
+    for(int index = 0; index < entries; index++) {
+      final int count = rl.cursor(rr.read5()).readNum();
+      if(stats.adding(count)) stats.add(key(rl.readNum(), rl), count);
     }
     stats.print(tb);
     return tb.finish();
@@ -92,12 +101,43 @@ public class DiskValues extends ValueIndex {
 
   @Override
   public final IndexCosts costs(final IndexSearch search) {
-    return IndexCosts.get(
-      search instanceof StringRange ? Math.max(1, data.meta.size / 10) :
-      search instanceof NumericRange ? Math.max(1, data.meta.size / 3) :
+    if(search instanceof NumericRange) {
+      final NumericRange nr = (NumericRange) search;
+      final NumericKeys keys = numeric();
+      return IndexCosts.get(keys.count(keys.first(nr.min), keys.last(nr.max)));
+    }
+    return IndexCosts.get(search instanceof StringRange ? costs((StringRange) search) :
       entry(search.token()).size);
   }
 
+  /**
+   * Estimates the number of results of a string range query.
+   * If the sorted keys exist, the exact number is returned. Otherwise, if the statistics are
+   * up-to-date, the estimates of all names are added.
+   * @param sr string range
+   * @return estimated number of results
+   */
+  private int costs(final StringRange sr) {
+    final SortedKeys keys = sorted;
+    if(keys != null) return keys.count(keys.first(sr.min, sr.mni), keys.last(sr.max, sr.mxi));
+
+    final int fallback = Math.max(1, data.meta.size / 10);
+    if(!data.meta.uptodate || type != IndexType.TEXT && type != IndexType.ATTRIBUTE)
+      return fallback;
+
+    final Names names = type == IndexType.TEXT ? data.elemNames : data.attrNames;
+    final int ns = names.size();
+    double count = 0;
+    for(int id = 1; id <= ns; id++) {
+      final Stats stats = names.stats(id);
+      if(stats == null || stats.count == 0) continue;
+      final double c = stats.count(sr.min, sr.max);
+      if(c < 0) return fallback;
+      count += c;
+    }
+    return (int) Math.max(1, Math.min(data.meta.size, Math.ceil(count)));
+  }
+
   @Override
   public final IndexIterator iter(final IndexSearch search) {
     final IntList pres;
@@ -138,10 +178,10 @@ public class DiskValues extends ValueIndex {
 
   @Override
   public final void close() {
-    synchronized(monitor) {
-      idxl.close();
-      idxr.close();
-    }
+    idxl.close();
+    idxr.close();
+    if(keys != null) cache.close(keys);
+    else cache.close();
   }
 
   @Override
@@ -199,16 +239,15 @@ public class DiskValues extends ValueIndex {
    * @return index of the key, or (-(insertion point) - 1)
    */
   protected final int get(final byte[] key, final int first, final int last) {
+    final DataReader rr = idxr.reader(0), rl = idxl.reader(0);
     int l = first, h = last - 1;
-    synchronized(monitor) {
-      while(l <= h) {
-        final int m = l + h >>> 1;
-        final byte[] txt = indexEntry(m).key;
-        final int d = diff(txt, key);
-        if(d == 0) return m;
-        if(d < 0) l = m + 1;
-        else h = m - 1;
-      }
+    while(l <= h) {
+      final int m = l + h >>> 1;
+      final byte[] txt = indexEntry(m, rr, rl).key;
+      final int d = diff(txt, key);
+      if(d == 0) return m;
+      if(d < 0) l = m + 1;
+      else h = m - 1;
     }
     return -(l + 1);
   }
@@ -228,17 +267,10 @@ public class DiskValues extends ValueIndex {
     final long index = get(token);
     if(index < 0) return new IndexEntry(token, 0, 0);
 
-    final int count;
-    final long offset;
-
-    synchronized(monitor) {
-      // get position in heap file
-      final long pos = idxr.read5(index * 5L);
-      count = idxl.readNum(pos);
-      offset = idxl.cursor();
-    }
-
-    return cache.add(token, count, offset);
+    // get position in heap file
+    final DataReader rl = idxl.reader(idxr.reader(index * 5L).read5());
+    final int count = rl.readNum();
+    return cache.add(token, count, rl.cursor());
   }
 
   /**
@@ -250,16 +282,15 @@ public class DiskValues extends ValueIndex {
     final int first = get(prefix), sz = size();
 
     return new EntryIterator() {
+      final DataReader rr = idxr.reader(0), rl = idxl.reader(0);
       int c = first < 0 ? -first - 1 : first;
       IndexEntry entry;
 
       @Override
       public byte[] next() {
         if(c < sz) {
-          synchronized(monitor) {
-            entry = indexEntry(c++);
-            if(startsWith(entry.key, prefix)) return entry.key;
-          }
+          entry = indexEntry(c++, rr, rl);
+          if(startsWith(entry.key, prefix)) return entry.key;
         }
         return null;
       }
@@ -281,6 +312,7 @@ public class DiskValues extends ValueIndex {
   private EntryIterator keys(final int first, final int last, final boolean reverse) {
     final int sz = last - first;
     return new EntryIterator() {
+      final DataReader rr = idxr.reader(0), rl = idxl.reader(0);
       int c;
       IndexEntry entry;
 
@@ -296,10 +328,8 @@ public class DiskValues extends ValueIndex {
 
       @Override
       public byte[] get(final int i) {
-        synchronized(monitor) {
-          entry = indexEntry(reverse ? last - i - 1 : first + i);
-          return entry.key;
-        }
+        entry = indexEntry(reverse ? last - i - 1 : first + i, rr, rl);
+        return entry.key;
       }
 
       @Override
@@ -311,24 +341,31 @@ public class DiskValues extends ValueIndex {
 
   /**
    * Read a key at the given position.
-   * <p><em>Important:</em> This method is NOT thread-safe, since it is used in loops.</p>
+   * <p><em>Important:</em> This method is thread-safe, as long as the readers are not shared.</p>
    * @param index key position
+   * @param rr reader for the reference file
+   * @param rl reader for the id lists
    * @return index entry
    */
-  private IndexEntry indexEntry(final int index) {
+  private IndexEntry indexEntry(final int index, final DataReader rr, final DataReader rl) {
     // try the cache first
-    byte[] key = ctext.get(index);
+    byte[] key;
+    synchronized(ctext) {
+      key = ctext.get(index);
+    }
     if(key != null) {
       final IndexEntry entry = cache.get(key);
       if(entry != null) return entry;
     }
 
     // read text and cache result
-    final long pos = idxr.read5(index * 5L);
-    final int count = idxl.readNum(pos);
+    final long pos = rr.cursor(index * 5L).read5();
+    final int count = rl.cursor(pos).readNum();
     if(key == null) {
-      key = key(idxl.readNum());
-      ctext.put(index, key);
+      key = key(rl.readNum(), rl);
+      synchronized(ctext) {
+        ctext.put(index, key);
+      }
     }
     return cache.add(key, count, pos + Num.length(count));
   }
@@ -342,14 +379,12 @@ public class DiskValues extends ValueIndex {
    */
   protected IntList pres(final int sz, final long offset) {
     final IntList pres = new IntList(sz);
-    synchronized(monitor) {
-      idxl.cursor(offset);
-      for(int i = 0, id = 0; i < sz; i++) {
-        id += idxl.readNum();
-        // token index: skip position
-        if(type == IndexType.TOKEN) idxl.readNum();
-        pres.add(pre(id));
-      }
+    final DataReader rl = idxl.reader(offset);
+    for(int i = 0, id = 0; i < sz; i++) {
+      id += rl.readNum();
+      // token index: skip position
+      if(type == IndexType.TOKEN) rl.readNum();
+      pres.add(pre(id));
     }
     return pres;
   }
@@ -361,74 +396,96 @@ public class DiskValues extends ValueIndex {
    * @return results
    */
   private IntList idRange(final StringRange tok) {
-    // check if min and max are positive integers with the same number of digits
     final IntList pres = new IntList();
-    synchronized(monitor) {
-      final int i = get(tok.min);
-      final int entries = size();
-      for(int index = i < 0 ? -i - 1 : tok.mni ? i : i + 1; index < entries; index++) {
-        final int count = idxl.readNum(idxr.read5(index * 5L));
-        int id = idxl.readNum();
-        // skip traversal if value is too large
-        final int diff = diff(key(id), tok.max);
-        if(diff > 0 || !tok.mxi && diff == 0) break;
-        // add pre values
-        for(int c = 0; c < count; c++) {
-          pres.add(pre(id));
-          id += idxl.readNum();
-        }
+    final SortedKeys keys = sorted();
+    final DataReader rr = idxr.reader(0), rl = idxl.reader(0);
+    for(int k = keys.first(tok.min, tok.mni), l = keys.last(tok.max, tok.mxi); k < l; k++) {
+      final int count = rl.cursor(rr.cursor(k * 5L).read5()).readNum();
+      for(int c = 0, id = 0; c < count; c++) {
+        id += rl.readNum();
+        // token index: skip position
+        if(type == IndexType.TOKEN) rl.readNum();
+        pres.add(pre(id));
       }
     }
-    return pres.sort();
+    // token index: elements may be referenced by multiple keys
+    return type == IndexType.TOKEN ? pres.ddo() : pres.sort();
   }
 
   /**
-   * Performs a range query. All index values must be numeric.
+   * Performs a numeric range query. Non-numeric index values are ignored.
    * <p><em>Important:</em> This method is thread-safe.</p>
    * @param tok index term
    * @return results
    */
   private IntList idRange(final NumericRange tok) {
-    // check if min and max are positive integers with the same number of digits
-    final double min = tok.min, max = tok.max;
-    final int len = max > 0 && (long) max == max ? token(max).length : 0;
-    final boolean simple = len != 0 && min > 0 && (long) min == min && token(min).length == len;
-
     final IntList pres = new IntList();
-    synchronized(monitor) {
-      final int entries = size();
+    final NumericKeys keys = numeric();
+    final DataReader rr = idxr.reader(0), rl = idxl.reader(0);
+    for(int k = keys.first(tok.min), l = keys.last(tok.max); k < l; k++) {
+      final int count = rl.cursor(rr.cursor(keys.index(k) * 5L).read5()).readNum();
+      int id = rl.readNum();
+      for(int c = 0; c < count; c++) {
+        pres.add(pre(id));
+        id += rl.readNum();
+      }
+    }
+    return pres.sort();
+  }
+
+  /**
+   * Returns the numeric keys of the index. The keys will be created if they do not exist yet.
+   * @return numeric keys
+   */
+  private synchronized NumericKeys numeric() {
+    if(numeric == null) {
+      final DoubleList values = new DoubleList();
+      final IntList indexes = new IntList(), sizes = new IntList();
       final boolean text = type == IndexType.TEXT;
-      for(int index = 0; index < entries; ++index) {
-        final int count = idxl.readNum(idxr.read5(index * 5L));
-        int id = idxl.readNum();
-        final int pre = pre(id);
-
-        final double v = data.textDbl(pre, text);
-        if(v >= min && v <= max) {
-          // value is in range
-          for(int c = 0; c < count; c++) {
-            pres.add(pre(id));
-            id += idxl.readNum();
-          }
-        } else if(simple && v > max && data.textLen(pre, text) == len) {
-          // if limits are integers, if min, max and current value have the same
-          // string length, and if current value is larger than max, test can be
-          // skipped, as all remaining values will be bigger
-          break;
+      final DataReader rr = idxr.reader(0), rl = idxl.reader(0);
+      final int entries = size();
+      for(int index = 0; index < entries; index++) {
+        final int count = rl.cursor(rr.read5()).readNum();
+        final double value = data.textDbl(pre(rl.readNum()), text);
+        if(!Double.isNaN(value)) {
+          values.add(value);
+          indexes.add(index);
+          sizes.add(count);
         }
       }
+      numeric = new NumericKeys(values.finish(), indexes.finish(), sizes.finish());
     }
-    return pres.sort();
+    return numeric;
+  }
+
+  /**
+   * Returns the sorted keys of the index. The keys will be created if they do not exist yet.
+   * @return sorted keys
+   */
+  private synchronized SortedKeys sorted() {
+    if(sorted == null) {
+      final TokenList keys = new TokenList();
+      final IntList sizes = new IntList();
+      final DataReader rr = idxr.reader(0), rl = idxl.reader(0);
+      final int entries = size();
+      for(int index = 0; index < entries; index++) {
+        sizes.add(rl.cursor(rr.read5()).readNum());
+        keys.add(key(rl.readNum(), rl));
+      }
+      sorted = new SortedKeys(keys, sizes);
+    }
+    return sorted;
   }
 
   /**
    * Returns the specified key, considering tokenization.
    * @param id id of key
+   * @param rl reader for the id lists (positioned after the id)
    * @return key token
    */
-  private byte[] key(final int id) {
+  private byte[] key(final int id, final DataReader rl) {
     final byte[] text = data.text(pre(id), type == IndexType.TEXT);
-    return type == IndexType.TOKEN ? distinctTokens(text)[idxl.readNum()] : text;
+    return type == IndexType.TOKEN ? distinctTokens(text)[rl.readNum()] : text;
   }
 
   /**
@@ -440,20 +497,21 @@ public class DiskValues extends ValueIndex {
   public final String toString(final boolean all) {
     final TokenBuilder tb = new TokenBuilder();
     tb.add(type).add(" INDEX, '").add(data.meta.name).add("':\n");
+    final DataReader rr = idxr.reader(0), rl = idxl.reader(0);
     final int entries = size();
     for(int index = 0; index < entries; index++) {
-      final long pos = idxr.read5(index * 5L);
-      final int count = idxl.readNum(pos);
-      int id = idxl.readNum();
+      final long pos = rr.read5();
+      final int count = rl.cursor(pos).readNum();
+      int id = rl.readNum();
       tb.add("  ").addInt(index).add(". offset: ").addLong(pos);
       if(all) {
-        tb.add(", key: \"").add(key(id)).add('"');
+        tb.add(", key: \"").add(key(id, rl)).add('"');
         tb.add(", ids").add("/pres").add(": ").addInt(id).add('/').addInt(pre(id));
       } else {
         tb.add(", ids").add(": ").addInt(id);
       }
       for(int c = 1; c < count; c++) {
-        id += idxl.readNum();
+        id += rl.readNum();
         tb.add(",").addInt(id);
         if(all) tb.add('/').addInt(pre(id));
       }
@@ -3,6 +3,8 @@ package org.basex.index.value;
 import static org.basex.util.Token.*;
 
 import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
 
 import org.basex.data.*;
 import org.basex.index.*;
@@ -28,10 +30,25 @@ import org.basex.util.list.*;
  * </li>
  * </ul>
  *
+ * <p>If more than one thread is assigned via {@link MetaData#parallelindex}, the table is
+ * divided into partitions, which are indexed in parallel. The partial index structures of all
+ * partitions are finally merged.</p>
+ *
  * @author BaseX Team 2005-22, BSD License
  * @author Christian Gruen
  */
 public final class DiskValuesBuilder extends ValuesBuilder {
+  /** Minimum number of nodes per partition. */
+  private static final int PARTITION = 1 << 16;
+
+  /** Builder that merges the partial index structures (this instance if no partitions exist). */
+  private final DiskValuesBuilder root;
+  /** First pre value to be indexed. */
+  private final int first;
+  /** Pre value after the last value to be indexed. */
+  private final int last;
+  /** Number of written partial index structures (assigned by the root builder). */
+  private int runs;
   /** Temporary value tree. */
   private IndexTree index;
 
@@ -41,7 +58,23 @@ public final class DiskValuesBuilder extends ValuesBuilder {
    * @param type index type
    */
   public DiskValuesBuilder(final Data data, final IndexType type) {
+    this(data, type, null, 0, data.meta.size);
+  }
+
+  /**
+   * Constructor.
+   * @param data data reference
+   * @param type index type
+   * @param root root builder ({@code null} if this is the root builder)
+   * @param first first pre value to be indexed
+   * @param last pre value after the last value to be indexed
+   */
+  private DiskValuesBuilder(final Data data, final IndexType type, final DiskValuesBuilder root,
+      final int first, final int last) {
     super(data, type);
+    this.root = root != null ? root : this;
+    this.first = first;
+    this.last = last;
     index = new IndexTree(type);
   }
 
@@ -50,33 +83,22 @@ public final class DiskValuesBuilder extends ValuesBuilder {
     Util.debug(detailedInfo());
 
     try {
-      final boolean updindex = data.meta.updindex;
-      for(pre = 0; pre < size; ++pre) {
-        if((pre & 0x0FFF) == 0) check();
-        if(indexEntry()) {
-          final int id = updindex ? data.id(pre) : pre;
-          if(tokenize) {
-            int pos = 0;
-            for(final byte[] token : distinctTokens(data.text(pre, text))) {
-              index.add(token, id, pos++);
-              count++;
-            }
-          } else if(data.textLen(pre, text) <= data.meta.maxlen) {
-            index.add(data.text(pre, text), id, 0);
-            count++;
-          }
-        }
+      final int parts = Math.min(data.meta.parallelindex, size / PARTITION);
+      if(parts > 1) {
+        index = null;
+        partitions(parts);
+      } else {
+        index();
+        writeIndex(splits > 0);
       }
-
-      writeIndex(splits > 0);
-      if(splits > 1) {
+      if(runs > 1) {
         index = null;
         clean();
         merge();
       }
 
       finishIndex();
-      return updindex ? new UpdatableDiskValues(data, type) : new DiskValues(data, type);
+      return data.meta.updindex ? new UpdatableDiskValues(data, type) : new DiskValues(data, type);
 
     } catch(final Throwable th) {
       // drop index files
@@ -96,6 +118,70 @@ public final class DiskValuesBuilder extends ValuesBuilder {
     }
   }
 
+  /**
+   * Indexes all values of the assigned pre range.
+   * @throws IOException I/O exception
+   */
+  private void index() throws IOException {
+    final boolean updindex = data.meta.updindex;
+    for(pre = first; pre < last; ++pre) {
+      if((pre & 0x0FFF) == 0) check();
+      if(indexEntry()) {
+        final int id = updindex ? data.id(pre) : pre;
+        if(tokenize) {
+          int pos = 0;
+          for(final byte[] token : distinctTokens(data.text(pre, text))) {
+            index.add(token, id, pos++);
+            count++;
+          }
+        } else if(data.textLen(pre, text) <= data.meta.maxlen) {
+          index.add(data.text(pre, text), id, 0);
+          count++;
+        }
+      }
+    }
+  }
+
+  /**
+   * Indexes partitions of the table in parallel and writes partial index structures.
+   * @param parts number of partitions
+   * @throws IOException I/O exception
+   */
+  private void partitions(final int parts) throws IOException {
+    final ArrayList<DiskValuesBuilder> builders = new ArrayList<>(parts);
+    final ArrayList<Future<Void>> futures = new ArrayList<>(parts);
+    final ExecutorService pool = Executors.newFixedThreadPool(parts);
+    try {
+      for(int p = 0; p < parts; p++) {
+        final DiskValuesBuilder builder = pushJob(new DiskValuesBuilder(data, type, this,
+            (int) ((long) size * p / parts), (int) ((long) size * (p + 1) / parts)));
+        builders.add(builder);
+        futures.add(pool.submit(() -> {
+          builder.index();
+          builder.writeIndex(true);
+          return null;
+        }));
+      }
+      Util.get(futures);
+    } finally {
+      pool.shutdown();
+      for(final DiskValuesBuilder builder : builders) {
+        popJob(builder);
+        count += builder.count;
+      }
+    }
+    pre = size;
+    splits = runs;
+  }
+
+  /**
+   * Returns the number of the next partial index structure.
+   * @return number
+   */
+  private synchronized int run() {
+    return runs++;
+  }
+
   /**
    * Merges cached index files.
    * @throws IOException I/O exception
@@ -110,8 +196,8 @@ public final class DiskValuesBuilder extends ValuesBuilder {
       // initialize cached index iterators
       final IntList ml = new IntList();
       final IntList id = new IntList(), pos = tokenize ? new IntList() : null;
-      final DiskValuesMerger[] vm = new DiskValuesMerger[splits];
-      for(int i = 0; i < splits; ++i) vm[i] = new DiskValuesMerger(data, type, i);
+      final DiskValuesMerger[] vm = new DiskValuesMerger[runs];
+      for(int i = 0; i < runs; ++i) vm[i] = new DiskValuesMerger(data, type, i);
 
       // parse through all values
       while(true) {
@@ -119,12 +205,12 @@ public final class DiskValuesBuilder extends ValuesBuilder {
 
         // find first index which has not completely been parsed yet
         int min = -1;
-        while(++min < splits && vm[min].values.length == 0);
-        if(min == splits) break;
+        while(++min < runs && vm[min].values.length == 0);
+        if(min == runs) break;
 
         // find index entry with the smallest key
         ml.reset();
-        for(int i = min; i < splits; ++i) {
+        for(int i = min; i < runs; ++i) {
           if(vm[i].values.length == 0) continue;
           final int d = diff(vm[min].key, vm[i].key);
           if(d < 0) continue;
@@ -169,7 +255,7 @@ public final class DiskValuesBuilder extends ValuesBuilder {
    */
   private void writeIndex(final boolean partial) throws IOException {
     // write id arrays and references
-    final String name = DiskValues.fileSuffix(type) + (partial ? splits : "");
+    final String name = DiskValues.fileSuffix(type) + (partial ? root.run() : "");
     try(DataOutput outL = new DataOutput(data.meta.dbFile(name + 'l'));
         DataOutput outR = new DataOutput(data.meta.dbFile(name + 'r'))) {
       outL.write4(index.size());
@@ -0,0 +1,296 @@
+package org.basex.index.value;
+
+import static org.basex.util.Token.*;
+
+import java.util.*;
+
+import org.basex.data.*;
+import org.basex.index.path.*;
+import org.basex.util.*;
+import org.basex.util.list.*;
+
+/**
+ * <p>This class represents a path index declaration. A declaration consists of a context path
+ * and one or more keys. The index maps the (composite) key values to the context elements.
+ * Examples:</p>
+ *
+ * <ul>
+ *   <li>{@code /order/customer/@id}: context {@code /order/customer}, key {@code @id}</li>
+ *   <li>{@code (//item/sku, //item/region)}: context {@code //item},
+ *     keys {@code sku} and {@code region}</li>
+ * </ul>
+ *
+ * <p>Context paths consist of child and descendant steps with local names.
+ * Keys are child elements or attributes of the context elements.</p>
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class KeyPath {
+  /** Declaration. */
+  public final String path;
+  /** Local names of the context steps. */
+  private final byte[][] names;
+  /** Descendant flags of the context steps. */
+  private final boolean[] desc;
+  /** Local names of the keys. */
+  private final byte[][] keys;
+  /** Attribute flags of the keys. */
+  private final boolean[] attrs;
+
+  /**
+   * Constructor.
+   * @param path declaration
+   * @param names local names of the context steps
+   * @param desc descendant flags of the context steps
+   * @param keys local names of the keys
+   * @param attrs attribute flags of the keys
+   */
+  private KeyPath(final String path, final byte[][] names, final boolean[] desc,
+      final byte[][] keys, final boolean[] attrs) {
+    this.path = path;
+    this.names = names;
+    this.desc = desc;
+    this.keys = keys;
+    this.attrs = attrs;
+  }
+
+  /**
+   * Parses the specified declarations (separated by commas). Invalid declarations are ignored.
+   * @param paths declarations
+   * @return path index declarations
+   */
+  public static KeyPath[] get(final String paths) {
+    final ArrayList<KeyPath> list = new ArrayList<>();
+    final StringBuilder sb = new StringBuilder();
+    final int pl = paths.length();
+    int level = 0;
+    for(int p = 0; p <= pl; p++) {
+      final char ch = p < pl ? paths.charAt(p) : ',';
+      if(ch == '(') level++;
+      else if(ch == ')') level--;
+      if(ch == ',' && level <= 0) {
+        final String decl = sb.toString().trim();
+        if(!decl.isEmpty()) {
+          final KeyPath kp = parse(decl);
+          if(kp != null) list.add(kp);
+          else Util.debug("Path index declaration is invalid: %", decl);
+        }
+        sb.setLength(0);
+        level = 0;
+      } else {
+        sb.append(ch);
+      }
+    }
+    return list.toArray(new KeyPath[0]);
+  }
+
+  /**
+   * Parses a single declaration.
+   * @param decl declaration
+   * @return path index declaration, or {@code null} if the declaration is invalid
+   */
+  private static KeyPath parse(final String decl) {
+    // single path or list of paths with the same context
+    final boolean multi = decl.startsWith("(") && decl.endsWith(")");
+    final String[] paths = multi ? decl.substring(1, decl.length() - 1).split(",") :
+      new String[] { decl };
+
+    final int kl = paths.length;
+    final byte[][] keys = new byte[kl][];
+    final boolean[] attrs = new boolean[kl];
+    byte[][] names = null;
+    boolean[] desc = null;
+    for(int k = 0; k < kl; k++) {
+      final TokenList nms = new TokenList();
+      final BoolList dsc = new BoolList();
+      if(!steps(paths[k].trim(), nms, dsc)) return null;
+
+      // last step: key
+      final int sl = nms.size() - 1;
+      byte[] key = nms.get(sl);
+      final boolean attr = key[0] == '@';
+      if(attr) key = substring(key, 1);
+      if(sl == 0 || dsc.get(sl) || !XMLToken.isNCName(key)) return null;
+      for(int j = 0; j < k; j++) {
+        if(attrs[j] == attr && eq(keys[j], key)) return null;
+      }
+      keys[k] = key;
+      attrs[k] = attr;
+
+      // remaining steps: context (must be identical for all keys)
+      final byte[][] n = new byte[sl][];
+      final boolean[] d = new boolean[sl];
+      for(int s = 0; s < sl; s++) {
+        n[s] = nms.get(s);
+        d[s] = dsc.get(s);
+        if(!XMLToken.isNCName(n[s])) return null;
+      }
+      if(names == null) {
+        names = n;
+        desc = d;
+      } else if(!Arrays.deepEquals(names, n) || !Arrays.equals(desc, d)) {
+        return null;
+      }
+    }
+    return new KeyPath(decl, names, desc, keys, attrs);
+  }
+
+  /**
+   * Splits a path into steps.
+   * @param path path
+   * @param names local names of the steps
+   * @param desc descendant flags of the steps
+   * @return success flag
+   */
+  private static boolean steps(final String path, final TokenList names, final BoolList desc) {
+    final int pl = path.length();
+    int p = 0;
+    while(p < pl) {
+      if(path.charAt(p) != '/') return false;
+      final boolean d = ++p < pl && path.charAt(p) == '/';
+      if(d) p++;
+      final int s = p;
+      while(p < pl && path.charAt(p) != '/') p++;
+      if(s == p) return false;
+      names.add(path.substring(s, p).trim());
+      desc.add(d);
+    }
+    return !names.isEmpty();
+  }
+
+  /**
+   * Returns the number of keys.
+   * @return number of keys
+   */
+  public int keys() {
+    return keys.length;
+  }
+
+  /**
+   * Returns the offset of the specified key.
+   * @param name local name
+   * @param attr attribute flag
+   * @return offset, or {@code -1} if the key is unknown
+   */
+  public int key(final byte[] name, final boolean attr) {
+    final int kl = keys.length;
+    for(int k = 0; k < kl; k++) {
+      if(attrs[k] == attr && eq(keys[k], name)) return k;
+    }
+    return -1;
+  }
+
+  /**
+   * Checks if all elements addressed by the specified steps are context elements of this
+   * declaration. The check is performed on the path index of the database.
+   * @param data data reference
+   * @param nms local names of the steps
+   * @param dsc descendant flags of the steps
+   * @return result of check
+   */
+  public boolean covers(final Data data, final byte[][] nms, final boolean[] dsc) {
+    return nodes(data, names, desc).containsAll(nodes(data, nms, dsc));
+  }
+
+  /**
+   * Returns the path nodes of all elements addressed by the specified steps.
+   * @param data data reference
+   * @param nms local names of the steps
+   * @param dsc descendant flags of the steps
+   * @return path nodes
+   */
+  private static ArrayList<PathNode> nodes(final Data data, final byte[][] nms,
+      final boolean[] dsc) {
+    ArrayList<PathNode> nodes = data.paths.root();
+    final int nl = nms.length;
+    for(int n = 0; n < nl && !nodes.isEmpty(); n++) {
+      final int id = data.elemNames.id(nms[n]);
+      final ArrayList<PathNode> list = new ArrayList<>();
+      for(final PathNode node : PathIndex.desc(nodes, dsc[n])) {
+        if(node.kind == Data.ELEM && node.name == id && !list.contains(node)) list.add(node);
+      }
+      nodes = list;
+    }
+    return nodes;
+  }
+
+  /**
+   * Checks if an element with the specified ancestors is a context element.
+   * @param stack local names of the element and its ancestors (the element is at the top)
+   * @param depth depth of the element (size of the stack)
+   * @return result of check
+   */
+  boolean matches(final byte[][] stack, final int depth) {
+    return matches(stack, depth, names.length);
+  }
+
+  /**
+   * Checks if an element at the specified depth is addressed by the specified steps.
+   * @param stack local names of the element and its ancestors
+   * @param depth depth of the element
+   * @param steps number of steps
+   * @return result of check
+   */
+  private boolean matches(final byte[][] stack, final int depth, final int steps) {
+    final int s = steps - 1;
+    if(!eq(stack[depth - 1], names[s])) return false;
+    if(s == 0) return desc[0] || depth == 1;
+    if(!desc[s]) return depth > 1 && matches(stack, depth - 1, s);
+    for(int d = depth - 1; d > 0; d--) {
+      if(matches(stack, d, s)) return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the keys of a context element.
+   * @param data data reference
+   * @param pre pre value of the context element
+   * @return keys (empty if the element has no values for at least one key)
+   */
+  TokenList keys(final Data data, final int pre) {
+    final int kl = keys.length;
+    final TokenList[] values = new TokenList[kl];
+    for(int k = 0; k < kl; k++) values[k] = new TokenList(1);
+
+    final int as = pre + data.attSize(pre, Data.ELEM), end = pre + data.size(pre, Data.ELEM);
+    for(int p = pre + 1; p < as; p++) {
+      final int k = key(local(data.name(p, Data.ATTR)), true);
+      if(k != -1) values[k].add(data.text(p, false));
+    }
+    for(int p = as; p < end; p += data.size(p, data.kind(p))) {
+      if(data.kind(p) != Data.ELEM) continue;
+      final int k = key(local(data.name(p, Data.ELEM)), false);
+      if(k != -1) values[k].add(data.atom(p));
+    }
+
+    // combine values of all keys
+    TokenList list = values[0];
+    for(int k = 1; k < kl; k++) {
+      final TokenList tl = new TokenList(list.size() * values[k].size());
+      for(final byte[] key : list) {
+        for(final byte[] value : values[k]) tl.add(key(key, value));
+      }
+      list = tl;
+    }
+    return list;
+  }
+
+  /**
+   * Combines the values of two keys.
+   * @param key first value, or values of the preceding keys
+   * @param value value of the next key
+   * @return composite key
+   */
+  public static byte[] key(final byte[] key, final byte[] value) {
+    // the null byte does not occur in XML documents
+    return new TokenBuilder(key.length + value.length + 1).add(key).addByte((byte) 0).
+        add(value).finish();
+  }
+
+  @Override
+  public String toString() {
+    return path;
+  }
+}
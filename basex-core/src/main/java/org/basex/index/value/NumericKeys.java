@@ -0,0 +1,87 @@
+package org.basex.index.value;
+
+import org.basex.util.*;
+
+/**
+ * This class contains the numeric keys of a value index, sorted by their numeric values.
+ * It is created on demand and used for answering numeric range queries in logarithmic time.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+final class NumericKeys {
+  /** Numeric values (sorted). */
+  private final double[] values;
+  /** Positions of the keys in the value index. */
+  private final int[] indexes;
+  /** Accumulated number of ids ({@code counts[k]}: number of ids of the first {@code k} keys). */
+  private final int[] counts;
+
+  /**
+   * Constructor.
+   * @param values numeric values (will be sorted)
+   * @param indexes positions of the keys in the value index
+   * @param sizes number of ids of the keys
+   */
+  NumericKeys(final double[] values, final int[] indexes, final int[] sizes) {
+    final int[] order = Array.createOrder(values, true);
+    final int vl = values.length;
+    this.values = values;
+    this.indexes = new int[vl];
+    counts = new int[vl + 1];
+    for(int v = 0; v < vl; v++) {
+      final int o = order[v];
+      this.indexes[v] = indexes[o];
+      counts[v + 1] = counts[v] + sizes[o];
+    }
+  }
+
+  /**
+   * Returns the position of the first key that is equal to or greater than the specified value.
+   * @param min minimum value
+   * @return position
+   */
+  int first(final double min) {
+    int l = 0, h = values.length;
+    while(l < h) {
+      final int m = l + h >>> 1;
+      if(values[m] < min) l = m + 1;
+      else h = m;
+    }
+    return l;
+  }
+
+  /**
+   * Returns the position after the last key that is equal to or smaller than the specified value.
+   * @param max maximum value
+   * @return position
+   */
+  int last(final double max) {
+    int l = 0, h = values.length;
+    while(l < h) {
+      final int m = l + h >>> 1;
+      if(values[m] <= max) l = m + 1;
+      else h = m;
+    }
+    return l;
+  }
+
+  /**
+   * Returns the position of a key in the value index.
+   * @param k position of the numeric key
+   * @return position in the value index
+   */
+  int index(final int k) {
+    return indexes[k];
+  }
+
+  /**
+   * Returns the number of ids in the specified range of keys.
+   * @param first position of the first key
+   * @param last position after the last key
+   * @return number of ids
+   */
+  int count(final int first, final int last) {
+    return first < last ? counts[last] - counts[first] : 0;
+  }
+}
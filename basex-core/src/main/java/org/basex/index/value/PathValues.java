@@ -0,0 +1,169 @@
+package org.basex.index.value;
+
+import static org.basex.data.DataText.*;
+import static org.basex.util.Token.*;
+
+import java.io.*;
+
+import org.basex.data.*;
+import org.basex.io.random.*;
+import org.basex.util.hash.*;
+import org.basex.util.list.*;
+
+/**
+ * This class provides access to the path indexes of a database.
+ * The data structure is described in the {@link PathValuesBuilder} class.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class PathValues {
+  /** Declarations. */
+  private final KeyPath[] paths;
+  /** Entries. */
+  private final DataAccess idxl;
+  /** References to the entries. */
+  private final DataAccess idxr;
+  /** Offsets to the references of each declaration. */
+  private final long[] offsets;
+  /** Number of keys of each declaration. */
+  private final int[] sizes;
+  /** Number of indexed elements of each declaration. */
+  private final int[] entries;
+
+  /**
+   * Constructor, initializing the index structure.
+   * @param data data reference
+   * @throws IOException I/O Exception
+   */
+  public PathValues(final Data data) throws IOException {
+    paths = KeyPath.get(data.meta.pathindexes);
+    idxl = new DataAccess(data.meta.dbFile(DATAPTV + 'l'));
+    idxr = new DataAccess(data.meta.dbFile(DATAPTV + 'r'));
+
+    final int pl = idxr.read4(0);
+    offsets = new long[pl];
+    sizes = new int[pl];
+    entries = new int[pl];
+    long off = 4;
+    for(int p = 0; p < pl; p++) {
+      sizes[p] = idxr.read4(off);
+      entries[p] = idxr.read4(off + 4);
+      offsets[p] = off + 8;
+      off = offsets[p] + sizes[p] * 5L;
+    }
+  }
+
+  /**
+   * Returns the offset of the specified declaration.
+   * @param path declaration
+   * @return offset or {@code -1}
+   */
+  public int index(final KeyPath path) {
+    final int pl = Math.min(offsets.length, paths.length);
+    for(int p = 0; p < pl; p++) {
+      if(paths[p].path.equals(path.path)) return p;
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the declarations.
+   * @return declarations
+   */
+  public KeyPath[] paths() {
+    return paths;
+  }
+
+  /**
+   * Returns the number of elements that are indexed for the specified key.
+   * @param path offset of the declaration
+   * @param key key
+   * @return number of elements
+   */
+  public synchronized int count(final int path, final byte[] key) {
+    final long pos = find(path, key);
+    return pos == -1 ? 0 : idxl.readNum(pos);
+  }
+
+  /**
+   * Returns the average number of elements per key.
+   * @param path offset of the declaration
+   * @return number of elements (at least {@code 1})
+   */
+  public int average(final int path) {
+    return Math.max(1, (entries[path] + sizes[path] - 1) / Math.max(1, sizes[path]));
+  }
+
+  /**
+   * Returns the pre values of all elements indexed for the specified keys.
+   * @param path offset of the declaration
+   * @param keys keys
+   * @return sorted pre values
+   */
+  public synchronized IntList pres(final int path, final TokenSet keys) {
+    final IntList pres = new IntList();
+    for(final byte[] key : keys) {
+      final long pos = find(path, key);
+      if(pos == -1) continue;
+      final int count = idxl.readNum(pos);
+      for(int c = 0, pre = 0; c < count; c++) {
+        pre += idxl.readNum();
+        pres.add(pre);
+      }
+    }
+    return keys.size() > 1 ? pres.ddo() : pres;
+  }
+
+  /**
+   * Returns the pre values of all elements with the specified keys by sequentially
+   * scanning the database.
+   * @param data data reference
+   * @param path declaration
+   * @param keys keys
+   * @return sorted pre values
+   */
+  public static IntList scan(final Data data, final KeyPath path, final TokenSet keys) {
+    final IntList pres = new IntList();
+    PathValuesBuilder.scan(data, new KeyPath[] { path }, (p, pre, key) -> {
+      if(keys.contains(key) && (pres.isEmpty() || pres.peek() != pre)) pres.add(pre);
+    });
+    return pres;
+  }
+
+  /**
+   * Closes the index.
+   */
+  public synchronized void close() {
+    idxl.close();
+    idxr.close();
+  }
+
+  /**
+   * Drops the index structures of the specified database.
+   * @param meta meta data
+   * @return success flag
+   */
+  public static boolean drop(final MetaData meta) {
+    return meta.drop(DATAPTV + '.');
+  }
+
+  /**
+   * Returns the position of the number of elements of the specified key.
+   * @param path offset of the declaration
+   * @param key key
+   * @return position or {@code -1}
+   */
+  private long find(final int path, final byte[] key) {
+    int l = 0, h = sizes[path] - 1;
+    while(l <= h) {
+      final int m = l + h >>> 1;
+      final long pos = idxr.read5(offsets[path] + m * 5L);
+      final int d = diff(idxl.readToken(pos), key);
+      if(d == 0) return idxl.cursor();
+      if(d < 0) l = m + 1;
+      else h = m - 1;
+    }
+    return -1;
+  }
+}
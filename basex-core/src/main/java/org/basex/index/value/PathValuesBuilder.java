@@ -0,0 +1,135 @@
+package org.basex.index.value;
+
+import static org.basex.data.DataText.*;
+
+import java.io.*;
+import java.util.*;
+
+import org.basex.data.*;
+import org.basex.io.out.DataOutput;
+import org.basex.util.*;
+import org.basex.util.hash.*;
+import org.basex.util.list.*;
+
+/**
+ * <p>This class builds the path indexes of a database, which are declared via
+ * {@link org.basex.core.MainOptions#PATHINDEXES}. The structure is stored in two files:</p>
+ *
+ * <ul>
+ *   <li> {@code DATAPTV + 'r'}: the number of declarations, and for each declaration the number of
+ *        keys, the number of indexed elements and the offsets to the entries of all keys
+ *        (5 bytes per offset). The offsets are sorted by the keys.</li>
+ *   <li> {@code DATAPTV + 'l'}: the entries. Each entry consists of the key, the number of
+ *        elements and the distances between the pre values of the elements.</li>
+ * </ul>
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class PathValuesBuilder {
+  /** Data reference. */
+  private final Data data;
+  /** Declarations. */
+  private final KeyPath[] paths;
+
+  /**
+   * Constructor.
+   * @param data data reference
+   */
+  public PathValuesBuilder(final Data data) {
+    this.data = data;
+    paths = KeyPath.get(data.meta.pathindexes);
+  }
+
+  /**
+   * Builds the index structure and returns an index instance.
+   * @return index instance
+   * @throws IOException I/O Exception
+   */
+  public PathValues build() throws IOException {
+    final int pl = paths.length;
+    final ArrayList<TokenObjMap<IntList>> maps = new ArrayList<>(pl);
+    for(int p = 0; p < pl; p++) maps.add(new TokenObjMap<>());
+    scan(data, paths, (p, pre, key) -> {
+      final IntList pres = maps.get(p).computeIfAbsent(key, IntList::new);
+      if(pres.isEmpty() || pres.peek() != pre) pres.add(pre);
+    });
+
+    try(DataOutput outl = new DataOutput(data.meta.dbFile(DATAPTV + 'l'));
+        DataOutput outr = new DataOutput(data.meta.dbFile(DATAPTV + 'r'))) {
+      outr.write4(pl);
+      for(final TokenObjMap<IntList> map : maps) {
+        final byte[][] keys = new byte[map.size()][];
+        int k = 0, entries = 0;
+        for(final byte[] key : map) {
+          keys[k++] = key;
+          entries += map.get(key).size();
+        }
+        Arrays.sort(keys, Token::diff);
+
+        outr.write4(keys.length);
+        outr.write4(entries);
+        for(final byte[] key : keys) {
+          outr.write5(outl.size());
+          outl.writeToken(key);
+          final IntList pres = map.get(key);
+          final int ps = pres.size();
+          outl.writeNum(ps);
+          for(int i = 0, pre = 0; i < ps; i++) {
+            outl.writeNum(pres.get(i) - pre);
+            pre = pres.get(i);
+          }
+        }
+      }
+    }
+    return new PathValues(data);
+  }
+
+  /**
+   * Traverses the database and passes on the keys of all context elements.
+   * @param data data reference
+   * @param paths declarations
+   * @param consumer consumer for the offset of the declaration, the pre value and the key
+   */
+  static void scan(final Data data, final KeyPath[] paths, final KeyConsumer consumer) {
+    // pre values and local names of the current element and its ancestors
+    final IntList pres = new IntList();
+    byte[][] names = new byte[8][];
+    final int size = data.meta.size, pl = paths.length;
+    for(int pre = 0; pre < size;) {
+      final int kind = data.kind(pre);
+      if(kind == Data.ELEM) {
+        final int par = data.parent(pre, kind);
+        while(!pres.isEmpty() && pres.peek() != par) pres.pop();
+        pres.push(pre);
+        final int depth = pres.size() - 1;
+        if(depth > names.length) names = Array.copy(names, new byte[depth << 1][]);
+        names[depth - 1] = Token.local(data.name(pre, kind));
+
+        for(int p = 0; p < pl; p++) {
+          if(paths[p].matches(names, depth)) {
+            for(final byte[] key : paths[p].keys(data, pre)) consumer.accept(p, pre, key);
+          }
+        }
+      } else if(kind == Data.DOC) {
+        pres.reset();
+        pres.push(pre);
+      }
+      pre += data.attSize(pre, kind);
+    }
+  }
+
+  /**
+   * Consumer for keys of context elements.
+   */
+  @FunctionalInterface
+  interface KeyConsumer {
+    /**
+     * Consumes a key.
+     * @param path offset of the declaration
+     * @param pre pre value of the context element
+     * @param key key
+     */
+    void accept(int path, int pre, byte[] key);
+  }
+}
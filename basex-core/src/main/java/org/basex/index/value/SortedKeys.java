@@ -0,0 +1,179 @@
+package org.basex.index.value;
+
+import static org.basex.util.Token.*;
+
+import java.util.*;
+
+import org.basex.util.*;
+import org.basex.util.list.*;
+
+/**
+ * This class contains the keys of a value index in their sorted order. It is created on demand
+ * and used for answering string range and prefix queries without accessing the database texts.
+ *
+ * The keys are front-coded and grouped in blocks: the first key of each block is stored
+ * completely, and all other keys are stored as the length of the prefix they share with
+ * the preceding key, followed by the remaining bytes.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+final class SortedKeys {
+  /** Number of keys per block. */
+  private static final int BLOCK = 16;
+
+  /** Front-coded keys. */
+  private final byte[] keys;
+  /** Offsets of the blocks. */
+  private final int[] blocks;
+  /** Accumulated number of ids ({@code counts[k]}: number of ids of the first {@code k} keys). */
+  private final int[] counts;
+
+  /**
+   * Constructor.
+   * @param keys keys (sorted)
+   * @param sizes number of ids of the keys
+   */
+  SortedKeys(final TokenList keys, final IntList sizes) {
+    final int ks = keys.size();
+    final ByteList list = new ByteList();
+    blocks = new int[(ks + BLOCK - 1) / BLOCK];
+    counts = new int[ks + 1];
+    byte[] prev = EMPTY;
+    for(int k = 0; k < ks; k++) {
+      final byte[] key = keys.get(k);
+      int shared = 0;
+      if(k % BLOCK == 0) {
+        blocks[k / BLOCK] = list.size();
+      } else {
+        final int l = Math.min(prev.length, key.length);
+        while(shared < l && prev[shared] == key[shared]) shared++;
+        list.add(Num.num(shared));
+      }
+      list.add(Num.num(key.length - shared)).add(key, shared, key.length);
+      counts[k + 1] = counts[k] + sizes.get(k);
+      prev = key;
+    }
+    this.keys = list.finish();
+  }
+
+  /**
+   * Returns the number of keys.
+   * @return number of keys
+   */
+  int size() {
+    return counts.length - 1;
+  }
+
+  /**
+   * Returns the position of the first key that is greater than (or equal to) the specified value.
+   * @param min minimum value
+   * @param inclusive include minimum value
+   * @return position
+   */
+  int first(final byte[] min, final boolean inclusive) {
+    return position(min, !inclusive);
+  }
+
+  /**
+   * Returns the position after the last key that is smaller than (or equal to) the specified
+   * value.
+   * @param max maximum value
+   * @param inclusive include maximum value
+   * @return position
+   */
+  int last(final byte[] max, final boolean inclusive) {
+    return position(max, inclusive);
+  }
+
+  /**
+   * Returns the number of ids in the specified range of keys.
+   * @param first position of the first key
+   * @param last position after the last key
+   * @return number of ids
+   */
+  int count(final int first, final int last) {
+    return first < last ? counts[last] - counts[first] : 0;
+  }
+
+  /**
+   * Returns the key at the specified position.
+   * @param k position
+   * @return key
+   */
+  byte[] key(final int k) {
+    return block(k / BLOCK)[k % BLOCK];
+  }
+
+  /**
+   * Returns the number of keys that are smaller than (or equal to) the specified value.
+   * @param value value
+   * @param equal include equal keys
+   * @return number of keys
+   */
+  private int position(final byte[] value, final boolean equal) {
+    // find first block with a larger first key
+    int l = 0, h = blocks.length;
+    while(l < h) {
+      final int m = l + h >>> 1;
+      if(before(first(m), value, equal)) l = m + 1;
+      else h = m;
+    }
+    if(l == 0) return 0;
+
+    // scan preceding block
+    final byte[][] block = block(l - 1);
+    int k = 1;
+    while(k < block.length && before(block[k], value, equal)) k++;
+    return (l - 1) * BLOCK + k;
+  }
+
+  /**
+   * Checks if a key precedes the specified value.
+   * @param key key
+   * @param value value
+   * @param equal accept equal keys
+   * @return result of check
+   */
+  private static boolean before(final byte[] key, final byte[] value, final boolean equal) {
+    final int d = diff(key, value);
+    return equal ? d <= 0 : d < 0;
+  }
+
+  /**
+   * Returns the first key of a block.
+   * @param b block
+   * @return key
+   */
+  private byte[] first(final int b) {
+    final int p = blocks[b], l = Num.get(keys, p), o = p + Num.length(keys, p);
+    return Arrays.copyOfRange(keys, o, o + l);
+  }
+
+  /**
+   * Decodes the keys of a block.
+   * @param b block
+   * @return keys
+   */
+  private byte[][] block(final int b) {
+    final int start = b * BLOCK, end = Math.min(start + BLOCK, size());
+    final byte[][] block = new byte[end - start][];
+    byte[] prev = EMPTY;
+    for(int k = start, p = blocks[b]; k < end; k++) {
+      int shared = 0;
+      if(k != start) {
+        shared = Num.get(keys, p);
+        p += Num.length(keys, p);
+      }
+      final int l = Num.get(keys, p);
+      p += Num.length(keys, p);
+      final byte[] key = new byte[shared + l];
+      Array.copy(prev, shared, key);
+      Array.copy(keys, p, l, key, shared);
+      p += l;
+      block[k - start] = key;
+      prev = key;
+    }
+    return block;
+  }
+}
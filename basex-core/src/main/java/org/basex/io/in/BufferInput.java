@@ -158,6 +158,11 @@ public class BufferInput extends InputStream {
     return bl.finish();
   }
 
+  @Override
+  public int available() throws IOException {
+    return bsize - bpos + (is != null ? is.available() : 0);
+  }
+
   @Override
   public final void close() throws IOException {
     if(is != null && !(is instanceof FilterInputStream)) is.close();
@@ -0,0 +1,81 @@
+package org.basex.io.in;
+
+import java.io.*;
+
+/**
+ * This client-side class reads the chunks sent by {@link org.basex.io.out.ChunkOutput}.
+ * Each chunk is prefixed with its length (4 bytes). An empty chunk marks the end of the stream.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class ChunkInput extends InputStream {
+  /** Input stream. */
+  private final InputStream input;
+  /** Remaining bytes of the current chunk. */
+  private int remaining;
+  /** Indicates if the final chunk has been read. */
+  private boolean more = true;
+
+  /**
+   * Constructor.
+   * @param input input stream to be wrapped
+   */
+  public ChunkInput(final InputStream input) {
+    this.input = input;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if(!next()) return -1;
+    final int b = input.read();
+    if(b == -1) throw new EOFException();
+    remaining--;
+    return b;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) throws IOException {
+    if(len == 0) return 0;
+    if(!next()) return -1;
+    final int r = input.read(b, off, Math.min(len, remaining));
+    if(r == -1) throw new EOFException();
+    remaining -= r;
+    return r;
+  }
+
+  @Override
+  public int available() throws IOException {
+    return Math.min(remaining, input.available());
+  }
+
+  /**
+   * Skips the remaining chunks.
+   * @throws IOException I/O exception
+   */
+  public void flush() throws IOException {
+    while(next()) {
+      remaining -= input.skip(remaining);
+      if(remaining > 0 && read() == -1) break;
+    }
+  }
+
+  /**
+   * Checks if bytes are left, and reads the header of the next chunk if necessary.
+   * @return result of check
+   * @throws IOException I/O exception
+   */
+  private boolean next() throws IOException {
+    while(more && remaining == 0) {
+      int size = 0;
+      for(int i = 0; i < 4; i++) {
+        final int b = input.read();
+        if(b == -1) throw new EOFException();
+        size = size << 8 | b;
+      }
+      if(size == 0) more = false;
+      else remaining = size;
+    }
+    return more;
+  }
+}
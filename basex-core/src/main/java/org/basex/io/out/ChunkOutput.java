@@ -0,0 +1,84 @@
+package org.basex.io.out;
+
+import java.io.*;
+
+/**
+ * This server-side class sends bytes to a database client in chunks with a bounded size.
+ * Each chunk is prefixed with its length (4 bytes). An empty chunk marks the end of the stream.
+ * As chunks are written as soon as they are full, the consumed memory does not depend on the
+ * size of the streamed data.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class ChunkOutput extends OutputStream {
+  /** Maximum chunk size. */
+  public static final int MAX = 1 << 16;
+
+  /** Output stream. */
+  private final OutputStream os;
+  /** Current chunk. */
+  private final byte[] chunk = new byte[MAX];
+  /** Number of bytes in the current chunk. */
+  private int size;
+  /** Indicates if the stream has been closed. */
+  private boolean closed;
+
+  /**
+   * Constructor.
+   * @param os output stream to be wrapped
+   */
+  public ChunkOutput(final OutputStream os) {
+    this.os = os;
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    if(size == MAX) send();
+    chunk[size++] = (byte) b;
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    for(int o = off, l = len; l > 0;) {
+      if(size == MAX) send();
+      final int n = Math.min(l, MAX - size);
+      System.arraycopy(b, o, chunk, size, n);
+      size += n;
+      o += n;
+      l -= n;
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if(size > 0) send();
+    os.flush();
+  }
+
+  /**
+   * Sends the remaining bytes and the final empty chunk.
+   * The wrapped output stream will not be closed.
+   * @throws IOException I/O exception
+   */
+  @Override
+  public void close() throws IOException {
+    if(closed) return;
+    closed = true;
+    if(size > 0) send();
+    send();
+  }
+
+  /**
+   * Sends the current chunk.
+   * @throws IOException I/O exception
+   */
+  private void send() throws IOException {
+    os.write(size >>> 24);
+    os.write(size >>> 16);
+    os.write(size >>> 8);
+    os.write(size);
+    os.write(chunk, 0, size);
+    size = 0;
+  }
+}
@@ -0,0 +1,260 @@
+package org.basex.io.random;
+
+import java.io.*;
+import java.util.*;
+import java.util.zip.*;
+
+import org.basex.io.*;
+import org.basex.io.in.DataInput;
+import org.basex.io.out.DataOutput;
+import org.basex.util.*;
+
+/**
+ * This class stores the blocks of a heap file in compressed chunks.
+ *
+ * The logical file is divided into chunks of {@link #CHUNKSIZE} bytes. Each chunk is compressed
+ * with {@link Deflater} and stored in the physical file. The offsets and sizes of the chunks are
+ * stored in a separate index file. A small number of decompressed chunks is cached in memory.
+ * Modified chunks are compressed again when they are evicted from the cache or when the file
+ * is flushed. A chunk is written to its old position if it still fits, or appended otherwise;
+ * unused space will be reclaimed when the database is optimized.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+final class CompressedBlocks {
+  /** Chunk size (power of two). */
+  private static final int CHUNKPOWER = 16;
+  /** Chunk size. */
+  private static final int CHUNKSIZE = 1 << CHUNKPOWER;
+  /** Number of cached chunks. */
+  private static final int CACHE = 4;
+
+  /** Physical file. */
+  private final RandomAccessFile file;
+  /** Index file. */
+  private final IOFile index;
+  /** Cached chunks. */
+  private final Chunk[] cache = new Chunk[CACHE];
+  /** Offsets of the chunks in the physical file ({@code -1}: chunk has not been stored yet). */
+  private long[] offsets;
+  /** Compressed sizes of the chunks. */
+  private int[] sizes;
+  /** Number of chunks. */
+  private int chunks;
+  /** Logical file length. */
+  private long length;
+  /** End of the physical file. */
+  private long end;
+  /** Access counter. */
+  private long counter;
+
+  /**
+   * Constructor.
+   * @param file physical file
+   * @param index index file
+   * @throws IOException I/O exception
+   */
+  CompressedBlocks(final RandomAccessFile file, final IOFile index) throws IOException {
+    this.file = file;
+    this.index = index;
+    if(index.exists()) {
+      try(DataInput in = new DataInput(index)) {
+        length = in.readLong();
+        offsets = in.readLongs(in.readNum());
+        sizes = in.readNums();
+        chunks = sizes.length;
+      }
+    } else {
+      offsets = new long[0];
+      sizes = new int[0];
+    }
+    end = file.length();
+    for(int c = 0; c < CACHE; c++) cache[c] = new Chunk();
+  }
+
+  /**
+   * Compresses an uncompressed heap file.
+   * @param raw uncompressed file (will be replaced)
+   * @param index index file
+   * @throws IOException I/O exception
+   */
+  static void compress(final IOFile raw, final IOFile index) throws IOException {
+    final IOFile tmp = new IOFile(raw.path() + ".tmp");
+    try(RandomAccessFile in = new RandomAccessFile(raw.file(), "r");
+        RandomAccessFile out = new RandomAccessFile(tmp.file(), "rw")) {
+      final CompressedBlocks blocks = new CompressedBlocks(out, index);
+      final long len = in.length();
+      final byte[] data = new byte[IO.BLOCKSIZE];
+      for(long pos = 0; pos < len; pos += IO.BLOCKSIZE) {
+        final int l = (int) Math.min(IO.BLOCKSIZE, len - pos);
+        in.readFully(data, 0, l);
+        blocks.write(pos, data, l);
+      }
+      blocks.flush(len);
+    }
+    if(!raw.delete() || !tmp.rename(raw)) throw new IOException("Could not replace " + raw);
+  }
+
+  /**
+   * Returns the logical file length.
+   * @return length
+   */
+  long length() {
+    return length;
+  }
+
+  /**
+   * Reads a block.
+   * @param pos logical position of the block
+   * @param data target array
+   * @throws IOException I/O exception
+   */
+  void read(final long pos, final byte[] data) throws IOException {
+    Array.copyToStart(chunk(pos).data, (int) (pos & CHUNKSIZE - 1), IO.BLOCKSIZE, data);
+  }
+
+  /**
+   * Writes a block.
+   * @param pos logical position of the block
+   * @param data block data
+   * @param len number of bytes to write
+   * @throws IOException I/O exception
+   */
+  void write(final long pos, final byte[] data, final int len) throws IOException {
+    final Chunk chunk = chunk(pos);
+    Array.copy(data, 0, len, chunk.data, (int) (pos & CHUNKSIZE - 1));
+    chunk.dirty = true;
+    length = Math.max(length, pos + len);
+  }
+
+  /**
+   * Writes all modified chunks and the index.
+   * @param len logical file length
+   * @throws IOException I/O exception
+   */
+  void flush(final long len) throws IOException {
+    for(final Chunk chunk : cache) store(chunk);
+    length = len;
+    // discard chunks beyond the end of the file
+    final int cs = (int) (len + CHUNKSIZE - 1 >>> CHUNKPOWER);
+    if(cs < chunks) {
+      chunks = cs;
+      for(final Chunk chunk : cache) {
+        if(chunk.id >= cs) chunk.id = -1;
+      }
+    }
+    try(DataOutput out = new DataOutput(index)) {
+      out.writeLong(length);
+      out.writeLongs(Arrays.copyOf(offsets, chunks));
+      out.writeNums(Arrays.copyOf(sizes, chunks));
+    }
+  }
+
+  // PRIVATE METHODS ==============================================================================
+
+  /**
+   * Returns the chunk containing the specified position.
+   * @param pos logical position
+   * @return chunk
+   * @throws IOException I/O exception
+   */
+  private Chunk chunk(final long pos) throws IOException {
+    final int id = (int) (pos >>> CHUNKPOWER);
+    // find cached chunk, or least recently used chunk
+    Chunk lru = cache[0];
+    for(final Chunk chunk : cache) {
+      if(chunk.id == id) {
+        chunk.used = ++counter;
+        return chunk;
+      }
+      if(chunk.used < lru.used) lru = chunk;
+    }
+    store(lru);
+    load(lru, id);
+    lru.used = ++counter;
+    return lru;
+  }
+
+  /**
+   * Loads and decompresses a chunk.
+   * @param chunk chunk
+   * @param id chunk id
+   * @throws IOException I/O exception
+   */
+  private void load(final Chunk chunk, final int id) throws IOException {
+    final byte[] data = chunk.data;
+    int len = 0;
+    if(id < chunks && offsets[id] != -1) {
+      final byte[] packed = new byte[sizes[id]];
+      file.seek(offsets[id]);
+      file.readFully(packed);
+      final Inflater inflater = new Inflater();
+      try {
+        inflater.setInput(packed);
+        while(len < CHUNKSIZE && !inflater.finished()) {
+          len += inflater.inflate(data, len, CHUNKSIZE - len);
+        }
+      } catch(final DataFormatException ex) {
+        throw new IOException(ex);
+      } finally {
+        inflater.end();
+      }
+    }
+    Arrays.fill(data, len, CHUNKSIZE, (byte) 0);
+    chunk.id = id;
+    chunk.dirty = false;
+  }
+
+  /**
+   * Compresses and stores a chunk if it has been modified.
+   * @param chunk chunk
+   * @throws IOException I/O exception
+   */
+  private void store(final Chunk chunk) throws IOException {
+    if(!chunk.dirty) return;
+
+    final byte[] packed = new byte[CHUNKSIZE + (CHUNKSIZE >>> 4) + 64];
+    final Deflater deflater = new Deflater();
+    int size = 0;
+    try {
+      deflater.setInput(chunk.data);
+      deflater.finish();
+      while(!deflater.finished()) size += deflater.deflate(packed, size, packed.length - size);
+    } finally {
+      deflater.end();
+    }
+
+    final int id = chunk.id;
+    if(id >= offsets.length) {
+      final int ns = Math.max(id + 1, offsets.length << 1);
+      offsets = Arrays.copyOf(offsets, ns);
+      sizes = Arrays.copyOf(sizes, ns);
+    }
+    for(; chunks <= id; chunks++) offsets[chunks] = -1;
+
+    // overwrite old chunk if new one fits, or append it to the file
+    long off = offsets[id];
+    if(off == -1 || size > sizes[id]) {
+      off = end;
+      end += size;
+    }
+    file.seek(off);
+    file.write(packed, 0, size);
+    offsets[id] = off;
+    sizes[id] = size;
+    chunk.dirty = false;
+  }
+
+  /** Decompressed chunk. */
+  private static final class Chunk {
+    /** Chunk data. */
+    final byte[] data = new byte[CHUNKSIZE];
+    /** Chunk id ({@code -1}: unassigned). */
+    int id = -1;
+    /** Last access. */
+    long used;
+    /** Dirty flag. */
+    boolean dirty;
+  }
+}
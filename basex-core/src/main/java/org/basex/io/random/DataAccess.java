@@ -1,6 +1,7 @@
 package org.basex.io.random;
 
 import java.io.*;
+import java.nio.*;
 
 import org.basex.io.*;
 import org.basex.util.*;
@@ -14,6 +15,10 @@ import org.basex.util.*;
 public final class DataAccess implements Closeable {
   /** Buffer manager. */
   private final Buffers buffers = new Buffers();
+  /** Shared page cache. */
+  private final PageCache cache = PageCache.get();
+  /** File id (used for caching blocks). */
+  private final int id = PageCache.file();
   /** Reference to the data input stream. */
   private final RandomAccessFile raf;
   /** File size. */
@@ -22,6 +27,12 @@ public final class DataAccess implements Closeable {
   private boolean changed;
   /** Offset. */
   private int off;
+  /** Memory mapping (can be {@code null}). */
+  private final Mapping mapping;
+  /** Compressed blocks (can be {@code null}). */
+  private final CompressedBlocks blocks;
+  /** Indicates if buffers have been modified and not been written yet. */
+  private volatile boolean modified;
 
   /**
    * Constructor, initializing the file reader.
@@ -29,11 +40,27 @@ public final class DataAccess implements Closeable {
    * @throws IOException I/O Exception
    */
   public DataAccess(final IOFile file) throws IOException {
+    this(file, false, null);
+  }
+
+  /**
+   * Constructor, initializing the file reader.
+   * If the file is memory-mapped, positional reads will not change the cursor as long as no
+   * data has been modified. Compressed files will not be memory-mapped.
+   * @param file the file to be read
+   * @param map memory-map file
+   * @param chunks index file of a compressed file (can be {@code null})
+   * @throws IOException I/O Exception
+   */
+  public DataAccess(final IOFile file, final boolean map, final IOFile chunks)
+      throws IOException {
     RandomAccessFile f = null;
     try {
       f = new RandomAccessFile(file.file(), "rw");
-      length = f.length();
+      blocks = chunks != null ? new CompressedBlocks(f, chunks) : null;
+      length = blocks != null ? blocks.length() : f.length();
       raf = f;
+      mapping = map && blocks == null ? new Mapping(f.getChannel()) : null;
       cursor(0);
     } catch(final IOException ex) {
       if(f != null) f.close();
@@ -49,18 +76,38 @@ public final class DataAccess implements Closeable {
       for(final Buffer buffer : buffers.all()) {
         if(buffer.dirty) writeBlock(buffer);
       }
-      if(changed) {
+      if(blocks != null) {
+        if(changed) cache.remove(id, length >>> IO.BLOCKPOWER);
+        blocks.flush(length);
+        changed = false;
+      } else if(changed) {
+        // drop cached blocks that have been truncated
+        if(length < raf.length()) cache.remove(id, length >>> IO.BLOCKPOWER);
         raf.setLength(length);
         changed = false;
       }
+      if(mapping != null) mapping.map();
+      modified = false;
     } catch(final IOException ex) {
       Util.stack(ex);
     }
   }
 
+  /**
+   * Compresses a file in chunks. The resulting file can be opened by passing on the index
+   * file to the constructor.
+   * @param file file to be compressed
+   * @param chunks index file to be created
+   * @throws IOException I/O Exception
+   */
+  public static void compress(final IOFile file, final IOFile chunks) throws IOException {
+    CompressedBlocks.compress(file, chunks);
+  }
+
   @Override
   public synchronized void close() {
     flush();
+    cache.remove(id);
     try {
       raf.close();
     } catch(final IOException ex) {
@@ -97,9 +144,13 @@ public final class DataAccess implements Closeable {
    * @param pos position
    * @return integer value
    */
-  public synchronized byte read1(final long pos) {
-    cursor(pos);
-    return read1();
+  public byte read1(final long pos) {
+    final Mapping map = mapping();
+    if(map != null) return (byte) map.read(pos);
+    synchronized(this) {
+      cursor(pos);
+      return read1();
+    }
   }
 
   /**
@@ -115,9 +166,13 @@ public final class DataAccess implements Closeable {
    * @param pos position
    * @return integer value
    */
-  public synchronized int read4(final long pos) {
-    cursor(pos);
-    return read4();
+  public int read4(final long pos) {
+    final Mapping map = mapping();
+    if(map != null) return (int) map.read(pos, 4);
+    synchronized(this) {
+      cursor(pos);
+      return read4();
+    }
   }
 
   /**
@@ -133,9 +188,13 @@ public final class DataAccess implements Closeable {
    * @param pos position
    * @return long value
    */
-  public synchronized long read5(final long pos) {
-    cursor(pos);
-    return read5();
+  public long read5(final long pos) {
+    final Mapping map = mapping();
+    if(map != null) return map.read(pos, 5);
+    synchronized(this) {
+      cursor(pos);
+      return read5();
+    }
   }
 
   /**
@@ -151,9 +210,13 @@ public final class DataAccess implements Closeable {
    * @param pos text position
    * @return read num
    */
-  public synchronized int readNum(final long pos) {
-    cursor(pos);
-    return readNum();
+  public int readNum(final long pos) {
+    final Mapping map = mapping();
+    if(map != null) return map.readNum(pos);
+    synchronized(this) {
+      cursor(pos);
+      return readNum();
+    }
   }
 
   /**
@@ -161,9 +224,18 @@ public final class DataAccess implements Closeable {
    * @param pos text position
    * @return text as byte array
    */
-  public synchronized byte[] readToken(final long pos) {
-    cursor(pos);
-    return readToken();
+  public byte[] readToken(final long pos) {
+    final Mapping map = mapping();
+    if(map != null) {
+      final int l = map.readNum(pos);
+      final byte[] data = new byte[l];
+      map.read(pos + Num.length(l), data, 0, l);
+      return data;
+    }
+    synchronized(this) {
+      cursor(pos);
+      return readToken();
+    }
   }
 
   /**
@@ -181,9 +253,17 @@ public final class DataAccess implements Closeable {
    * @param len length
    * @return byte array
    */
-  public synchronized byte[] readBytes(final long pos, final int len) {
-    cursor(pos);
-    return readBytes(len);
+  public byte[] readBytes(final long pos, final int len) {
+    final Mapping map = mapping();
+    if(map != null) {
+      final byte[] data = new byte[len];
+      map.read(pos, data, 0, len);
+      return data;
+    }
+    synchronized(this) {
+      cursor(pos);
+      return readBytes(len);
+    }
   }
 
   /**
@@ -192,20 +272,40 @@ public final class DataAccess implements Closeable {
    * @return byte array
    */
   public synchronized byte[] readBytes(final int len) {
-    int l = len, ll = IO.BLOCKSIZE - off;
-    final byte[] data = new byte[l];
-    Array.copyToStart(buffer(false).data, off, Math.min(l, ll), data);
-    if(l > ll) {
-      l -= ll;
-      while(l > IO.BLOCKSIZE) {
-        Array.copyFromStart(buffer(true).data, IO.BLOCKSIZE, data, ll);
-        ll += IO.BLOCKSIZE;
-        l -= IO.BLOCKSIZE;
+    final byte[] data = new byte[len];
+    copy(data, 0, len);
+    return data;
+  }
+
+  /**
+   * Copies bytes from the specified position to the specified array.
+   * In contrast to the other read methods, the cursor will not be changed, and the method
+   * can be called concurrently: if the file has not been modified, blocks are directly read
+   * from the memory mapping, the page cache or the file, and no lock will be acquired.
+   * @param pos position
+   * @param data target array
+   * @param offset array offset
+   * @param len number of bytes
+   */
+  public void read(final long pos, final byte[] data, final int offset, final int len) {
+    final Mapping map = mapping();
+    if(map != null) {
+      map.read(pos, data, offset, len);
+    } else if(modified || !readBlocks(pos, data, offset, len)) {
+      synchronized(this) {
+        cursor(pos);
+        copy(data, offset, len);
       }
-      Array.copyFromStart(buffer(true).data, l, data, ll);
     }
-    off += l;
-    return data;
+  }
+
+  /**
+   * Returns a reader with its own cursor. Readers can be used concurrently.
+   * @param pos initial position
+   * @return reader
+   */
+  public DataReader reader(final long pos) {
+    return new DataReader(this, pos);
   }
 
   /**
@@ -221,9 +321,17 @@ public final class DataAccess implements Closeable {
     try {
       if(buffer.dirty) writeBlock(buffer);
       buffer.pos = b;
-      raf.seek(buffer.pos);
-      if(buffer.pos < raf.length())
-        raf.readFully(buffer.data, 0, (int) Math.min(length - buffer.pos, IO.BLOCKSIZE));
+      final long block = b >>> IO.BLOCKPOWER;
+      if(blocks != null) {
+        if(b < length && !cache.read(id, block, buffer.data)) {
+          blocks.read(b, buffer.data);
+          cache.write(id, block, buffer.data);
+        }
+      } else if(b < raf.length() && !cache.read(id, block, buffer.data)) {
+        raf.seek(b);
+        raf.readFully(buffer.data, 0, (int) Math.min(length - b, IO.BLOCKSIZE));
+        cache.write(id, block, buffer.data);
+      }
     } catch(final IOException ex) {
       Util.stack(ex);
     }
@@ -309,6 +417,7 @@ public final class DataAccess implements Closeable {
    * @param len number of bytes to be written
    */
   public void writeBytes(final byte[] data, final int offset, final int len) {
+    if(!modified) modified = true;
     final int last = offset + len;
     int o = offset;
 
@@ -345,6 +454,7 @@ public final class DataAccess implements Closeable {
    * @return new offset to store text
    */
   public long free(final long pos, final int size) {
+    modified = true;
     // old text size (available space)
     int os = readNum(pos) + (int) (cursor() - pos);
 
@@ -380,6 +490,7 @@ public final class DataAccess implements Closeable {
    * @param len file length
    */
   private synchronized void length(final long len) {
+    if(!modified) modified = true;
     if(len != length) {
       changed = true;
       length = len;
@@ -388,6 +499,69 @@ public final class DataAccess implements Closeable {
 
   // PRIVATE METHODS ==============================================================================
 
+  /**
+   * Copies bytes from the page cache or the file to the specified array, without changing the
+   * cursor. Compressed blocks that are not found in the cache are not read.
+   * @param pos position
+   * @param data target array
+   * @param offset array offset
+   * @param len number of bytes
+   * @return {@code true} if all bytes were copied
+   */
+  private boolean readBlocks(final long pos, final byte[] data, final int offset, final int len) {
+    byte[] block = null;
+    long p = pos;
+    for(int o = offset, l = len; l > 0;) {
+      final long b = p >>> IO.BLOCKPOWER;
+      final int bo = (int) (p & IO.BLOCKSIZE - 1), n = Math.min(l, IO.BLOCKSIZE - bo);
+      if(!cache.read(id, b, bo, data, o, n)) {
+        if(blocks != null) return false;
+        if(block == null) block = new byte[IO.BLOCKSIZE];
+        // positional reads of a file channel do not change the file pointer
+        final long start = b << IO.BLOCKPOWER;
+        final ByteBuffer bb = ByteBuffer.wrap(block, 0,
+            (int) Math.max(0, Math.min(length - start, IO.BLOCKSIZE)));
+        try {
+          while(bb.hasRemaining() && raf.getChannel().read(bb, start + bb.position()) != -1);
+        } catch(final IOException ex) {
+          Util.debug(ex);
+          return false;
+        }
+        cache.write(id, b, block);
+        Array.copy(block, bo, n, data, o);
+      }
+      p += n;
+      o += n;
+      l -= n;
+    }
+    return true;
+  }
+
+  /**
+   * Copies bytes from the current cursor position to the specified array.
+   * @param data target array
+   * @param offset array offset
+   * @param len number of bytes
+   */
+  private void copy(final byte[] data, final int offset, final int len) {
+    for(int o = offset, l = len; l > 0;) {
+      final Buffer buffer = buffer();
+      final int n = Math.min(l, IO.BLOCKSIZE - off);
+      Array.copy(buffer.data, off, n, data, o);
+      off += n;
+      o += n;
+      l -= n;
+    }
+  }
+
+  /**
+   * Returns the memory mapping if it can be used for reading.
+   * @return mapping or {@code null}
+   */
+  private Mapping mapping() {
+    return modified ? null : mapping;
+  }
+
   /**
    * Reads the next byte.
    * @return next byte
@@ -402,6 +576,7 @@ public final class DataAccess implements Closeable {
    * @param value byte to be written
    */
   private void write(final int value) {
+    if(!modified) modified = true;
     final Buffer buffer = buffer();
     buffer.dirty = true;
     buffer.data[off++] = (byte) value;
@@ -416,8 +591,13 @@ public final class DataAccess implements Closeable {
    */
   private void writeBlock(final Buffer buffer) throws IOException {
     final long pos = buffer.pos, len = Math.min(IO.BLOCKSIZE, length - pos);
-    raf.seek(pos);
-    raf.write(buffer.data, 0, (int) len);
+    if(blocks != null) {
+      blocks.write(pos, buffer.data, (int) len);
+    } else {
+      raf.seek(pos);
+      raf.write(buffer.data, 0, (int) len);
+    }
+    cache.write(id, pos >>> IO.BLOCKPOWER, buffer.data);
     buffer.dirty = false;
   }
 
@@ -0,0 +1,144 @@
+package org.basex.io.random;
+
+import org.basex.io.*;
+import org.basex.util.*;
+
+/**
+ * This class provides sequential read access to a database file with a private cursor.
+ * Bytes are fetched via {@link DataAccess#read(long, byte[], int, int)}. Each reader has its
+ * own buffer, which grows with the number of sequentially read bytes. Instances are not
+ * thread-safe, but multiple readers of the same file can be used concurrently.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class DataReader {
+  /** Initial buffer size. */
+  private static final int INITIAL = 64;
+
+  /** Data access. */
+  private final DataAccess da;
+  /** Buffer. */
+  private byte[] buffer = new byte[INITIAL];
+  /** File position of the buffer. */
+  private long start;
+  /** Number of valid bytes in the buffer. */
+  private int size;
+  /** Cursor. */
+  private long pos;
+
+  /**
+   * Constructor.
+   * @param da data access
+   * @param pos initial position
+   */
+  DataReader(final DataAccess da, final long pos) {
+    this.da = da;
+    this.pos = pos;
+  }
+
+  /**
+   * Sets the cursor.
+   * @param p position
+   * @return self reference
+   */
+  public DataReader cursor(final long p) {
+    pos = p;
+    return this;
+  }
+
+  /**
+   * Returns the cursor.
+   * @return position
+   */
+  public long cursor() {
+    return pos;
+  }
+
+  /**
+   * Reads a byte value.
+   * @return byte value
+   */
+  public byte read1() {
+    return (byte) read();
+  }
+
+  /**
+   * Reads an integer value.
+   * @return integer value
+   */
+  public int read4() {
+    return (read() << 24) + (read() << 16) + (read() << 8) + read();
+  }
+
+  /**
+   * Reads a 5-byte value.
+   * @return long value
+   */
+  public long read5() {
+    return ((long) read() << 32) + ((long) read() << 24) + (read() << 16) + (read() << 8) + read();
+  }
+
+  /**
+   * Reads a compressed number (see {@link Num}).
+   * @return number
+   */
+  public int readNum() {
+    final int value = read();
+    switch(value & 0xC0) {
+    case 0:
+      return value;
+    case 0x40:
+      return (value - 0x40 << 8) + read();
+    case 0x80:
+      return (value - 0x80 << 24) + (read() << 16) + (read() << 8) + read();
+    default:
+      return (read() << 24) + (read() << 16) + (read() << 8) + read();
+    }
+  }
+
+  /**
+   * Reads a token.
+   * @return token
+   */
+  public byte[] readToken() {
+    return readBytes(readNum());
+  }
+
+  /**
+   * Reads a number of bytes.
+   * @param len length
+   * @return byte array
+   */
+  public byte[] readBytes(final int len) {
+    final byte[] data = new byte[len];
+    final long o = pos - start;
+    if(o >= 0 && o + len <= size) {
+      Array.copy(buffer, (int) o, len, data, 0);
+    } else {
+      da.read(pos, data, 0, len);
+    }
+    pos += len;
+    return data;
+  }
+
+  // PRIVATE METHODS ==============================================================================
+
+  /**
+   * Reads the next byte.
+   * @return byte
+   */
+  private int read() {
+    long o = pos - start;
+    if(o < 0 || o >= size) {
+      // sequential access: double buffer size
+      if(o == size && buffer.length < IO.BLOCKSIZE) buffer = new byte[buffer.length << 1];
+      start = pos;
+      size = (int) Math.max(1, Math.min(buffer.length, da.length() - pos));
+      da.read(pos, buffer, 0, size);
+      o = 0;
+    }
+    pos++;
+    return buffer[(int) o] & 0xFF;
+  }
+}
@@ -0,0 +1,123 @@
+package org.basex.io.random;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.channels.FileChannel.*;
+import java.util.*;
+
+/**
+ * This class provides read-only access to a memory-mapped file.
+ * Files are mapped in chunks to support files that are larger than 2 GB.
+ * All methods are positional and can be called concurrently.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+final class Mapping {
+  /** Chunk size (power of two, multiple of the block size). */
+  private static final int CHUNKPOWER = 30;
+  /** Chunk size. */
+  private static final long CHUNKSIZE = 1L << CHUNKPOWER;
+
+  /** File channel. */
+  private final FileChannel channel;
+  /** Mapped chunks. */
+  private volatile MappedByteBuffer[] chunks = {};
+  /** Mapped size. */
+  private long size;
+
+  /**
+   * Constructor.
+   * @param channel file channel
+   * @throws IOException I/O exception
+   */
+  Mapping(final FileChannel channel) throws IOException {
+    this.channel = channel;
+    map();
+  }
+
+  /**
+   * Maps the current file contents. Chunks that have been completely mapped before are reused.
+   * Must be called whenever the file size has changed.
+   * @throws IOException I/O exception
+   */
+  synchronized void map() throws IOException {
+    final long sz = channel.size();
+    if(sz == size) return;
+
+    final MappedByteBuffer[] old = chunks;
+    final int cs = (int) ((sz + CHUNKSIZE - 1) >>> CHUNKPOWER);
+    final MappedByteBuffer[] mbb = Arrays.copyOf(old, cs);
+    for(int c = 0; c < cs; c++) {
+      final long start = (long) c << CHUNKPOWER, len = Math.min(CHUNKSIZE, sz - start);
+      if(c >= old.length || mbb[c].capacity() != len) {
+        mbb[c] = channel.map(MapMode.READ_ONLY, start, len);
+      }
+    }
+    chunks = mbb;
+    size = sz;
+  }
+
+  /**
+   * Reads a byte.
+   * @param pos file position
+   * @return byte value
+   */
+  int read(final long pos) {
+    return chunks[(int) (pos >>> CHUNKPOWER)].get((int) (pos & CHUNKSIZE - 1)) & 0xFF;
+  }
+
+  /**
+   * Reads a big-endian value.
+   * @param pos file position
+   * @param length length of the value in bytes
+   * @return value
+   */
+  long read(final long pos, final int length) {
+    long value = 0;
+    for(long p = pos, l = pos + length; p < l; p++) value = value << 8 | read(p);
+    return value;
+  }
+
+  /**
+   * Reads a compressed number.
+   * @param pos file position
+   * @return number
+   */
+  int readNum(final long pos) {
+    final int value = read(pos);
+    switch(value & 0xC0) {
+    case 0:
+      return value;
+    case 0x40:
+      return (value - 0x40 << 8) + read(pos + 1);
+    case 0x80:
+      return (value - 0x80 << 24) + (int) read(pos + 1, 3);
+    default:
+      return (int) read(pos + 1, 4);
+    }
+  }
+
+  /**
+   * Copies bytes to the specified array.
+   * @param pos file position
+   * @param data target array
+   * @param off array offset
+   * @param len number of bytes
+   */
+  void read(final long pos, final byte[] data, final int off, final int len) {
+    final MappedByteBuffer[] mbb = chunks;
+    long p = pos;
+    int o = off, l = len;
+    while(l > 0) {
+      final int i = (int) (p & CHUNKSIZE - 1), n = (int) Math.min(l, CHUNKSIZE - i);
+      final ByteBuffer bb = mbb[(int) (p >>> CHUNKPOWER)].duplicate();
+      bb.position(i);
+      bb.get(data, o, n);
+      p += n;
+      o += n;
+      l -= n;
+    }
+  }
+}
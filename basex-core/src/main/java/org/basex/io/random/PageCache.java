@@ -0,0 +1,435 @@
+package org.basex.io.random;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+import org.basex.io.*;
+import org.basex.util.*;
+import org.basex.util.list.*;
+
+/**
+ * This class provides a process-wide cache for disk blocks, which is shared by all
+ * {@link TableDiskAccess} and {@link DataAccess} instances.
+ *
+ * The cache stores clean copies of blocks as they exist on disk: blocks are added whenever
+ * they are read from or written to disk, and they are removed when a file is truncated or closed.
+ * Modified blocks are still managed by the {@link Buffers} of the individual files.
+ * Blocks are evicted with the LRU-2 strategy: the block with the oldest penultimate reference
+ * is replaced, and blocks that have been referenced only once are replaced first, in LRU order.
+ * Repeated references within a short period (e.g. when consecutive entries of a table are read)
+ * are regarded as a single reference, and the last references of evicted blocks are retained
+ * to rate blocks that are read again.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class PageCache {
+  /** Shared instance. */
+  private static final PageCache INSTANCE = new PageCache();
+  /** File counter. */
+  private static final AtomicInteger FILES = new AtomicInteger();
+  /** Number of accesses within which references to the same block are correlated. */
+  private static final int CORRELATED = 8;
+
+  /** Slots of the cached blocks (keys: file and block positions). */
+  private final HashMap<Long, Integer> slots = new HashMap<>();
+  /** Free slots. */
+  private final IntList free = new IntList();
+  /** Cached blocks. */
+  private byte[][] blocks = new byte[0][];
+  /** Keys of the cached blocks ({@code -1}: free slot). */
+  private long[] keys = new long[0];
+  /** Times of the last references. */
+  private long[] last = new long[0];
+  /** Times of the penultimate references ({@code 0}: block was referenced once). */
+  private long[] prev = new long[0];
+  /** Next slots in the list of blocks that were referenced once. */
+  private int[] next = new int[0];
+  /** Previous slots in the list of blocks that were referenced once. */
+  private int[] before = new int[0];
+  /** Oldest slot in the list of blocks that were referenced once ({@code -1}: empty list). */
+  private int head = -1;
+  /** Newest slot in the list of blocks that were referenced once ({@code -1}: empty list). */
+  private int tail = -1;
+  /** Heap with the slots of blocks that were referenced more than once. */
+  private int[] heap = new int[0];
+  /** Heap positions of the slots. */
+  private int[] positions = new int[0];
+  /** Number of slots in the heap. */
+  private int heapSize;
+  /** Last references of evicted blocks (keys: file and block positions). */
+  private final LinkedHashMap<Long, Long> history = new LinkedHashMap<>();
+  /** Maximum number of blocks. */
+  private volatile int capacity;
+  /** Number of assigned slots. */
+  private int size;
+  /** Current time (number of references). */
+  private long time;
+
+  /** Number of hits. */
+  private long hits;
+  /** Number of misses. */
+  private long misses;
+  /** Number of evicted blocks. */
+  private long evictions;
+
+  /**
+   * Private constructor.
+   */
+  private PageCache() { }
+
+  /**
+   * Returns the shared instance.
+   * @return instance
+   */
+  public static PageCache get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns a new file id.
+   * @return file id
+   */
+  static int file() {
+    return FILES.incrementAndGet();
+  }
+
+  /**
+   * Assigns the maximum cache size. Existing blocks will be dropped.
+   * @param bytes size in bytes ({@code 0}: disable cache)
+   */
+  public synchronized void size(final long bytes) {
+    final int cap = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(0, bytes) >>> IO.BLOCKPOWER);
+    if(cap == capacity) return;
+    capacity = cap;
+    slots.clear();
+    free.reset();
+    blocks = new byte[0][];
+    keys = new long[0];
+    last = new long[0];
+    prev = new long[0];
+    next = new int[0];
+    before = new int[0];
+    heap = new int[0];
+    positions = new int[0];
+    history.clear();
+    head = -1;
+    tail = -1;
+    heapSize = 0;
+    size = 0;
+  }
+
+  /**
+   * Copies the contents of a cached block to the specified array.
+   * @param file file id
+   * @param block block position
+   * @param data target array
+   * @return {@code true} if the block was found
+   */
+  boolean read(final int file, final long block, final byte[] data) {
+    return read(file, block, 0, data, 0, IO.BLOCKSIZE);
+  }
+
+  /**
+   * Copies a part of a cached block to the specified array.
+   * @param file file id
+   * @param block block position
+   * @param off offset in the block
+   * @param data target array
+   * @param pos array position
+   * @param len number of bytes
+   * @return {@code true} if the block was found
+   */
+  synchronized boolean read(final int file, final long block, final int off, final byte[] data,
+      final int pos, final int len) {
+    if(capacity == 0) return false;
+    final Integer slot = slots.get(key(file, block));
+    if(slot == null) {
+      misses++;
+      return false;
+    }
+    final int s = slot;
+    Array.copy(blocks[s], off, len, data, pos);
+    reference(s);
+    hits++;
+    return true;
+  }
+
+  /**
+   * Returns a big-endian value from a cached block.
+   * @param file file id
+   * @param block block position
+   * @param off offset in the block
+   * @param len length of the value in bytes (at most 7)
+   * @return value, or {@code -1} if the block was not found
+   */
+  synchronized long read(final int file, final long block, final int off, final int len) {
+    if(capacity == 0) return -1;
+    final Integer slot = slots.get(key(file, block));
+    if(slot == null) {
+      misses++;
+      return -1;
+    }
+    final int s = slot;
+    final byte[] data = blocks[s];
+    long value = 0;
+    for(int o = off, l = off + len; o < l; o++) value = value << 8 | data[o] & 0xFF;
+    reference(s);
+    hits++;
+    return value;
+  }
+
+  /**
+   * Indicates if the cache is enabled.
+   * @return result of check
+   */
+  boolean enabled() {
+    return capacity != 0;
+  }
+
+  /**
+   * Caches a copy of the specified block.
+   * @param file file id
+   * @param block block position
+   * @param data block data
+   */
+  synchronized void write(final int file, final long block, final byte[] data) {
+    if(capacity == 0) return;
+    final long key = key(file, block);
+    Integer slot = slots.get(key);
+    if(slot == null) {
+      slot = slot();
+      keys[slot] = key;
+      slots.put(key, slot);
+      // consider last reference before the block was evicted
+      final Long evicted = history.remove(key);
+      last[slot] = ++time;
+      if(evicted != null) {
+        prev[slot] = evicted;
+        push(slot);
+      } else {
+        prev[slot] = 0;
+        append(slot);
+      }
+    } else {
+      reference(slot);
+    }
+    Array.copyToStart(data, 0, IO.BLOCKSIZE, blocks[slot]);
+  }
+
+  /**
+   * Removes all cached blocks of a file, starting from the specified block.
+   * @param file file id
+   * @param block first block to be removed
+   */
+  synchronized void remove(final int file, final long block) {
+    if(slots.isEmpty()) return;
+    for(int s = 0; s < size; s++) {
+      final long key = keys[s];
+      if(key != -1 && (int) (key >>> 32) == file && (key & 0xFFFFFFFFL) >= block) release(s);
+    }
+  }
+
+  /**
+   * Removes all cached blocks of a file.
+   * @param file file id
+   */
+  void remove(final int file) {
+    remove(file, 0);
+  }
+
+  /**
+   * Returns information on the cache.
+   * @return info string
+   */
+  public synchronized String info() {
+    final long total = hits + misses;
+    return "Page Cache: " + slots.size() + '/' + capacity + " blocks, " +
+      Performance.format((long) slots.size() << IO.BLOCKPOWER) + ", " +
+      hits + " hits, " + misses + " misses" +
+      (total == 0 ? "" : " (" + hits * 100 / total + "%)") + ", " + evictions + " evictions";
+  }
+
+  @Override
+  public String toString() {
+    return Util.className(this) + '[' + info() + ']';
+  }
+
+  // PRIVATE METHODS ==============================================================================
+
+  /**
+   * Returns a free slot, evicting another block if the cache is full.
+   * @return slot
+   */
+  private int slot() {
+    if(!free.isEmpty()) return free.pop();
+    if(size < capacity) {
+      if(size == keys.length) {
+        final int ns = Math.min(capacity, Math.max(size << 1, 1 << 8));
+        blocks = Arrays.copyOf(blocks, ns);
+        keys = Arrays.copyOf(keys, ns);
+        last = Arrays.copyOf(last, ns);
+        prev = Arrays.copyOf(prev, ns);
+        next = Arrays.copyOf(next, ns);
+        before = Arrays.copyOf(before, ns);
+        heap = Arrays.copyOf(heap, ns);
+        positions = Arrays.copyOf(positions, ns);
+      }
+      blocks[size] = new byte[IO.BLOCKSIZE];
+      return size++;
+    }
+    // evict block that was referenced once, or block with the oldest penultimate reference
+    final int s = head != -1 ? head : heap[0];
+    detach(s);
+    slots.remove(keys[s]);
+    history.put(keys[s], last[s]);
+    if(history.size() > capacity) {
+      final Iterator<Long> iter = history.keySet().iterator();
+      iter.next();
+      iter.remove();
+    }
+    evictions++;
+    return s;
+  }
+
+  /**
+   * Releases the specified slot.
+   * @param slot slot
+   */
+  private void release(final int slot) {
+    detach(slot);
+    slots.remove(keys[slot]);
+    keys[slot] = -1;
+    free.add(slot);
+  }
+
+  /**
+   * Registers a reference to the block in the specified slot.
+   * @param slot slot
+   */
+  private void reference(final int slot) {
+    final long t = ++time;
+    if(t - last[slot] <= CORRELATED) {
+      // correlated reference: only update time of last reference
+      last[slot] = t;
+      if(prev[slot] == 0) {
+        unlink(slot);
+        append(slot);
+      }
+    } else if(prev[slot] == 0) {
+      // block is referenced for the second time
+      unlink(slot);
+      prev[slot] = last[slot];
+      last[slot] = t;
+      push(slot);
+    } else {
+      prev[slot] = last[slot];
+      last[slot] = t;
+      down(positions[slot]);
+    }
+  }
+
+  /**
+   * Removes the specified slot from the list or the heap.
+   * @param slot slot
+   */
+  private void detach(final int slot) {
+    if(prev[slot] == 0) {
+      unlink(slot);
+    } else {
+      final int p = positions[slot], s = heap[--heapSize];
+      if(p != heapSize) {
+        place(s, p);
+        up(p);
+        down(positions[s]);
+      }
+    }
+  }
+
+  /**
+   * Appends a slot to the list of blocks that were referenced once.
+   * @param slot slot
+   */
+  private void append(final int slot) {
+    before[slot] = tail;
+    next[slot] = -1;
+    if(tail == -1) head = slot;
+    else next[tail] = slot;
+    tail = slot;
+  }
+
+  /**
+   * Removes a slot from the list of blocks that were referenced once.
+   * @param slot slot
+   */
+  private void unlink(final int slot) {
+    final int b = before[slot], n = next[slot];
+    if(b == -1) head = n;
+    else next[b] = n;
+    if(n == -1) tail = b;
+    else before[n] = b;
+  }
+
+  /**
+   * Adds a slot to the heap.
+   * @param slot slot
+   */
+  private void push(final int slot) {
+    place(slot, heapSize);
+    up(heapSize++);
+  }
+
+  /**
+   * Moves a heap entry up until its parent has an older penultimate reference.
+   * @param p heap position
+   */
+  private void up(final int p) {
+    final int s = heap[p];
+    int c = p;
+    while(c > 0) {
+      final int pr = c - 1 >>> 1;
+      if(prev[heap[pr]] <= prev[s]) break;
+      place(heap[pr], c);
+      c = pr;
+    }
+    place(s, c);
+  }
+
+  /**
+   * Moves a heap entry down until its children have newer penultimate references.
+   * @param p heap position
+   */
+  private void down(final int p) {
+    final int s = heap[p];
+    int c = p;
+    while(true) {
+      int ch = (c << 1) + 1;
+      if(ch >= heapSize) break;
+      if(ch + 1 < heapSize && prev[heap[ch + 1]] < prev[heap[ch]]) ch++;
+      if(prev[s] <= prev[heap[ch]]) break;
+      place(heap[ch], c);
+      c = ch;
+    }
+    place(s, c);
+  }
+
+  /**
+   * Assigns a slot to a heap position.
+   * @param slot slot
+   * @param p heap position
+   */
+  private void place(final int slot, final int p) {
+    heap[p] = slot;
+    positions[slot] = p;
+  }
+
+  /**
+   * Returns a key for the specified file and block.
+   * @param file file id
+   * @param block block position
+   * @return key
+   */
+  private static long key(final int file, final long block) {
+    return (long) file << 32 | block & 0xFFFFFFFFL;
+  }
+}
@@ -3,6 +3,7 @@ package org.basex.io.random;
 import static org.basex.data.DataText.*;
 
 import java.io.*;
+import java.nio.*;
 import java.nio.channels.*;
 import java.util.*;
 
@@ -23,12 +24,22 @@ import org.basex.util.*;
 public final class TableDiskAccess extends TableAccess {
   /** Buffer manager. */
   private final Buffers buffers = new Buffers();
+  /** Shared page cache. */
+  private final PageCache cache = PageCache.get();
+  /** File id (used for caching pages). */
+  private final int id = PageCache.file();
   /** File storing all pages. */
   private final RandomAccessFile file;
   /** Bitmap storing free (=0) and used (=1) pages. */
   private BitArray usedPages;
+  /** File channel (used for concurrent reads). */
+  private final FileChannel channel;
+  /** Memory mapping (can be {@code null}). */
+  private final Mapping mapping;
   /** File lock. */
   private FileLock lock;
+  /** Indicates if pages have been modified and not been written yet. */
+  private volatile boolean modified;
 
   /** First pre values (ascending order); will be initialized with the first update. */
   private int[] fPreIndex;
@@ -76,6 +87,8 @@ public final class TableDiskAccess extends TableAccess {
 
     // initialize data file
     file = new RandomAccessFile(meta.dbFile(DATATBL).file(), "rw");
+    channel = file.getChannel();
+    mapping = meta.mmap ? new Mapping(channel) : null;
     if(!lock(write)) throw new BaseXException(Text.DB_PINNED_X, meta.name);
   }
 
@@ -102,6 +115,9 @@ public final class TableDiskAccess extends TableAccess {
     for(final Buffer buffer : buffers.all()) {
       write(buffer);
     }
+    // all pages are written: concurrent readers can access the file again
+    if(mapping != null) mapping.map();
+    modified = false;
     if(!dirty || !all) return;
 
     try(DataOutput out = new DataOutput(meta.dbFile(DATATBL + 'i'))) {
@@ -137,6 +153,7 @@ public final class TableDiskAccess extends TableAccess {
   public synchronized void close() throws IOException {
     flush(true);
     file.close();
+    cache.remove(id);
   }
 
   @Override
@@ -146,7 +163,7 @@ public final class TableDiskAccess extends TableAccess {
         if(write != lock.isShared()) return true;
         lock.release();
       }
-      lock = file.getChannel().tryLock(0, Long.MAX_VALUE, !write);
+      lock = channel.tryLock(0, Long.MAX_VALUE, !write);
       return lock != null;
     } catch(final IOException ex) {
       throw Util.notExpected(ex);
@@ -154,37 +171,28 @@ public final class TableDiskAccess extends TableAccess {
   }
 
   @Override
-  public synchronized int read1(final int pre, final int offset) {
-    final int o = offset + cursor(pre);
-    final byte[] data = buffers.current().data;
-    return data[o] & 0xFF;
+  public int read1(final int pre, final int offset) {
+    return (int) read(pre, offset, 1);
   }
 
   @Override
-  public synchronized int read2(final int pre, final int offset) {
-    final int o = offset + cursor(pre);
-    final byte[] data = buffers.current().data;
-    return ((data[o] & 0xFF) << 8) + (data[o + 1] & 0xFF);
+  public int read2(final int pre, final int offset) {
+    return (int) read(pre, offset, 2);
   }
 
   @Override
-  public synchronized int read4(final int pre, final int offset) {
-    final int o = offset + cursor(pre);
-    final byte[] data = buffers.current().data;
-    return ((data[o] & 0xFF) << 24) + ((data[o + 1] & 0xFF) << 16) +
-      ((data[o + 2] & 0xFF) << 8) + (data[o + 3] & 0xFF);
+  public int read4(final int pre, final int offset) {
+    return (int) read(pre, offset, 4);
   }
 
   @Override
-  public synchronized long read5(final int pre, final int offset) {
-    final int o = offset + cursor(pre);
-    final byte[] data = buffers.current().data;
-    return ((long) (data[o] & 0xFF) << 32) + ((long) (data[o + 1] & 0xFF) << 24) +
-      ((data[o + 2] & 0xFF) << 16) + ((data[o + 3] & 0xFF) << 8) + (data[o + 4] & 0xFF);
+  public long read5(final int pre, final int offset) {
+    return read(pre, offset, 5);
   }
 
   @Override
   public void write1(final int pre, final int offset, final int value) {
+    modify();
     final int o = offset + cursor(pre);
     final Buffer buffer = buffers.current();
     buffer.data[o] = (byte) value;
@@ -193,6 +201,7 @@ public final class TableDiskAccess extends TableAccess {
 
   @Override
   public void write2(final int pre, final int offset, final int value) {
+    modify();
     final int o = offset + cursor(pre);
     final Buffer buffer = buffers.current();
     final byte[] data = buffer.data;
@@ -203,6 +212,7 @@ public final class TableDiskAccess extends TableAccess {
 
   @Override
   public void write4(final int pre, final int offset, final int value) {
+    modify();
     final int o = offset + cursor(pre);
     final Buffer buffer = buffers.current();
     final byte[] data = buffer.data;
@@ -215,6 +225,7 @@ public final class TableDiskAccess extends TableAccess {
 
   @Override
   public void write5(final int pre, final int offset, final long value) {
+    modify();
     final int o = offset + cursor(pre);
     final Buffer buffer = buffers.current();
     final byte[] data = buffer.data;
@@ -228,6 +239,7 @@ public final class TableDiskAccess extends TableAccess {
 
   @Override
   protected void copy(final byte[] entries, final int first, final int last) {
+    modify();
     dirty();
     for(int o = 0, i = first; i < last; ++i, o += IO.NODESIZE) {
       final int off = cursor(i);
@@ -242,6 +254,7 @@ public final class TableDiskAccess extends TableAccess {
     if(count == 0) return;
 
     // get first page
+    modify();
     dirty();
     cursor(pre);
 
@@ -313,6 +326,7 @@ public final class TableDiskAccess extends TableAccess {
   public void insert(final int pre, final byte[] entries) {
     final int nnew = entries.length;
     if(nnew == 0) return;
+    modify();
     dirty();
 
     // number of entries to be inserted
@@ -440,6 +454,74 @@ public final class TableDiskAccess extends TableAccess {
 
   // PRIVATE METHODS ==============================================================================
 
+  /**
+   * Reads a value from the specified entry.
+   * As long as no pages are modified, the table will be read concurrently: values are read
+   * from the memory-mapped file or from the shared page cache. Missing pages are fetched with
+   * positional reads and added to the cache. Otherwise, or if the cache is disabled,
+   * the buffers of the table are used.
+   * @param pre pre value
+   * @param offset offset
+   * @param length length of the value in bytes
+   * @return value
+   */
+  private long read(final int pre, final int offset, final int length) {
+    if(!modified && (mapping != null || cache.enabled())) {
+      final int size = meta.size, last = used - 1;
+      if(pre < 0 || pre >= size) throw bounds(pre, -1, -1, -1, 0, last);
+      int l = 0, h = last;
+      if(fPreIndex == null) {
+        l = pre / IO.ENTRIES;
+      } else {
+        while(l < h) {
+          final int m = l + h + 1 >>> 1;
+          if(fPreIndex[m] <= pre) l = m;
+          else h = m - 1;
+        }
+      }
+      final int p = pageIndex == null ? l : pageIndex[l];
+      final int o = (pre - fpre(l) << IO.NODEPOWER) + offset;
+      if(mapping != null) return mapping.read(((long) p << IO.BLOCKPOWER) + o, length);
+
+      final long value = cache.read(id, p, o, length);
+      if(value != -1) return value;
+      final byte[] data = new byte[IO.BLOCKSIZE];
+      try {
+        final ByteBuffer bb = ByteBuffer.wrap(data);
+        final long pos = (long) p << IO.BLOCKPOWER;
+        while(bb.hasRemaining() && channel.read(bb, pos + bb.position()) != -1);
+        cache.write(id, p, data);
+      } catch(final IOException ex) {
+        Util.stack(ex);
+      }
+      return value(data, o, length);
+    }
+    synchronized(this) {
+      final int o = offset + cursor(pre);
+      return value(buffers.current().data, o, length);
+    }
+  }
+
+  /**
+   * Returns a big-endian value from the specified array.
+   * @param data data array
+   * @param offset offset
+   * @param length length of the value in bytes
+   * @return value
+   */
+  private static long value(final byte[] data, final int offset, final int length) {
+    long value = 0;
+    for(int o = offset, l = offset + length; o < l; o++) value = value << 8 | data[o] & 0xFF;
+    return value;
+  }
+
+  /**
+   * Marks the buffers as modified before a write operation.
+   */
+  private void modify() {
+    modified = true;
+  }
+
   /**
    * Marks the data structures as dirty.
    */
@@ -455,6 +537,27 @@ public final class TableDiskAccess extends TableAccess {
     dirty = true;
   }
 
+  /**
+   * Returns an exception for a pre value that is out of bounds.
+   * @param pre pre value
+   * @param fp first pre value
+   * @param np next pre value
+   * @param m accessed page
+   * @param l lower bound
+   * @param h upper bound
+   * @return exception
+   */
+  private RuntimeException bounds(final int pre, final int fp, final int np, final int m,
+      final int l, final int h) {
+    return Util.notExpected(
+        "Data Access out of bounds:" +
+        "\n- pre value: " + pre +
+        "\n- table size: " + meta.size +
+        "\n- first/next pre value: " + fp + '/' + np +
+        "\n- #total/used pages: " + pages + '/' + used +
+        "\n- accessed page: " + m + " (" + l + " > " + h + ']');
+  }
+
   /**
    * Searches for the page containing the entry for the specified pre value.
    * Reads the page and returns its offset inside the page.
@@ -474,13 +577,7 @@ public final class TableDiskAccess extends TableAccess {
         fp = fpre(m);
         np = m == last ? meta.size : fpre(m + 1);
       }
-      if(l > h) throw Util.notExpected(
-          "Data Access out of bounds:" +
-          "\n- pre value: " + pre +
-          "\n- table size: " + meta.size +
-          "\n- first/next pre value: " + fp + '/' + np +
-          "\n- #total/used pages: " + pages + '/' + used +
-          "\n- accessed page: " + m + " (" + l + " > " + h + ']');
+      if(l > h) throw bounds(pre, fp, np, m, l, h);
       readPage(m);
     }
     return pre - firstPre << IO.NODEPOWER;
@@ -527,9 +624,10 @@ public final class TableDiskAccess extends TableAccess {
       buffer.pos = pre;
       if(pre >= pages) {
         pages = pre + 1;
-      } else {
+      } else if(!cache.read(id, pre, buffer.data)) {
         file.seek(buffer.pos << IO.BLOCKPOWER);
         file.readFully(buffer.data);
+        cache.write(id, pre, buffer.data);
       }
     } catch(final IOException ex) {
       Util.stack(ex);
@@ -546,6 +644,7 @@ public final class TableDiskAccess extends TableAccess {
 
     file.seek(buffer.pos << IO.BLOCKPOWER);
     file.write(buffer.data);
+    cache.write(id, buffer.pos, buffer.data);
     buffer.dirty = false;
   }
 
@@ -0,0 +1,302 @@
+package org.basex.query;
+
+import java.util.*;
+import java.util.Map.Entry;
+
+import org.basex.core.*;
+import org.basex.core.users.*;
+import org.basex.data.*;
+import org.basex.io.*;
+import org.basex.util.*;
+
+/**
+ * This class caches compiled queries, which can be evaluated again without being parsed and
+ * compiled. A cached query is identified by its query string, the base URI, the user and the
+ * local options. It is leased exclusively to a single query processor and returned after
+ * evaluation. Cached queries are discarded if one of the accessed databases has been updated
+ * (which includes changes of the index structures) or is to be dropped or replaced, or if an
+ * imported module has been modified.
+ *
+ * Prepared queries are evaluated repeatedly with different bindings. Their compiled queries are
+ * owned by a single client and kept until the client closes the query, or until the number of
+ * kept queries exceeds the size of the cache.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class QueryCache {
+  /** Cached queries, in the order of their access. */
+  private final LinkedHashMap<String, Plan> plans = new LinkedHashMap<>(16, 0.75f, true);
+  /** Prepared queries that are currently not evaluated, in the order in which they were kept. */
+  private final LinkedHashSet<Plan> prepared = new LinkedHashSet<>();
+  /** Number of hits. */
+  private long hits;
+  /** Number of misses. */
+  private long misses;
+
+  /**
+   * Returns the cache key for a query, or {@code null} if caching is disabled.
+   * @param query query string
+   * @param uri base URI (can be {@code null})
+   * @param ctx database context
+   * @return key or {@code null}
+   */
+  static String key(final String query, final String uri, final Context ctx) {
+    if(ctx.soptions.get(StaticOptions.QUERYCACHE) <= 0) return null;
+    final User user = ctx.user();
+    return new StringBuilder(query).append('\0').append(uri).append('\0').
+      append(user != null ? user.name() : "").append('\0').append(ctx.options).toString();
+  }
+
+  /**
+   * Leases a cached query. The query is removed from the cache until it is returned.
+   * @param key cache key
+   * @param ctx database context
+   * @return query context or {@code null}
+   */
+  QueryContext lease(final String key, final Context ctx) {
+    final Plan plan;
+    synchronized(this) {
+      plan = plans.remove(key);
+      if(plan != null && plan.valid(ctx)) {
+        hits++;
+        return plan.qc;
+      }
+      misses++;
+    }
+    if(plan != null) plan.qc.close();
+    return null;
+  }
+
+  /**
+   * Checks if a leased query is still valid. Called after the database locks have been acquired.
+   * @param qc query context
+   * @return result of check
+   */
+  static boolean valid(final QueryContext qc) {
+    return qc.plan == null || qc.plan.valid(qc.context);
+  }
+
+  /**
+   * Returns an evaluated query to the cache.
+   * @param key cache key
+   * @param qc query context
+   * @return {@code true} if the query has been cached
+   */
+  boolean add(final String key, final QueryContext qc) {
+    final int max = qc.context.soptions.get(StaticOptions.QUERYCACHE);
+    if(max <= 0 || !qc.reusable()) return false;
+
+    qc.release();
+    final Plan plan = new Plan(qc);
+    final ArrayList<Plan> evicted = new ArrayList<>(1);
+    synchronized(this) {
+      final Plan old = plans.put(key, plan);
+      if(old != null) evicted.add(old);
+      final Iterator<Plan> iter = plans.values().iterator();
+      for(int s = plans.size(); s > max; s--) {
+        evicted.add(iter.next());
+        iter.remove();
+      }
+    }
+    for(final Plan pl : evicted) pl.qc.close();
+    return true;
+  }
+
+  /**
+   * Keeps an evaluated prepared query.
+   * @param qc query context
+   * @return compiled query, or {@code null} if the query cannot be evaluated again
+   */
+  Plan park(final QueryContext qc) {
+    final int max = qc.context.soptions.get(StaticOptions.QUERYCACHE);
+    if(max <= 0 || !qc.reusable()) return null;
+
+    qc.release();
+    final Plan plan = new Plan(qc);
+    final ArrayList<Plan> evicted = new ArrayList<>(1);
+    synchronized(this) {
+      prepared.add(plan);
+      final Iterator<Plan> iter = prepared.iterator();
+      for(int s = prepared.size(); s > max; s--) {
+        evicted.add(iter.next());
+        iter.remove();
+      }
+    }
+    for(final Plan pl : evicted) pl.qc.close();
+    return plan;
+  }
+
+  /**
+   * Leases a prepared query.
+   * @param plan compiled query
+   * @param ctx database context
+   * @return query context, or {@code null} if the query has been discarded or is invalid
+   */
+  QueryContext lease(final Plan plan, final Context ctx) {
+    synchronized(this) {
+      if(!prepared.remove(plan)) return null;
+      if(plan.valid(ctx)) {
+        hits++;
+        return plan.qc;
+      }
+      misses++;
+    }
+    plan.qc.close();
+    return null;
+  }
+
+  /**
+   * Discards a prepared query.
+   * @param plan compiled query
+   */
+  public void remove(final Plan plan) {
+    final boolean removed;
+    synchronized(this) {
+      removed = prepared.remove(plan);
+    }
+    if(removed) plan.qc.close();
+  }
+
+  /**
+   * Discards all cached queries that access the specified database.
+   * @param db name of database
+   */
+  public void discard(final String db) {
+    final ArrayList<Plan> evicted = new ArrayList<>(0);
+    synchronized(this) {
+      discard(db, plans.values().iterator(), evicted);
+      discard(db, prepared.iterator(), evicted);
+    }
+    for(final Plan plan : evicted) plan.qc.close();
+  }
+
+  /**
+   * Removes all queries that access the specified database.
+   * @param db name of database
+   * @param iter iterator over the queries
+   * @param evicted list for the removed queries
+   */
+  private static void discard(final String db, final Iterator<Plan> iter,
+      final ArrayList<Plan> evicted) {
+    while(iter.hasNext()) {
+      final Plan plan = iter.next();
+      if(plan.accesses(db)) {
+        evicted.add(plan);
+        iter.remove();
+      }
+    }
+  }
+
+  /**
+   * Discards all cached and prepared queries.
+   */
+  public void close() {
+    final ArrayList<Plan> evicted;
+    synchronized(this) {
+      evicted = new ArrayList<>(plans.values());
+      evicted.addAll(prepared);
+      plans.clear();
+      prepared.clear();
+    }
+    for(final Plan plan : evicted) plan.qc.close();
+  }
+
+  /**
+   * Returns information on the cache.
+   * @param ctx database context
+   * @return info string
+   */
+  public synchronized String info(final Context ctx) {
+    final long total = hits + misses;
+    return "" + plans.size() + '/' + ctx.soptions.get(StaticOptions.QUERYCACHE) +
+      " queries, " + hits + " hits, " + misses + " misses" +
+      (total == 0 ? "" : " (" + hits * 100 / total + "%)");
+  }
+
+  /**
+   * Returns the number of hits.
+   * @return hits
+   */
+  public synchronized long hits() {
+    return hits;
+  }
+
+  /**
+   * Returns the number of misses.
+   * @return misses
+   */
+  public synchronized long misses() {
+    return misses;
+  }
+
+  /** Compiled query with the states of the resources it depends on. */
+  public static final class Plan {
+    /** Query context. */
+    final QueryContext qc;
+    /** Globally opened database (can be {@code null}). */
+    private final Data global;
+    /** Accessed databases. */
+    private final Data[] datas;
+    /** Update counters of the accessed databases. */
+    private final int[] changes;
+    /** Imported modules with their timestamps. */
+    private final HashMap<String, Long> modules = new HashMap<>();
+    /** Local options (assigned for prepared queries, which are not cached by their options). */
+    private final String options;
+
+    /**
+     * Constructor.
+     * @param qc query context
+     */
+    Plan(final QueryContext qc) {
+      this.qc = qc;
+      global = qc.resources.globalData();
+      datas = qc.resources.datas();
+      final int dl = datas.length;
+      changes = new int[dl];
+      for(int d = 0; d < dl; d++) changes[d] = datas[d].meta.changes;
+      for(final byte[] path : qc.modParsed) {
+        final String file = Token.string(path);
+        modules.put(file, new IOFile(file).timeStamp());
+      }
+      options = qc.prepared ? qc.context.options.toString() : null;
+      qc.plan = this;
+    }
+
+    /**
+     * Checks if the query can still be evaluated in the specified context.
+     * @param ctx database context
+     * @return result of check
+     */
+    boolean valid(final Context ctx) {
+      // the globally opened database must be the same, and all documents must be addressed
+      if(ctx.data() != global || global != null && !ctx.root()) return false;
+
+      final int dl = datas.length;
+      for(int d = 0; d < dl; d++) {
+        final Data data = datas[d];
+        if(data.closed() || data.meta.changes != changes[d] ||
+            !ctx.perm(Perm.READ, data.meta.name)) return false;
+      }
+      if(options != null && !options.equals(ctx.options.toString())) return false;
+      for(final Entry<String, Long> module : modules.entrySet()) {
+        if(new IOFile(module.getKey()).timeStamp() != module.getValue()) return false;
+      }
+      return true;
+    }
+
+    /**
+     * Checks if the specified database is accessed by the query.
+     * @param db name of database
+     * @return result of check
+     */
+    boolean accesses(final String db) {
+      for(final Data data : datas) {
+        final String name = data.meta.name;
+        if(Prop.CASE ? name.equals(db) : name.equalsIgnoreCase(db)) return true;
+      }
+      return false;
+    }
+  }
+}
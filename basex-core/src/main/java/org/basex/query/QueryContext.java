@@ -7,6 +7,7 @@ import static org.basex.util.Token.*;
 import java.io.*;
 import java.util.*;
 import java.util.Map.*;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
 
 import org.basex.build.json.*;
@@ -25,6 +26,7 @@ import org.basex.query.func.*;
 import org.basex.query.func.java.*;
 import org.basex.query.iter.*;
 import org.basex.query.scope.*;
+import org.basex.query.util.*;
 import org.basex.query.up.*;
 import org.basex.query.util.collation.*;
 import org.basex.query.util.ft.*;
@@ -62,7 +64,7 @@ public final class QueryContext extends Job implements Closeable {
   /** Database context. */
   public final Context context;
   /** Query info. */
-  public final QueryInfo info;
+  public QueryInfo info;
 
   /** Global database options (will be reassigned after query execution). */
   final QueryOptions options = new QueryOptions(this);
@@ -134,6 +136,19 @@ public final class QueryContext extends Job implements Closeable {
   /** Indicates if the query context has been closed. */
   private boolean closed;
 
+  /** Indicates if the query will be evaluated repeatedly with different bindings. */
+  public boolean prepared;
+  /** Indicates if a prepared query must be compiled again with inlined values. */
+  public boolean inline;
+  /** Indicates if the compiled query may be cached. */
+  private boolean cacheable;
+  /** Locks of the query (assigned when the locks are collected for the first time). */
+  private Locks queryLocks;
+  /** Query plan (assigned if the query has been cached). */
+  QueryCache.Plan plan;
+  /** Parallel tasks that have not been joined yet, and their query contexts. */
+  private final Map<ForkJoinTask<?>, QueryContext> forks = new ConcurrentHashMap<>();
+
   /**
    * Constructor.
    * @param parent parent context
@@ -280,6 +295,15 @@ public final class QueryContext extends Job implements Closeable {
       }
       vars.bindExternal(this, bindings);
 
+      // queries with bound values, option declarations or non-deterministic global variables
+      // will not be cached. prepared queries: global variables are evaluated anew
+      cacheable = parent == null && !updating && contextScope == null && options.isEmpty() &&
+          (prepared ? !bindings.contains(QNm.EMPTY) : bindings.isEmpty());
+      if(!prepared) {
+        for(final StaticVar var : vars) {
+          if(var.expr != null && var.expr.has(Flag.NDT)) cacheable = false;
+        }
+      }
       return compile(false);
     });
   }
@@ -364,6 +388,97 @@ public final class QueryContext extends Job implements Closeable {
     return run(info.evaluating, () -> updating ? update() : main.value(this));
   }
 
+  /**
+   * Evaluates functions in parallel in the shared pool of the job pool.
+   * Each function is invoked with a child query context, which contains the bindings of the
+   * current stack frame. If a function fails, the first error will be raised after all functions
+   * have been evaluated.
+   * @param <T> result type
+   * @param funcs functions
+   * @return results, in the order of the functions
+   * @throws QueryException query exception
+   */
+  public <T> ArrayList<T> fork(final ArrayList<QueryFunction<QueryContext, T>> funcs)
+      throws QueryException {
+
+    final ArrayList<ForkJoinTask<T>> tasks = new ArrayList<>(funcs.size());
+    for(final QueryFunction<QueryContext, T> func : funcs) tasks.add(fork(func));
+
+    // join results in original order, pass on first error
+    final ArrayList<T> results = new ArrayList<>(tasks.size());
+    RuntimeException error = null;
+    for(final ForkJoinTask<T> task : tasks) {
+      forks.remove(task);
+      try {
+        results.add(task.join());
+      } catch(final RuntimeException ex) {
+        if(error == null) error = ex;
+      }
+    }
+    if(error != null) throw error(error);
+    return results;
+  }
+
+  /**
+   * Starts the evaluation of a function in the shared pool of the job pool.
+   * The function is invoked with a child query context, which contains the bindings of the
+   * current stack frame. The result must be requested via {@link #join(ForkJoinTask)}.
+   * Tasks that have not been joined will be stopped when this context is closed.
+   * @param <T> result type
+   * @param func function
+   * @return task
+   */
+  public <T> ForkJoinTask<T> fork(final QueryFunction<QueryContext, T> func) {
+    // copy bindings before the current stack frame is changed by the caller
+    final QueryContext qc = new QueryContext(this);
+    qc.stack.copyFrame(stack);
+
+    final AtomicInteger queued = jc().queued;
+    final ForkJoinTask<T> task = ForkJoinTask.adapt(() -> {
+      queued.decrementAndGet();
+      try {
+        return func.apply(qc);
+      } finally {
+        qc.close();
+      }
+    });
+    forks.put(task, qc);
+    queued.incrementAndGet();
+    if(ForkJoinTask.inForkJoinPool()) task.fork();
+    else context.jobs.pool.execute(task);
+    return task;
+  }
+
+  /**
+   * Returns the result of a task that has been started via {@link #fork(QueryFunction)}.
+   * @param <T> result type
+   * @param task task
+   * @return result
+   * @throws QueryException query exception
+   */
+  public <T> T join(final ForkJoinTask<T> task) throws QueryException {
+    forks.remove(task);
+    try {
+      return task.join();
+    } catch(final RuntimeException ex) {
+      throw error(ex);
+    }
+  }
+
+  /**
+   * Returns the original error of a failed task.
+   * @param ex exception
+   * @return runtime exception
+   * @throws QueryException query exception
+   */
+  private static RuntimeException error(final RuntimeException ex) throws QueryException {
+    final Throwable th = Util.rootException(ex);
+    if(th instanceof QueryException) throw (QueryException) th;
+    if(th instanceof RuntimeException) return (RuntimeException) th;
+    if(th instanceof Error) throw (Error) th;
+    return ex;
+  }
+
   /**
    * Checks if evaluation has been stopped and returns the next item of an iterator.
    * @param iter iterator
@@ -386,24 +501,50 @@ public final class QueryContext extends Job implements Closeable {
 
   @Override
   public void addLocks() {
-    // choose read or write locks
+    // cached query: adopt locks of the original query
+    if(queryLocks == null) queryLocks = queryLocks();
     final Locks l = jc().locks;
-    final LockList list = updating ? l.writes : l.reads;
+    l.reads.add(queryLocks.reads);
+    l.writes.add(queryLocks.writes);
+  }
+
+  /**
+   * Collects the locks of the query.
+   * If the query is updating, databases that are only accessed for reading are read-locked,
+   * unless nodes of statically unknown databases may be updated.
+   * @return locks
+   */
+  private Locks queryLocks() {
+    final Locks ql = new Locks();
+    final LockList reads = ql.reads, writes = ql.writes;
 
     // locks in main module (can be null if parsing failed)
-    boolean local = main == null || main.databases(new LockVisitor(list, contextScope == null));
+    final LockVisitor visitor = new LockVisitor(ql, contextScope == null);
+    boolean local = main == null || main.databases(visitor), updates = visitor.updates();
     // locks in context expression
     if(local && contextScope != null) {
       // check if scope may still be overwritten by dynamic context
-      if(!finalContext) list.add(Locking.CONTEXT);
-      local &= contextScope.databases(new LockVisitor(list, true));
+      if(!finalContext) reads.add(Locking.CONTEXT);
+      final LockVisitor cv = new LockVisitor(ql, true);
+      local &= contextScope.databases(cv);
+      updates |= cv.updates();
     }
+
+    // choose read or write locks
+    final LockList list = updating ? writes : reads, other = updating ? reads : writes;
     if(local) {
       list.add(locks);
+      // read locks of updating queries are only kept if all updated databases are known
+      if(!updating || updates) {
+        list.add(other);
+        other.reset();
+      }
     } else {
       // global locking, referenced databases cannot be determined statically
+      other.reset();
       list.addGlobal();
     }
+    return ql;
   }
 
   /**
@@ -495,6 +636,12 @@ public final class QueryContext extends Job implements Closeable {
   public void close() {
     if(closed) return;
 
+    // stop parallel tasks whose results have not been requested, wait until they are finished
+    if(!forks.isEmpty()) {
+      forks.values().forEach(QueryContext::stop);
+      forks.keySet().forEach(ForkJoinTask::quietlyJoin);
+      forks.clear();
+    }
     closed = true;
     if(parent == null) {
       // topmost query: close resources (opened by compile step)
@@ -503,7 +650,7 @@ public final class QueryContext extends Job implements Closeable {
     } else {
       // otherwise, adopt update reference (may have been initialized by sub query)
       parent.updates = updates;
-      parent.popJob();
+      parent.popJob(this);
     }
     options.close();
 
@@ -511,6 +658,70 @@ public final class QueryContext extends Job implements Closeable {
     if(perf != null) info.serializing.addAndGet(perf.ns());
   }
 
+  /**
+   * Checks if the query can be cached and evaluated again.
+   * The query must have been optimized and completely evaluated, and it must not be updating.
+   * @return result of check
+   */
+  boolean reusable() {
+    return cacheable && optimized && !closed && !updating && updates == null && !stopped() &&
+        stack.empty() && resources.reusable();
+  }
+
+  /**
+   * Prevents the compiled query from being cached and evaluated again.
+   */
+  public void uncacheable() {
+    cacheable = false;
+  }
+
+  /**
+   * Releases the resources of an evaluated query. The compiled query and the opened
+   * databases are kept, as the query will be cached and evaluated again.
+   */
+  void release() {
+    resources.release();
+    threads.close();
+    options.close();
+
+    final Performance perf = jc().performance;
+    if(perf != null) info.serializing.addAndGet(perf.ns());
+  }
+
+  /**
+   * Prepares a cached query for another evaluation.
+   * @param qi query info
+   */
+  void reuse(final QueryInfo qi) {
+    qi.query = info.query;
+    qi.runtime = true;
+    info = qi;
+    main.value = null;
+    dateTime = null;
+    tailCalls = 0;
+    ftPos = 0;
+    if(ftPosData != null) ftPosData = new FTPosData();
+  }
+
+  /**
+   * Assigns the bindings of another query context to a prepared query.
+   * Previously bound values are kept if no new value is assigned.
+   * @param qc query context with the new bindings
+   * @throws QueryException query exception
+   */
+  void rebind(final QueryContext qc) throws QueryException {
+    vars.rebind(this, qc.bindings);
+    bindings(qc);
+  }
+
+  /**
+   * Adopts the bindings of another query context.
+   * @param qc query context
+   */
+  void bindings(final QueryContext qc) {
+    for(final QNm qnm : qc.bindings) bindings.put(qnm, qc.bindings.get(qnm));
+  }
+
   @Override
   public String shortInfo() {
     return SAVE;
@@ -58,6 +58,14 @@ final class QueryOptions {
     localOpts.put(opt, dummyOptions.get(opt));
   }
 
+  /**
+   * Indicates if no options have been declared.
+   * @return result of check
+   */
+  boolean isEmpty() {
+    return localOpts.isEmpty();
+  }
+
   /**
    * Compiles all options.
    */
@@ -20,13 +20,23 @@ import org.basex.query.value.seq.*;
  */
 public final class QueryProcessor extends Job implements Closeable {
   /** Static context. */
-  public final StaticContext sc;
+  public StaticContext sc;
   /** Expression context. */
-  public final QueryContext qc;
+  public QueryContext qc;
   /** Query. */
   private final String query;
+  /** Base URI (can be {@code null}). */
+  private final String uri;
+  /** Cache key ({@code null} if the compiled query will not be cached). */
+  private String key;
+  /** Compiled query of a prepared query (can be {@code null}). */
+  private QueryCache.Plan plan;
+  /** Prepared flag. */
+  private boolean prepared;
   /** Parsed flag. */
   private boolean parsed;
+  /** Closed flag. */
+  private boolean closed;
 
   /**
    * Default constructor.
@@ -47,9 +57,9 @@ public final class QueryProcessor extends Job implements Closeable {
   public QueryProcessor(final String query, final String uri, final Context ctx,
       final QueryInfo info) {
     this.query = query;
-    qc = pushJob(new QueryContext(ctx, null, null, info));
-    sc = new StaticContext(qc);
-    sc.baseURI(uri != null && uri.isEmpty() ? "./" : uri);
+    this.uri = uri;
+    init(ctx, info);
+    key = QueryCache.key(query, uri, ctx);
   }
 
   /**
@@ -58,6 +68,29 @@ public final class QueryProcessor extends Job implements Closeable {
    */
   public void parse() throws QueryException {
     if(parsed) return;
+    // reuse prepared or cached query
+    if(plan != null || key != null) {
+      final QueryCache queries = qc.context.queries;
+      final QueryContext cached = plan != null ? queries.lease(plan, qc.context) :
+        queries.lease(key, qc.context);
+      plan = null;
+      if(cached != null) {
+        try {
+          cached.rebind(qc);
+        } catch(final QueryException ex) {
+          cached.close();
+          throw ex;
+        }
+        cached.reuse(qc.info);
+        popJob(qc);
+        qc.close();
+        qc = pushJob(cached);
+        sc = cached.main.sc;
+        parsed = true;
+        updating = false;
+        return;
+      }
+    }
     try {
       qc.parseMain(query, null, sc);
     } finally {
@@ -66,6 +99,24 @@ public final class QueryProcessor extends Job implements Closeable {
     }
   }
 
+  /**
+   * Prepares the query for being evaluated repeatedly with different bindings.
+   * Values of external variables will not be inlined, and global variables will be evaluated
+   * anew with each evaluation. The compiled query will be reused if the accessed
+   * resources have not changed. Queries are only prepared if the query cache is enabled, and
+   * they are compiled again with inlined values if these allow rewrites for index access.
+   * @param pl compiled query from a previous evaluation (can be {@code null})
+   * @return self reference
+   */
+  public QueryProcessor prepare(final QueryCache.Plan pl) {
+    if(qc.context.soptions.get(StaticOptions.QUERYCACHE) <= 0) return this;
+    prepared = true;
+    qc.prepared = true;
+    plan = pl;
+    key = null;
+    return this;
+  }
+
   /**
    * Compiles the query.
    * @throws QueryException query exception
@@ -81,7 +132,19 @@ public final class QueryProcessor extends Job implements Closeable {
    */
   public void optimize() throws QueryException {
     compile();
+    // discard cached query if accessed resources have been changed after it was leased
+    if(!QueryCache.valid(qc)) {
+      discard();
+      compile();
+    }
     qc.optimize();
+    // prepared query: compile again with inlined values if they allow index rewrites
+    if(qc.inline) {
+      prepared = false;
+      discard();
+      compile();
+      qc.optimize();
+    }
   }
 
   /**
@@ -91,7 +154,7 @@ public final class QueryProcessor extends Job implements Closeable {
    * @throws QueryException query exception
    */
   public Iter iter() throws QueryException {
-    parse();
+    optimize();
     return qc.iter();
   }
 
@@ -101,7 +164,7 @@ public final class QueryProcessor extends Job implements Closeable {
    * @throws QueryException query exception
    */
   public Value value() throws QueryException {
-    parse();
+    optimize();
     return qc.value();
   }
 
@@ -114,7 +177,7 @@ public final class QueryProcessor extends Job implements Closeable {
    * @throws QueryException query exception
    */
   public void cache(final AQuery cmd, final int max) throws QueryException {
-    parse();
+    optimize();
     qc.cache(cmd, max);
   }
 
@@ -130,6 +193,7 @@ public final class QueryProcessor extends Job implements Closeable {
    */
   public QueryProcessor variable(final String name, final Object value, final String type)
       throws QueryException {
+    if(!prepared || name == null || name.isEmpty()) custom();
     qc.bind(name, value, type, sc);
     return this;
   }
@@ -164,6 +228,7 @@ public final class QueryProcessor extends Job implements Closeable {
    * @throws QueryException query exception
    */
   public QueryProcessor context(final Object value, final String type) throws QueryException {
+    custom();
     qc.bind(null, value, type, sc);
     return this;
   }
@@ -178,6 +243,7 @@ public final class QueryProcessor extends Job implements Closeable {
    * @throws QueryException query exception
    */
   public QueryProcessor namespace(final String prefix, final String uri) throws QueryException {
+    custom();
     sc.namespace(prefix, uri);
     return this;
   }
@@ -188,6 +254,7 @@ public final class QueryProcessor extends Job implements Closeable {
    * @return self reference
    */
   public QueryProcessor uriResolver(final UriResolver resolver) {
+    custom();
     sc.resolver = resolver;
     return this;
   }
@@ -215,12 +282,44 @@ public final class QueryProcessor extends Job implements Closeable {
    * @param file file name
    */
   public void module(final String uri, final String file) {
+    custom();
     qc.modDeclared.put(uri, file);
   }
 
   @Override
   public void close() {
-    qc.close();
+    if(closed) return;
+    closed = true;
+    // cache compiled query, or close it
+    if(key != null && qc.context.queries.add(key, qc)) {
+      popJob(qc);
+    } else {
+      qc.close();
+    }
+  }
+
+  /**
+   * Indicates if the query is prepared for being evaluated repeatedly.
+   * @return result of check
+   */
+  public boolean prepared() {
+    return prepared;
+  }
+
+  /**
+   * Closes the processor of a prepared query and keeps the compiled query.
+   * @return compiled query, or {@code null} if the query cannot be evaluated again
+   */
+  public QueryCache.Plan park() {
+    if(closed) return null;
+    closed = true;
+    final QueryCache.Plan pl = prepared ? qc.context.queries.park(qc) : null;
+    if(pl != null) {
+      popJob(qc);
+    } else {
+      qc.close();
+    }
+    return pl;
   }
 
   @Override
@@ -244,6 +343,39 @@ public final class QueryProcessor extends Job implements Closeable {
     return qc.toXml(qc.context.options.get(MainOptions.FULLPLAN));
   }
 
+  /**
+   * Initializes the query and static context.
+   * @param ctx database context
+   * @param info query info (can be {@code null})
+   */
+  private void init(final Context ctx, final QueryInfo info) {
+    qc = pushJob(new QueryContext(ctx, null, null, info));
+    sc = new StaticContext(qc);
+    sc.baseURI(uri != null && uri.isEmpty() ? "./" : uri);
+  }
+
+  /**
+   * Discards a cached query. The query will be parsed and compiled again with the
+   * existing bindings.
+   */
+  private void discard() {
+    final QueryContext cached = qc;
+    popJob(cached);
+    cached.close();
+    init(cached.context, cached.info);
+    qc.prepared = prepared;
+    qc.bindings(cached);
+    parsed = false;
+  }
+
+  /**
+   * Called if the static or dynamic context is customized. Disables caching.
+   */
+  private void custom() {
+    key = null;
+    if(qc.plan != null) discard();
+  }
+
   @Override
   public String toString() {
     return query;
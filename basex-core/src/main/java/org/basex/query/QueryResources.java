@@ -89,6 +89,26 @@ public final class QueryResources {
     // close dynamically loaded JAR files
     if(modules != null) modules.close();
     modules = null;
+    release();
+  }
+
+  /**
+   * Checks if the resources can be kept to evaluate a compiled query again.
+   * No main-memory instances must have been created, and no Java modules must have been loaded.
+   * @return result of check
+   */
+  synchronized boolean reusable() {
+    if(modules != null) return false;
+    for(final Data data : datas) {
+      if(data.inMemory()) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Closes all resources except for the opened databases.
+   */
+  synchronized void release() {
     // close external resources
     for(final QueryResource c : external.values()) c.close();
     external.clear();
@@ -103,6 +123,14 @@ public final class QueryResources {
     inputs.clear();
   }
 
+  /**
+   * Returns the opened databases.
+   * @return databases
+   */
+  synchronized Data[] datas() {
+    return datas.toArray(Data[]::new);
+  }
+
   /**
    * Returns the globally opened database.
    * @return database or {@code null} if no database is globally opened
@@ -199,6 +199,7 @@ public interface QueryText {
 
   /** Parser token. */ String LOCK = "lock";
   /** Parser token. */ String NON_DETERMNISTIC = "non-deterministic";
+  /** Parser token. */ String PARALLEL = "parallel";
 
   // PARSER KEYWORDS (IGNORED BY THE SYNTAX HIGHLIGHTER) ==========================================
 
@@ -418,6 +419,7 @@ public interface QueryText {
   /** Optimization info. */ String OPTTYPE_X_X = "remove % type check: %";
   /** Optimization info. */ String OPTFLAT_X_X = "flatten nested %: %";
   /** Optimization info. */ String OPTTCE_X = "mark as tail call: %";
+  /** Optimization info. */ String OPTPARALLEL_X = "evaluate in parallel: %";
   /** Optimization info. */ String OPTLET_X = "hoist let clause: %";
   /** Optimization info. */ String OPTFORTOLET_X = "rewrite for to let: %";
   /** Optimization info. */ String OPTSWAP_X = "swap operands: %";
@@ -426,6 +428,7 @@ public interface QueryText {
   /** Optimization info. */ String OPTREMOVE_X_X = "remove % from %";
   /** Optimization info. */ String OPTMOVE_X = "move where clause: %";
   /** Optimization info. */ String OPTPRED_X = "rewrite to predicate: %";
+  /** Optimization info. */ String OPTORDER_X = "reorder predicates by selectivity: %";
   /** Optimization info. */ String OPTVAR_X = "remove unused variable: %";
   /** Optimization info. */ String OPTSTEP_X = "remove step without results: %";
   /** Optimization info. */ String OPTPATH_X = "remove path without results: %";
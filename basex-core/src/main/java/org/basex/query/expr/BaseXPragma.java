@@ -2,6 +2,7 @@ package org.basex.query.expr;
 
 import java.util.*;
 
+import org.basex.core.*;
 import org.basex.core.locks.*;
 import org.basex.query.*;
 import org.basex.query.ann.*;
@@ -18,6 +19,8 @@ import org.basex.util.*;
 public final class BaseXPragma extends Pragma {
   /** Non-deterministic flag. */
   private final boolean ndt;
+  /** Parallel flag. */
+  private final boolean parallel;
 
   /**
    * Constructor.
@@ -27,15 +30,22 @@ public final class BaseXPragma extends Pragma {
   public BaseXPragma(final QNm name, final byte[] value) {
     super(name, value);
     ndt = Token.eq(name.local(), Token.token(QueryText.NON_DETERMNISTIC));
+    parallel = Token.eq(name.local(), Token.token(QueryText.PARALLEL));
   }
 
   @Override
   Object init(final QueryContext qc, final InputInfo ii) {
-    return null;
+    if(!parallel) return null;
+    // enforce parallel evaluation of for clauses
+    final MainOptions options = qc.context.options;
+    final Integer old = options.get(MainOptions.PARALLELFOR);
+    options.set(MainOptions.PARALLELFOR, 1);
+    return old;
   }
 
   @Override
   void finish(final QueryContext qc, final Object state) {
+    if(parallel) qc.context.options.put(MainOptions.PARALLELFOR, state);
   }
 
   @Override
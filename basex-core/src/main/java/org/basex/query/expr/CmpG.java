@@ -534,10 +534,18 @@ public class CmpG extends Cmp {
     return this;
   }
 
+  /**
+   * Checks if this is an equality comparison with the default collation.
+   * @return result of check
+   */
+  public final boolean equality() {
+    return op == OpG.EQ && coll == null;
+  }
+
   @Override
   public final boolean indexAccessible(final IndexInfo ii) throws QueryException {
     // only equality expressions on default collation can be rewritten
-    if(op != OpG.EQ || coll != null) return false;
+    if(!equality()) return false;
 
     Expr expr1 = exprs[0];
     IndexType type = null;
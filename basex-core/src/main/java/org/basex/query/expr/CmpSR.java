@@ -5,13 +5,9 @@ import static org.basex.query.QueryText.*;
 
 import java.util.*;
 
-import org.basex.data.*;
-import org.basex.index.*;
-import org.basex.index.query.*;
 import org.basex.query.*;
 import org.basex.query.CompileContext.*;
 import org.basex.query.expr.CmpG.*;
-import org.basex.query.expr.index.*;
 import org.basex.query.iter.*;
 import org.basex.query.util.*;
 import org.basex.query.util.collation.*;
@@ -165,26 +161,7 @@ public final class CmpSR extends Single {
   @Override
   public boolean indexAccessible(final IndexInfo ii) throws QueryException {
     // only default collation is supported, and min/max values are required
-    if(coll != null || min == null || max == null) return false;
-
-    // accept only location path, string and equality expressions
-    final Data data = ii.db.data();
-    // sequential main memory scan is usually faster than range index access
-    if(data == null ? !ii.enforce() : data.inMemory()) return false;
-
-    final IndexType type = ii.type(expr, null);
-    if(type == null) return false;
-
-    // create range access
-    final StringRange sr = new StringRange(type, min, mni, max, mxi);
-    ii.costs = IndexInfo.costs(data, sr);
-    if(ii.costs == null) return false;
-
-    final TokenBuilder tb = new TokenBuilder();
-    tb.add(mni ? '[' : '(').add(min).add(',').add(max).add(mxi ? ']' : ')');
-    ii.create(new StringRangeAccess(info, sr, ii.db), true,
-        Util.info(OPTINDEX_X_X, type + " string range", tb), info);
-    return true;
+    return coll == null && min != null && max != null && ii.range(expr, min, mni, max, mxi, info);
   }
 
   @Override
@@ -5,6 +5,9 @@ import static org.basex.query.QueryText.*;
 import java.util.*;
 import java.util.function.*;
 
+import org.basex.data.*;
+import org.basex.index.name.*;
+import org.basex.index.stats.*;
 import org.basex.query.*;
 import org.basex.query.CompileContext.*;
 import org.basex.query.expr.ft.*;
@@ -129,6 +132,7 @@ public abstract class Preds extends Arr {
       final ExprList list = new ExprList(exprs.length);
       for(final Expr expr : exprs) simplify(expr, list, root, cc);
       exprs = list.finish();
+      order(root, cc);
       return optimizeEbv(false, true, cc);
     }) || exprType(root);
   }
@@ -223,6 +227,133 @@ public abstract class Preds extends Arr {
     if(expr != Bln.TRUE) list.add(cc.simplify(pred, expr, Simplify.PREDICATE));
   }
 
+  /**
+   * Orders the predicates of a step by their estimated selectivity: predicates that filter out
+   * more nodes will be evaluated first. Estimates are based on the database statistics.
+   * Only predicates that cannot raise errors are moved before other predicates, as the
+   * preceding predicates may serve as guards (example: {@code [@v castable as xs:double]}).
+   * @param root root expression
+   * @param cc compilation context
+   * @throws QueryException query exception
+   */
+  private void order(final Expr root, final CompileContext cc) throws QueryException {
+    final int el = exprs.length;
+    if(el < 2 || !(root instanceof Step) || mayBePositional() || has(Flag.NDT)) return;
+    final Data data = root.data();
+    if(data == null || !(data.meta.uptodate && data.nspaces.isEmpty())) return;
+    final Stats stats = stats(((Step) root).test, data);
+    if(stats == null || stats.count == 0) return;
+
+    final double[] sel = new double[el];
+    final boolean[] safe = new boolean[el];
+    for(int e = 0; e < el; e++) {
+      sel[e] = selectivity(exprs[e], root, data, stats.count);
+      safe[e] = sel[e] < 1 && safe(exprs[e]);
+    }
+
+    // choose most selective predicate that may be evaluated next:
+    // predicates that may raise errors must not precede any of their original predecessors
+    final Expr[] ordered = new Expr[el];
+    final boolean[] done = new boolean[el];
+    boolean changed = false;
+    for(int o = 0, first = 0; o < el; o++) {
+      while(done[first]) first++;
+      int next = first;
+      for(int e = first + 1; e < el; e++) {
+        if(!done[e] && safe[e] && sel[e] < sel[next]) next = e;
+      }
+      ordered[o] = exprs[next];
+      done[next] = true;
+      changed |= next != o;
+    }
+    if(changed) {
+      cc.info(OPTORDER_X, root);
+      exprs = ordered;
+    }
+  }
+
+  /**
+   * Checks if a predicate with a selectivity estimate cannot raise errors.
+   * This is the case for string comparisons of nodes with strings or untyped items.
+   * @param pred predicate
+   * @return result of check
+   */
+  private static boolean safe(final Expr pred) {
+    if(!(pred.arg(0).seqType().type instanceof NodeType)) return false;
+    if(pred instanceof CmpSR) return true;
+    if(!(pred instanceof CmpG) || !(pred.arg(1) instanceof Value)) return false;
+    for(final Item item : (Value) pred.arg(1)) {
+      if(!item.type.isStringOrUntyped()) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Estimates the selectivity of a predicate.
+   * @param pred predicate
+   * @param root root step
+   * @param data data reference
+   * @param count number of nodes addressed by the root step
+   * @return fraction of nodes that will be accepted (1 if no estimate is possible)
+   * @throws QueryException query exception
+   */
+  private static double selectivity(final Expr pred, final Expr root, final Data data,
+      final int count) throws QueryException {
+
+    // comparisons with the value of the context node, a child element or an attribute
+    final Expr path;
+    if(pred instanceof CmpG && ((CmpG) pred).equality() || pred instanceof CmpR ||
+        pred instanceof CmpSR && ((CmpSR) pred).coll == null) {
+      path = pred.arg(0);
+    } else {
+      return 1;
+    }
+    final Stats stats;
+    if(path instanceof ContextValue) {
+      stats = stats(((Step) root).test, data);
+    } else if(path instanceof SingleIterPath && ((Path) path).root == null) {
+      final Step step = (Step) ((Path) path).steps[0];
+      stats = step.exprs.length == 0 && (step.axis == Axis.CHILD || step.axis == Axis.ATTRIBUTE) ?
+        stats(step.test, data) : null;
+    } else {
+      stats = null;
+    }
+    if(stats == null || !stats.isLeaf()) return 1;
+
+    double est = -1;
+    if(pred instanceof CmpR) {
+      est = stats.count(((CmpR) pred).min, ((CmpR) pred).max);
+    } else if(pred instanceof CmpSR) {
+      final CmpSR cmp = (CmpSR) pred;
+      if(cmp.min != null && cmp.max != null) est = stats.count(cmp.min, cmp.max);
+    } else if(pred.arg(1) instanceof Value) {
+      final Value value = (Value) pred.arg(1);
+      if(value.size() > 16) return 1;
+      est = 0;
+      for(final Item item : value) {
+        if(!item.type.isStringOrUntyped() && !item.type.isNumber()) return 1;
+        final double c = stats.count(item.string(pred.info()));
+        if(c < 0) return 1;
+        est += c;
+      }
+    }
+    return est < 0 ? 1 : Math.min(1, est / count);
+  }
+
+  /**
+   * Returns the statistics for the name of an element or attribute test.
+   * @param test test
+   * @param data data reference
+   * @return statistics or {@code null}
+   */
+  private static Stats stats(final Test test, final Data data) {
+    if(!(test instanceof NameTest) || ((NameTest) test).local == null) return null;
+    final Names names = test.type == NodeType.ATTRIBUTE ? data.attrNames :
+      test.type == NodeType.ELEMENT ? data.elemNames : null;
+    final int id = names != null ? names.id(((NameTest) test).local) : 0;
+    return id > 0 ? names.stats(id) : null;
+  }
+
   /**
    * Flattens predicates for boolean evaluation.
    * Drops solitary context values, flattens nested predicates.
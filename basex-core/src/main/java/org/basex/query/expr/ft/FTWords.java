@@ -147,6 +147,8 @@ public final class FTWords extends FTExpr {
   @Override
   public FTIter iter(final QueryContext qc) throws QueryException {
     final Data data = db.data(qc, IndexType.FULLTEXT);
+    final FTScoring scoring = qc.scoring && qc.context.options.get(MainOptions.FTSCORING) ==
+        MainOptions.FTScoringModel.BM25 ? new FTScoring(data.meta) : null;
     return new FTIter() {
       FTIndexIterator ftiter;
       int length;
@@ -177,6 +179,7 @@ public final class FTWords extends FTExpr {
                 final FTIndexIterator iter = lexer.token().length > data.meta.maxlen ?
                   scan(lexer, ftt, data) : (FTIndexIterator) data.iter(lexer);
                 iter.pos(++qc.ftPos);
+                if(scoring != null) scoring.add(qc.ftPos, iter.texts());
                 if(ii == null) {
                   ii = iter;
                 } else {
@@ -203,7 +206,8 @@ public final class FTWords extends FTExpr {
             }
           }
         }
-        return ftiter == null || !ftiter.more() ? null :
+        return ftiter == null || !ftiter.more() ? null : scoring != null ?
+          new FTNode(ftiter.matches(), data, ftiter.pre(), scoring) :
           new FTNode(ftiter.matches(), data, ftiter.pre(), length, ftiter.size());
       }
     };
@@ -1,8 +1,10 @@
 package org.basex.query.expr.gflwor;
 
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.function.*;
 
+import org.basex.core.*;
 import org.basex.query.*;
 import org.basex.query.CompileContext.*;
 import org.basex.query.expr.*;
@@ -30,6 +32,10 @@ public final class GFLWOR extends ParseExpr {
   private final LinkedList<Clause> clauses;
   /** Return expression. */
   private Expr rtrn;
+  /** Minimum number of iterations for parallel evaluation ({@code 0}: disabled). */
+  private long parallel;
+  /** Indicates if the iterations of the first for clause can be evaluated in parallel. */
+  private boolean fork;
 
   /**
    * Constructor.
@@ -56,18 +62,22 @@ public final class GFLWOR extends ParseExpr {
 
   /**
    * Creates a new evaluator for this FLWOR expression.
+   * @param first index of the first clause to be evaluated
    * @return the evaluator
    */
-  private Eval newEval() {
+  private Eval newEval(final int first) {
     Eval eval = new StartEval();
-    for(final Clause clause : clauses) eval = clause.eval(eval);
+    final ListIterator<Clause> iter = clauses.listIterator(first);
+    while(iter.hasNext()) eval = iter.next().eval(eval);
     return eval;
   }
 
   @Override
-  public Iter iter(final QueryContext qc) {
+  public Iter iter(final QueryContext qc) throws QueryException {
+    if(fork) return forkIter(qc);
+
     return new Iter() {
-      private final Eval eval = newEval();
+      private final Eval eval = newEval(0);
       private Iter iter = Empty.ITER;
 
       @Override
@@ -87,7 +97,9 @@ public final class GFLWOR extends ParseExpr {
 
   @Override
   public Value value(final QueryContext qc) throws QueryException {
-    final Eval eval = newEval();
+    if(fork) return fork(qc);
+
+    final Eval eval = newEval(0);
     final ValueBuilder vb = new ValueBuilder(qc);
     while(eval.next(qc)) vb.add(rtrn.value(qc));
     return vb.value(this);
@@ -113,6 +125,7 @@ public final class GFLWOR extends ParseExpr {
   @Override
   public Expr optimize(final CompileContext cc) throws QueryException {
     flattenAnd();
+    if(parallel == 0) parallel = cc.qc.context.options.get(MainOptions.PARALLELFOR);
 
     // apply all optimizations in a row until nothing changes anymore
     while(flattenReturn(cc) | flattenFor(cc) | unnestFLWR(cc) | unnestLets(cc) | ifToWhere(cc) |
@@ -121,7 +134,12 @@ public final class GFLWOR extends ParseExpr {
 
     mergeWheres();
 
-    final Expr expr = simplify(cc);
+    // parallel evaluation: the FLWOR expression must be preserved
+    final boolean frk = forkable();
+    if(frk && !fork) cc.info(QueryText.OPTPARALLEL_X, (Supplier<?>) this::description);
+    fork = frk;
+
+    final Expr expr = fork ? null : simplify(cc);
     if(expr != null) {
       cc.info(QueryText.OPTSIMPLE_X_X, (Supplier<?>) this::description, expr);
       return expr;
@@ -131,6 +149,168 @@ public final class GFLWOR extends ParseExpr {
     return this;
   }
 
+  /**
+   * Checks if the iterations of the first for clause can be evaluated in parallel.
+   * The following clauses and the return expression must neither depend on the context,
+   * nor be non-deterministic or updating, and the result must not depend on other iterations.
+   * @return result of check
+   */
+  private boolean forkable() {
+    if(parallel == 0 || clauses.isEmpty() || !(clauses.getFirst() instanceof For)) return false;
+    final For fr = (For) clauses.getFirst();
+    if(fr.pos != null || fr.score != null || fr.empty || fr.scoring) return false;
+    final long size = fr.expr.size();
+    if(size != -1 && size < Math.max(2, parallel)) return false;
+
+    final Flag[] flags = { Flag.CTX, Flag.NDT, Flag.UPD, Flag.POS, Flag.HOF };
+    final ListIterator<Clause> iter = clauses.listIterator(1);
+    while(iter.hasNext()) {
+      final Clause clause = iter.next();
+      if(!(clause instanceof For || clause instanceof Let || clause instanceof Where) ||
+          clause.has(flags)) return false;
+    }
+    return !rtrn.has(flags);
+  }
+
+  /**
+   * Evaluates the FLWOR expression in parallel. The items of the first for clause are
+   * divided into partitions, which are evaluated in the shared pool of the job pool.
+   * The number of partitions is limited by the fair share of the current job.
+   * The results are returned in their original order.
+   * @param qc query context
+   * @return result
+   * @throws QueryException query exception
+   */
+  private Value fork(final QueryContext qc) throws QueryException {
+    final Value input = ((For) clauses.getFirst()).expr.value(qc);
+    final long size = input.size();
+    final int parts = (int) Math.min(size, qc.context.jobs.share());
+    if(size < parallel || parts < 2) return value(input, 0, size, qc);
+
+    final ArrayList<QueryFunction<QueryContext, Value>> funcs = new ArrayList<>(parts);
+    for(int p = 0; p < parts; p++) {
+      final long start = size * p / parts, end = size * (p + 1) / parts;
+      funcs.add(tqc -> value(input, start, end, tqc));
+    }
+    final ValueBuilder vb = new ValueBuilder(qc);
+    for(final Value value : qc.fork(funcs)) vb.add(value);
+    return vb.value(this);
+  }
+
+  /**
+   * Returns an iterator for the parallel evaluation of the FLWOR expression.
+   * The items of the first partition are evaluated and returned in the current thread.
+   * The remaining partitions are only evaluated in parallel if more than one item is requested,
+   * and their results are returned in their original order.
+   * @param qc query context
+   * @return iterator
+   * @throws QueryException query exception
+   */
+  private Iter forkIter(final QueryContext qc) throws QueryException {
+    final Value input = ((For) clauses.getFirst()).expr.value(qc);
+    final long size = input.size();
+    final int parts = (int) Math.min(size, qc.context.jobs.share());
+    if(size < parallel || parts < 2) return iter(input, 0, size, qc);
+
+    return new Iter() {
+      /** Tasks for the remaining partitions ({@code null}: not started yet). */
+      private ArrayList<ForkJoinTask<Value>> tasks;
+      /** Iterator of the current partition. */
+      private Iter iter = GFLWOR.this.iter(input, 0, size / parts, qc);
+      /** Index of the next task to be joined. */
+      private int t;
+      /** Indicates if an item has been returned. */
+      private boolean returned;
+
+      @Override
+      public Item next() throws QueryException {
+        if(iter == null) return null;
+        while(true) {
+          final Item item = qc.next(iter);
+          if(item != null) {
+            if(returned) fork();
+            returned = true;
+            return item;
+          }
+          fork();
+          if(t == tasks.size()) {
+            iter = null;
+            return null;
+          }
+          iter = qc.join(tasks.get(t++)).iter();
+        }
+      }
+
+      /**
+       * Starts the parallel evaluation of the remaining partitions.
+       */
+      private void fork() {
+        if(tasks != null) return;
+        tasks = new ArrayList<>(parts - 1);
+        for(int p = 1; p < parts; p++) {
+          final long start = size * p / parts, end = size * (p + 1) / parts;
+          tasks.add(qc.fork(tqc -> GFLWOR.this.value(input, start, end, tqc)));
+        }
+      }
+    };
+  }
+
+  /**
+   * Returns an iterator for a range of the items of the first for clause.
+   * @param input items of the first for clause
+   * @param start first item
+   * @param end last item (exclusive)
+   * @param qc query context
+   * @return iterator
+   */
+  private Iter iter(final Value input, final long start, final long end, final QueryContext qc) {
+    final Var var = ((For) clauses.getFirst()).var;
+    return new Iter() {
+      private Eval eval;
+      private Iter iter = Empty.ITER;
+      private long i = start;
+
+      @Override
+      public Item next() throws QueryException {
+        while(true) {
+          final Item item = qc.next(iter);
+          if(item != null) return item;
+          if(eval != null && eval.next(qc)) {
+            iter = rtrn.iter(qc);
+          } else if(i < end) {
+            qc.set(var, input.itemAt(i++));
+            eval = newEval(1);
+          } else {
+            return null;
+          }
+        }
+      }
+    };
+  }
+
+  /**
+   * Evaluates the FLWOR expression for a range of the items of the first for clause.
+   * @param input items of the first for clause
+   * @param start first item
+   * @param end last item (exclusive)
+   * @param qc query context
+   * @return result
+   * @throws QueryException query exception
+   */
+  private Value value(final Value input, final long start, final long end,
+      final QueryContext qc) throws QueryException {
+
+    final Var var = ((For) clauses.getFirst()).var;
+    final ValueBuilder vb = new ValueBuilder(qc);
+    for(long i = start; i < end; i++) {
+      qc.checkStop();
+      qc.set(var, input.itemAt(i));
+      final Eval eval = newEval(1);
+      while(eval.next(qc)) vb.add(rtrn.value(qc));
+    }
+    return vb.value(this);
+  }
+
   @Override
   public Expr simplifyFor(final Simplify mode, final CompileContext cc) throws QueryException {
     return cc.simplify(this, mode == Simplify.COUNT &&
@@ -394,8 +574,9 @@ public final class GFLWOR extends ParseExpr {
         }
       }
       // merge for/let expression with subsequent expression
+      //   skip first for clause if it can be evaluated in parallel
       final boolean last = c + 1 == cs;
-      if(!changing && (last || clauses.get(c + 1) instanceof ForLet &&
+      if(!changing && !(c == 0 && forkable()) && (last || clauses.get(c + 1) instanceof ForLet &&
           count(fl.var, c + 2) == VarUsage.NEVER)) {
         if(last) {
           // merge with return expression
@@ -939,6 +1120,16 @@ public final class GFLWOR extends ParseExpr {
     }
   }
 
+  /**
+   * Limits the number of sorted tuples if only the first results of an ordered FLWOR expression
+   * are requested, and if each tuple yields at least one result.
+   * @param max maximum number of results
+   */
+  public void limit(final long max) {
+    final Clause last = clauses.peekLast();
+    if(last instanceof OrderBy && rtrn.seqType().oneOrMore()) ((OrderBy) last).limit(max);
+  }
+
   @Override
   public boolean vacuous() {
     return rtrn.vacuous();
@@ -1058,7 +1249,10 @@ public final class GFLWOR extends ParseExpr {
   public Expr copy(final CompileContext cc, final IntObjMap<Var> vm) {
     final LinkedList<Clause> cls = new LinkedList<>();
     for(final Clause clause : clauses) cls.add(clause.copy(cc, vm));
-    return copyType(new GFLWOR(info, cls, rtrn.copy(cc, vm)));
+    final GFLWOR flwor = new GFLWOR(info, cls, rtrn.copy(cc, vm));
+    flwor.parallel = parallel;
+    flwor.fork = fork;
+    return copyType(flwor);
   }
 
   /**
@@ -1116,7 +1310,7 @@ public final class GFLWOR extends ParseExpr {
     if(this == obj) return true;
     if(!(obj instanceof GFLWOR)) return false;
     final GFLWOR g = (GFLWOR) obj;
-    return clauses.equals(g.clauses) && rtrn.equals(g.rtrn);
+    return clauses.equals(g.clauses) && rtrn.equals(g.rtrn) && fork == g.fork;
   }
 
   @Override
@@ -1126,7 +1320,8 @@ public final class GFLWOR extends ParseExpr {
 
   @Override
   public void toXml(final QueryPlan plan) {
-    plan.add(plan.create(this), clauses.toArray(Clause[]::new), rtrn);
+    plan.add(plan.create(this, QueryText.PARALLEL, fork ? true : null),
+        clauses.toArray(Clause[]::new), rtrn);
   }
 
   @Override
@@ -29,6 +29,8 @@ public final class OrderBy extends Clause {
   private VarRef[] refs;
   /** Sort keys. */
   private final OrderKey[] keys;
+  /** Maximum number of tuples to be returned. */
+  private long limit = Long.MAX_VALUE;
 
   /**
    * Constructor.
@@ -52,7 +54,7 @@ public final class OrderBy extends Clause {
       @Override
       public boolean next(final QueryContext qc) throws QueryException {
         if(tpls == null) sort(qc);
-        if(pos == tpls.length) return false;
+        if(pos == perm.length) return false;
         final int p = perm[pos++];
         final Value[] tuple = tpls[p];
         // free the space occupied by the tuple
@@ -69,53 +71,48 @@ public final class OrderBy extends Clause {
        */
       private void sort(final QueryContext qc) throws QueryException {
         // keys are stored at odd positions, values at even ones
-        List<Value[]> tuples = new ArrayList<>();
-        while(sub.next(qc)) {
-          final int kl = keys.length;
-          final Item[] key = new Item[kl];
-          for(int k = 0; k < kl; k++) key[k] = keys[k].expr.atomItem(qc, keys[k].info());
-          tuples.add(key);
-
-          final int rl = refs.length;
-          final Value[] vals = new Value[rl];
-          for(int r = 0; r < rl; r++) vals[r] = refs[r].value(qc);
-          tuples.add(vals);
-        }
-
-        final int len = tuples.size() >>> 1;
-        final Item[][] ks = new Item[len][];
-        perm = new Integer[len];
-        tpls = new Value[len][];
-        for(int i = 0; i < len; i++) {
-          perm[i] = i;
-          tpls[i] = tuples.get(i << 1 | 1);
-          ks[i] = (Item[]) tuples.get(i << 1);
-        }
-        // be nice to the garbage collector
-        tuples = null;
+        final List<Value[]> tuples = new ArrayList<>();
+        // if the number of results is limited, keep the best tuples in a heap
+        final PriorityQueue<Integer> heap = limit < Integer.MAX_VALUE ?
+          new PriorityQueue<>((x, y) -> compare(tuples.get(y << 1), tuples.get(x << 1), y, x)) :
+          null;
         try {
-          Arrays.sort(perm, (x, y) -> {
-            try {
-              final Item[] a = ks[x], b = ks[y];
-              final int kl = keys.length;
-              for(int k = 0; k < kl; k++) {
-                final OrderKey key = keys[k];
-                Item m = a[k], n = b[k];
-                if(m == Dbl.NAN || m == Flt.NAN) m = Empty.VALUE;
-                if(n == Dbl.NAN || n == Flt.NAN) n = Empty.VALUE;
-                if(m != Empty.VALUE && n != Empty.VALUE && !m.comparable(n))
-                  throw typeError(n, m.type, key.info());
+          while(sub.next(qc)) {
+            final int kl = keys.length;
+            final Item[] key = new Item[kl];
+            for(int k = 0; k < kl; k++) key[k] = keys[k].expr.atomItem(qc, keys[k].info());
+            tuples.add(key);
+
+            final int rl = refs.length;
+            final Value[] vals = new Value[rl];
+            for(int r = 0; r < rl; r++) vals[r] = refs[r].value(qc);
+            tuples.add(vals);
 
-                final int c = m == Empty.VALUE
-                    ? n == Empty.VALUE ? 0                 : key.least ? -1 : 1
-                    : n == Empty.VALUE ? key.least ? 1 : -1 : m.diff(n, key.coll, key.info());
-                if(c != 0) return key.desc ? -c : c;
+            if(heap != null) {
+              heap.add((tuples.size() >>> 1) - 1);
+              if(heap.size() > limit) {
+                // free the space occupied by the discarded tuple
+                final int p = heap.poll() << 1;
+                tuples.set(p, null);
+                tuples.set(p + 1, null);
               }
-              return 0;
-            } catch(final QueryException ex) {
-              throw new QueryRTException(ex);
             }
-          });
+          }
+
+          final int len = tuples.size() >>> 1;
+          final Item[][] ks = new Item[len][];
+          tpls = new Value[len][];
+          for(int i = 0; i < len; i++) {
+            tpls[i] = tuples.get(i << 1 | 1);
+            ks[i] = (Item[]) tuples.get(i << 1);
+          }
+          perm = heap != null ? heap.toArray(Integer[]::new) : new Integer[len];
+          if(heap == null) {
+            for(int i = 0; i < len; i++) perm[i] = i;
+          }
+          // be nice to the garbage collector
+          tuples.clear();
+          Arrays.sort(perm, (x, y) -> compare(ks[x], ks[y], x, y));
         } catch(final QueryRTException ex) {
           throw ex.getCause();
         }
@@ -123,6 +120,45 @@ public final class OrderBy extends Clause {
     };
   }
 
+  /**
+   * Compares the keys of two tuples.
+   * @param a keys of the first tuple
+   * @param b keys of the second tuple
+   * @param x position of the first tuple (used if the keys are equal and results are limited)
+   * @param y position of the second tuple
+   * @return result of comparison
+   * @throws QueryRTException query exception
+   */
+  private int compare(final Object[] a, final Object[] b, final int x, final int y) {
+    try {
+      final int kl = keys.length;
+      for(int k = 0; k < kl; k++) {
+        final OrderKey key = keys[k];
+        Item m = (Item) a[k], n = (Item) b[k];
+        if(m == Dbl.NAN || m == Flt.NAN) m = Empty.VALUE;
+        if(n == Dbl.NAN || n == Flt.NAN) n = Empty.VALUE;
+        if(m != Empty.VALUE && n != Empty.VALUE && !m.comparable(n))
+          throw typeError(n, m.type, key.info());
+
+        final int c = m == Empty.VALUE
+            ? n == Empty.VALUE ? 0                 : key.least ? -1 : 1
+            : n == Empty.VALUE ? key.least ? 1 : -1 : m.diff(n, key.coll, key.info());
+        if(c != 0) return key.desc ? -c : c;
+      }
+      return Integer.compare(x, y);
+    } catch(final QueryException ex) {
+      throw new QueryRTException(ex);
+    }
+  }
+
+  /**
+   * Limits the number of returned tuples.
+   * @param max maximum number of tuples
+   */
+  void limit(final long max) {
+    limit = Math.min(limit, max);
+  }
+
   /**
    * Merges the order by clause with the supplied for clause.
    * @param fr for clause
@@ -191,7 +227,9 @@ public final class OrderBy extends Clause {
 
   @Override
   public OrderBy copy(final CompileContext cc, final IntObjMap<Var> vm) {
-    return copyType(new OrderBy(Arr.copyAll(cc, vm, refs), Arr.copyAll(cc, vm, keys), info));
+    final OrderBy ob = new OrderBy(Arr.copyAll(cc, vm, refs), Arr.copyAll(cc, vm, keys), info);
+    ob.limit = limit;
+    return copyType(ob);
   }
 
   @Override
@@ -241,12 +279,12 @@ public final class OrderBy extends Clause {
     if(this == obj) return true;
     if(!(obj instanceof OrderBy)) return false;
     final OrderBy o = (OrderBy) obj;
-    return Array.equals(refs, o.refs) && Array.equals(keys, o.keys);
+    return Array.equals(refs, o.refs) && Array.equals(keys, o.keys) && limit == o.limit;
   }
 
   @Override
   public void toXml(final QueryPlan plan) {
-    plan.add(plan.create(this), keys);
+    plan.add(plan.create(this, QueryText.MAX, limit != Long.MAX_VALUE ? limit : null), keys);
   }
 
   @Override
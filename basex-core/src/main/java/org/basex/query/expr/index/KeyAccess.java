@@ -0,0 +1,150 @@
+package org.basex.query.expr.index;
+
+import static org.basex.query.QueryText.*;
+
+import org.basex.data.*;
+import org.basex.index.value.*;
+import org.basex.query.*;
+import org.basex.query.expr.*;
+import org.basex.query.iter.*;
+import org.basex.query.util.*;
+import org.basex.query.util.list.*;
+import org.basex.query.value.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.seq.*;
+import org.basex.query.value.type.*;
+import org.basex.query.var.*;
+import org.basex.util.*;
+import org.basex.util.hash.*;
+import org.basex.util.list.*;
+
+/**
+ * This index class retrieves elements from a path index.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class KeyAccess extends IndexAccess {
+  /** Path index declaration. */
+  private final KeyPath path;
+  /** Search expressions (one for each key of the declaration). */
+  private final Expr[] exprs;
+
+  /**
+   * Constructor.
+   * @param info input info
+   * @param path path index declaration
+   * @param db index database
+   * @param exprs search expressions
+   */
+  public KeyAccess(final InputInfo info, final KeyPath path, final IndexDb db,
+      final Expr... exprs) {
+    super(db, info, NodeType.ELEMENT);
+    this.path = path;
+    this.exprs = exprs;
+  }
+
+  @Override
+  public Iter iter(final QueryContext qc) throws QueryException {
+    return value(qc).iter();
+  }
+
+  @Override
+  public Value value(final QueryContext qc) throws QueryException {
+    // compute composite keys
+    TokenSet keys = null;
+    for(final Expr expr : exprs) {
+      final TokenSet values = new TokenSet();
+      final Iter iter = expr.iter(qc);
+      for(Item item; (item = qc.next(iter)) != null;) values.add(toToken(item));
+      if(values.isEmpty()) return Empty.VALUE;
+
+      if(keys == null) {
+        keys = values;
+      } else {
+        final TokenSet tmp = new TokenSet();
+        for(final byte[] key : keys) {
+          for(final byte[] value : values) tmp.add(KeyPath.key(key, value));
+        }
+        keys = tmp;
+      }
+    }
+
+    // use index if it is available and up-to-date, or perform a sequential scan
+    final Data data = db.data(qc);
+    final PathValues index = data.meta.pathindex ? data.pathValues : null;
+    final int p = index != null ? index.index(path) : -1;
+    final IntList pres = p != -1 ? index.pres(p, keys) : PathValues.scan(data, path, keys);
+    return DBNodeSeq.get(pres.finish(), data, this);
+  }
+
+  @Override
+  public boolean has(final Flag... flags) {
+    for(final Expr expr : exprs) {
+      if(expr.has(flags)) return true;
+    }
+    return super.has(flags);
+  }
+
+  @Override
+  public boolean inlineable(final InlineContext ic) {
+    for(final Expr expr : exprs) {
+      if(!expr.inlineable(ic)) return false;
+    }
+    return super.inlineable(ic);
+  }
+
+  @Override
+  public VarUsage count(final Var var) {
+    return VarUsage.sum(var, exprs).plus(super.count(var));
+  }
+
+  @Override
+  public Expr inline(final InlineContext ic) throws QueryException {
+    final boolean inlined = ic.inline(exprs);
+    final boolean inlinedDb = inlineDb(ic);
+    return inlined || inlinedDb ? optimize(ic.cc) : null;
+  }
+
+  @Override
+  public Expr copy(final CompileContext cc, final IntObjMap<Var> vm) {
+    return copyType(new KeyAccess(info, path, db.copy(cc, vm), Arr.copyAll(cc, vm, exprs)));
+  }
+
+  @Override
+  public boolean accept(final ASTVisitor visitor) {
+    return visitAll(visitor, exprs) && super.accept(visitor);
+  }
+
+  @Override
+  public int exprSize() {
+    int size = super.exprSize();
+    for(final Expr expr : exprs) size += expr.exprSize();
+    return size;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if(!(obj instanceof KeyAccess)) return false;
+    final KeyAccess k = (KeyAccess) obj;
+    return path.path.equals(k.path.path) && Array.equals(exprs, k.exprs) && super.equals(obj);
+  }
+
+  @Override
+  public int hashCode() {
+    // expressions are compared by structure, but do not implement hash codes
+    return path.path.hashCode() * 31 + exprs.length;
+  }
+
+  @Override
+  public void toXml(final QueryPlan plan) {
+    final ExprList list = new ExprList(exprs.length + 1).add(db).add(exprs);
+    plan.add(plan.create(this, INDEX, path), list.finish());
+  }
+
+  @Override
+  public void toString(final QueryString qs) {
+    final ExprList list = new ExprList(exprs.length + 2).add(db).add(Str.get(path.path));
+    qs.token("path-index").params(list.add(exprs).finish());
+  }
+}
@@ -730,8 +730,9 @@ public abstract class Path extends ParseExpr {
 
     // cache index access costs
     IndexInfo index = null;
-    // cheapest predicate and step
-    int predIndex = 0, stepIndex = 0;
+    // cheapest predicates and step
+    int[] preds = null;
+    int stepIndex = 0;
 
     // check if path can be converted to an index access
     final Data data = data();
@@ -762,7 +763,23 @@ public abstract class Path extends ParseExpr {
 
           if(index == null || index.costs.compareTo(ii.costs) > 0) {
             index = ii;
-            predIndex = e;
+            preds = new int[] { e };
+            stepIndex = s;
+          }
+        }
+
+        // check if a path index can be used for several predicates
+        final Step[] stps = new Step[s + 1];
+        for(int t = 0; t <= s; t++) stps[t] = axisStep(t);
+        final IndexInfo ii = new IndexInfo(db, cc, step);
+        if(ii.paths(stps)) {
+          if(ii.costs.results() == 0) {
+            cc.info(QueryText.OPTNORESULTS_X, step);
+            return Empty.VALUE;
+          }
+          if(index == null || index.costs.compareTo(ii.costs) >= 0) {
+            index = ii;
+            preds = ii.preds;
             stepIndex = s;
           }
         }
@@ -819,7 +836,12 @@ public abstract class Path extends ParseExpr {
       lastPreds.add(cc.get(indexStep != null ? indexStep : indexRoot,
         () -> get(cc, info, null, invSteps.finish())));
     }
-    lastPreds.add(Array.remove(index.step.exprs, predIndex));
+    final Expr[] exprs = index.step.exprs;
+    final int el = exprs.length;
+    for(int e = 0, p = 0; e < el; e++) {
+      if(p < preds.length && preds[p] == e) p++;
+      else lastPreds.add(exprs[e]);
+    }
 
     // attach predicates to last step or new self::node() step
     if(!lastPreds.isEmpty()) {
@@ -81,8 +81,10 @@ public abstract class StandardFunc extends Arr {
 
     // pre-evaluate if arguments are values and not too large
     final SeqType st = definition.seqType;
-    return allAreValues(st.occ.max > 1 || st.type instanceof FuncType) && isSimple()
-        ? cc.preEval(this) : this;
+    if(!allAreValues(st.occ.max > 1 || st.type instanceof FuncType) || !isSimple()) return this;
+    // external resources may change before the next evaluation
+    if(definition.perm != Perm.NONE) cc.qc.uncacheable();
+    return cc.preEval(this);
   }
 
   /**
@@ -204,6 +206,13 @@ public abstract class StandardFunc extends Arr {
     return size() == 0 && !has(Flag.UPD);
   }
 
+  @Override
+  public boolean accept(final ASTVisitor visitor) {
+    // updating higher-order function: updated nodes cannot be determined statically
+    return (!definition.has(Flag.HOF) || !updating() || visitor.update()) &&
+        super.accept(visitor);
+  }
+
   /**
    * Refines the type of a function item argument.
    * @param expr function
@@ -611,13 +620,14 @@ public abstract class StandardFunc extends Arr {
 
   /**
    * Tries to lock a database supplied by the specified argument.
+   * Write locks are requested for updating functions.
    * @param visitor visitor
    * @param backup backup flag
    * @param i index of argument
    * @return result of check
    */
   protected final boolean dataLock(final ASTVisitor visitor, final boolean backup, final int i) {
-    return visitor.lock(() -> {
+    final Supplier<ArrayList<String>> locks = () -> {
       final ArrayList<String> list = new ArrayList<>(1);
       final Expr expr = exprs[i];
       String name = expr instanceof Str ? string(((Str) expr).string()) :
@@ -635,7 +645,8 @@ public abstract class StandardFunc extends Arr {
       }
       list.add(name);
       return list;
-    });
+    };
+    return updating() ? visitor.writeLock(locks) : visitor.lock(locks);
   }
 
   @Override
@@ -135,25 +135,7 @@ public final class AdminLogs extends AdminFn {
       final LinkedList<LogEntry> logs = new LinkedList<>();
       for(final String line : file.read()) {
         qc.checkStop();
-        final LogEntry entry = new LogEntry();
-        final String[] cols = line.split("\t");
-        if(cols.length > 2) {
-          entry.time = cols[0];
-          entry.address = cols[1];
-          entry.user = cols[2];
-          entry.type = cols.length > 3 ? cols[3] : "";
-          entry.message = cols.length > 4 ? cols[4] : "";
-          entry.ms = BigDecimal.ZERO;
-          if(cols.length > 5) {
-            // skip errors caused by erroneous input
-            final int i = cols[5].indexOf(" ms");
-            if(i > -1) entry.ms = new BigDecimal(cols[5].substring(0, i));
-          }
-        } else {
-          // legacy format
-          entry.message = line;
-        }
-        logs.add(entry);
+        logs.add(LogEntry.get(line));
       }
       return logs;
     } catch(final IOException ex) {
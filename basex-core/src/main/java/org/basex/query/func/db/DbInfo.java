@@ -35,10 +35,12 @@ public final class DbInfo extends DbAccess {
     FElem node = null;
     for(final String line : string.split(Prop.NL)) {
       final String[] cols = line.split(": ", 2);
-      if(cols[0].isEmpty()) continue;
+      // skip empty lines and hints without values
+      final boolean prop = Strings.startsWith(cols[0], ' ');
+      if(cols[0].isEmpty() || prop && cols.length < 2) continue;
 
       final FElem child = new FElem(cols[0].replaceAll("[ -:]", "").toLowerCase(Locale.ENGLISH));
-      if(Strings.startsWith(cols[0], ' ')) {
+      if(prop) {
         if(node != null) node.add(child);
         if(!cols[1].isEmpty()) child.add(cols[1]);
       } else {
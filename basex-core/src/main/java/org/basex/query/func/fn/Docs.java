@@ -5,6 +5,7 @@ import static org.basex.util.Token.*;
 import java.util.*;
 
 import org.basex.core.locks.*;
+import org.basex.data.*;
 import org.basex.io.*;
 import org.basex.query.*;
 import org.basex.query.expr.*;
@@ -42,7 +43,13 @@ public abstract class Docs extends DynamicFn {
     // pre-evaluate during dynamic compilation if target is not a remote URL
     if(cc.dynamic && expr instanceof Value) {
       queryInput = queryInput(toToken(expr.atomItem(cc.qc, info)));
-      if(queryInput == null || !(queryInput.io instanceof IOUrl)) return value(cc.qc);
+      if(queryInput == null || !(queryInput.io instanceof IOUrl)) {
+        // only nodes of persistent databases will be up-to-date in the next evaluation
+        final Value value = value(cc.qc);
+        final Data data = value.data();
+        if(data == null || data.inMemory()) cc.qc.uncacheable();
+        return value;
+      }
     }
     return this;
   }
@@ -13,6 +13,11 @@ import org.basex.query.func.*;
 public abstract class DynamicFn extends StandardFunc {
   @Override
   protected Expr opt(final CompileContext cc) throws QueryException {
-    return cc.dynamic && allAreValues(true) ? value(cc.qc) : this;
+    if(cc.dynamic && allAreValues(true)) {
+      // pre-evaluated values of the dynamic context change with each evaluation
+      cc.qc.uncacheable();
+      return value(cc.qc);
+    }
+    return this;
   }
 }
@@ -34,16 +34,33 @@ public final class FnMatches extends RegEx {
   protected Expr opt(final CompileContext cc) throws QueryException {
     final Expr value = exprs[0], pattern = exprs[1];
 
-    final SeqType st = value.seqType();
-    if(st.zero() || st.one() && st.type.isStringOrUntyped()) {
-      if(pattern instanceof Str && exprs.length < 3) {
+    if(pattern instanceof Str && exprs.length < 3) {
+      final byte[] string = ((Str) pattern).string();
+      final SeqType st = value.seqType();
+      if(st.zero() || st.one() && st.type.isStringOrUntyped()) {
         if(pattern == Str.EMPTY) return Bln.TRUE;
-        for(final byte b : ((Str) pattern).string()) {
-          if(contains(REGEX_CHARS, b)) return this;
-        }
-        return cc.function(CONTAINS, info, args());
+        if(literal(string, 0)) return cc.function(CONTAINS, info, args());
+      }
+      // prefix search: rewrite to starts-with (can be rewritten for index access)
+      if(st.type.isStringOrUntyped() && string.length > 1 && string[0] == '^' &&
+          literal(string, 1)) {
+        return cc.function(STARTS_WITH, info, value, Str.get(substring(string, 1)));
       }
     }
     return this;
   }
+
+  /**
+   * Checks if the specified pattern contains no regex characters.
+   * @param pattern pattern
+   * @param start start position
+   * @return result of check
+   */
+  private static boolean literal(final byte[] pattern, final int start) {
+    final int pl = pattern.length;
+    for(int p = start; p < pl; p++) {
+      if(contains(REGEX_CHARS, pattern[p])) return false;
+    }
+    return true;
+  }
 }
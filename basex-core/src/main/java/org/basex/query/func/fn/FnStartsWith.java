@@ -3,6 +3,7 @@ package org.basex.query.func.fn;
 import org.basex.query.*;
 import org.basex.query.func.*;
 import org.basex.query.util.collation.*;
+import org.basex.query.util.index.*;
 import org.basex.query.value.item.*;
 import org.basex.util.*;
 
@@ -19,4 +20,19 @@ public final class FnStartsWith extends StandardFunc {
     final Collation coll = toCollation(2, qc);
     return Bln.get(coll == null ? Token.startsWith(value, sub) : coll.startsWith(value, sub, info));
   }
+
+  @Override
+  public boolean indexAccessible(final IndexInfo ii) throws QueryException {
+    // support limited to default collation and static, non-empty prefixes
+    if(exprs.length != 2 || !(exprs[1] instanceof Str)) return false;
+    final byte[] prefix = ((Str) exprs[1]).string();
+    final int pl = prefix.length;
+    if(pl == 0) return false;
+
+    // all strings with the prefix are smaller than the prefix with an incremented last byte
+    // (UTF-8 strings contain no 0xFF bytes)
+    final byte[] max = prefix.clone();
+    max[pl - 1]++;
+    return ii.range(exprs[0], prefix, true, max, false, info);
+  }
 }
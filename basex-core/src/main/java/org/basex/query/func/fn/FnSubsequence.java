@@ -7,6 +7,7 @@ import java.util.*;
 import org.basex.query.*;
 import org.basex.query.expr.*;
 import org.basex.query.expr.List;
+import org.basex.query.expr.gflwor.*;
 import org.basex.query.func.*;
 import org.basex.query.func.file.*;
 import org.basex.query.iter.*;
@@ -215,6 +216,8 @@ public class FnSubsequence extends StandardFunc {
       // subsequence(E, 2)  ->  tail(E)
       if(sr.length == Long.MAX_VALUE && sr.start == 1)
         return cc.function(TAIL, info, input);
+      // subsequence(for $i in E order by K return R, 1, 10): only sort the first tuples
+      if(input instanceof GFLWOR && sr.end != Long.MAX_VALUE) ((GFLWOR) input).limit(sr.end);
       // subsequence(file:read-text-lines(E), pos, length)  ->  file:read-text-lines(E, pos, length)
       if(_FILE_READ_TEXT_LINES.is(input))
         return FileReadTextLines.opt(this, sr.start, sr.length, cc);
@@ -29,7 +29,11 @@ public class FnUnparsedTextAvailable extends Parse {
     // pre-evaluate during dynamic compilation if target is not a remote URL
     if(cc.dynamic && href instanceof Value) {
       input = input(toToken(href.atomItem(cc.qc, info)));
-      if(input == null || !(input instanceof IOUrl)) return value(cc.qc);
+      if(input == null || !(input instanceof IOUrl)) {
+        // resource may change before the next evaluation
+        cc.qc.uncacheable();
+        return value(cc.qc);
+      }
     }
     return this;
   }
@@ -86,6 +86,12 @@ public abstract class JavaCall extends Arr {
     return Empty.VALUE;
   }
 
+  @Override
+  public boolean accept(final ASTVisitor visitor) {
+    // updating function: updated nodes cannot be determined statically
+    return (!updating || visitor.update()) && super.accept(visitor);
+  }
+
   /**
    * Returns the result of the evaluated Java function.
    * @param qc query context
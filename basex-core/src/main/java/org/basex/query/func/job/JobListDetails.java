@@ -60,6 +60,8 @@ public final class JobListDetails extends StandardFunc {
       elem.add(READS, jc.locks.reads.toString());
       elem.add(WRITES, jc.locks.writes.toString());
       elem.add(TIME, dateTime(jc.time));
+      elem.add(QUEUED, Token.token(jc.queued.get()));
+      elem.add(STEALS, Token.token(jobs.pool.getStealCount()));
       elem.add(Token.chop(Token.normalize(Token.token(jc.toString())), max));
       vb.add(elem);
     }
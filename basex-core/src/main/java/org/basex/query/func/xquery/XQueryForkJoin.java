@@ -3,7 +3,6 @@ package org.basex.query.func.xquery;
 import static org.basex.query.QueryError.*;
 
 import java.util.*;
-import java.util.concurrent.*;
 
 import org.basex.core.jobs.*;
 import org.basex.query.*;
@@ -37,19 +36,25 @@ public final class XQueryForkJoin extends StandardFunc {
     // single function: invoke directly
     if(size == 1) return list.get(0).invoke(qc, info);
 
-    final ForkJoinPool pool = new ForkJoinPool();
-    final XQueryTask task = new XQueryTask(list, qc, info);
+    // evaluate partitions of the functions in parallel, limited by the share of the current job
+    final int parts = (int) Math.min(size, qc.context.jobs.share());
+    final ArrayList<QueryFunction<QueryContext, Value>> tasks = new ArrayList<>(parts);
+    for(int p = 0; p < parts; p++) {
+      final int start = (int) (size * p / parts), end = (int) (size * (p + 1) / parts);
+      tasks.add(tqc -> {
+        final ValueBuilder vb = new ValueBuilder(tqc);
+        for(int f = start; f < end; f++) vb.add(list.get(f).invoke(tqc, info));
+        return vb.value();
+      });
+    }
     try {
-      return pool.invoke(task).value(this);
-    } catch(final Exception ex) {
-      // pass on query and job exceptions
-      final Throwable e = Util.rootException(ex);
-      if(e instanceof QueryException) throw (QueryException) e;
-      if(e instanceof JobException) throw (JobException) e;
-      throw XQUERY_UNEXPECTED_X.get(info, e);
-    } finally {
-      // required?
-      pool.shutdown();
+      final ValueBuilder vb = new ValueBuilder(qc);
+      for(final Value value : qc.fork(tasks)) vb.add(value);
+      return vb.value(this);
+    } catch(final JobException ex) {
+      throw ex;
+    } catch(final RuntimeException ex) {
+      throw XQUERY_UNEXPECTED_X.get(info, ex);
     }
   }
 
@@ -4,43 +4,58 @@ import java.util.*;
 import java.util.function.*;
 
 import org.basex.core.locks.*;
+import org.basex.query.expr.*;
 import org.basex.query.func.*;
 import org.basex.query.util.*;
 import org.basex.query.value.item.*;
 import org.basex.query.var.*;
+import org.basex.util.*;
 
 /**
- * Lock visitor.
+ * Lock visitor. Locks of updating functions and internal locks are added as write locks,
+ * all other locks are added as read locks. If an expression is found that updates nodes
+ * of statically unknown databases (see {@link #updates()}), all locks must be treated as
+ * write locks by the caller.
  *
  * @author BaseX Team 2005-22, BSD License
  * @author Christian Gruen
  */
 public final class LockVisitor extends ASTVisitor {
-  /** Already visited scopes. */
-  private final IdentityHashMap<Scope, Object> funcs = new IdentityHashMap<>();
-  /** Reference to lock list. */
-  private final LockList ll;
+  /** Already visited scopes (value: visited outside modify clauses). */
+  private final IdentityHashMap<Scope, Boolean> funcs = new IdentityHashMap<>();
+  /** Reference to locks. */
+  private final Locks locks;
   /** Focus level. */
   private int level;
+  /** Level of modify clauses. */
+  private int modify;
+  /** Indicates if nodes of statically unknown databases may be updated. */
+  private boolean updates;
 
   /**
    * Constructor.
-   * @param ll lock list
+   * @param locks locks
    * @param root root flag
    */
-  public LockVisitor(final LockList ll, final boolean root) {
-    this.ll = ll;
+  public LockVisitor(final Locks locks, final boolean root) {
+    this.locks = locks;
     level = root ? 0 : 1;
   }
 
+  /**
+   * Indicates if nodes of statically unknown databases may be updated.
+   * @return result of check
+   */
+  public boolean updates() {
+    return updates;
+  }
+
   @Override
   public boolean lock(final String lock) {
-    final boolean local = lock != null;
-    if(local) {
-      // if context item is found on top level, it will refer to currently opened database
-      if(lock != Locking.CONTEXT || level == 0) ll.add(lock);
-    }
-    return local;
+    // query locks and internal locks (except for database references) are write locks
+    return lock(lock, lock != null && (lock.startsWith(Locking.BASEX_PREFIX) ||
+        lock.startsWith(Locking.INTERNAL_PREFIX) &&
+        !Strings.eq(lock, Locking.CONTEXT, Locking.COLLECTION)));
   }
 
   @Override
@@ -51,6 +66,35 @@ public final class LockVisitor extends ASTVisitor {
     return true;
   }
 
+  @Override
+  public boolean writeLock(final Supplier<ArrayList<String>> list) {
+    for(final String lock : list.get()) {
+      if(!lock(lock, true)) return false;
+    }
+    return true;
+  }
+
+  @Override
+  public boolean update() {
+    // updates in modify clauses are restricted to copied nodes
+    if(modify == 0) updates = true;
+    return true;
+  }
+
+  @Override
+  public boolean modify(final Expr expr) {
+    modify++;
+    final boolean ac = expr.accept(this);
+    modify--;
+    return ac;
+  }
+
+  @Override
+  public boolean dynFuncCall(final DynFuncCall call) {
+    // updating function item: updated nodes cannot be determined statically
+    return !call.has(Flag.UPD) || update();
+  }
+
   @Override
   public void enterFocus() {
     level++;
@@ -63,9 +107,7 @@ public final class LockVisitor extends ASTVisitor {
 
   @Override
   public boolean staticVar(final StaticVar var) {
-    if(funcs.containsKey(var)) return true;
-    funcs.put(var, null);
-    return var.visit(this);
+    return visited(var) || var.visit(this);
   }
 
   @Override
@@ -92,11 +134,38 @@ public final class LockVisitor extends ASTVisitor {
    * @return if more expressions should be visited
    */
   private boolean func(final Scope scope) {
-    if(funcs.containsKey(scope)) return true;
-    funcs.put(scope, null);
+    if(visited(scope)) return true;
     enterFocus();
     final boolean ac = scope.visit(this);
     exitFocus();
     return ac;
   }
+
+  /**
+   * Checks if a scope has already been visited, and registers it as visited.
+   * Scopes that have only been visited in modify clauses will be visited again.
+   * @param scope scope
+   * @return result of check
+   */
+  private boolean visited(final Scope scope) {
+    final Boolean outside = funcs.get(scope);
+    if(outside != null && (outside || modify > 0)) return true;
+    funcs.put(scope, modify == 0);
+    return false;
+  }
+
+  /**
+   * Adds a lock.
+   * @param lock lock string (can be {@code null})
+   * @param write write lock
+   * @return if more expressions should be visited
+   */
+  private boolean lock(final String lock, final boolean write) {
+    final boolean local = lock != null;
+    if(local) {
+      // if context item is found on top level, it will refer to currently opened database
+      if(lock != Locking.CONTEXT || level == 0) (write ? locks.writes : locks.reads).add(lock);
+    }
+    return local;
+  }
 }
\ No newline at end of file
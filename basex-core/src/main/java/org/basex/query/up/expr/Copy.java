@@ -46,6 +46,11 @@ abstract class Copy extends Arr {
     return flags.length != 0 && super.has(flags);
   }
 
+  @Override
+  public boolean accept(final ASTVisitor visitor) {
+    return visitor.modify(modify()) && result().accept(visitor);
+  }
+
   @Override
   public int exprSize() {
     int size = 1;
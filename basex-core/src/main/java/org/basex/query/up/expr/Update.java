@@ -38,6 +38,11 @@ abstract class Update extends Arr {
     return Flag.UPD.in(flags) || Flag.NDT.in(flags) || super.has(flags);
   }
 
+  @Override
+  public boolean accept(final ASTVisitor visitor) {
+    return visitor.update() && super.accept(visitor);
+  }
+
   /**
    * Checks if the new namespaces have conflicting namespaces.
    * @param list node list
@@ -46,7 +46,9 @@ public final class DBOptimize extends DBUpdate {
 
     final ArrayList<Option<?>> supported = new ArrayList<>();
     for(final Option<?> option : MainOptions.INDEXING) {
-      if(all || option != MainOptions.UPDINDEX) supported.add(option);
+      if(all || option != MainOptions.UPDINDEX && option != MainOptions.COMPRESSION) {
+        supported.add(option);
+      }
     }
 
     // create options, based on global defaults
@@ -60,8 +62,10 @@ public final class DBOptimize extends DBUpdate {
     dbopts.assignIfAbsent(MainOptions.ATTRINCLUDE, meta.attrinclude);
     dbopts.assignIfAbsent(MainOptions.TOKENINCLUDE, meta.tokeninclude);
     dbopts.assignIfAbsent(MainOptions.FTINCLUDE, meta.ftinclude);
+    dbopts.assignIfAbsent(MainOptions.PATHINDEXES, meta.pathindexes);
     dbopts.assignIfAbsent(MainOptions.UPDINDEX, meta.updindex);
     dbopts.assignIfAbsent(MainOptions.AUTOOPTIMIZE, meta.autooptimize);
+    dbopts.assignIfAbsent(MainOptions.COMPRESSION, meta.compression);
     dbopts.assignIfAbsent(MainOptions.SPLITSIZE, meta.splitsize);
     dbopts.assignIfAbsent(MainOptions.MAXCATS, meta.maxcats);
     dbopts.assignIfAbsent(MainOptions.MAXLEN, meta.maxlen);
@@ -80,6 +84,7 @@ public final class DBOptimize extends DBUpdate {
     final String attrinclude = options.get(MainOptions.ATTRINCLUDE);
     final String tokeninclude = options.get(MainOptions.TOKENINCLUDE);
     final String ftinclude = options.get(MainOptions.FTINCLUDE);
+    final String pathindexes = options.get(MainOptions.PATHINDEXES);
     final boolean stemming = options.get(MainOptions.STEMMING);
     final boolean casesens = options.get(MainOptions.CASESENS);
     final boolean diacritics = options.get(MainOptions.DIACRITICS);
@@ -93,7 +98,9 @@ public final class DBOptimize extends DBUpdate {
     final boolean rebuildToken = !meta.tokeninclude.equals(tokeninclude);
     final boolean rebuildFt = !meta.ftinclude.equals(ftinclude) || rebuild ||
         stemming != meta.stemming || casesens != meta.casesens || diacritics != meta.diacritics ||
-        !language.equals(meta.language) || !stopwords.equals(meta.stopwords);
+        !language.equals(meta.language) || !stopwords.equals(meta.stopwords) ||
+        meta.updindex != options.get(MainOptions.UPDINDEX);
+    final boolean rebuildPaths = !meta.pathindexes.equals(pathindexes);
 
     // assign options to meta data
     meta.createtext = options.get(MainOptions.TEXTINDEX);
@@ -109,6 +116,7 @@ public final class DBOptimize extends DBUpdate {
     meta.tokeninclude = tokeninclude;
     meta.maxlen = maxlen;
     meta.ftinclude = ftinclude;
+    meta.pathindexes = pathindexes;
     meta.stemming   = stemming;
     meta.casesens   = casesens;
     meta.diacritics = diacritics;
@@ -117,7 +125,8 @@ public final class DBOptimize extends DBUpdate {
 
     try {
       if(all) OptimizeAll.optimizeAll(data, qc.context, options, null);
-      else Optimize.optimize(data, rebuildText, rebuildAttr, rebuildToken, rebuildFt, null);
+      else Optimize.optimize(data, rebuildText, rebuildAttr, rebuildToken, rebuildFt,
+          rebuildPaths, null);
     } catch(final IOException ex) {
       throw UPDBERROR_X.get(info, ex);
     }
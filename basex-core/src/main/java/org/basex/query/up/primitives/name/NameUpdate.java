@@ -101,8 +101,9 @@ public abstract class NameUpdate extends Update implements Comparable<NameUpdate
   static void close(final String name, final QueryContext qc, final InputInfo ii)
       throws QueryException {
 
-    // close data instance in query processor
+    // close data instance in query processor and discard cached queries
     qc.resources.remove(name);
+    qc.context.queries.discard(name);
     // check if database is stilled pinned by another process
     if(qc.context.pinned(name)) throw DB_LOCK1_X.get(ii, name);
   }
@@ -98,6 +98,16 @@ public abstract class ASTVisitor {
     return true;
   }
 
+  /**
+   * Notifies the visitor of database locks of an updating function. Overwritten by
+   * {@link LockVisitor}. Returns {@code false} if the lock is not known statically.
+   * @param list function supplying lock strings
+   * @return if more expressions should be visited ({@code true} by default)
+   */
+  public boolean writeLock(final Supplier<ArrayList<String>> list) {
+    return lock(list);
+  }
+
   /**
    * Notifies the visitor of a database lock. Overwritten by {@link MainModule}.
    * Returns {@code false} if the lock is not known statically.
@@ -109,6 +119,24 @@ public abstract class ASTVisitor {
     return true;
   }
 
+  /**
+   * Notifies the visitor of an updating expression whose target nodes may belong to databases
+   * that are not known statically. Overwritten by {@link LockVisitor}.
+   * @return if more expressions should be visited ({@code true} by default)
+   */
+  public boolean update() {
+    return true;
+  }
+
+  /**
+   * Visits the modify clause of a copy/modify expression. Overwritten by {@link LockVisitor}.
+   * @param expr modify clause
+   * @return if more expressions should be visited
+   */
+  public boolean modify(final Expr expr) {
+    return expr.accept(this);
+  }
+
   /**
    * Notifies the visitor of an expression entering a focus. Overwritten by {@link MainModule}.
    */
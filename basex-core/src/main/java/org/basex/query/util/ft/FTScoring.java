@@ -0,0 +1,66 @@
+package org.basex.query.util.ft;
+
+import org.basex.data.*;
+import org.basex.util.ft.*;
+import org.basex.util.list.*;
+
+/**
+ * BM25 scoring of the results of a full-text index request. The statistics of the query tokens
+ * are collected while the index iterators are created.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class FTScoring {
+  /** Query positions of the tokens. */
+  private final IntList positions = new IntList();
+  /** Number of texts containing the tokens. */
+  private final IntList dfs = new IntList();
+  /** Total number of indexed texts. */
+  private final int nodes;
+  /** Average length of the indexed texts. */
+  private final double avg;
+
+  /**
+   * Constructor.
+   * @param meta meta data
+   */
+  public FTScoring(final MetaData meta) {
+    nodes = Math.max(1, meta.ftnodes);
+    avg = meta.ftnodes > 0 ? (double) meta.ftlength / meta.ftnodes : 0;
+  }
+
+  /**
+   * Adds the statistics of a query token.
+   * @param pos query position
+   * @param df number of texts containing the token
+   */
+  public void add(final int pos, final int df) {
+    positions.add(pos);
+    dfs.add(df);
+  }
+
+  /**
+   * Computes the score for the matches of a text.
+   * @param matches full-text matches
+   * @param length text length
+   * @return normalized score
+   */
+  public double score(final FTMatches matches, final int length) {
+    double score = 0;
+    final int ps = positions.size();
+    for(int p = 0; p < ps; p++) {
+      // count distinct occurrences of the token (intersections may yield duplicates)
+      final int pos = positions.get(p);
+      final IntList starts = new IntList();
+      for(final FTMatch match : matches) {
+        for(final FTStringMatch sm : match) {
+          if(sm.pos == pos && !sm.exclude) starts.add(sm.start);
+        }
+      }
+      final int tf = starts.ddo().size();
+      if(tf > 0) score += Scoring.bm25(tf, dfs.get(p), nodes, length, avg);
+    }
+    return Scoring.normalize(score);
+  }
+}
@@ -2,22 +2,29 @@ package org.basex.query.util.index;
 
 import static org.basex.query.QueryText.*;
 
+import java.util.*;
+
 import org.basex.core.*;
 import org.basex.data.*;
 import org.basex.index.*;
+import org.basex.index.name.*;
 import org.basex.index.query.*;
 import org.basex.index.stats.*;
+import org.basex.index.value.*;
 import org.basex.query.*;
 import org.basex.query.expr.*;
 import org.basex.query.expr.index.*;
 import org.basex.query.expr.path.*;
 import org.basex.query.iter.*;
 import org.basex.query.util.*;
+import org.basex.query.util.list.*;
 import org.basex.query.value.*;
 import org.basex.query.value.item.*;
 import org.basex.query.value.type.*;
+import org.basex.query.var.*;
 import org.basex.util.*;
 import org.basex.util.hash.*;
+import org.basex.util.list.*;
 
 /**
  * This class contains methods for storing information on new index expressions.
@@ -43,6 +50,8 @@ public final class IndexInfo {
   public IndexCosts costs;
   /** Indicates if the last step addresses a text node. */
   boolean text;
+  /** Offsets of the predicates that are replaced by a path index access (sorted). */
+  public int[] preds;
 
   /** Predicate expression. */
   private IndexPred pred;
@@ -182,12 +191,13 @@ public final class IndexInfo {
        * - for $x in ('a', 1) return //*[text() = $x]
        * - //*[text() = .]
        * - //*[text() = (if(random:double() < .5) then 'X' else 'Y')] */
-      if(!search.seqType().type.isStringOrUntyped() || search.has(Flag.CTX, Flag.NDT))
+      if(!search.seqType().type.isStringOrUntyped() || search.has(Flag.CTX, Flag.NDT)) {
+        prepared(search, cc);
         return false;
+      }
 
       // estimate costs for dynamic query terms
-      costs = enforce() ? IndexCosts.ENFORCE_DYNAMIC :
-        IndexCosts.get(Math.max(1, data.meta.size / 10));
+      costs = enforce() ? IndexCosts.ENFORCE_DYNAMIC : IndexCosts.get(estimate(data, type));
       va = new ValueAccess(ii, search, type, test, db);
     }
 
@@ -195,6 +205,38 @@ public final class IndexInfo {
     return true;
   }
 
+  /**
+   * Estimates the number of results for a dynamic search term. If statistics exist for the
+   * targeted name, the average number of occurrences of its values is returned.
+   * @param data data reference
+   * @param type index type
+   * @return estimated number of results
+   */
+  private int estimate(final Data data, final IndexType type) {
+    final Stats stats = stats(data, type);
+    final int distinct = stats != null ? stats.distinct() : 0;
+    // the term may occur once or not at all: assume at least two results
+    return distinct > 0 ? Math.max(2, (stats.count + distinct - 1) / distinct) :
+      Math.max(1, data.meta.size / 10);
+  }
+
+  /**
+   * Returns the statistics of the element or attribute name targeted by the predicate.
+   * @param data data reference
+   * @param type index type
+   * @return statistics or {@code null}
+   */
+  private Stats stats(final Data data, final IndexType type) {
+    if(!(data.meta.uptodate && data.nspaces.isEmpty()) ||
+        type != IndexType.TEXT && type != IndexType.ATTRIBUTE) return null;
+    final Step st = pred.qname();
+    if(!(st.test instanceof NameTest) || ((NameTest) st.test).local == null) return null;
+
+    final Names names = type == IndexType.TEXT ? data.elemNames : data.attrNames;
+    final int id = names.id(((NameTest) st.test).local);
+    return id > 0 ? names.stats(id) : null;
+  }
+
   /**
    * Creates an index expression with an inverted axis path.
    * @param root new root expression
@@ -217,6 +259,184 @@ public final class IndexInfo {
     optInfo = opt;
   }
 
+  /**
+   * Checks if predicates of the step can be rewritten for accessing a path index.
+   * If several declarations are applicable, the cheapest one is chosen. Example:
+   * {@code //item[sku = 'A'][region = 'B']} can be answered by {@code (//item/sku, //item/region)}.
+   * @param steps steps of the path (the last step contains the predicates)
+   * @return success flag
+   * @throws QueryException query exception
+   */
+  public boolean paths(final Step[] steps) throws QueryException {
+    // database must be known at compile time, the index must be up-to-date
+    final Data data = db.data();
+    if(data == null || !data.meta.pathindex || data.pathValues == null ||
+        !(data.meta.uptodate && data.nspaces.isEmpty())) return false;
+
+    // local names of the query steps
+    final int sl = steps.length;
+    final byte[][] names = new byte[sl][];
+    final boolean[] desc = new boolean[sl];
+    for(int s = 0; s < sl; s++) {
+      final Axis axis = steps[s].axis;
+      names[s] = local(steps[s]);
+      desc[s] = axis == Axis.DESCENDANT;
+      if(names[s] == null || axis != Axis.CHILD && !desc[s]) return false;
+    }
+
+    // predicates that compare a relative path with a search expression
+    final Expr[] exprs = step.exprs;
+    final int el = exprs.length;
+    final Step[][] paths = new Step[el][];
+    for(int e = 0; e < el; e++) paths[e] = path(exprs[e], cc);
+
+    final PathValues index = data.pathValues;
+    for(final KeyPath kp : index.paths()) {
+      final int p = index.index(kp);
+      if(p == -1) continue;
+
+      // choose predicates for all keys; the key paths must have the same context
+      final int kl = kp.keys();
+      for(int e = 0; e < el; e++) {
+        if(paths[e] == null) continue;
+        final Step[] prefix = Arrays.copyOf(paths[e], paths[e].length - 1);
+        final int[] prds = new int[kl];
+        int found = 0;
+        for(int f = e; f < el && found < kl; f++) {
+          if(paths[f] == null || !prefix(paths[f], prefix)) continue;
+          final Step key = paths[f][paths[f].length - 1];
+          final int k = kp.key(local(key), key.axis == Axis.ATTRIBUTE);
+          if(k != -1 && prds[k] == 0) {
+            prds[k] = f + 1;
+            found++;
+          }
+        }
+        if(found < kl) continue;
+
+        // check if all addressed elements are context elements of the declaration
+        final int pl = prefix.length;
+        final byte[][] nms = Arrays.copyOf(names, sl + pl);
+        final boolean[] dsc = Arrays.copyOf(desc, sl + pl);
+        for(int s = 0; s < pl; s++) nms[sl + s] = local(prefix[s]);
+        if(!kp.covers(data, nms, dsc)) continue;
+
+        final Expr[] searches = new Expr[kl];
+        for(int k = 0; k < kl; k++) searches[k] = exprs[prds[k] - 1].arg(1);
+        final IndexCosts ic = costs(index, p, searches);
+        if(costs != null && costs.compareTo(ic) <= 0) continue;
+
+        // create index access; invert the steps of the key paths
+        final InputInfo ii = step.info();
+        final Expr root = new KeyAccess(ii, kp, db, searches);
+        final ExprList list = new ExprList(pl);
+        for(int s = pl - 2; s >= -1; s--) {
+          list.add(Step.get(cc, root, ii, Axis.PARENT, (s >= 0 ? prefix[s] : step).test));
+        }
+        expr = list.isEmpty() ? root : Path.get(cc, ii, root, list.finish());
+        costs = ic;
+        optInfo = Util.info(OPTINDEX_X_X, "path", kp);
+
+        final IntList pr = new IntList(kl);
+        for(final int prd : prds) pr.add(prd - 1);
+        preds = pr.sort().finish();
+      }
+    }
+    return costs != null;
+  }
+
+  /**
+   * Estimates the costs for accessing a path index.
+   * @param index index
+   * @param p offset of the declaration
+   * @param searches search expressions
+   * @return costs
+   * @throws QueryException query exception
+   */
+  private IndexCosts costs(final PathValues index, final int p, final Expr[] searches)
+      throws QueryException {
+
+    TokenSet keys = null;
+    for(final Expr search : searches) {
+      // dynamic search terms: estimate average number of results (at least two, as the number
+      // of results is unknown)
+      if(!(search instanceof Value)) return IndexCosts.get(Math.max(2, index.average(p)));
+
+      final TokenSet values = new TokenSet();
+      final Iter iter = search.iter(cc.qc);
+      for(Item item; (item = cc.qc.next(iter)) != null;) values.add(item.string(null));
+      if(keys == null) {
+        keys = values;
+      } else {
+        final TokenSet tmp = new TokenSet();
+        for(final byte[] key : keys) {
+          for(final byte[] value : values) tmp.add(KeyPath.key(key, value));
+        }
+        keys = tmp;
+      }
+    }
+    int count = 0;
+    for(final byte[] key : keys) count += index.count(p, key);
+    return IndexCosts.get(count);
+  }
+
+  /**
+   * Returns the steps of a path that is compared with a search expression.
+   * Example: {@code customer/@id = 'A'}.
+   * @param expr predicate
+   * @param cc compilation context
+   * @return steps or {@code null}
+   */
+  private static Step[] path(final Expr expr, final CompileContext cc) {
+    if(!(expr instanceof CmpG) || !((CmpG) expr).equality()) return null;
+    final Expr path = expr.arg(0), search = expr.arg(1);
+    if(!(path instanceof AxisPath) || ((AxisPath) path).root != null) return null;
+
+    // search expression: strings or untyped items, independent of the context
+    if(!search.seqType().type.isStringOrUntyped() || search.has(Flag.CTX, Flag.NDT)) {
+      prepared(search, cc);
+      return null;
+    }
+
+    // child steps, followed by a child or attribute step; no predicates
+    final Expr[] exprs = ((Path) path).steps;
+    final int sl = exprs.length;
+    final Step[] steps = new Step[sl];
+    for(int s = 0; s < sl; s++) {
+      if(!(exprs[s] instanceof Step)) return null;
+      final Step st = (Step) exprs[s];
+      if(st.exprs.length != 0 || local(st) == null || st.axis != Axis.CHILD &&
+          (s < sl - 1 || st.axis != Axis.ATTRIBUTE)) return null;
+      steps[s] = st;
+    }
+    return steps;
+  }
+
+  /**
+   * Checks if the specified steps start with the specified prefix.
+   * @param steps steps
+   * @param prefix prefix
+   * @return result of check
+   */
+  private static boolean prefix(final Step[] steps, final Step[] prefix) {
+    final int pl = prefix.length;
+    if(steps.length != pl + 1) return false;
+    for(int p = 0; p < pl; p++) {
+      if(!Token.eq(local(steps[p]), local(prefix[p]))) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Returns the local name of a step with a local name test.
+   * @param step step
+   * @return local name or {@code null}
+   */
+  private static byte[] local(final Step step) {
+    final Test test = step.test;
+    return test instanceof NameTest && ((NameTest) test).part() == NamePart.LOCAL ?
+      ((NameTest) test).local : null;
+  }
+
   /**
    * Computes costs if the specified data reference exists.
    * @param data data reference
@@ -227,6 +447,81 @@ public final class IndexInfo {
     return data != null ? data.costs(search) : IndexCosts.ENFORCE_STATIC;
   }
 
+  /**
+   * Tries to rewrite the specified input for string range access.
+   * @param input input expression
+   * @param min minimum value
+   * @param mni include minimum value
+   * @param max maximum value
+   * @param mxi include maximum value
+   * @param ii input info
+   * @return success flag
+   * @throws QueryException query exception
+   */
+  public boolean range(final Expr input, final byte[] min, final boolean mni, final byte[] max,
+      final boolean mxi, final InputInfo ii) throws QueryException {
+
+    // sequential main memory scan is usually faster than range index access
+    final Data data = db.data();
+    if(data == null ? !enforce() : data.inMemory()) return false;
+
+    // accept only location path, string and equality expressions
+    final IndexType type = type(input, null);
+    if(type == null) return false;
+
+    // values longer than the maximum token length are not indexed: skip incomplete indexes
+    if(data != null && !complete(data, type)) return false;
+
+    // create range access
+    final StringRange sr = new StringRange(type, min, mni, max, mxi);
+    costs = costs(data, sr);
+    if(costs == null) return false;
+
+    final TokenBuilder tb = new TokenBuilder();
+    tb.add(mni ? '[' : '(').add(min).add(',').add(max).add(mxi ? ']' : ')');
+    create(new StringRangeAccess(ii, sr, db), true,
+        Util.info(OPTINDEX_X_X, type + " string range", tb), ii);
+    return true;
+  }
+
+  /**
+   * Checks if all values of the addressed elements or attributes are indexed.
+   * Values longer than the maximum token length are skipped.
+   * @param data data reference
+   * @param type index type
+   * @return result of check
+   */
+  private boolean complete(final Data data, final IndexType type) {
+    final Names names = type == IndexType.TEXT ? data.elemNames : data.attrNames;
+    final Test test = pred.qname().test;
+    final int length;
+    if(test instanceof NameTest && ((NameTest) test).local != null && data.nspaces.isEmpty()) {
+      // single name: consult statistics of this name
+      final Stats stats = names.stats(names.id(((NameTest) test).local));
+      length = stats != null ? stats.length : 0;
+    } else {
+      length = names.length();
+    }
+    // lengths are unknown for databases that have not been optimized since version 10.5
+    return length <= data.meta.maxlen;
+  }
+
+  /**
+   * Checks if the index rewrite of a prepared query is prevented by an external or global
+   * variable whose value is assigned anew with each evaluation. If this is the case, the query
+   * will be compiled again with inlined values.
+   * @param search search expression
+   * @param cc compilation context
+   */
+  private static void prepared(final Expr search, final CompileContext cc) {
+    if(cc.qc.prepared && !search.accept(new ASTVisitor() {
+      @Override
+      public boolean staticVar(final StaticVar var) {
+        return !var.prepared();
+      }
+    })) cc.qc.inline = true;
+  }
+
   /**
    * Indicates if the index rewriting should be enforced.
    * @return result of check
@@ -21,6 +21,8 @@ public final class FTNode extends DBNode {
   private FTMatches matches;
   /** Score value. */
   private Double score;
+  /** BM25 scoring (can be {@code null}). */
+  private FTScoring scoring;
 
   /**
    * Constructor, called by the sequential variant.
@@ -49,6 +51,19 @@ public final class FTNode extends DBNode {
     this.is = is;
   }
 
+  /**
+   * Constructor, called by the index variant with BM25 scoring.
+   * @param matches full-text matches
+   * @param data data reference
+   * @param pre pre value
+   * @param scoring BM25 scoring
+   */
+  public FTNode(final FTMatches matches, final Data data, final int pre,
+      final FTScoring scoring) {
+    this(matches, data, pre, 0, 0);
+    this.scoring = scoring;
+  }
+
   /**
    * Assigns full-text matches.
    * @param match full-text matches
@@ -69,7 +84,9 @@ public final class FTNode extends DBNode {
   public double score() {
     if(score == null) {
       if(matches == null) return 0;
-      score = Scoring.textNode(matches.size(), is, tl, data().textLen(pre(), true));
+      final int length = data().textLen(pre(), true);
+      score = scoring != null ? scoring.score(matches, length) :
+        Scoring.textNode(matches.size(), is, tl, length);
     }
     return score;
   }
@@ -36,6 +36,18 @@ public final class QueryStack {
     return s;
   }
 
+  /**
+   * Enters a new stack frame and assigns the bindings of the current frame of another stack.
+   * Used for evaluating expressions in parallel.
+   * @param qs stack with the bindings to be copied
+   */
+  public void copyFrame(final QueryStack qs) {
+    final int s = qs.start, size = qs.end - s;
+    enterFrame(size);
+    Array.copy(qs.stack, s, size, stack, start);
+    Array.copy(qs.vars, s, size, vars, start);
+  }
+
   /**
    * Prepares the current stack frame to be reused.
    * @param size new frame size
@@ -90,6 +102,14 @@ public final class QueryStack {
     vars = nvr;
   }
 
+  /**
+   * Indicates if no stack frame is active.
+   * @return result of check
+   */
+  public boolean empty() {
+    return end == 0;
+  }
+
   /**
    * Gets the value bound to the given variable in the current stack frame.
    * @param var variable
@@ -10,6 +10,7 @@ import org.basex.query.scope.*;
 import org.basex.query.util.*;
 import org.basex.query.util.list.*;
 import org.basex.query.value.*;
+import org.basex.query.value.type.*;
 import org.basex.util.*;
 
 /**
@@ -23,6 +24,8 @@ public final class StaticVar extends StaticDecl {
   public final boolean external;
   /** Flag for lazy evaluation. */
   private final boolean lazy;
+  /** Indicates if the value will be assigned anew whenever a prepared query is evaluated. */
+  boolean prepared;
 
   /**
    * Constructor for a variable declared in a query.
@@ -61,6 +64,10 @@ public final class StaticVar extends StaticDecl {
       }
       dontEnter = false;
 
+      // prepared query: external values and non-constant expressions will not be inlined
+      prepared = cc.qc.prepared && (external || !(expr instanceof Value));
+      if(prepared) return null;
+
       // dynamic compilation, eager evaluation: pre-evaluate expressions
       if(expr instanceof Value || cc.dynamic && !lazy) {
         try {
@@ -116,6 +123,40 @@ public final class StaticVar extends StaticDecl {
     }
   }
 
+  /**
+   * Indicates if the value will be assigned anew whenever a prepared query is evaluated.
+   * @return result of check
+   */
+  public boolean prepared() {
+    return prepared;
+  }
+
+  /**
+   * Returns the type of a variable of a prepared query. The types of external values are
+   * ignored, as they may change with each evaluation.
+   * @return type
+   */
+  SeqType preparedType() {
+    return external ? declType != null ? declType : SeqType.ITEM_ZM : seqType();
+  }
+
+  /**
+   * Resets the value of a variable before a prepared query is evaluated again.
+   * @param val external value to bind (can be {@code null})
+   * @param qc query context
+   * @throws QueryException query exception
+   */
+  void reset(final Value val, final QueryContext qc) throws QueryException {
+    if(prepared) {
+      value = null;
+      if(external && val != null) {
+        value = declType == null || declType.instance(val) ? val :
+          declType.cast(val, true, qc, sc, info);
+        expr = value;
+      }
+    }
+  }
+
   @Override
   public boolean visit(final ASTVisitor visitor) {
     return expr == null || expr.accept(visitor);
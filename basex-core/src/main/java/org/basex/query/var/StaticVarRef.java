@@ -50,6 +50,10 @@ final class StaticVarRef extends ParseExpr {
 
   @Override
   public Expr optimize(final CompileContext cc) {
+    if(var.prepared) {
+      exprType.assign(var.preparedType());
+      return this;
+    }
     final Value value = var.value;
     if(value != null) {
       cc.info(QueryText.OPTINLINE_X, this);
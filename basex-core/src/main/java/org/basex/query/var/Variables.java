@@ -107,6 +107,16 @@ public final class Variables extends ExprInfo implements Iterable<StaticVar> {
     }
   }
 
+  /**
+   * Assigns new values to the variables of a prepared query.
+   * @param qc query context
+   * @param bindings variable bindings
+   * @throws QueryException query exception
+   */
+  public void rebind(final QueryContext qc, final QNmMap<Value> bindings) throws QueryException {
+    for(final QNm qnm : vars) vars.get(qnm).var.reset(bindings.get(qnm), qc);
+  }
+
   @Override
   public Iterator<StaticVar> iterator() {
     final Iterator<QNm> qnames = vars.iterator();
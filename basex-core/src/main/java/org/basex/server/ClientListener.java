@@ -4,6 +4,7 @@ import static org.basex.core.Text.*;
 
 import java.io.*;
 import java.net.*;
+import java.nio.channels.*;
 import java.util.*;
 
 import org.basex.*;
@@ -25,9 +26,7 @@ import org.basex.util.list.*;
  * @author Andreas Weiler
  * @author Christian Gruen
  */
-public final class ClientListener extends Thread implements ClientInfo {
-  /** Timer for authentication time out. */
-  public final Timer timeout = new Timer();
+public final class ClientListener implements Runnable, ClientInfo {
   /** Timestamp of last interaction. */
   public long last;
 
@@ -48,12 +47,14 @@ public final class ClientListener extends Thread implements ClientInfo {
   private PrintOutput out;
   /** Current command. */
   private Command command;
+  /** Nonce for digest authentication. */
+  private String nonce;
   /** Query id counter. */
   private int id;
   /** Indicates if the server thread is running. */
   private volatile boolean authenticated;
   /** Indicates if the server has been closed. */
-  private boolean closed;
+  private volatile boolean closed;
 
   /**
    * Constructor.
@@ -66,122 +67,170 @@ public final class ClientListener extends Thread implements ClientInfo {
     this.socket = socket;
     this.server = server;
     last = System.currentTimeMillis();
-    setDaemon(true);
     // register the info view for trace output
     context.setExternal((QueryTracer) info -> true);
   }
 
   @Override
   public void run() {
-    if(!authenticate()) return;
+    if(challenge() && login()) {
+      while(process());
+    }
+  }
 
+  /**
+   * Processes the next client request and all requests that have already been received.
+   * Called if the client has sent new data (see {@link ClientSelector}).
+   * @return {@code true} if the session is still open
+   */
+  boolean serve() {
+    if(authenticated) {
+      if(!process()) return false;
+    } else if(!login()) {
+      return false;
+    }
     try {
-      while(authenticated) {
-        command = null;
-        String cmd;
-        final ServerCmd sc;
-        try {
-          final int b = in.read();
-          if(b == -1) {
-            // end of stream: exit session
-            close();
-            break;
-          }
-
-          last = System.currentTimeMillis();
-          perf.ns();
-          sc = ServerCmd.get(b);
-          cmd = null;
-          if(sc == ServerCmd.CREATE) {
-            create();
-          } else if(sc == ServerCmd.ADD) {
-            add();
-          } else if(sc == ServerCmd.PUT) {
-            put();
-          } else if(sc == ServerCmd.PUTBINARY) {
-            putBinary();
-          } else if(sc != ServerCmd.COMMAND) {
-            query(sc);
-          } else {
-            // database command
-            cmd = new ByteList().add(b).add(in.readBytes()).toString();
-          }
-        } catch(final IOException ex) {
-          // this exception may be thrown if a session is stopped
-          Util.debug(ex);
-          close();
-          break;
-        }
-        if(sc != ServerCmd.COMMAND) continue;
-
-        // parse input and create command instance
-        try {
-          command = CommandParser.get(cmd, context).parseSingle();
-          log(LogType.REQUEST, command.toString(true));
-        } catch(final QueryException ex) {
-          // log invalid command
-          final String msg = ex.getMessage();
-          log(LogType.REQUEST, cmd);
-          log(LogType.ERROR, msg);
-          // send 0 to mark end of potential result
-          out.write(0);
-          // send {INFO}0
-          out.print(msg);
+      while(in.available() > 0) {
+        if(!process()) return false;
+      }
+    } catch(final IOException ex) {
+      Util.debug(ex);
+      close();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Processes a single client request.
+   * @return {@code true} if the session is still open
+   */
+  private boolean process() {
+    command = null;
+    try {
+      String cmd;
+      final ServerCmd sc;
+      try {
+        int b = in.read();
+        if(b == ServerCmd.TAG.code) {
+          // send {ID}0, followed by the response to the tagged request
+          out.print(in.readString());
           out.write(0);
-          // send 1 to mark error
-          send(false);
-          continue;
+          b = in.read();
         }
-
-        // execute command and send {RESULT}
-        boolean ok = true;
-        String info;
-        try {
-          // run command
-          command.execute(context, new ServerOutput(out));
-          info = command.info();
-        } catch(final BaseXException ex) {
-          Util.debug(ex);
-          ok = false;
-          info = ex.getMessage();
+        if(b == -1) {
+          // end of stream: exit session
+          close();
+          return false;
         }
 
-        // send 0 to mark end of result
+        last = System.currentTimeMillis();
+        perf.ns();
+        sc = ServerCmd.get(b);
+        cmd = null;
+        if(sc == ServerCmd.CREATE) {
+          create();
+        } else if(sc == ServerCmd.ADD) {
+          add();
+        } else if(sc == ServerCmd.PUT) {
+          put();
+        } else if(sc == ServerCmd.PUTBINARY) {
+          putBinary();
+        } else if(sc != ServerCmd.COMMAND) {
+          query(sc);
+        } else {
+          // database command
+          cmd = new ByteList().add(b).add(in.readBytes()).toString();
+        }
+      } catch(final IOException ex) {
+        // this exception may be thrown if a session is stopped
+        Util.debug(ex);
+        close();
+        return false;
+      }
+      if(sc != ServerCmd.COMMAND) return true;
+
+      // parse input and create command instance
+      try {
+        command = CommandParser.get(cmd, context).parseSingle();
+        log(LogType.REQUEST, command.toString(true));
+      } catch(final QueryException ex) {
+        // log invalid command
+        final String msg = ex.getMessage();
+        log(LogType.REQUEST, cmd);
+        log(LogType.ERROR, msg);
+        // send 0 to mark end of potential result
         out.write(0);
-        // send info
-        info(info, ok);
+        // send {INFO}0
+        out.print(msg);
+        out.write(0);
+        // send 1 to mark error
+        send(false);
+        return true;
+      }
 
-        // stop console
-        if(command instanceof Exit) {
-          command = null;
-          close();
-        }
+      // execute command and send {RESULT}
+      boolean ok = true;
+      String info;
+      try {
+        // run command
+        command.execute(context, new ServerOutput(out));
+        info = command.info();
+      } catch(final BaseXException ex) {
+        Util.debug(ex);
+        ok = false;
+        info = ex.getMessage();
+      }
+
+      // send 0 to mark end of result
+      out.write(0);
+      // send info
+      info(info, ok);
+
+      // stop console
+      if(command instanceof Exit) {
+        command = null;
+        close();
+        return false;
       }
     } catch(final IOException ex) {
       log(LogType.ERROR, Util.message(ex));
       command = null;
       close();
+      return false;
     }
     command = null;
+    return true;
   }
 
   /**
-   * Initializes a session via digest authentication.
+   * Starts digest authentication by sending the realm and a nonce to the client.
    * @return success flag
    */
-  private boolean authenticate() {
-    boolean ok = false;
+  boolean challenge() {
     try {
-      final String nonce = Long.toString(System.nanoTime());
-      final byte[] address = socket.getInetAddress().getAddress();
-
+      nonce = Long.toString(System.nanoTime());
       // send {REALM:TIMESTAMP}0
       out = PrintOutput.get(socket.getOutputStream());
       out.print(Prop.NAME + ':' + nonce);
       send(true);
-
-      // evaluate login data
       in = BufferInput.get(socket.getInputStream());
+      return true;
+    } catch(final IOException ex) {
+      Util.debug(ex);
+      server.remove(this);
+      return false;
+    }
+  }
+
+  /**
+   * Evaluates the login data sent by the client.
+   * @return success flag
+   */
+  private boolean login() {
+    boolean ok = false;
+    try {
+      final byte[] address = socket.getInetAddress().getAddress();
       // receive {USER}0{DIGEST-HASH}0
       final String name = in.readString(), hash = in.readString();
       final User user = context.users.get(name);
@@ -228,6 +277,8 @@ public final class ClientListener extends Thread implements ClientInfo {
       do Performance.sleep(1); while(command != null);
     }
     context.sessions.remove(this);
+    // discard compiled queries
+    for(final ServerQuery qp : queries.values()) qp.close();
 
     try {
       if(context.user() != null) Close.close(context);
@@ -238,6 +289,14 @@ public final class ClientListener extends Thread implements ClientInfo {
     }
   }
 
+  /**
+   * Returns the socket channel of this session.
+   * @return channel (can be {@code null})
+   */
+  SocketChannel channel() {
+    return socket.getChannel();
+  }
+
   /**
    * Returns the context of this session.
    * @return user reference
@@ -357,6 +416,8 @@ public final class ClientListener extends Thread implements ClientInfo {
   private void query(final ServerCmd sc) throws IOException {
     // iterator argument (query or identifier)
     String arg = in.readString();
+    // chunked output for streamed results
+    final ChunkOutput chunks = sc == ServerCmd.STREAM ? new ChunkOutput(out) : null;
 
     String error = null;
     try {
@@ -397,6 +458,9 @@ public final class ClientListener extends Thread implements ClientInfo {
           qp.execute(out, false, true, false);
         } else if(sc == ServerCmd.FULL) {
           qp.execute(out, true, true, true);
+        } else if(sc == ServerCmd.STREAM) {
+          qp.execute(chunks, false, false, false);
+          chunks.close();
         } else if(sc == ServerCmd.INFO) {
           out.print(qp.info());
         } else if(sc == ServerCmd.OPTIONS) {
@@ -404,6 +468,7 @@ public final class ClientListener extends Thread implements ClientInfo {
         } else if(sc == ServerCmd.UPDATING) {
           out.print(Boolean.toString(qp.updating()));
         } else if(sc == ServerCmd.CLOSE) {
+          qp.close();
           queries.remove(arg);
         } else if(sc == ServerCmd.NEXT) {
           throw new Exception("Protocol for query iteration is out-of-date.");
@@ -421,9 +486,12 @@ public final class ClientListener extends Thread implements ClientInfo {
       error = ex instanceof RuntimeException ? Util.bug(ex) : Util.message(ex);
       log(LogType.REQUEST, sc + "[" + arg + ']');
       log(LogType.ERROR, error);
-      queries.remove(arg);
+      final ServerQuery qp = queries.remove(arg);
+      if(qp != null) qp.close();
     }
     if(error != null) {
+      // terminate chunked output
+      if(chunks != null) chunks.close();
       // send 0 as end marker, 1 as error flag, and {MSG}0
       out.write(0);
       out.write(1);
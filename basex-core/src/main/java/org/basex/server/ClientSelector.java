@@ -0,0 +1,146 @@
+package org.basex.server;
+
+import java.io.*;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.basex.util.*;
+
+/**
+ * Server front end for a large number of mostly idle client sessions.
+ * A single selector thread waits for new requests of all idle sessions. Sessions with pending
+ * requests are dispatched to a pool of worker threads, which process the requests with the
+ * existing blocking protocol and hand the sessions back to the selector.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class ClientSelector implements Runnable {
+  /** Sessions to be registered. */
+  private final Queue<ClientListener> idle = new ConcurrentLinkedQueue<>();
+  /** Worker threads. */
+  private final ExecutorService workers = Executors.newCachedThreadPool(r -> {
+    final Thread thread = new Thread(r, "ClientWorker");
+    thread.setDaemon(true);
+    return thread;
+  });
+  /** Selector. */
+  private final Selector selector;
+  /** Closed flag. */
+  private volatile boolean closed;
+
+  /**
+   * Constructor.
+   * @throws IOException I/O exception
+   */
+  public ClientSelector() throws IOException {
+    selector = Selector.open();
+  }
+
+  /**
+   * Adds a new session: sends the authentication challenge and waits for the login data.
+   * @param client client session (must be bound to a socket channel)
+   */
+  public void add(final ClientListener client) {
+    workers.execute(() -> {
+      if(client.challenge()) {
+        idle(client);
+      } else {
+        client.close();
+      }
+    });
+  }
+
+  @Override
+  public void run() {
+    final ArrayList<ClientListener> ready = new ArrayList<>();
+    while(!closed) {
+      try {
+        register();
+        selector.select();
+
+        // cancel keys of sessions with pending requests
+        for(Set<SelectionKey> keys = selector.selectedKeys(); !keys.isEmpty();
+            selector.selectNow()) {
+          for(final SelectionKey key : keys) {
+            key.cancel();
+            ready.add((ClientListener) key.attachment());
+          }
+          keys.clear();
+        }
+        // channels have been deregistered: dispatch requests to workers
+        for(final ClientListener client : ready) {
+          try {
+            client.channel().configureBlocking(true);
+            workers.execute(() -> {
+              if(client.serve()) idle(client);
+              else client.close();
+            });
+          } catch(final IOException | RejectedExecutionException ex) {
+            // workers may have been shut down in the meantime
+            Util.debug(ex);
+            client.close();
+          }
+        }
+        ready.clear();
+      } catch(final IOException ex) {
+        // keep serving the registered sessions
+        Util.errln(ex);
+      }
+    }
+
+    // close selector and all sessions that are waiting for requests
+    for(final SelectionKey key : selector.keys()) ((ClientListener) key.attachment()).close();
+    try {
+      selector.close();
+    } catch(final IOException ex) {
+      Util.debug(ex);
+    }
+    closeIdle();
+  }
+
+  /**
+   * Stops the selector thread and the workers. Sessions waiting for requests are closed.
+   */
+  public void close() {
+    closed = true;
+    selector.wakeup();
+    workers.shutdown();
+  }
+
+  /**
+   * Hands a session back to the selector thread.
+   * @param client client session
+   */
+  private void idle(final ClientListener client) {
+    idle.add(client);
+    // selector thread has been stopped: close session
+    if(selector.isOpen()) selector.wakeup();
+    else closeIdle();
+  }
+
+  /**
+   * Closes sessions that have not been registered yet.
+   */
+  private void closeIdle() {
+    for(ClientListener client; (client = idle.poll()) != null;) client.close();
+  }
+
+  /**
+   * Registers idle sessions.
+   */
+  private void register() {
+    for(ClientListener client; (client = idle.poll()) != null;) {
+      try {
+        final SocketChannel channel = client.channel();
+        channel.configureBlocking(false);
+        channel.register(selector, SelectionKey.OP_READ, client);
+      } catch(final IOException ex) {
+        // channel may have been closed in the meantime
+        Util.debug(ex);
+        client.close();
+      }
+    }
+  }
+}
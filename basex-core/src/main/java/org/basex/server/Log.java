@@ -3,13 +3,16 @@ package org.basex.server;
 import static org.basex.util.Token.*;
 
 import java.io.*;
-import java.util.*;
+import java.time.*;
+import java.time.format.*;
 
 import org.basex.core.*;
+import org.basex.core.StaticOptions.*;
 import org.basex.core.users.*;
 import org.basex.io.*;
 import org.basex.query.*;
 import org.basex.util.*;
+import org.basex.util.list.*;
 
 /**
  * This class writes daily log files to disk.
@@ -23,6 +26,10 @@ import org.basex.util.*;
  *   <li><b>Performance</b>: Measured time in milliseconds</li>
  * </ul>
  *
+ * If {@link StaticOptions#LOGFORMAT} is set to JSON, each entry is written as JSON object in a
+ * single line. If {@link StaticOptions#LOGBUFFER} is assigned, entries are written by a
+ * separate thread (see {@link LogBuffer}).
+ *
  * @author BaseX Team 2005-22, BSD License
  * @author Christian Gruen
  */
@@ -38,11 +45,18 @@ public final class Log implements QueryTracer {
     /** OK.      */ OK
   }
 
+  /** Time format. */
+  private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+  /** Date format. */
+  private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
   /** Static options. */
   private final StaticOptions sopts;
 
   /** Current log file. */
   private LogFile file;
+  /** Log buffer ({@code null} if entries are written synchronously). */
+  private volatile LogBuffer buffer;
 
   /**
    * Constructor.
@@ -58,6 +72,10 @@ public final class Log implements QueryTracer {
    * @return log file, or {@code null} if it does not exist
    */
   public LogFile file(final String name) {
+    // write buffered entries
+    final LogBuffer lb = buffer;
+    if(lb != null) lb.flush();
+
     LogFile lf = file;
     if(lf == null || !lf.valid(name)) lf = new LogFile(name, dir());
     return lf.exists() ? lf : null;
@@ -123,36 +141,110 @@ public final class Log implements QueryTracer {
     // check if logging is disabled
     if(!sopts.get(StaticOptions.LOG)) return;
 
-    // construct log text
-    final Date date = new Date();
-    final int ml = sopts.get(StaticOptions.LOGMSGMAXLEN);
+    final long time = System.currentTimeMillis();
+    final byte[] line = line(time, type, info != null ? chop(normalize(token(info)),
+        sopts.get(StaticOptions.LOGMSGMAXLEN)) : EMPTY, perf, address, user);
+
+    final LogBuffer lb = buffer();
+    if(lb == null || !lb.add(time, line)) {
+      try(Batch batch = batch()) {
+        batch.add(time, line);
+      }
+    }
+  }
+
+  /**
+   * Returns the log buffer.
+   * @return log buffer, or {@code null} if entries are to be written synchronously
+   */
+  private LogBuffer buffer() {
+    LogBuffer lb = buffer;
+    if(lb == null) {
+      final int size = sopts.get(StaticOptions.LOGBUFFER);
+      if(size > 0) {
+        synchronized(this) {
+          lb = buffer;
+          if(lb == null) {
+            lb = new LogBuffer(this, size, sopts.get(StaticOptions.LOGOVERFLOW) ==
+                LogOverflow.DROP);
+            buffer = lb;
+          }
+        }
+      }
+    }
+    return lb;
+  }
+
+  /**
+   * Creates a log entry.
+   * @param time timestamp
+   * @param type type
+   * @param info info string
+   * @param perf performance object (can be {@code null})
+   * @param address address string ({@code SERVER} is written if value is {@code null})
+   * @param user user ({@code admin} is written if value is {@code null})
+   * @return line
+   */
+  private byte[] line(final long time, final String type, final byte[] info,
+      final Performance perf, final String address, final String user) {
+
+    final String tm = TIME.format(Instant.ofEpochMilli(time).atZone(ZoneId.systemDefault()));
+    final String ad = address != null ? address.replaceFirst("^/", "") : SERVER;
+    final String us = user != null ? user : UserText.ADMIN;
     final TokenBuilder tb = new TokenBuilder();
-    tb.add(DateTime.format(date, DateTime.TIME));
-    tb.add('\t').add(address != null ? address.replaceFirst("^/", "") : SERVER);
-    tb.add('\t').add(user != null ? user : UserText.ADMIN);
-    tb.add('\t').add(type);
-    tb.add('\t').add(info != null ? chop(normalize(token(info)), ml) : EMPTY);
-    if(perf != null) tb.add('\t').add(perf);
-    tb.add(Prop.NL);
+    if(sopts.get(StaticOptions.LOGFORMAT) == LogFormat.JSON) {
+      tb.add("{\"time\":\"").add(tm);
+      tb.add("\",\"address\":\"").add(json(token(ad)));
+      tb.add("\",\"user\":\"").add(json(token(us)));
+      tb.add("\",\"type\":\"").add(json(token(type)));
+      tb.add("\",\"message\":\"").add(json(info)).add('"');
+      if(perf != null) tb.add(",\"ms\":").add(Double.toString(Performance.ms(perf.ns(), 1)));
+      tb.add('}');
+    } else {
+      tb.add(tm).add('\t').add(ad).add('\t').add(us).add('\t').add(type).add('\t').add(info);
+      if(perf != null) tb.add('\t').add(perf);
+    }
+    return tb.add(Prop.NL).finish();
+  }
 
-    try {
-      synchronized(sopts) {
-        // create new log file and write log entry
-        final String name = DateTime.format(date, DateTime.DATE);
-        if(file != null && !file.valid(name)) close();
-        if(file == null) file = LogFile.create(name, dir());
-        // write log entry
-        file.write(tb.finish());
+  /**
+   * Escapes a string for JSON output.
+   * @param token token
+   * @return escaped token
+   */
+  private static byte[] json(final byte[] token) {
+    final TokenBuilder tb = new TokenBuilder(token.length);
+    for(final byte b : token) {
+      if(b == '"' || b == '\\') {
+        tb.addByte((byte) '\\').addByte(b);
+      } else if(b >= 0 && b < ' ') {
+        tb.add("\\u00").addByte(HEX_TABLE[b >> 4]).addByte(HEX_TABLE[b & 0xF]);
+      } else {
+        tb.addByte(b);
       }
-    } catch(final IOException ex) {
-      Util.stack(ex);
     }
+    return tb.finish();
+  }
+
+  /**
+   * Returns a new batch for writing entries.
+   * @return batch
+   */
+  Batch batch() {
+    return new Batch();
   }
 
   /**
    * Closes the log file.
    */
   public void close() {
+    // write buffered entries and stop writer thread
+    final LogBuffer lb;
+    synchronized(this) {
+      lb = buffer;
+      buffer = null;
+    }
+    if(lb != null) lb.close();
     try {
       synchronized(sopts) {
         if(file != null) {
@@ -186,4 +278,62 @@ public final class Log implements QueryTracer {
     writeServer(LogType.TRACE, info);
     return false;
   }
+
+  /** Batch of log entries, which will be written when the batch is closed. */
+  final class Batch implements AutoCloseable {
+    /** Entries of the current log file. */
+    private final ByteList lines = new ByteList();
+    /** Name of the current log file. */
+    private String name;
+
+    /**
+     * Adds an entry.
+     * @param time timestamp
+     * @param line line
+     */
+    void add(final long time, final byte[] line) {
+      final String nm = DATE.format(Instant.ofEpochMilli(time).atZone(ZoneId.systemDefault()));
+      if(!nm.equals(name)) {
+        write();
+        name = nm;
+      }
+      lines.add(line);
+    }
+
+    /**
+     * Adds an entry for discarded entries.
+     * @param count number of discarded entries
+     */
+    void dropped(final long count) {
+      final long time = System.currentTimeMillis();
+      add(time, line(time, LogType.ERROR.toString(), token(count + " log entries discarded"),
+          null, null, null));
+    }
+
+    @Override
+    public void close() {
+      write();
+    }
+
+    /**
+     * Writes the entries of the current log file.
+     */
+    private void write() {
+      if(lines.isEmpty()) return;
+      try {
+        synchronized(sopts) {
+          // create new log file and write log entries
+          if(file != null && !file.valid(name)) {
+            file.close();
+            file = null;
+          }
+          if(file == null) file = LogFile.create(name, dir());
+          file.write(lines.toArray());
+        }
+      } catch(final IOException ex) {
+        Util.stack(ex);
+      }
+      lines.reset();
+    }
+  }
 }
@@ -0,0 +1,174 @@
+package org.basex.server;
+
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+
+/**
+ * Bounded buffer for log entries, which are written to disk by a separate thread.
+ * Entries are added to a lock-free ring buffer by the requesting threads. The writer thread
+ * removes all available entries and writes them in a single batch.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+final class LogBuffer implements Runnable {
+  /** Maximum time (nanoseconds) the writer thread waits for new entries. */
+  private static final long WAIT = 10000000;
+
+  /** Log. */
+  private final Log log;
+  /** Discard entries if the buffer is full (instead of waiting). */
+  private final boolean drop;
+  /** Writer thread. */
+  private final Thread writer;
+  /** Bit mask for computing the index of a position. */
+  private final int mask;
+  /** Timestamps of the entries. */
+  private final long[] times;
+  /** Lines of the entries. */
+  private final byte[][] lines;
+  /** Sequence numbers of the slots (for publishing added and removed entries). */
+  private final AtomicLongArray sequences;
+  /** Position of the next entry to be added. */
+  private final AtomicLong tail = new AtomicLong();
+  /** Number of discarded entries. */
+  private final AtomicLong dropped = new AtomicLong();
+  /** Position of the next entry to be written. */
+  private volatile long head;
+  /** Indicates if the writer thread is waiting for new entries. */
+  private volatile boolean waiting;
+  /** Indicates if the buffer has been closed. */
+  private volatile boolean closed;
+
+  /**
+   * Constructor.
+   * @param log log
+   * @param size minimum number of entries
+   * @param drop discard entries if the buffer is full
+   */
+  LogBuffer(final Log log, final int size, final boolean drop) {
+    this.log = log;
+    this.drop = drop;
+    final int capacity = Integer.highestOneBit(Math.max(2, size - 1)) << 1;
+    mask = capacity - 1;
+    times = new long[capacity];
+    lines = new byte[capacity][];
+    sequences = new AtomicLongArray(capacity);
+    for(int s = 0; s < capacity; s++) sequences.set(s, s);
+
+    writer = new Thread(this, "LogWriter");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * Adds an entry.
+   * @param time timestamp
+   * @param line line to be written
+   * @return {@code false} if the buffer has been closed
+   */
+  boolean add(final long time, final byte[] line) {
+    while(!closed) {
+      if(offer(time, line)) {
+        if(waiting) LockSupport.unpark(writer);
+        return true;
+      }
+      // buffer is full: discard entry or wait for writer thread
+      if(drop) {
+        dropped.incrementAndGet();
+        return true;
+      }
+      LockSupport.unpark(writer);
+      LockSupport.parkNanos(100000);
+    }
+    return false;
+  }
+
+  /**
+   * Waits until all entries added so far have been written.
+   */
+  void flush() {
+    final long target = tail.get();
+    while(head < target && writer.isAlive()) {
+      LockSupport.unpark(writer);
+      LockSupport.parkNanos(100000);
+    }
+  }
+
+  /**
+   * Writes all pending entries and stops the writer thread.
+   */
+  void close() {
+    closed = true;
+    LockSupport.unpark(writer);
+    try {
+      writer.join();
+    } catch(final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    // write entries that may have been added after the writer thread was stopped
+    drain();
+  }
+
+  @Override
+  public void run() {
+    while(true) {
+      final boolean stop = closed;
+      if(!drain() && !stop) {
+        waiting = true;
+        if(head == tail.get() && !closed) LockSupport.parkNanos(this, WAIT);
+        waiting = false;
+      }
+      if(stop && head == tail.get()) break;
+    }
+  }
+
+  /**
+   * Writes all available entries in a single batch.
+   * @return {@code true} if entries were written
+   */
+  private boolean drain() {
+    final long start = head;
+    long pos = start;
+    try(Log.Batch batch = log.batch()) {
+      for(int i; sequences.get(i = (int) pos & mask) == pos + 1; pos++) {
+        batch.add(times[i], lines[i]);
+        lines[i] = null;
+        sequences.lazySet(i, pos + mask + 1);
+        head = pos + 1;
+      }
+      final long d = dropped.getAndSet(0);
+      if(d != 0) batch.dropped(d);
+    }
+    return pos != start;
+  }
+
+  /**
+   * Tries to add an entry to the ring buffer.
+   * @param time timestamp
+   * @param line line to be written
+   * @return success flag
+   */
+  private boolean offer(final long time, final byte[] line) {
+    long pos = tail.get();
+    while(true) {
+      final int i = (int) pos & mask;
+      final long diff = sequences.get(i) - pos;
+      if(diff == 0) {
+        if(tail.compareAndSet(pos, pos + 1)) {
+          times[i] = time;
+          lines[i] = line;
+          // publish entry
+          sequences.set(i, pos + 1);
+          return true;
+        }
+        pos = tail.get();
+      } else if(diff < 0) {
+        // buffer is full
+        return false;
+      } else {
+        pos = tail.get();
+      }
+    }
+  }
+}
@@ -21,4 +21,120 @@ public final class LogEntry {
   public BigDecimal ms;
   /** Message. */
   public String message;
+
+  /**
+   * Parses a line of a log file.
+   * @param line line (text or JSON format)
+   * @return log entry
+   */
+  public static LogEntry get(final String line) {
+    final LogEntry entry = new LogEntry();
+    if(line.startsWith("{") && entry.json(line)) return entry;
+
+    final String[] cols = line.split("\t");
+    if(cols.length > 2) {
+      entry.time = cols[0];
+      entry.address = cols[1];
+      entry.user = cols[2];
+      entry.type = cols.length > 3 ? cols[3] : "";
+      entry.message = cols.length > 4 ? cols[4] : "";
+      entry.ms = BigDecimal.ZERO;
+      if(cols.length > 5) {
+        // skip errors caused by erroneous input
+        final int i = cols[5].indexOf(" ms");
+        if(i > -1) entry.ms = new BigDecimal(cols[5].substring(0, i));
+      }
+    } else {
+      // legacy format
+      entry.message = line;
+    }
+    return entry;
+  }
+
+  /**
+   * Parses a log entry in the JSON format (a flat object with string and number values).
+   * @param line line
+   * @return success flag (if {@code false}, the line will be parsed as text)
+   */
+  private boolean json(final String line) {
+    time = "";
+    address = "";
+    user = "";
+    type = "";
+    message = "";
+    ms = BigDecimal.ZERO;
+
+    final int ll = line.length();
+    int p = 1;
+    final StringBuilder sb = new StringBuilder();
+    try {
+      while(true) {
+        while(p < ll && line.charAt(p) <= ' ') p++;
+        if(line.charAt(p) == '}') return true;
+        if(line.charAt(p) == ',') p++;
+        while(line.charAt(p) <= ' ') p++;
+
+        // key and value
+        if(line.charAt(p) != '"') return false;
+        p = string(line, p, sb);
+        final String key = sb.toString();
+        while(line.charAt(p) <= ' ') p++;
+        if(line.charAt(p++) != ':') return false;
+        while(line.charAt(p) <= ' ') p++;
+        if(line.charAt(p) == '"') {
+          p = string(line, p, sb);
+        } else {
+          sb.setLength(0);
+          for(char ch; (ch = line.charAt(p)) != ',' && ch != '}'; p++) {
+            if(ch > ' ') sb.append(ch);
+          }
+        }
+        final String value = sb.toString();
+        switch(key) {
+          case "time":    time = value; break;
+          case "address": address = value; break;
+          case "user":    user = value; break;
+          case "type":    type = value; break;
+          case "message": message = value; break;
+          case "ms":      ms = new BigDecimal(value); break;
+          default:
+        }
+      }
+    } catch(final StringIndexOutOfBoundsException | NumberFormatException ex) {
+      // skip errors caused by erroneous input
+      return false;
+    }
+  }
+
+  /**
+   * Parses a JSON string.
+   * @param line line
+   * @param start position of the opening quote
+   * @param sb string builder (will be reset)
+   * @return position after the closing quote
+   */
+  private static int string(final String line, final int start, final StringBuilder sb) {
+    sb.setLength(0);
+    int p = start + 1;
+    for(char ch; (ch = line.charAt(p++)) != '"';) {
+      if(ch == '\\') {
+        ch = line.charAt(p++);
+        switch(ch) {
+          case 'n': sb.append('\n'); break;
+          case 'r': sb.append('\r'); break;
+          case 't': sb.append('\t'); break;
+          case 'b': sb.append('\b'); break;
+          case 'f': sb.append('\f'); break;
+          case 'u':
+            sb.append((char) Integer.parseInt(line.substring(p, p + 4), 16));
+            p += 4;
+            break;
+          default: sb.append(ch);
+        }
+      } else {
+        sb.append(ch);
+      }
+    }
+    return p;
+  }
 }
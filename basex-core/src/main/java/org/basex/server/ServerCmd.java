@@ -33,6 +33,10 @@ public enum ServerCmd {
   PUTBINARY(13),
   /** Code for binding a context value: {id}0{val}0{type}0. */
   CONTEXT(14),
+  /** Code for assigning a correlation id to the next request: {id}0. */
+  TAG(15),
+  /** Code for executing the query and sending the result in chunks: {id}0. */
+  STREAM(16),
   /** Code for returning the update flag: {id}0. */
   UPDATING(30),
   /** Code for executing a query and returning all information relevant for XQJ: {id}0. */
@@ -29,6 +29,10 @@ public final class ServerQuery extends Job {
 
   /** Query processor. */
   private QueryProcessor qp;
+  /** Compiled query, kept for subsequent evaluations (can be {@code null}). */
+  private QueryCache.Plan plan;
+  /** Indicates if the query will be prepared (values of external variables are not inlined). */
+  private boolean prepare = true;
   /** Parsing flag. */
   private boolean parsed;
   /** Query info. */
@@ -153,10 +157,12 @@ public final class ServerQuery extends Job {
       Util.debug(ex);
       throw new BaseXException(BASEX_OVERFLOW.message);
     } finally {
-      // close processor and unregisters the process
+      // close processor (keep compiled query) and unregister the process
       if(qp != null) {
         if(parsed) {
-          qp.close();
+          plan = qp.park();
+          // values are inlined if they allow index rewrites: do not prepare the query again
+          prepare = qp.prepared();
           qp.unregister(ctx);
           parsed = false;
         }
@@ -166,6 +172,16 @@ public final class ServerQuery extends Job {
     }
   }
 
+  /**
+   * Closes the query and discards the compiled query (if it is not currently evaluated).
+   */
+  public void close() {
+    if(plan != null) {
+      ctx.queries.remove(plan);
+      plan = null;
+    }
+  }
+
   /**
    * Generates a query plan.
    * @throws QueryIOException query I/O exception
@@ -200,7 +216,8 @@ public final class ServerQuery extends Job {
    */
   private QueryProcessor qp() {
     if(parsed || qp == null) {
-      qp = pushJob(new QueryProcessor(query, ctx));
+      final QueryProcessor proc = new QueryProcessor(query, ctx);
+      qp = pushJob(prepare ? proc.prepare(plan) : proc);
       parsed = false;
     }
     return qp;
@@ -6,6 +6,7 @@ import java.io.*;
 import java.net.*;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 import javax.net.ssl.*;
 
@@ -144,6 +145,49 @@ public final class Util {
     }
   }
 
+  /**
+   * Waits for the result of a task that has been executed in a separate thread.
+   * I/O exceptions, runtime exceptions and errors raised by the task are passed on;
+   * other exceptions are wrapped into I/O exceptions.
+   * @param <T> result type
+   * @param future future
+   * @return result
+   * @throws IOException I/O exception
+   */
+  public static <T> T get(final Future<T> future) throws IOException {
+    final ArrayList<Future<T>> futures = new ArrayList<>(1);
+    futures.add(future);
+    return get(futures).get(0);
+  }
+
+  /**
+   * Waits for the results of tasks that have been executed in separate threads.
+   * If tasks fail, the first exception is passed on after all tasks have finished
+   * (see {@link #get(Future)}).
+   * @param <T> result type
+   * @param futures futures
+   * @return results
+   * @throws IOException I/O exception
+   */
+  public static <T> ArrayList<T> get(final List<Future<T>> futures) throws IOException {
+    final ArrayList<T> results = new ArrayList<>(futures.size());
+    Throwable error = null;
+    for(final Future<T> future : futures) {
+      try {
+        results.add(future.get());
+      } catch(final ExecutionException ex) {
+        if(error == null) error = ex.getCause();
+      } catch(final InterruptedException ex) {
+        if(error == null) error = ex;
+      }
+    }
+    if(error == null) return results;
+    if(error instanceof IOException) throw (IOException) error;
+    if(error instanceof RuntimeException) throw (RuntimeException) error;
+    if(error instanceof Error) throw (Error) error;
+    throw new IOException(error);
+  }
+
   /**
    * Prints a string to standard error, followed by a newline.
    * @param object error object
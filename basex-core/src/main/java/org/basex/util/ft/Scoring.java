@@ -11,6 +11,10 @@ import static java.lang.StrictMath.*;
 public final class Scoring {
   /** Logarithmic base for calculating the score value. */
   private static final double LOG = Math.E - 1;
+  /** BM25: term frequency saturation. */
+  private static final double BM25_K1 = 1.2;
+  /** BM25: length normalization. */
+  private static final double BM25_B = 0.75;
 
   /** Private constructor. */
   private Scoring() { }
@@ -45,6 +49,31 @@ public final class Scoring {
     return sum / count;
   }
 
+  /**
+   * Calculates the BM25 score of a single query token for a text node.
+   * @param tf number of occurrences of the token in the text
+   * @param df number of texts containing the token
+   * @param nodes total number of texts
+   * @param length text length
+   * @param avg average text length
+   * @return score
+   */
+  public static double bm25(final int tf, final int df, final int nodes, final double length,
+      final double avg) {
+    final double idf = log(1 + (nodes - df + 0.5) / (df + 0.5));
+    final double norm = avg > 0 ? 1 - BM25_B + BM25_B * length / avg : 1;
+    return idf * tf * (BM25_K1 + 1) / (tf + BM25_K1 * norm);
+  }
+
+  /**
+   * Normalizes an unbounded score value to the range of {@code 0} and {@code 1}.
+   * @param value score value
+   * @return normalized score
+   */
+  public static double normalize(final double value) {
+    return value / (value + 1);
+  }
+
   /**
    * Calculates the score for a text node.
    * Used if no index score is available.
@@ -128,6 +128,39 @@ public final class AddDeleteTest extends SandboxTest {
     assertEquals(NFLDR, docs());
   }
 
+  /**
+   * Creates databases from a folder and an archive with parallel parsing.
+   */
+  @Test public void parallelParse() {
+    final String query = "for $d in db:get('" + NAME + "') " +
+        "order by db:path($d) return (db:path($d), serialize($d))";
+    for(final String input : new String[] { FLDR, ZIPFILE }) {
+      execute(new CreateDB(NAME, input));
+      final String expected = query(query);
+      try {
+        set(MainOptions.PARALLELPARSE, 4);
+        execute(new CreateDB(NAME, input));
+        assertEquals(expected, query(query));
+        execute(new Add("copy", input));
+        assertEquals(docs() / 2, context.data().resources.docs("copy/").size());
+      } finally {
+        set(MainOptions.PARALLELPARSE, 1);
+      }
+    }
+
+    // skip corrupt files
+    try {
+      set(MainOptions.PARALLELPARSE, 4);
+      set(MainOptions.SKIPCORRUPT, true);
+      execute(new CreateDB(NAME, DIR));
+      assertTrue(context.data().resources.docs("corrupt.xml").isEmpty());
+      assertFalse(context.data().resources.docs("input.xml").isEmpty());
+    } finally {
+      set(MainOptions.PARALLELPARSE, 1);
+      set(MainOptions.SKIPCORRUPT, false);
+    }
+  }
+
   /**
    * Adds/deletes with target.
    */
@@ -135,7 +135,7 @@ public final class CommandLockingTest extends SandboxTest {
     ckDBs(new XQuery(PARSE_XML_FRAGMENT.args(" <foo/>")), true, NONE);
 
     ckDBs(new XQuery(PUT.args(" <foo/>", NAME)), true, NONE);
-    ckDBs(new XQuery(PUT.args(" .", NAME)), true, CTX_LIST);
+    ckDBs(new XQuery(PUT.args(" .", NAME)), CTX_LIST, NONE);
 
     ckDBs(new XQuery(ROOT.args()), false, CTX_LIST);
     ckDBs(new XQuery(ROOT.args(" .")), false, CTX_LIST);
@@ -258,6 +258,28 @@ public final class CommandLockingTest extends SandboxTest {
     ckDBs(new XQuery(_DB_CONTENT_TYPE.args(NAME, FILE)), false, NAME_LIST);
   }
 
+  /** Test updating queries with databases that are only read. */
+  @Test public void updatingReads() {
+    final LockList name2 = new LockList().add(NAME2), both = new LockList().add(NAME).add(NAME2);
+    final String get = _DB_GET.args(NAME2, FILE);
+    ckDBs(new XQuery(_DB_PUT.args(NAME, " " + get, FILE)), name2, NAME_LIST);
+    ckDBs(new XQuery(_DB_PUT.args(NAME, " " + get + " update { delete node * }", FILE)),
+        name2, NAME_LIST);
+    ckDBs(new XQuery(_DB_DROP.args(NAME) + ',' + _DB_PUT.args(NAME2, " " + get, FILE)),
+        NONE, both);
+
+    // targets of node updates are not known statically
+    ckDBs(new XQuery(_DB_PUT.args(NAME, "<a/>", FILE) + ", delete node " + get + "/*"),
+        true, both);
+    ckDBs(new XQuery("declare %updating function local:f($n) { delete node $n }; " +
+        _DB_PUT.args(NAME, "<a/>", FILE) + ", local:f(" + get + ')'), true, both);
+    ckDBs(new XQuery(_DB_PUT.args(NAME, "<a/>", FILE) + ", " +
+        _UPDATE_FOR_EACH.args(" " + get, " %updating function($n) { delete node $n }")),
+        true, both);
+    ckDBs(new XQuery("let $f := %updating function($n) { delete node $n } return (" +
+        _DB_PUT.args(NAME, "<a/>", FILE) + ", updating $f(" + get + "))"), true, both);
+  }
+
   /** Test ft module. */
   @Test public void ft() {
     ckDBs(new XQuery(_FT_SEARCH.args(NAME, "foo")), false, NAME_LIST);
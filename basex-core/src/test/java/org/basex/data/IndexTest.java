@@ -1,11 +1,19 @@
 package org.basex.data;
 
 import static org.basex.query.func.Function.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.util.*;
 
 import org.basex.*;
 import org.basex.core.*;
 import org.basex.core.cmd.*;
+import org.basex.core.parse.Commands.CmdIndex;
+import org.basex.io.*;
+import org.basex.util.*;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -23,6 +31,7 @@ public final class IndexTest extends SandboxTest {
   @AfterEach public void after() {
     execute(new DropDB(NAME));
     set(MainOptions.TOKENINDEX, false);
+    set(MainOptions.FTINDEX, false);
     set(MainOptions.UPDINDEX, false);
     set(MainOptions.AUTOOPTIMIZE, false);
     set(MainOptions.MAINMEM, false);
@@ -200,6 +209,99 @@ public final class IndexTest extends SandboxTest {
     execute(new Delete("A"));
   }
 
+  /**
+   * Test.
+   */
+  @Test public void updindexFt() {
+    set(MainOptions.UPDINDEX, true);
+    set(MainOptions.FTINDEX, true);
+    execute(new CreateDB(NAME, "<x><a>A B</a><a>C</a></x>"));
+    final String query = "//a[text() contains text %] ! string()";
+    query(Util.info(query, "'B'"), "A B");
+    query("insert node <a>B D</a> into /x");
+    query("replace value of node //a[1] with 'C'");
+    query("rename node //a[1] as 'b'");
+    query(Util.info(query, "'B'"), "B D");
+    query(Util.info(query, "'C'"), "C");
+    query(Util.info(query, "'D.*' using wildcards"), "B D");
+    query(Util.info(query, "'B D'"), "B D");
+    query(_DB_INFO.args(NAME) + "//ftindex/text()", true);
+
+    // delta segment is written to disk
+    execute(new Close());
+    execute(new Open(NAME));
+    query(Util.info(query, "'B'"), "B D");
+    query(Util.info(query, "'C' using fuzzy"), "C");
+    query("delete node //a[. = 'B D']");
+    query(Util.info(query, "'B'"), "");
+    query(_FT_TOKENS.args(NAME) + " ! string()", "c");
+  }
+
+  /**
+   * Test.
+   */
+  @Test public void updindexFtRebuild() {
+    set(MainOptions.UPDINDEX, true);
+    set(MainOptions.FTINDEX, true);
+    execute(new CreateDB(NAME, "<x><a>A</a><a>B</a></x>"));
+    final String query = "//a[text() contains text %] ! string()";
+    final String count = _FT_TOKENS.args(NAME, "%") + "/@count ! string()";
+
+    // the delta segment of the previous index is discarded
+    query("insert node <a>C</a> into /x");
+    execute(new CreateIndex(CmdIndex.FULLTEXT));
+    execute(new Close());
+    execute(new Open(NAME));
+    query(Util.info(count, "'c'"), 1);
+    query(Util.info(query, "'C'"), "C");
+
+    query("delete node //a[1]");
+    query("insert node <a>D</a> into /x");
+    execute(new Optimize());
+    execute(new Close());
+    execute(new Open(NAME));
+    query(Util.info(count, "'d'"), 1);
+    query(Util.info(query, "'B'"), "B");
+  }
+
+  /**
+   * Full-text index of an older version.
+   * @throws IOException I/O exception
+   */
+  @Test public void oldFtIndex() throws IOException {
+    set(MainOptions.FTINDEX, true);
+    execute(new CreateDB(NAME, "<x><a>A</a><a>B</a></x>"));
+    execute(new Close());
+
+    // remove version of full-text index from meta data
+    final IOFile inf = MetaData.file(context.soptions.dbPath(NAME), DataText.DATAINF);
+    final byte[] marker = Token.concat(new byte[] { 9 }, Token.token(DataText.FTDBSTR),
+        new byte[] { 4 }, Token.token(DataText.FTSTORAGE));
+    final byte[] contents = inf.read();
+    final int i = Token.indexOf(contents, marker);
+    inf.write(Token.concat(Arrays.copyOf(contents, i),
+        Arrays.copyOfRange(contents, i + marker.length, contents.length)));
+
+    // outdated index is reported and not accessed
+    final Open open = new Open(NAME);
+    execute(open);
+    assertTrue(open.info().contains(Text.H_INDEX_FORMAT));
+    assertTrue(execute(new InfoDB()).contains(Text.H_INDEX_FORMAT));
+    query(_DB_INFO.args(NAME) + "//ftindex/text()", false);
+    query("//a[text() contains text 'A'] ! string()", "A");
+
+    // state is preserved until the index is recreated
+    execute(new Close());
+    execute(new Open(NAME));
+    assertTrue(execute(new InfoDB()).contains(Text.H_INDEX_FORMAT));
+    execute(new Optimize());
+    assertFalse(execute(new InfoDB()).contains(Text.H_INDEX_FORMAT));
+    execute(new Close());
+    execute(new Open(NAME));
+    query(_DB_INFO.args(NAME) + "//ftindex/text()", true);
+    query("//a[text() contains text 'B'] ! string()", "B");
+  }
+
   /**
    * Test.
    * @param mainmem main memory flag.
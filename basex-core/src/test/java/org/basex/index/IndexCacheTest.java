@@ -22,6 +22,12 @@ public final class IndexCacheTest {
     cache = new IndexCache();
   }
 
+  /** Tear down method. */
+  @AfterEach public void tearDown() {
+    cache.close();
+    IndexCache.size(16L << 20, 0);
+  }
+
   /** Test for method {@link IndexCache#get(byte[])}. */
   @Test public void testGetNotExisting() {
     for(int i = 0; i < 4000; ++i) {
@@ -69,6 +75,67 @@ public final class IndexCacheTest {
     assertNull(cache.get(key));
   }
 
+  /** Test for method {@link IndexCache#close()}. */
+  @Test public void testClose() {
+    final byte[] key = token("keyClose");
+    final IndexCache other = new IndexCache();
+    cache.add(key, 1, 2L);
+    other.add(key, 3, 4L);
+    other.close();
+
+    assertNull(other.get(key));
+    assertCacheEntry(key, 1, 2L);
+  }
+
+  /** Test for method {@link IndexCache#keys(int)}. */
+  @Test public void testKeys() {
+    for(int i = 0; i < 10; ++i) cache.add(token("keyFreq" + i), i, i);
+    for(int i = 0; i < 5; ++i) cache.get(token("keyFreq" + 7));
+
+    final byte[][] keys = cache.keys(3);
+    assertEquals(3, keys.length);
+    assertEquals("keyFreq7", string(keys[0]));
+  }
+
+  /** Test that the memory budget is respected, and that frequent keys survive a scan. */
+  @Test public void testBudget() {
+    IndexCache.size(1L << 16, 0);
+    final byte[] hot = token("keyHot");
+    cache.add(hot, 1, 2L);
+    for(int i = 0; i < 20; ++i) cache.get(hot);
+
+    int hits = 0;
+    for(int i = 0; i < 10000; ++i) cache.add(token("keyScan" + i), i, i);
+    for(int i = 0; i < 10000; ++i) {
+      if(cache.get(token("keyScan" + i)) != null) hits++;
+    }
+    assertTrue(hits > 0 && hits < 1000, "Cached entries: " + hits);
+    assertCacheEntry(hot, 1, 2L);
+    assertFalse(IndexCache.info().contains(" 0 evictions"), IndexCache.info());
+  }
+
+  /**
+   * Test concurrent access to the segments of the shared store.
+   * @throws InterruptedException interrupted exception
+   */
+  @Test public void testConcurrent() throws InterruptedException {
+    final Thread[] threads = new Thread[8];
+    for(int t = 0; t < threads.length; t++) {
+      threads[t] = new Thread(() -> {
+        for(int i = 0; i < 10000; ++i) {
+          final byte[] key = token("keyConcurrent" + i % 1000);
+          if(cache.get(key) == null) cache.add(key, i % 1000, i % 1000);
+        }
+      });
+      threads[t].start();
+    }
+    for(final Thread thread : threads) thread.join();
+    for(int i = 0; i < 1000; ++i) assertCacheEntry(token("keyConcurrent" + i), i, i);
+
+    cache.close();
+    for(int i = 0; i < 1000; ++i) assertNull(cache.get(token("keyConcurrent" + i)));
+  }
+
   /**
    * Test that new records can be continuously added without hitting
    * {@link OutOfMemoryError}.
@@ -0,0 +1,60 @@
+package org.basex.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.core.parse.Commands.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the {@link MainOptions#PARALLELINDEX} option.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class ParallelIndexTest extends SandboxTest {
+  /** Query. */
+  private static final String QUERY = "count(db:text('" + NAME + "', '1')), " +
+      "sum(db:attribute('" + NAME + "', ('2', '3', '300000'))/..), " +
+      "count(db:token('" + NAME + "', 'x')), " +
+      "count(db:get('" + NAME + "')//b[text() contains text '7'])";
+
+  /** Creates the test database. */
+  @BeforeEach public void init() {
+    set(MainOptions.TOKENINDEX, true);
+    set(MainOptions.FTINDEX, true);
+    execute(new CreateDB(NAME));
+    execute(new XQuery("db:add('" + NAME + "', <a>{ (1 to 200000) ! " +
+        "<b id='{ . mod 1000 }' c='x { . mod 7 }'>{ . mod 100 }</b> }</a>, 'a.xml')"));
+  }
+
+  /** Finalizes the test. */
+  @AfterEach public void finish() {
+    execute(new DropDB(NAME));
+    set(MainOptions.TOKENINDEX, false);
+    set(MainOptions.FTINDEX, false);
+    set(MainOptions.PARALLELINDEX, 1);
+    set(MainOptions.SPLITSIZE, 0);
+  }
+
+  /** Builds the indexes in parallel. */
+  @Test public void optimize() {
+    execute(new Optimize());
+    final String expected = query(QUERY);
+    assertEquals("2000\n1000\n200000\n2000", expected);
+
+    set(MainOptions.PARALLELINDEX, 4);
+    execute(new OptimizeAll());
+    assertEquals(expected, query(QUERY));
+
+    // enforce partial index structures in each partition
+    set(MainOptions.SPLITSIZE, 1);
+    execute(new DropIndex(CmdIndex.TEXT));
+    execute(new CreateIndex(CmdIndex.TEXT));
+    assertEquals(expected, query(QUERY));
+    assertTrue(context.data().meta.textindex);
+  }
+}
@@ -0,0 +1,67 @@
+package org.basex.io.random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for compressed texts and attribute values.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class CompressedBlocksTest extends SandboxTest {
+  /** Query. */
+  private static final String QUERY =
+    "count(//b), sum(//b/@id ! xs:integer(.)), string-length(string-join(//text()))";
+
+  /** Resets the option. */
+  @AfterEach public void reset() {
+    set(MainOptions.COMPRESSION, false);
+    execute(new DropDB(NAME));
+  }
+
+  /** Queries and updates a compressed database. */
+  @Test public void updates() {
+    final String expected = run();
+    set(MainOptions.COMPRESSION, true);
+    assertEquals(expected, run());
+    assertTrue(context.data().meta.compression);
+    assertTrue(execute(new InfoDB()).contains("COMPRESSION: true"));
+
+    // optimized database will remain compressed
+    execute(new OptimizeAll());
+    execute(new Close());
+    execute(new Open(NAME));
+    assertTrue(context.data().meta.compression);
+    assertEquals(expected, query(QUERY));
+  }
+
+  /** Compresses a database with a large number of texts. */
+  @Test public void create() {
+    set(MainOptions.COMPRESSION, true);
+    execute(new XQuery("db:create('" + NAME + "', <a>{ (1 to 100000) ! <b id='{ . }'>" +
+        "{ . }</b> }</a>, 'a.xml')"));
+    execute(new Open(NAME));
+    assertEquals("100000\n5000050000\n488895", query(QUERY));
+  }
+
+  /**
+   * Creates, updates and queries a database.
+   * @return query result
+   */
+  private static String run() {
+    execute(new CreateDB(NAME, "<a/>"));
+    execute(new XQuery("for $i in 1 to 3000 return insert node " +
+        "<b id='{ $i }'>{ string-join(1 to $i mod 100, ' ') }</b> into /a"));
+    execute(new XQuery("delete node //b[@id mod 3 = 0]"));
+    execute(new XQuery("for $b in //b[@id mod 5 = 0] return replace value of node $b with 'x'"));
+    execute(new Close());
+    execute(new Open(NAME));
+    return query(QUERY);
+  }
+}
@@ -199,6 +199,40 @@ public class DataAccessTest {
     assertEquals(STR, Token.string(da.readBytes(bytes.length)));
   }
 
+  /** Test method for {@link DataAccess#read(long, byte[], int, int)}. */
+  @Test public final void testReadLongBytes() {
+    final byte[] bytes = Token.token(STR), data = new byte[bytes.length + 2];
+    final long off = numToByteArray(bytes.length).length;
+
+    da.read(off, data, 1, bytes.length);
+    assertEquals(STR, Token.string(data, 1, bytes.length));
+    da.read(BLOCK_BOUNDARY_POS + off, data, 0, bytes.length);
+    assertEquals(STR, Token.string(data, 0, bytes.length));
+    assertEquals(0L, da.cursor());
+
+    // modified buffers are considered
+    da.write4(off, INT);
+    final byte[] value = new byte[4];
+    da.read(off, value, 0, 4);
+    assertArrayEquals(new byte[] { 0x7F, -1, -1, -1 }, value);
+  }
+
+  /** Test method for {@link DataAccess#reader(long)}. */
+  @Test public final void testReader() {
+    final DataReader dr = da.reader(STR_BIN.length);
+    assertEquals(BYTE, dr.read1());
+    assertEquals(LONG, dr.read5());
+    assertEquals(INT, dr.read4());
+    assertEquals(CINT5, dr.readNum());
+    assertEquals(CINT4, dr.readNum());
+    assertEquals(CINT2, dr.readNum());
+    assertEquals(CINT1, dr.readNum());
+    assertEquals(STR, Token.string(dr.cursor(BLOCK_BOUNDARY_POS).readToken()));
+    assertEquals(STR, Token.string(dr.cursor(0).readToken()));
+    assertEquals(STR_BIN.length, dr.cursor());
+    assertEquals(0L, da.cursor());
+  }
+
   /** Test method for {@link DataAccess#cursor(long)}. */
   @Test public final void testCursorLong() {
     long off = STR_BIN.length + BYTE_BIN.length + LONG_BIN.length +
@@ -0,0 +1,50 @@
+package org.basex.io.random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for memory-mapped database files.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class MappingTest extends SandboxTest {
+  /** Query. */
+  private static final String QUERY =
+    "count(//b), sum(//b/@id ! xs:integer(.)), string-length(string-join(//text()))";
+
+  /** Resets the option. */
+  @AfterEach public void reset() {
+    context.soptions.set(StaticOptions.MMAP, false);
+    execute(new DropDB(NAME));
+  }
+
+  /** Queries and updates a memory-mapped database. */
+  @Test public void updates() {
+    final String expected = run();
+    context.soptions.set(StaticOptions.MMAP, true);
+    assertEquals(expected, run());
+    assertTrue(execute(new InfoStorage("1", "5")).contains("ELEM"));
+  }
+
+  /**
+   * Creates, updates and queries a database.
+   * @return query result
+   */
+  private static String run() {
+    execute(new CreateDB(NAME, "<a/>"));
+    execute(new XQuery("for $i in 1 to 3000 return insert node " +
+        "<b id='{ $i }'>{ string-join(1 to $i mod 100, ' ') }</b> into /a"));
+    execute(new XQuery("delete node //b[@id mod 3 = 0]"));
+    execute(new XQuery("for $b in //b[@id mod 5 = 0] return replace value of node $b with 'x'"));
+    execute(new Close());
+    execute(new Open(NAME));
+    return query(QUERY);
+  }
+}
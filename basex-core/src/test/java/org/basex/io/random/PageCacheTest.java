@@ -0,0 +1,100 @@
+package org.basex.io.random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.io.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for class {@link PageCache}.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class PageCacheTest extends SandboxTest {
+  /** Shared cache. */
+  private static final PageCache CACHE = PageCache.get();
+
+  /** Resets the cache size. */
+  @AfterEach public void reset() {
+    CACHE.size(0);
+    CACHE.size((long) context.soptions.get(StaticOptions.PAGECACHE) << 20);
+  }
+
+  /** Caches, reads and evicts blocks. */
+  @Test public void evict() {
+    CACHE.size(0);
+    CACHE.size(2L << IO.BLOCKPOWER);
+    final int file = PageCache.file();
+    final byte[] data = new byte[IO.BLOCKSIZE];
+    for(int b = 0; b < 3; b++) {
+      data[0] = (byte) b;
+      CACHE.write(file, b, data);
+    }
+    // first block has been evicted
+    assertFalse(CACHE.read(file, 0, data));
+    assertTrue(CACHE.read(file, 2, data));
+    assertEquals(2, data[0]);
+
+    CACHE.remove(file, 2);
+    assertFalse(CACHE.read(file, 2, data));
+    CACHE.remove(file);
+    assertFalse(CACHE.read(file, 1, data));
+  }
+
+  /** Blocks that are referenced again survive scans. */
+  @Test public void frequency() {
+    CACHE.size(0);
+    CACHE.size(4L << IO.BLOCKPOWER);
+    final int file = PageCache.file();
+    final byte[] data = new byte[IO.BLOCKSIZE];
+    CACHE.write(file, 0, data);
+    CACHE.write(file, 1, data);
+    // correlated references are counted once
+    for(int i = 0; i < 16; i++) assertTrue(CACHE.read(file, 1, data));
+    assertTrue(CACHE.read(file, 0, data));
+    for(int b = 2; b < 10; b++) CACHE.write(file, b, data);
+    assertTrue(CACHE.read(file, 0, data));
+    assertFalse(CACHE.read(file, 1, data));
+  }
+
+  /** References of evicted blocks are retained. */
+  @Test public void history() {
+    CACHE.size(0);
+    CACHE.size(2L << IO.BLOCKPOWER);
+    final int file = PageCache.file();
+    final byte[] data = new byte[IO.BLOCKSIZE];
+    for(int b = 0; b < 3; b++) CACHE.write(file, b, data);
+    // block 0 was evicted: reading it again gives it precedence over blocks read only once
+    assertFalse(CACHE.read(file, 0, data));
+    CACHE.write(file, 0, data);
+    for(int b = 3; b < 6; b++) CACHE.write(file, b, data);
+    assertTrue(CACHE.read(file, 0, data));
+  }
+
+  /** Queries and updates with a tiny cache. */
+  @Test public void updates() {
+    final String query = "count(//b), sum(//b/@id), string-join(//text())";
+    execute(new CreateDB(NAME, "<a/>"));
+    execute(new XQuery("for $i in 1 to 5000 return insert node <b id='{ $i }'>{ $i }</b> into /a"));
+    final String expected = query(query);
+
+    CACHE.size(0);
+    CACHE.size(2L << IO.BLOCKPOWER);
+    execute(new Close());
+    execute(new Open(NAME));
+    assertEquals(expected, query(query));
+    execute(new XQuery("delete node //b[@id mod 2 = 0]"));
+    execute(new XQuery("for $b in //b return replace value of node $b with $b * 2"));
+    execute(new Close());
+    execute(new Open(NAME));
+    assertEquals("2500", query("count(//b)"));
+    assertEquals("12500000", query("sum(//b ! xs:integer(.))"));
+    assertTrue(execute(new InfoStorage("1", "2")).contains("Page Cache"));
+    execute(new DropDB(NAME));
+  }
+}
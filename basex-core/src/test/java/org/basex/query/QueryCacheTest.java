@@ -0,0 +1,196 @@
+package org.basex.query;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.io.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for caching compiled queries.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class QueryCacheTest extends SandboxTest {
+  /** Enables the query cache. */
+  @BeforeEach public void init() {
+    context.soptions.set(StaticOptions.QUERYCACHE, 10);
+  }
+
+  /** Disables the query cache. */
+  @AfterEach public void finish() {
+    context.soptions.set(StaticOptions.QUERYCACHE, 0);
+    context.queries.close();
+  }
+
+  /** Repeated queries. */
+  @Test public void hits() {
+    final long hits = context.queries.hits();
+    query("sum(1 to 10)", 55);
+    query("sum(1 to 10)", 55);
+    query("sum(1 to 10)", 55);
+    assertEquals(hits + 2, context.queries.hits());
+  }
+
+  /** Cached queries are discarded if the database is updated. */
+  @Test public void update() {
+    execute(new CreateDB(NAME, "<x>1</x>"));
+    final String query = "db:get('" + NAME + "')//x ! string()";
+    query(query, 1);
+    query(query, 1);
+    query("replace value of node db:get('" + NAME + "')//x with 2");
+    query(query, 2);
+    execute(new Add("y.xml", "<x>3</x>"));
+    query(query, "2\n3");
+  }
+
+  /** Databases accessed by cached queries can be dropped and replaced. */
+  @Test public void drop() {
+    execute(new CreateDB(NAME, "<x>1</x>"));
+    final String query = "db:get('" + NAME + "')//x ! string()";
+    query(query, 1);
+    execute(new DropDB(NAME));
+    execute(new CreateDB(NAME, "<x>2</x>"));
+    query(query, 2);
+    execute(new DropDB(NAME));
+  }
+
+  /** Nondeterministic and updating queries are not cached. */
+  @Test public void nondeterministic() {
+    final long hits = context.queries.hits();
+    final String query = "declare variable $x := random:uuid(); $x";
+    assertNotEquals(query(query), query(query));
+    query("()");
+    query("delete node <a/>");
+    query("delete node <a/>");
+    assertEquals(hits, context.queries.hits());
+
+    // cached queries are evaluated anew
+    assertNotEquals(query("random:uuid()"), query("random:uuid()"));
+  }
+
+  /** Queries with pre-evaluated values of the dynamic context are not cached. */
+  @Test public void dateTime() {
+    final long hits = context.queries.hits();
+    for(final String query : new String[] { "current-dateTime()", "current-date()",
+        "current-time()", "implicit-timezone()", "(current-dateTime(), 1)[1]" }) {
+      query(query);
+      query(query);
+    }
+    assertEquals(hits, context.queries.hits());
+  }
+
+  /**
+   * Queries with pre-evaluated external resources are not cached.
+   * @throws IOException I/O exception
+   */
+  @Test public void resources() throws IOException {
+    final IOFile file = new IOFile(sandbox(), "input.txt");
+    final String path = file.path();
+    final String[][] tests = {
+      { "json-doc('" + path + "')?a", "{ \"a\": 1 }", "1", "{ \"a\": 2 }", "2" },
+      { "unparsed-text('" + path + "')", "A", "A", "B", "B" },
+      { "unparsed-text-lines('" + path + "')", "A", "A", "B", "B" },
+      { "unparsed-text-available('" + path + "')", null, "false", "A", "true" },
+      { "doc-available('" + path + "')", null, "false", "<a/>", "true" },
+      { "string(doc('" + path + "'))", "<a>A</a>", "A", "<a>B</a>", "B" },
+    };
+    for(final String[] test : tests) {
+      file.delete();
+      if(test[1] != null) file.write(test[1]);
+      query(test[0], test[2]);
+      file.write(test[3]);
+      query(test[0], test[4]);
+    }
+    file.delete();
+  }
+
+  /** Cache information. */
+  @Test public void info() {
+    context.queries.close();
+    query("sum(1 to 10)", 55);
+    assertTrue(context.queries.info(context).startsWith("1/10 queries"),
+        context.queries.info(context));
+  }
+
+  /** Queries with external bindings are not cached. */
+  @Test public void bind() throws QueryException {
+    final long hits = context.queries.hits();
+    final String query = "declare variable $x external; $x";
+    for(int i = 0; i < 2; i++) {
+      try(QueryProcessor qp = new QueryProcessor(query, context)) {
+        qp.variable("x", i);
+        assertEquals(String.valueOf(i), qp.value().toString());
+      }
+    }
+    assertEquals(hits, context.queries.hits());
+  }
+
+  /** Prepared queries. */
+  @Test public void prepared() throws QueryException {
+    final String query = "declare variable $a external; declare variable $b := $a + 1; $b";
+    final long hits = context.queries.hits();
+    QueryCache.Plan plan = null;
+    for(final Object value : new Object[] { 1, 2, "3.5" }) {
+      final QueryProcessor qp = new QueryProcessor(query, context).prepare(plan);
+      qp.variable("a", value, value instanceof String ? "xs:double" : null);
+      assertEquals(value instanceof String ? "4.5" : String.valueOf((int) value + 1),
+          qp.value().toString());
+      plan = qp.park();
+      assertNotNull(plan);
+    }
+    assertEquals(hits + 2, context.queries.hits());
+    context.queries.remove(plan);
+  }
+
+  /** Prepared queries are compiled with inlined values if they allow index rewrites. */
+  @Test public void preparedIndex() throws QueryException, QueryIOException {
+    execute(new CreateDB(NAME, "<x><a v='1'/><a v='2'/></x>"));
+    final String query = "declare variable $v external; db:get('" + NAME + "')//a[@v = $v]";
+    for(final String value : new String[] { "1", "2" }) {
+      final QueryProcessor qp = new QueryProcessor(query, context).prepare(null);
+      qp.variable("v", value);
+      assertEquals("<a v=\"" + value + "\"/>", qp.value().serialize().toString());
+      assertTrue(qp.toXml().serialize().toString().contains("ValueAccess"));
+      assertFalse(qp.prepared());
+      assertNull(qp.park());
+    }
+    execute(new DropDB(NAME));
+  }
+
+  /** Prepared queries are limited to the size of the cache, and not kept if it is disabled. */
+  @Test public void preparedLimit() throws QueryException {
+    context.soptions.set(StaticOptions.QUERYCACHE, 1);
+    final String query = "declare variable $a external; $a";
+    final QueryCache.Plan[] plans = new QueryCache.Plan[2];
+    for(int p = 0; p < plans.length; p++) {
+      final QueryProcessor qp = new QueryProcessor(query, context).prepare(null);
+      qp.variable("a", p);
+      assertEquals(String.valueOf(p), qp.value().toString());
+      plans[p] = qp.park();
+      assertNotNull(plans[p]);
+    }
+    // the first query has been discarded
+    final long misses = context.queries.misses();
+    for(int p = 0; p < plans.length; p++) {
+      final QueryProcessor qp = new QueryProcessor(query, context).prepare(plans[p]);
+      qp.variable("a", p);
+      assertEquals(String.valueOf(p), qp.value().toString());
+      qp.close();
+    }
+    assertEquals(misses, context.queries.misses());
+
+    context.soptions.set(StaticOptions.QUERYCACHE, 0);
+    final QueryProcessor qp = new QueryProcessor(query, context).prepare(null);
+    qp.variable("a", 1);
+    assertEquals("1", qp.value().toString());
+    assertFalse(qp.prepared());
+    assertNull(qp.park());
+  }
+}
@@ -4,6 +4,7 @@ import static org.basex.query.QueryError.*;
 import static org.basex.query.func.Function.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import org.basex.core.*;
 import org.basex.query.ast.*;
 import org.basex.query.expr.constr.*;
 import org.basex.query.expr.gflwor.*;
@@ -454,4 +455,59 @@ public final class GFLWORTest extends QueryPlanTest {
     check("for $a in () return delete node a", "", empty());
     check("for $a in" + _PROF_VOID.args(1) + " return delete node a", "", root(_PROF_VOID));
   }
+
+  /** Parallel evaluation of for clauses. */
+  @Test public void parallel() {
+    final String query = "for $i in 1 to 100000 let $j := $i * 2 where $j mod 3 = 0 return $j";
+    final String result = query("sum(" + query + "), string-join(" + query + ")");
+
+    check("(# basex:parallel #) { " + query + " } => sum()", "3333366666",
+        exists("GFLWOR[@parallel = 'true']"));
+    check("(# basex:parallel #) { " + query + " } => string-join()",
+        query("string-join(" + query + ")"), exists("GFLWOR[@parallel = 'true']"));
+    check("((# basex:parallel #) { for $i in 1 to 10 return <a>{ $i }</a> }) ! string()",
+        "1\n2\n3\n4\n5\n6\n7\n8\n9\n10", exists("GFLWOR[@parallel = 'true']"));
+
+    // positional variables, non-deterministic or updating expressions
+    check("(# basex:parallel #) { for $i at $p in 1 to 10 where $p = 5 return $i }", 5,
+        empty("GFLWOR[@parallel]"));
+    check("(# basex:parallel #) { for $i in 1 to 10 return random:integer($i) } => count()", 10,
+        empty("GFLWOR[@parallel]"));
+    error("(# basex:parallel #) { for $i in 1 to 100 return if($i = 50) then error() else $i }",
+        FUNERR1);
+
+    // option: minimum number of iterations
+    set(MainOptions.PARALLELFOR, 1000);
+    try {
+      assertEquals(result, query("sum(" + query + "), string-join(" + query + ")"));
+      check("sum(" + query + ")", "3333366666", exists("GFLWOR[@parallel = 'true']"));
+      check("sum(for $i in 1 to 10 let $j := $i * 2 return $j + 1)", 120,
+          empty("GFLWOR[@parallel]"));
+
+      // iterative evaluation: partitions are returned in order, later partitions are only
+      // evaluated if more than one item is requested
+      final String err = "for $i in 1 to 10000 return xs:integer($i || (if($i = 10000) then 'x'))";
+      check("head(" + err + ")", 1, exists("GFLWOR[@parallel = 'true']"));
+      error("sum(" + err + ")", FUNCCAST_X_X);
+      check("head((for $i in 1 to 10000 return $i * 2)[. > 15000])", 15002,
+          exists("GFLWOR[@parallel = 'true']"));
+      check("subsequence(for $i in 1 to 100000 return $i, 49999, 3)",
+          "49999\n50000\n50001", exists("GFLWOR[@parallel = 'true']"));
+    } finally {
+      set(MainOptions.PARALLELFOR, 0);
+    }
+  }
+
+  /** Ordered FLWOR expressions: only sort the requested tuples. */
+  @Test public void orderByLimit() {
+    final String query = "for $i in 1 to 100 order by $i mod 10 descending return $i";
+    check("head(" + query + ")", 9, exists("OrderBy[@max = 1]"));
+    check("subsequence(" + query + ", 3, 4)", "29\n39\n49\n59", exists("OrderBy[@max = 6]"));
+    check("subsequence(" + query + ", 9, 4)", "89\n99\n8\n18", exists("OrderBy[@max = 12]"));
+    check("subsequence(for $i in 1 to 10 order by -$i return ($i, $i), 1, 3)", "10\n10\n9",
+        exists("OrderBy[@max = 3]"));
+
+    // results of tuples may be empty
+    check("head(for $i in 1 to 10 order by -$i return $i[. < 5])", 4, empty("OrderBy[@max]"));
+  }
 }
@@ -0,0 +1,56 @@
+package org.basex.query.ft;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.core.parse.Commands.*;
+import org.basex.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for fuzzy queries on the full-text index.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class FTFuzzyTest extends SandboxTest {
+  /** Words. */
+  private static final String[] WORDS = { "house", "mouse", "hose", "horse", "houses", "huose",
+    "hause", "HOUSE", "ouse", "housing", "hosue", "muse", "mousse", "spouse", "blouse", "h",
+    "ho", "hou", "hus", "uohse", "househusband", "houseboat", "household" };
+
+  /** Creates the test database. */
+  @BeforeAll public static void init() {
+    final TokenBuilder tb = new TokenBuilder().add("<xml>");
+    for(final String word : WORDS) tb.add("<w>").add(word).add("</w>");
+    set(MainOptions.FTINDEX, true);
+    execute(new CreateDB(NAME, tb.add("</xml>").toString()));
+    set(MainOptions.FTINDEX, false);
+  }
+
+  /** Drops the test database. */
+  @AfterAll public static void finish() {
+    execute(new DropDB(NAME));
+  }
+
+  /** Compares fuzzy queries with and without index. */
+  @Test public void fuzzy() {
+    for(final String word : WORDS) {
+      for(final String errors : new String[] { "", " 1 errors", " 2 errors", " 3 errors" }) {
+        final String query = "//w[% contains text '" + word + "' using fuzzy" + errors + "]";
+        assertEquals(query(Util.info(query, "data()")), query(Util.info(query, "text()")),
+            Util.info(query, "text()"));
+      }
+    }
+    query("count(//w[text() contains text 'house' using fuzzy 1 errors])", 10);
+  }
+
+  /** Index information. */
+  @Test public void info() {
+    query("//w[text() contains text 'mouse' using fuzzy]");
+    assertTrue(execute(new InfoIndex(CmdIndexInfo.FULLTEXT)).contains(Text.LI_FUZZY));
+  }
+}
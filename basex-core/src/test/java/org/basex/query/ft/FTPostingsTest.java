@@ -0,0 +1,78 @@
+package org.basex.query.ft;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for large entries of the full-text index, which are stored in multiple blocks.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class FTPostingsTest extends SandboxTest {
+  /** Words. */
+  private static final String[] WORDS = { "a", "b", "c", "d", "e", "f", "g" };
+  /** Queries. */
+  private static final String[] QUERIES = { "'a'", "'g'", "'a b'", "'f g'", "'a a a'",
+    "'g' ftand 'a'", "{ 'a', 'g' } all words", "'b' ftand 'c' ftand 'g'", "{ 'c f', 'x' } any",
+    "'a' ftand 'b' window 3 words", "'d' ftand ftnot 'e'", "'x' ftand 'a'", "'x' ftor 'g'" };
+
+  /** Drops the test database. */
+  @AfterAll public static void finish() {
+    set(MainOptions.FTINDEX, false);
+    set(MainOptions.SPLITSIZE, 0);
+    execute(new DropDB(NAME));
+  }
+
+  /** Compares queries with and without index. */
+  @Test public void compare() {
+    create(0);
+    compare(QUERIES);
+  }
+
+  /** Compares queries with and without index, using a database with merged index entries. */
+  @Test public void split() {
+    create(2);
+    compare(QUERIES);
+  }
+
+  /**
+   * Compares queries with and without index.
+   * @param queries queries
+   */
+  private static void compare(final String... queries) {
+    for(final String ft : queries) {
+      final String query = "//t[% contains text " + ft + "] ! db:node-pre(.)";
+      final String result = query(Util.info(query, "data()"));
+      assertEquals(result, query(Util.info(query, "text()")), Util.info(query, "text()"));
+    }
+  }
+
+  /**
+   * Creates the test database.
+   * @param splits split size
+   */
+  private static void create(final int splits) {
+    final TokenBuilder tb = new TokenBuilder().add("<xml>");
+    int r = 1;
+    for(int t = 0; t < 20000; t++) {
+      tb.add("<t>");
+      // pseudo-random distribution of words; "g" is rare
+      for(int w = (t & 7) + 1; w > 0; w--) {
+        r = r * 1103515245 + 12345 & 0x7FFFFFFF;
+        final int i = (r >>> 8) % (WORDS.length * 8);
+        tb.add(WORDS[i < 2 ? WORDS.length - 1 : i % (WORDS.length - 1)]).add(" ");
+      }
+      tb.add("</t>");
+    }
+    set(MainOptions.FTINDEX, true);
+    set(MainOptions.SPLITSIZE, splits);
+    execute(new CreateDB(NAME, tb.add("</xml>").toString()));
+  }
+}
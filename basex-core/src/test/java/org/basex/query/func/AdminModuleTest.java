@@ -4,7 +4,10 @@ import static org.basex.query.QueryError.*;
 import static org.basex.query.func.Function.*;
 
 import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.StaticOptions.*;
 import org.basex.core.cmd.*;
+import org.basex.io.*;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.Test;
 
@@ -54,4 +57,25 @@ public final class AdminModuleTest extends SandboxTest {
     error(func.args("", "X "), ADMIN_TYPE_X);
     error(func.args("", "X\r"), ADMIN_TYPE_X);
   }
+
+  /** Writes and parses log entries in the supported formats. */
+  @Test public void writeLogFormats() {
+    final String logs = _ADMIN_LOGS.args(" format-date(current-date(), '[Y0001]-[M01]-[D01]')");
+    final String message = "a \"b\" \\ c";
+    try {
+      for(final LogFormat format : LogFormat.values()) {
+        context.soptions.set(StaticOptions.LOGFORMAT, format);
+        context.soptions.set(StaticOptions.LOGBUFFER, 4);
+        for(int i = 0; i < 10; i++) query(_ADMIN_WRITE_LOG.args(message, format));
+        query("count(" + logs + "[@type = '" + format + "'][. = '" + message + "'])", 10);
+        query(logs + "[@type = '" + format + "'][1]/@user/string()", "admin");
+        context.log.close();
+      }
+    } finally {
+      context.soptions.set(StaticOptions.LOGFORMAT, LogFormat.TEXT);
+      context.soptions.set(StaticOptions.LOGBUFFER, 0);
+      context.log.close();
+      for(final IOFile file : context.log.files()) file.delete();
+    }
+  }
 }
@@ -146,6 +146,17 @@ public final class FtModuleTest extends SandboxTest {
     final Function func = _FT_SCORE;
     query(func.args(_FT_SEARCH.args(NAME, "2")), 1);
     query(func.args(_FT_SEARCH.args(NAME, "XML")), "1\n0.5");
+
+    // BM25: texts with more occurrences of rare tokens are ranked first
+    set(MainOptions.FTSCORING, MainOptions.FTScoringModel.BM25);
+    try {
+      query("for $t score $s in " + _FT_SEARCH.args(NAME, " ('exercise', '2')") +
+          " order by $s descending return string($t)", "Exercise 2\nExercise 1");
+      query("every $s in " + func.args(_FT_SEARCH.args(NAME, "XML")) + " satisfies $s > 0 " +
+          "and $s < 1", true);
+    } finally {
+      set(MainOptions.FTSCORING, MainOptions.FTScoringModel.DEFAULT);
+    }
   }
 
   /** Test method. */
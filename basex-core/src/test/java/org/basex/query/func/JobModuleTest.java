@@ -212,6 +212,7 @@ public final class JobModuleTest extends SandboxTest {
       query(list + "/@user/string()", UserText.ADMIN);
       query(list + "/@state/string() = ('running', 'queued')", true);
       query(list + "/@duration/string() castable as xs:dayTimeDuration", true);
+      query(list + "/(@queued, @steals) ! xs:integer(.) >= 0", true);
     } finally {
       query(_JOB_REMOVE.args(id));
     }
@@ -133,6 +133,10 @@ public final class XQueryModuleTest extends QueryPlanTest {
     query(func.args(" (true#0, function() { (1 to 10000000)[.=1] })"), "true\n1");
     query(func.args(" ()"), "");
 
+    // nested calls are evaluated in the shared pool
+    query("sum(" + func.args(" (1 to 20) ! function() { sum(" +
+        func.args(" (1 to 20) ! function() { 1 }") + ") }") + ')', 400);
+
     // optimizations
     check(func.args(" ()"), "", empty());
     check(func.args(" false#0"), false, root(DynFuncCall.class));
@@ -149,6 +153,7 @@ public final class XQueryModuleTest extends QueryPlanTest {
     error(func.args(" (count#1, count#1)"), ZEROFUNCS_X_X);
     error(func.args(" (123, 123)"), ZEROFUNCS_X_X);
     error(func.args(" error#0"), FUNERR1);
+    error(func.args(" (true#0, error#0, true#0)"), FUNERR1);
   }
 
   /** Test method. */
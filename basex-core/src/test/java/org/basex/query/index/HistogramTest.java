@@ -0,0 +1,116 @@
+package org.basex.query.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.data.*;
+import org.basex.index.stats.*;
+import org.basex.query.ast.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the histograms of the database statistics and their use for choosing
+ * the order of predicates.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class HistogramTest extends QueryPlanTest {
+  /** Test document. */
+  private static final String DOC = "<x>{ for $i in 1 to 2000 return <e id='{ $i }'>"
+      + "<n>{ $i }</n><s>str{ $i mod 500 }</s><c>{ $i mod 3 }</c></e> }</x>";
+
+  /**
+   * Initializes the tests.
+   */
+  @BeforeAll public static void start() {
+    set(MainOptions.TEXTINDEX, false);
+    set(MainOptions.ATTRINDEX, false);
+    execute(new CreateDB(NAME));
+    query("db:add('" + NAME + "', " + DOC + ", 'doc.xml')");
+    execute(new Optimize());
+  }
+
+  /**
+   * Finishes the tests.
+   */
+  @AfterAll public static void finish() {
+    set(MainOptions.TEXTINDEX, true);
+    set(MainOptions.ATTRINDEX, true);
+    execute(new DropDB(NAME));
+  }
+
+  /**
+   * Checks the estimates of the statistics.
+   */
+  @Test public void estimates() {
+    final Data data = context.data();
+    final Stats n = stats(data, "n", false), s = stats(data, "s", false);
+    final Stats c = stats(data, "c", false), id = stats(data, "id", true);
+
+    // categories: exact counts
+    assertEquals(3, c.distinct());
+    assertEquals(667, c.count(new byte[] { '1' }));
+    // histograms: estimates
+    assertEquals(2000, n.distinct());
+    assertEquals(2000, id.distinct());
+    assertTrue(s.distinct() > 250 && s.distinct() < 1000, "Distinct values: " + s.distinct());
+    final double range = n.count(1, 1000);
+    assertTrue(range > 800 && range < 1200, "Numeric range: " + range);
+    assertEquals(0, n.count(5000, 6000));
+    final double strings = s.count("str1".getBytes(), "str2".getBytes());
+    assertTrue(strings > 0 && strings < 2000, "String range: " + strings);
+  }
+
+  /**
+   * Checks if histograms are persisted.
+   */
+  @Test public void persistence() {
+    final String before = stats(context.data(), "n", false).toString();
+    execute(new Close());
+    execute(new Open(NAME));
+    final Stats stats = stats(context.data(), "n", false);
+    assertNotNull(stats.histogram);
+    assertEquals(before, stats.toString());
+  }
+
+  /**
+   * Checks if predicates are ordered by their selectivity.
+   */
+  @Test public void order() {
+    check("count(//e[c = '1'][s = 'str1'][n > 1990])", 0,
+        "//IterStep[@test = '*:e']/*[1]//@test = 's'");
+    check("count(//e[c = '2'][@id = '1001'])", 1,
+        "//IterStep[@test = '*:e']/*[1]//@test = 'id'");
+    check("count(//e[c = ('0', '1', '2')][s = 'str1'])", 4,
+        "//IterStep[@test = '*:e']/*[1]//@test = 's'");
+  }
+
+  /**
+   * Checks that predicates which may raise errors are not moved before guarding predicates.
+   */
+  @Test public void guards() {
+    check("count(//e[s castable as xs:double][xs:double(s) = 5])", 0,
+        "exists(//IterStep[@test = '*:e']/*[1]/self::Castable)");
+    check("count(//e[matches(s, '^\\d+$')][s = 5])", 0,
+        "exists(//IterStep[@test = '*:e']/*[1]/self::FnMatches)");
+    check("count(//e[n > 1000][s = 'str1'][c = '1'])", 1,
+        "//IterStep[@test = '*:e']/*[1]//@test = 's'",
+        "//IterStep[@test = '*:e']/*[3]//@test = 'n'");
+  }
+
+  /**
+   * Returns the statistics of the specified name.
+   * @param data data reference
+   * @param name name
+   * @param attr attribute flag
+   * @return statistics
+   */
+  private static Stats stats(final Data data, final String name, final boolean attr) {
+    final byte[] nm = name.getBytes();
+    return attr ? data.attrNames.stats(data.attrNames.id(nm)) :
+      data.elemNames.stats(data.elemNames.id(nm));
+  }
+}
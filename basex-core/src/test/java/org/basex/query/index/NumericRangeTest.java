@@ -0,0 +1,97 @@
+package org.basex.query.index;
+
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.core.parse.Commands.CmdIndex;
+import org.basex.query.ast.*;
+import org.basex.query.expr.index.*;
+import org.basex.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests if numeric range queries are correctly evaluated with(out) the index.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class NumericRangeTest extends QueryPlanTest {
+  /** Name of range index expression. */
+  private static final String RANGE = Util.className(RangeAccess.class);
+
+  /**
+   * Initializes the tests.
+   */
+  @BeforeAll public static void start() {
+    final TokenBuilder tb = new TokenBuilder();
+    tb.add("<xml>");
+    for(int i = -500; i < 500; i++) {
+      tb.add("<n>").addInt(i).add("</n>");
+      tb.add("<x price='").add(Token.token(i / 4d)).add("'/>");
+    }
+    tb.add("</xml>");
+    execute(new CreateDB(NAME, tb.toString()));
+  }
+
+  /**
+   * Finishes the tests.
+   */
+  @AfterAll public static void finish() {
+    set(MainOptions.UPDINDEX, false);
+    execute(new DropDB(NAME));
+  }
+
+  /**
+   * Ranges with positive and negative integers of different lengths.
+   */
+  @Test public void integers() {
+    test("count(//n[text() > 100 and text() < 200])", 99);
+    test("count(//n[text() >= 9 and text() <= 10])", 2);
+    test("count(//n[text() > -10 and text() < 1000])", 509);
+    test("count(//n[text() >= -1000 and text() < -490])", 10);
+    test("count(//n[text() > 498])", 1);
+    test("count(//n[text() < -499])", 1);
+  }
+
+  /**
+   * Ranges with decimal attribute values.
+   */
+  @Test public void doubles() {
+    test("count(//x[@price > 100 and @price < 110])", 39);
+    test("count(//x[@price >= 1.25 and @price <= 2.5])", 6);
+    test("count(//x[@price >= -0.5 and @price < 0.5])", 4);
+    test("count(//x[@price > 124.5])", 1);
+  }
+
+  /**
+   * Updates on an incrementally updated index.
+   */
+  @Test public void update() {
+    set(MainOptions.UPDINDEX, true);
+    execute(new CreateIndex(CmdIndex.TEXT));
+    final String query = "count(//n[text() > 490 and text() < 3000])";
+    check(query, 9, exists(RANGE));
+    query("insert node <n>2000</n> into /xml");
+    execute(new Optimize());
+    check(query, 10, exists(RANGE));
+    query("replace value of node //n[. = 2000] with 4000");
+    execute(new Optimize());
+    check(query, 9, exists(RANGE));
+    query("delete node //n[. = 4000]");
+    execute(new Optimize());
+    set(MainOptions.UPDINDEX, false);
+  }
+
+  /**
+   * Tests a query with and without index.
+   * @param query query
+   * @param result expected result
+   */
+  private static void test(final String query, final Object result) {
+    final CmdIndex index = query.contains("@") ? CmdIndex.ATTRIBUTE : CmdIndex.TEXT;
+    execute(new CreateIndex(index));
+    check(query, result, exists(RANGE));
+    execute(new DropIndex(index));
+    check(query, result, empty(RANGE));
+  }
+}
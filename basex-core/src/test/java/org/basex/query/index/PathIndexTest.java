@@ -0,0 +1,113 @@
+package org.basex.query.index;
+
+import static org.basex.query.func.Function.*;
+
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.query.ast.*;
+import org.basex.query.expr.index.*;
+import org.basex.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the path indexes declared via {@link MainOptions#PATHINDEXES}.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class PathIndexTest extends QueryPlanTest {
+  /** Name of path index expression. */
+  private static final String KEY = Util.className(KeyAccess.class);
+  /** Path index declarations. */
+  private static final String PATHS = "//order/customer/@id, (//item/sku, //item/region)";
+
+  /**
+   * Initializes the tests.
+   */
+  @BeforeEach public void init() {
+    final TokenBuilder tb = new TokenBuilder().add("<orders>");
+    for(int i = 1; i <= 100; i++) {
+      tb.add("<order><customer id='c").addInt(i % 10).add("'/>");
+      tb.add("<item><sku>s").addInt(i % 7).add("</sku><region>r").addInt(i % 3);
+      tb.add("</region></item></order>");
+    }
+    tb.add("<archive><customer id='c3'/></archive></orders>");
+    set(MainOptions.PATHINDEXES, PATHS);
+    execute(new CreateDB(NAME, tb.toString()));
+  }
+
+  /**
+   * Finishes the tests.
+   */
+  @AfterEach public void finish() {
+    set(MainOptions.PATHINDEXES, "");
+    execute(new DropDB(NAME));
+  }
+
+  /**
+   * Declaration with a single key.
+   */
+  @Test public void single() {
+    check("count(//order[customer/@id = 'c3'])", 10, exists(KEY));
+    check("count(//order[customer/@id = ('c3', 'c4')])", 20, exists(KEY));
+    check("count(//order[customer/@id = 'c10'])", 0, empty(KEY));
+    check("(//order[customer/@id = 'c3'])[1]/item/sku/string()", "s3", exists(KEY));
+
+    // customer elements of the archive are not indexed
+    check("count(//customer[@id = 'c3'])", 11, empty(KEY));
+  }
+
+  /**
+   * Declaration with a composite key.
+   */
+  @Test public void composite() {
+    check("count(//item[sku = 's3'][region = 'r1'])", 5, exists(KEY));
+    check("count(//item[region = 'r1'][sku = 's3'])", 5, exists(KEY));
+    check("count(//item[sku = 's3' and region = 'r1'])", 5, exists(KEY));
+    check("count(//item[sku = ('s3', 's4')][region = 'r1'])", 10, exists(KEY));
+    check("count(//item[sku = 's3'][region = 'r1'][not(x)])", 5, exists(KEY));
+    check("count(//order[item/sku = 's3'][item/region = 'r1'])", 5, exists(KEY));
+
+    // dynamic search terms
+    check("sum(for $s in ('s3', 's4') return count(//item[sku = $s][region = 'r1']))", 10,
+        exists(KEY));
+    // one key is missing
+    check("count(//item[sku = 's3'])", 14, empty(KEY));
+  }
+
+  /**
+   * Results are identical with and without path indexes.
+   */
+  @Test public void results() {
+    final String[] queries = {
+      "//order[customer/@id = 'c7']/item/sku/string()",
+      "//item[sku = ('s1', 's2')][region = 'r0']/../customer/@id/string()",
+      "//order[item/sku = 's6'][item/region = 'r2'][customer/@id = 'c5']/item/region/string()"
+    };
+    final String[] results = new String[queries.length];
+    for(int q = 0; q < queries.length; q++) results[q] = query(queries[q]);
+
+    execute(new Close());
+    query(_DB_OPTIMIZE.args(NAME, true, " map { 'pathindexes': '' }"));
+    execute(new Open(NAME));
+    for(int q = 0; q < queries.length; q++) check(queries[q], results[q], empty(KEY));
+    execute(new Close());
+
+    query(_DB_OPTIMIZE.args(NAME, true, " map { 'pathindexes': '" + PATHS + "' }"));
+    execute(new Open(NAME));
+    for(int q = 0; q < queries.length; q++) check(queries[q], results[q], exists(KEY));
+  }
+
+  /**
+   * Updates invalidate the path indexes; they are rebuilt by the next optimization.
+   */
+  @Test public void update() {
+    final String query = "count(//order[customer/@id = 'c3'])";
+    check(query, 10, exists(KEY));
+    query("insert node <order><customer id='c3'/></order> into /orders");
+    check(query, 11, empty(KEY));
+    execute(new Optimize());
+    check(query, 11, exists(KEY));
+  }
+}
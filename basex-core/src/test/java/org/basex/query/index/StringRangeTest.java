@@ -2,6 +2,7 @@ package org.basex.query.index;
 
 import java.util.*;
 
+import org.basex.core.*;
 import org.basex.core.cmd.*;
 import org.basex.core.parse.Commands.CmdIndex;
 import org.basex.query.ast.*;
@@ -87,6 +88,83 @@ public final class StringRangeTest extends QueryPlanTest {
     test("count(//*[text() > '@'])", 900);
   }
 
+  /**
+   * Testing prefix searches.
+   */
+  @Test public void startsWith() {
+    final Class<? extends Expr> clz = StringRangeAccess.class;
+    test("count(//*[starts-with(text(), '99')])", 10, clz);
+    test("count(//*[starts-with(text(), '1')])", 100, clz);
+    test("count(//*[starts-with(text(), '999')])", 1, clz);
+    test("count(//n[starts-with(., '10')])", 10, clz);
+    test("count(//*[starts-with(text(), '9999')])", 0, clz);
+    test("count(//*[matches(text(), '^99')])", 10, clz);
+    test("count(//*[matches(text(), '^9.9')])", 10);
+    test("count(//*[starts-with(text(), '')])", 1801);
+  }
+
+  /**
+   * Values longer than the maximum token length are not indexed: the index is not used.
+   */
+  @Test public void maxlen() {
+    final String db = NAME + "Maxlen";
+    set(MainOptions.MAXLEN, 5);
+    try {
+      execute(new CreateDB(db, "<x><a b='foo'>foo</a><a b='foobarbaz'>foo</a><a>foobarbaz</a></x>"));
+      final String range = empty(StringRangeAccess.class);
+      check("count(//a[starts-with(text(), 'foo')])", 3, range);
+      check("count(//a[starts-with(@b, 'foob')])", 1, range);
+      check("count(//a[matches(@b, '^foob')])", 1, range);
+      check("count(//a[text() >= 'f' and text() < 'g'])", 3, range);
+      check("count(//a[@b >= 'f' and @b < 'g'])", 2, range);
+      execute(new Close());
+      execute(new Open(db));
+      check("count(//a[starts-with(text(), 'foo')])", 3, range);
+    } finally {
+      set(MainOptions.MAXLEN, MainOptions.MAXLEN.value());
+      execute(new DropDB(db));
+    }
+    // lengths of persisted statistics
+    execute(new Open(NAME));
+    execute(new CreateIndex(CmdIndex.TEXT));
+    check("count(//*[starts-with(text(), '99')])", 10, exists(StringRangeAccess.class));
+  }
+
+  /**
+   * Long values only prevent range index access for the names they belong to.
+   */
+  @Test public void maxlenNames() {
+    final String db = NAME + "Maxlen";
+    set(MainOptions.MAXLEN, 5);
+    set(MainOptions.UPDINDEX, true);
+    try {
+      execute(new CreateDB(db, "<x><a b='foobarbaz' c='foo'>foobarbaz</a><d>foo</d></x>"));
+      final String range = exists(StringRangeAccess.class);
+      check("count(//a[starts-with(text(), 'foo')])", 1, empty(StringRangeAccess.class));
+      check("count(//a[starts-with(@b, 'foo')])", 1, empty(StringRangeAccess.class));
+      check("count(//d[starts-with(text(), 'foo')])", 1, range);
+      check("count(//a[starts-with(@c, 'foo')])", 1, range);
+
+      // updates: long values are registered for the names they are added to
+      execute(new XQuery("insert node <d>foo</d> into /x"));
+      check("count(//d[starts-with(text(), 'foo')])", 2, range);
+      execute(new XQuery("insert node <d>foobarbaz</d> into /x"));
+      check("count(//d[starts-with(text(), 'foo')])", 3, empty(StringRangeAccess.class));
+      check("count(//a[starts-with(@c, 'foo')])", 1, range);
+      execute(new XQuery("replace value of node //a/@c with 'foobarbaz'"));
+      check("count(//a[starts-with(@c, 'foo')])", 1, empty(StringRangeAccess.class));
+
+      // lengths are persisted
+      execute(new Close());
+      execute(new Open(db));
+      check("count(//d[starts-with(text(), 'foo')])", 3, empty(StringRangeAccess.class));
+    } finally {
+      set(MainOptions.MAXLEN, MainOptions.MAXLEN.value());
+      set(MainOptions.UPDINDEX, false);
+      execute(new DropDB(db));
+    }
+  }
+
   /**
    * Tests a query with and without index.
    * @param query query
@@ -0,0 +1,65 @@
+package org.basex.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.util.*;
+
+import org.basex.*;
+import org.basex.api.client.*;
+import org.basex.core.*;
+import org.basex.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the client/server session API with a server that uses a selector thread
+ * for idle sessions.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class ClientSelectorTest extends ClientSessionTest {
+  /** Server reference. */
+  private static BaseXServer server;
+
+  /**
+   * Starts the server.
+   * @throws IOException I/O exception
+   */
+  @BeforeAll public static void startServer() throws IOException {
+    Prop.put(StaticOptions.SERVERNIO, Boolean.toString(true));
+    try {
+      server = createServer();
+    } finally {
+      Prop.put(StaticOptions.SERVERNIO, Boolean.toString(false));
+    }
+  }
+
+  /**
+   * Stops the server.
+   * @throws IOException I/O exception
+   */
+  @AfterAll public static void stop() throws IOException {
+    stopServer(server);
+  }
+
+  /**
+   * Runs requests with a larger number of open sessions.
+   * @throws IOException I/O exception
+   */
+  @Test public void sessions() throws IOException {
+    final ArrayList<ClientSession> sessions = new ArrayList<>();
+    try {
+      for(int s = 0; s < 100; s++) sessions.add(createClient());
+      for(int r = 0; r < 3; r++) {
+        int s = 0;
+        for(final ClientSession cs : sessions) {
+          assertEquals(Integer.toString(s + r), cs.query(s++ + " + " + r).execute());
+        }
+      }
+    } finally {
+      for(final ClientSession cs : sessions) cs.close();
+    }
+  }
+}
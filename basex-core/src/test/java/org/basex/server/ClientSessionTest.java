@@ -2,11 +2,19 @@ package org.basex.server;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import static org.basex.query.func.Function.*;
+
 import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
 
 import org.basex.*;
+import org.basex.api.client.*;
+import org.basex.core.*;
+import org.basex.io.in.*;
 import org.basex.util.*;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
 
 /**
  * This class tests the client/server session API.
@@ -44,4 +52,86 @@ public class ClientSessionTest extends SessionTest {
       fail(Util.message(ex));
     }
   }
+
+  /**
+   * Sends commands without waiting for the results.
+   * @throws Exception exception
+   */
+  @Test public void executeAsync() throws Exception {
+    final ClientSession cs = (ClientSession) session;
+    final ArrayList<CompletableFuture<String>> results = new ArrayList<>();
+    for(int i = 0; i < 100; i++) results.add(cs.executeAsync("XQUERY " + i));
+    final CompletableFuture<String> error = cs.executeAsync("XQUERY (");
+    final CompletableFuture<String> last = cs.executeAsync("XQUERY 'X'");
+
+    // synchronous command: wait for pending results
+    assertEqual("Y", cs.execute("XQUERY 'Y'"));
+    for(int i = 0; i < 100; i++) assertEquals(Integer.toString(i), results.get(i).get());
+    final ExecutionException ex = assertThrows(ExecutionException.class, error::get);
+    assertTrue(ex.getCause() instanceof BaseXException);
+    assertEquals("X", last.get());
+  }
+
+  /**
+   * Adds documents without waiting for the results.
+   * @throws Exception exception
+   */
+  @Test public void addAsync() throws Exception {
+    final ClientSession cs = (ClientSession) session;
+    cs.execute("CREATE DB " + NAME);
+    final ArrayList<CompletableFuture<String>> results = new ArrayList<>();
+    for(int i = 0; i < 1000; i++) {
+      results.add(cs.addAsync(NAME + i, new ArrayInput("<X>" + i + "</X>")));
+    }
+    for(final CompletableFuture<String> result : results) result.get();
+    assertEqual("1000", cs.query("count(" + _DB_GET.args(NAME) + ')').execute());
+  }
+
+  /**
+   * Binds values and executes a query without waiting for the results.
+   * @throws Exception exception
+   */
+  @Test public void queryAsync() throws Exception {
+    final ClientQuery query = (ClientQuery) session.query("declare variable $x external; $x * 2");
+    final ArrayList<CompletableFuture<String>> results = new ArrayList<>();
+    for(int i = 0; i < 100; i++) {
+      query.bindAsync("x", Integer.toString(i), "xs:integer");
+      results.add(query.executeAsync());
+    }
+    for(int i = 0; i < 100; i++) assertEquals(Integer.toString(i * 2), results.get(i).get());
+    query.close();
+  }
+
+  /**
+   * Streams a query result.
+   * @throws IOException I/O exception
+   */
+  @Test public void stream() throws IOException {
+    final StringBuilder sb = new StringBuilder();
+    for(int i = 1; i <= 100000; i++) sb.append(i == 1 ? "" : ",").append(i);
+    try(ClientQuery query = (ClientQuery) session.query(
+        "string-join((1 to 100000) ! string(), ',')")) {
+      try(InputStream is = query.stream()) {
+        assertEquals(sb.toString(), new String(is.readAllBytes(), Strings.UTF8));
+      }
+      // skip remaining result
+      final InputStream is = query.stream();
+      assertEquals('1', is.read());
+      assertEqual("X", session.execute("XQUERY 'X'"));
+    }
+  }
+
+  /**
+   * Streams a query result with an error.
+   * @throws IOException I/O exception
+   */
+  @Test public void streamError() throws IOException {
+    try(ClientQuery query = (ClientQuery) session.query(
+        "for $i in 1 to 100000 return if($i = 100000) then error() else $i")) {
+      try(InputStream is = query.stream()) {
+        assertThrows(BaseXException.class, is::readAllBytes);
+      }
+    }
+    assertEqual("X", session.execute("XQUERY 'X'"));
+  }
 }
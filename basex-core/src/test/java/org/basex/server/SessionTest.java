@@ -356,6 +356,27 @@ public abstract class SessionTest extends SandboxTest {
     }
   }
 
+  /**
+   * Runs a prepared query repeatedly.
+   * @throws IOException I/O exception */
+  @Test public void queryBindRepeated() throws IOException {
+    session.execute(new CreateDB(NAME, "<x>1</x>"));
+    try(Query query = session.query("declare variable $a external; " +
+        "declare variable $b := $a * 2; db:get('" + NAME + "')//x + $b")) {
+      query.bind("a", "1", "xs:integer");
+      assertEqual("3", query.execute());
+      query.bind("a", "2", "xs:integer");
+      assertEqual("5", query.execute());
+      session.execute(new XQuery("replace value of node db:get('" + NAME + "')//x with 10"));
+      query.bind("a", "1.5", "xs:double");
+      assertEqual("13", query.execute());
+      session.execute(new DropDB(NAME));
+      session.execute(new CreateDB(NAME, "<x>100</x>"));
+      query.bind("a", "1", "xs:integer");
+      assertEqual("102", query.execute());
+    }
+  }
+
   /** Runs a query with an external variable declaration. */
   @Test public void queryBind2() {
     assertThrows(BaseXException.class,
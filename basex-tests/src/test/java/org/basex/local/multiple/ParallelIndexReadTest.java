@@ -0,0 +1,143 @@
+package org.basex.local.multiple;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.data.*;
+import org.basex.index.*;
+import org.basex.index.query.*;
+import org.basex.util.*;
+import org.basex.util.ft.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class benchmarks concurrent text and full-text index lookups with an increasing number
+ * of threads.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class ParallelIndexReadTest extends SandboxTest {
+  /** Number of elements to be created. */
+  private static final int ELEMENTS = 500000;
+  /** Number of distinct index terms. */
+  private static final int TERMS = 100000;
+  /** Number of index lookups per thread. */
+  private static final int LOOKUPS = 100000;
+  /** Maximum number of threads. */
+  private static final int THREADS = 32;
+
+  /**
+   * Initializes the test database.
+   */
+  @BeforeAll public static void initDB() {
+    set(MainOptions.FTINDEX, true);
+    execute(new CreateDB(NAME));
+    execute(new XQuery("db:add('" + NAME + "', <X>{ (1 to " + ELEMENTS + ") ! " +
+        "<A>{ 'w' || . mod " + TERMS + " }</A> }</X>, 'doc.xml')"));
+    execute(new Optimize());
+    execute(new Close());
+  }
+
+  /**
+   * Drops the test database.
+   */
+  @AfterAll public static void finishDB() {
+    execute(new DropDB(NAME));
+    set(MainOptions.FTINDEX, false);
+  }
+
+  /**
+   * Performs random text index lookups with 1 to 32 threads and prints the throughput.
+   * @throws Exception exception
+   */
+  @Test public void text() throws Exception {
+    run(false);
+  }
+
+  /**
+   * Performs random full-text index lookups with 1 to 32 threads and prints the throughput.
+   * @throws Exception exception
+   */
+  @Test public void fulltext() throws Exception {
+    run(true);
+  }
+
+  /**
+   * Performs random lookups and prints the throughput.
+   * @param ft full-text lookups
+   * @throws Exception exception
+   */
+  private static void run(final boolean ft) throws Exception {
+    execute(new Open(NAME));
+    final Data data = context.data();
+    for(int threads = 1; threads <= THREADS; threads <<= 1) {
+      final Reader[] readers = new Reader[threads];
+      for(int t = 0; t < threads; t++) readers[t] = new Reader(data, t, ft);
+
+      final Performance perf = new Performance();
+      for(final Reader reader : readers) reader.start();
+      for(final Reader reader : readers) reader.join();
+      final long nano = perf.ns();
+
+      long results = 0;
+      for(final Reader reader : readers) results += reader.results;
+      assertEquals((long) threads * LOOKUPS * ELEMENTS / TERMS, results);
+
+      final long lookups = (long) threads * LOOKUPS;
+      Util.outln(threads + " thread(s): " + lookups * 1000000000L / nano + " lookups/s, " +
+          Performance.getTime(nano, 1));
+    }
+    execute(new Close());
+  }
+
+  /** Single reader. */
+  private static final class Reader extends Thread {
+    /** Data reference. */
+    private final Data data;
+    /** Random number generator. */
+    private final Random rnd;
+    /** Full-text lookups. */
+    private final boolean ft;
+    /** Number of results. */
+    long results;
+
+    /**
+     * Constructor.
+     * @param data data reference
+     * @param seed seed
+     * @param ft full-text lookups
+     */
+    Reader(final Data data, final int seed, final boolean ft) {
+      this.data = data;
+      this.ft = ft;
+      rnd = new Random(seed);
+    }
+
+    @Override
+    public void run() {
+      final FTLexer lexer = new FTLexer(new FTOpt());
+      for(int l = 0; l < LOOKUPS; l++) {
+        final byte[] token = Token.token("w" + rnd.nextInt(TERMS));
+        final IndexSearch search;
+        if(ft) {
+          lexer.init(token);
+          lexer.hasNext();
+          lexer.nextToken();
+          search = lexer;
+        } else {
+          search = new StringToken(IndexType.TEXT, token);
+        }
+        for(final IndexIterator iter = data.iter(search); iter.more();) {
+          iter.pre();
+          results++;
+        }
+      }
+    }
+  }
+}
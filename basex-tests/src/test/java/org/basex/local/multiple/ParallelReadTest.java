@@ -0,0 +1,101 @@
+package org.basex.local.multiple;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.basex.*;
+import org.basex.core.cmd.*;
+import org.basex.data.*;
+import org.basex.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class benchmarks concurrent table reads with an increasing number of threads.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class ParallelReadTest extends SandboxTest {
+  /** Number of elements to be created. */
+  private static final int ELEMENTS = 1000000;
+  /** Number of table lookups per thread. */
+  private static final int LOOKUPS = 1000000;
+  /** Maximum number of threads. */
+  private static final int THREADS = 32;
+
+  /**
+   * Initializes the test database.
+   */
+  @BeforeAll public static void initDB() {
+    execute(new CreateDB(NAME));
+    execute(new XQuery("db:add('" + NAME + "', <X>{ " +
+        "(1 to " + ELEMENTS + ") ! <A id='{ . }'>{ . }</A> }</X>, 'doc.xml')"));
+    execute(new Close());
+  }
+
+  /**
+   * Drops the test database.
+   */
+  @AfterAll public static void finishDB() {
+    execute(new DropDB(NAME));
+  }
+
+  /**
+   * Performs random lookups with 1 to 32 threads and prints the throughput.
+   * @throws Exception exception
+   */
+  @Test public void randomLookups() throws Exception {
+    execute(new Open(NAME));
+    final Data data = context.data();
+    for(int threads = 1; threads <= THREADS; threads <<= 1) {
+      final Reader[] readers = new Reader[threads];
+      for(int t = 0; t < threads; t++) readers[t] = new Reader(data, t);
+
+      final Performance perf = new Performance();
+      for(final Reader reader : readers) reader.start();
+      for(final Reader reader : readers) reader.join();
+      final long nano = perf.ns();
+
+      long checksum = 0;
+      for(final Reader reader : readers) checksum += reader.checksum;
+      assertTrue(checksum > 0);
+
+      final long lookups = (long) threads * LOOKUPS;
+      Util.outln(threads + " thread(s): " + lookups * 1000000000L / nano + " lookups/s, " +
+          Performance.getTime(nano, 1));
+    }
+    execute(new Close());
+  }
+
+  /** Single reader. */
+  private static final class Reader extends Thread {
+    /** Data reference. */
+    private final Data data;
+    /** Random number generator. */
+    private final Random rnd;
+    /** Checksum. */
+    long checksum;
+
+    /**
+     * Constructor.
+     * @param data data reference
+     * @param seed seed
+     */
+    Reader(final Data data, final int seed) {
+      this.data = data;
+      rnd = new Random(seed);
+    }
+
+    @Override
+    public void run() {
+      final int size = data.meta.size;
+      for(int l = 0; l < LOOKUPS; l++) {
+        final int pre = rnd.nextInt(size);
+        final int kind = data.kind(pre);
+        checksum += data.parent(pre, kind) + data.size(pre, kind);
+      }
+    }
+  }
+}
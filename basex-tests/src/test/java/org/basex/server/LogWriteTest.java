@@ -0,0 +1,77 @@
+package org.basex.server;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.StaticOptions.*;
+import org.basex.io.*;
+import org.basex.server.Log.*;
+import org.basex.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class compares the throughput of synchronous and buffered logging.
+ * Log entries are written by several threads in parallel.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class LogWriteTest extends SandboxTest {
+  /** Number of threads. */
+  private static final int THREADS = 8;
+  /** Number of entries per thread. */
+  private static final int ENTRIES = 50000;
+
+  /** Synchronous logging. */
+  @Test public void sync() {
+    run(0, LogFormat.TEXT);
+  }
+
+  /** Buffered logging. */
+  @Test public void buffered() {
+    run(4096, LogFormat.TEXT);
+  }
+
+  /** Buffered logging, JSON format. */
+  @Test public void bufferedJson() {
+    run(4096, LogFormat.JSON);
+  }
+
+  /**
+   * Runs the test.
+   * @param size buffer size
+   * @param format log format
+   */
+  private static void run(final int size, final LogFormat format) {
+    final StaticOptions sopts = new StaticOptions(false);
+    sopts.set(StaticOptions.LOGBUFFER, size);
+    sopts.set(StaticOptions.LOGFORMAT, format);
+    final Log log = new Log(sopts);
+    try {
+      final Thread[] threads = new Thread[THREADS];
+      for(int t = 0; t < THREADS; t++) {
+        threads[t] = new Thread(() -> {
+          for(int e = 0; e < ENTRIES; e++) {
+            log.write(LogType.INFO, "entry " + e, null, "127.0.0.1:1984", context);
+          }
+        });
+      }
+      final Performance perf = new Performance();
+      for(final Thread thread : threads) thread.start();
+      for(final Thread thread : threads) {
+        try {
+          thread.join();
+        } catch(final InterruptedException ex) {
+          throw new AssertionError(ex);
+        }
+      }
+      final String time = perf.getTime();
+      log.close();
+      Util.outln("Buffer: " + size + ", format: " + format + ": " + THREADS * ENTRIES +
+          " entries written in " + time + " (" + perf.getTime() + " for closing)");
+    } finally {
+      log.close();
+      for(final IOFile file : log.files()) file.delete();
+    }
+  }
+}
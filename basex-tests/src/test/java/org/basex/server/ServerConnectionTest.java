@@ -0,0 +1,122 @@
+package org.basex.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.*;
+import java.util.*;
+
+import org.basex.*;
+import org.basex.api.client.*;
+import org.basex.core.*;
+import org.basex.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class compares the server with one thread per session and the server with a selector
+ * thread for idle sessions. A large number of idle sessions is opened, and the number of threads
+ * and the latency of requests sent by some active sessions are printed.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class ServerConnectionTest extends SandboxTest {
+  /** Number of idle sessions. */
+  private static final int IDLE = 2000;
+  /** Number of active sessions. */
+  private static final int ACTIVE = 8;
+  /** Number of requests per active session. */
+  private static final int REQUESTS = 2000;
+
+  /**
+   * Runs the test with one thread per session.
+   * @throws Exception exception
+   */
+  @Test public void threads() throws Exception {
+    run(false);
+  }
+
+  /**
+   * Runs the test with a selector thread.
+   * @throws Exception exception
+   */
+  @Test public void selector() throws Exception {
+    run(true);
+  }
+
+  /**
+   * Runs the test.
+   * @param nio server mode
+   * @throws Exception exception
+   */
+  private static void run(final boolean nio) throws Exception {
+    Prop.put(StaticOptions.SERVERNIO, Boolean.toString(nio));
+    final BaseXServer server;
+    try {
+      server = createServer();
+    } finally {
+      Prop.put(StaticOptions.SERVERNIO, Boolean.toString(false));
+    }
+
+    final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    final ArrayList<ClientSession> idle = new ArrayList<>(IDLE);
+    try {
+      final int before = threads.getThreadCount();
+      Performance perf = new Performance();
+      for(int i = 0; i < IDLE; i++) idle.add(createClient());
+      Util.outln((nio ? "Selector" : "Threads") + ": " + IDLE + " sessions opened in " +
+          perf.getTime() + ", " + (threads.getThreadCount() - before) + " new threads");
+
+      final Client[] clients = new Client[ACTIVE];
+      for(int c = 0; c < ACTIVE; c++) clients[c] = new Client();
+      perf = new Performance();
+      for(final Client client : clients) client.start();
+      for(final Client client : clients) client.join();
+      final long nano = perf.ns();
+
+      long max = 0;
+      for(final Client client : clients) {
+        assertNull(client.error);
+        max = Math.max(max, client.max);
+      }
+      final long requests = (long) ACTIVE * REQUESTS;
+      Util.outln("- " + requests + " requests: " + Performance.getTime(nano / requests, 1) +
+          " (average), " + Performance.getTime(max, 1) + " (maximum)");
+    } finally {
+      for(final ClientSession cs : idle) cs.close();
+      stopServer(server);
+    }
+  }
+
+  /** Active client. */
+  private static final class Client extends Thread {
+    /** Client session. */
+    private final ClientSession session;
+    /** Maximum latency. */
+    long max;
+    /** Error (can be {@code null}). */
+    Exception error;
+
+    /**
+     * Constructor.
+     * @throws Exception exception
+     */
+    Client() throws Exception {
+      session = createClient();
+    }
+
+    @Override
+    public void run() {
+      try {
+        for(int r = 0; r < REQUESTS; r++) {
+          final long start = System.nanoTime();
+          assertEquals(Integer.toString(r), session.query(Integer.toString(r)).execute());
+          max = Math.max(max, System.nanoTime() - start);
+        }
+        session.close();
+      } catch(final Exception ex) {
+        error = ex;
+      }
+    }
+  }
+}
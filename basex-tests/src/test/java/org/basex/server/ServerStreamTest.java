@@ -0,0 +1,99 @@
+package org.basex.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+
+import org.basex.*;
+import org.basex.api.client.*;
+import org.basex.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class compares the throughput of large query results that are either sent with the
+ * encoded result protocol or streamed in chunks.
+ *
+ * @author BaseX Team 2005-22, BSD License
+ * @author Christian Gruen
+ */
+public final class ServerStreamTest extends SandboxTest {
+  /** Number of result strings (100 bytes each). */
+  private static final int ITEMS = 10000000;
+  /** Query to be run. */
+  private static final String QUERY = "(1 to " + ITEMS + ") ! string-join((1 to 10) ! " +
+      "format-integer(. mod 10, '0000000000'))";
+  /** Server reference. */
+  private static BaseXServer server;
+
+  /**
+   * Starts the server.
+   * @throws IOException I/O exception
+   */
+  @BeforeAll public static void start() throws IOException {
+    server = createServer();
+  }
+
+  /**
+   * Stops the server.
+   * @throws IOException I/O exception
+   */
+  @AfterAll public static void stop() throws IOException {
+    stopServer(server);
+  }
+
+  /**
+   * Sends the result with the encoded protocol.
+   * @throws IOException I/O exception
+   */
+  @Test public void execute() throws IOException {
+    try(ClientSession cs = createClient()) {
+      final CountOutput out = new CountOutput();
+      cs.setOutputStream(out);
+      final Performance perf = new Performance();
+      try(Query query = cs.query(QUERY)) {
+        query.execute();
+      }
+      print("Encoded", out.bytes, perf.ns());
+    }
+  }
+
+  /**
+   * Streams the result in chunks.
+   * @throws IOException I/O exception
+   */
+  @Test public void stream() throws IOException {
+    try(ClientSession cs = createClient()) {
+      final Performance perf = new Performance();
+      long bytes = 0;
+      try(ClientQuery query = cs.query(QUERY); InputStream is = query.stream()) {
+        final byte[] buffer = new byte[1 << 16];
+        for(int r; (r = is.read(buffer)) != -1;) bytes += r;
+      }
+      print("Chunked", bytes, perf.ns());
+    }
+  }
+
+  /**
+   * Prints the throughput and the memory consumption.
+   * @param mode mode
+   * @param bytes number of bytes
+   * @param nano time needed
+   */
+  private static void print(final String mode, final long bytes, final long nano) {
+    assertEquals((long) ITEMS * 100 + ITEMS - 1, bytes);
+    Util.outln(mode + ": " + (bytes >> 20) + " MB, " + Performance.getTime(nano, 1) + ", " +
+        bytes * 1000 / Math.max(1, nano) + " MB/s, " + Performance.getMemory() + " memory");
+  }
+
+  /** Output stream that counts the written bytes. */
+  private static final class CountOutput extends OutputStream {
+    /** Number of bytes. */
+    private long bytes;
+
+    @Override
+    public void write(final int b) {
+      bytes++;
+    }
+  }
+}